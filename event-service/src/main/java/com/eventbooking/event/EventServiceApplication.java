@@ -3,8 +3,10 @@ package com.eventbooking.event;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {"com.eventbooking.event", "com.eventbooking.common"})
 public class EventServiceApplication {
     public static void main(String[] args) {
@@ -0,0 +1,47 @@
+package com.eventbooking.event.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Calls the Payment Service API.
+ */
+@Component
+public class PaymentServiceClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceClient.class);
+    
+    private final RestTemplate restTemplate;
+    
+    @Value("${services.payment-service.url:http://localhost:8084}")
+    private String paymentServiceUrl;
+    
+    @Autowired
+    public PaymentServiceClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+    
+    /**
+     * Asks the Payment Service to refund every confirmed order of a cancelled event. The
+     * request is idempotent per event, so repeating it after a failure cannot refund twice.
+     *
+     * @throws RestClientException if the Payment Service did not accept the request
+     */
+    public void requestEventRefunds(UUID eventId, String reason) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("eventId", eventId);
+        body.put("reason", reason);
+        
+        restTemplate.postForLocation(paymentServiceUrl + "/api/payments/refund-jobs", body);
+        logger.info("Requested refunds for cancelled event {}", eventId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.eventbooking.event.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write splitting, enabled with event.datasource.replica.enabled. Without it the
+ * auto-configured single DataSource is used unchanged. Each pool is its own Hikari bean, so
+ * pool metrics and health are reported per pool (event-primary, event-replica).
+ * <p>
+ * Hibernate normally keeps a session's connection until the session closes, and with
+ * open-in-view the session spans the whole request, so every transaction after the first
+ * would reuse whichever pool the first one picked. Connections are therefore handed back
+ * after each transaction, letting every transaction be routed on its own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "event.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("event-primary");
+        return dataSource;
+    }
+    
+    // Credentials default to the primary's, so usually only the URL differs; the driver follows the URL
+    @Bean
+    @ConfigurationProperties("event.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${event.datasource.replica.url}") String url,
+            @Value("${event.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${event.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("event-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${event.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${event.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+            MeterRegistry meterRegistry) {
+        // An embedded stand-in replica (no pg_* functions) can set lag-query to "SELECT 0"
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource,
+            lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery, maxLagSeconds, meterRegistry);
+        // Checked once up front so reads can use the replica from the first request
+        monitor.check();
+        return monitor;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        // The transaction's read-only flag is only known once it has begun, so defer picking a pool
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -1,10 +1,14 @@
 package com.eventbooking.event.config;
 
+import com.eventbooking.event.service.ReferenceDataRefresher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -26,4 +30,29 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+    
+    // Raw bytes in and out, for values that are already serialized (and compressed)
+    @Bean
+    public RedisTemplate<String, byte[]> snapshotRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        
+        template.afterPropertiesSet();
+        return template;
+    }
+    
+    // Delivers reference-data change announcements to the local snapshots
+    @Bean
+    public RedisMessageListenerContainer referenceDataListenerContainer(
+            RedisConnectionFactory connectionFactory, ReferenceDataRefresher referenceDataRefresher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(referenceDataRefresher, new ChannelTopic(ReferenceDataRefresher.CHANNEL));
+        return container;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.eventbooking.event.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replication lag. The replica only takes reads while the last check
+ * succeeded and the lag was within the threshold; until the first check it is not used.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    /**
+     * Seconds the replica is behind: zero when it has replayed everything it received (an idle
+     * primary sends nothing, so the last replay time alone would overstate lag), otherwise the age
+     * of the last replayed transaction. Also zero on a server that is not a standby.
+     */
+    public static final String POSTGRES_LAG_QUERY = """
+        SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)
+        """;
+    
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+    
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaUsable;
+    
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("event.datasource.replica.lag.seconds", this, monitor -> monitor.lagSeconds)
+            .register(meterRegistry);
+        Gauge.builder("event.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+            .register(meterRegistry);
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+    
+    @Scheduled(fixedDelayString = "${event.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = replicaUsable;
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            lagSeconds = lag != null ? lag.doubleValue() : 0;
+            replicaUsable = lagSeconds <= maxLagSeconds;
+            if (wasUsable && !replicaUsable) {
+                logger.warn("Replica is {}s behind (limit {}s), reading from the primary", lagSeconds, maxLagSeconds);
+            } else if (!wasUsable && replicaUsable) {
+                logger.info("Replica is {}s behind, serving read-only transactions from it", lagSeconds);
+            }
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            replicaUsable = false;
+            if (wasUsable) {
+                logger.warn("Replica lag check failed, reading from the primary", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventbooking.event.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary. Reads
+ * stay on the primary for the rest of a request that has already written (read-your-writes),
+ * and whenever the replica lags or cannot be checked. Must sit behind a
+ * LazyConnectionDataSourceProxy so the read-only flag is set before a connection is chosen.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Pool {
+        PRIMARY,
+        REPLICA
+    }
+    
+    // Why a connection went where it did; each has a counter tagged with pool and reason
+    enum Route {
+        WRITE(Pool.PRIMARY),
+        READ_YOUR_WRITES(Pool.PRIMARY),
+        REPLICA_UNAVAILABLE(Pool.PRIMARY),
+        READ(Pool.REPLICA);
+        
+        private final Pool pool;
+        
+        Route(Pool pool) {
+            this.pool = pool;
+        }
+    }
+    
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+    
+    private final ReplicaLagMonitor lagMonitor;
+    private final Map<Route, Counter> routed = new EnumMap<>(Route.class);
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        for (Route route : Route.values()) {
+            routed.put(route, meterRegistry.counter("event.datasource.connections.routed",
+                "pool", route.pool.name().toLowerCase(), "reason", route.name().toLowerCase()));
+        }
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        routed.get(route).increment();
+        return route.pool;
+    }
+    
+    Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWrite();
+            return Route.WRITE;
+        }
+        if (wroteInThisRequest()) {
+            return Route.READ_YOUR_WRITES;
+        }
+        return lagMonitor.isReplicaUsable() ? Route.READ : Route.REPLICA_UNAVAILABLE;
+    }
+    
+    // Outside a web request (schedulers, async exports) there is nothing to remember the write on
+    private static void markWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    private static boolean wroteInThisRequest() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eventbooking.event.controller;
+
+import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.model.DiscoverySignal;
+import com.eventbooking.event.service.DiscoveryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/discovery")
+@CrossOrigin(origins = "*")
+public class DiscoveryController {
+    
+    private final DiscoveryService discoveryService;
+    
+    @Autowired
+    public DiscoveryController(DiscoveryService discoveryService) {
+        this.discoveryService = discoveryService;
+    }
+    
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<EventDto>>> getTrendingEvents(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) UUID category,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(discoveryService.getTrending(city, category, limit)));
+    }
+    
+    @GetMapping("/popular")
+    public ResponseEntity<ApiResponse<List<EventDto>>> getPopularEvents(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) UUID category,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(discoveryService.getPopular(city, category, limit)));
+    }
+    
+    @GetMapping("/events/{eventId}/similar")
+    public ResponseEntity<ApiResponse<List<EventDto>>> getSimilarEvents(
+            @PathVariable UUID eventId,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(discoveryService.getSimilar(eventId, limit)));
+    }
+    
+    // Sent by the client when a search result is opened
+    @PostMapping("/events/{eventId}/search-clicks")
+    public ResponseEntity<Void> recordSearchClick(@PathVariable UUID eventId) {
+        discoveryService.record(eventId, DiscoverySignal.SEARCH_CLICK, 1);
+        return ResponseEntity.accepted().build();
+    }
+}
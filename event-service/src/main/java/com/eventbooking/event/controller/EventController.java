@@ -2,23 +2,40 @@ package com.eventbooking.event.controller;
 
 import com.eventbooking.common.dto.ApiResponse;
 import com.eventbooking.common.util.JwtUtil;
+import com.eventbooking.event.dto.BulkImportResult;
 import com.eventbooking.event.dto.CreateEventRequest;
+import com.eventbooking.event.dto.CursorPage;
 import com.eventbooking.event.dto.EventDto;
-import com.eventbooking.event.dto.ImageUploadResponse;
+import com.eventbooking.event.dto.ImageJobDto;
+import com.eventbooking.event.dto.PriceRangeRequest;
 import com.eventbooking.event.dto.UpdateEventRequest;
+import com.eventbooking.event.model.BulkFormat;
+import com.eventbooking.event.model.DiscoverySignal;
+import com.eventbooking.event.model.ListingSnapshot;
+import com.eventbooking.event.service.DiscoveryService;
+import com.eventbooking.event.service.EventBulkService;
 import com.eventbooking.event.service.EventService;
 import com.eventbooking.event.service.ImageService;
+import com.eventbooking.event.service.ListingSnapshotService;
+import com.eventbooking.event.util.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -28,12 +45,24 @@ public class EventController {
     
     private final EventService eventService;
     private final ImageService imageService;
+    private final ListingSnapshotService listingSnapshotService;
+    private final DiscoveryService discoveryService;
+    private final EventBulkService eventBulkService;
     private final JwtUtil jwtUtil;
     
     @Autowired
-    public EventController(EventService eventService, ImageService imageService, JwtUtil jwtUtil) {
+    public EventController(
+            EventService eventService,
+            ImageService imageService,
+            ListingSnapshotService listingSnapshotService,
+            DiscoveryService discoveryService,
+            EventBulkService eventBulkService,
+            JwtUtil jwtUtil) {
         this.eventService = eventService;
         this.imageService = imageService;
+        this.listingSnapshotService = listingSnapshotService;
+        this.discoveryService = discoveryService;
+        this.eventBulkService = eventBulkService;
         this.jwtUtil = jwtUtil;
     }
     
@@ -49,9 +78,23 @@ public class EventController {
             .body(ApiResponse.success(event));
     }
     
+    // Streams NDJSON or CSV rows; row errors are reported in the result rather than failing the request
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<BulkImportResult>> importEvents(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader("Authorization") String authHeader) throws IOException {
+        
+        UUID organizerId = extractUserIdFromToken(authHeader);
+        BulkImportResult result = eventBulkService.importEvents(body, BulkFormat.fromContentType(contentType), organizerId);
+        
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+    
     @GetMapping("/{eventId}")
     public ResponseEntity<ApiResponse<EventDto>> getEvent(@PathVariable UUID eventId) {
         EventDto event = eventService.getEventById(eventId);
+        discoveryService.record(eventId, DiscoverySignal.VIEW, 1);
         return ResponseEntity.ok(ApiResponse.success(event));
     }
     
@@ -85,9 +128,44 @@ public class EventController {
     }
     
     @GetMapping("/upcoming")
-    public ResponseEntity<ApiResponse<Page<EventDto>>> getUpcomingEvents(Pageable pageable) {
-        Page<EventDto> events = eventService.getUpcomingEvents(pageable);
-        return ResponseEntity.ok(ApiResponse.success(events));
+    public ResponseEntity<?> getUpcomingEvents(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        Optional<ListingSnapshot> snapshot = listingSnapshotService.getUpcoming(pageable);
+        if (snapshot.isPresent()) {
+            return serveSnapshot(snapshot.get(), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(ApiResponse.success(eventService.getUpcomingEvents(pageable)));
+    }
+    
+    @GetMapping("/upcoming/categories/{categoryId}")
+    public ResponseEntity<?> getUpcomingEventsByCategory(
+            @PathVariable UUID categoryId,
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        Optional<ListingSnapshot> snapshot = listingSnapshotService.getUpcomingByCategory(categoryId, pageable);
+        if (snapshot.isPresent()) {
+            return serveSnapshot(snapshot.get(), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(ApiResponse.success(eventService.getUpcomingEventsByCategory(categoryId, pageable)));
+    }
+    
+    @GetMapping("/upcoming/cities/{city}")
+    public ResponseEntity<?> getUpcomingEventsByCity(
+            @PathVariable String city,
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        Optional<ListingSnapshot> snapshot = listingSnapshotService.getUpcomingByCity(city, pageable);
+        if (snapshot.isPresent()) {
+            return serveSnapshot(snapshot.get(), ifNoneMatch, acceptEncoding);
+        }
+        return ResponseEntity.ok(ApiResponse.success(eventService.getUpcomingEventsByCity(city, pageable)));
     }
     
     @GetMapping("/organizer")
@@ -101,6 +179,54 @@ public class EventController {
         return ResponseEntity.ok(ApiResponse.success(events));
     }
     
+    @GetMapping("/organizer/export")
+    public ResponseEntity<StreamingResponseBody> exportOrganizerEvents(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "NDJSON") BulkFormat format) {
+        
+        UUID organizerId = extractUserIdFromToken(authHeader);
+        StreamingResponseBody body = output -> eventBulkService.exportEvents(organizerId, format, output);
+        String filename = "events." + format.name().toLowerCase(Locale.ROOT);
+        
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+    
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<EventDto>>> scrollPublishedEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        CursorPage<EventDto> events = eventService.scrollPublishedEvents(cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(events));
+    }
+    
+    @GetMapping("/upcoming/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<EventDto>>> scrollUpcomingEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        CursorPage<EventDto> events = eventService.scrollUpcomingEvents(cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(events));
+    }
+    
+    @GetMapping("/organizer/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<EventDto>>> scrollOrganizerEvents(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        UUID organizerId = extractUserIdFromToken(authHeader);
+        CursorPage<EventDto> events = eventService.scrollEventsByOrganizer(organizerId, cursor, size, includeTotal);
+        
+        return ResponseEntity.ok(ApiResponse.success(events));
+    }
+    
     @PostMapping("/{eventId}/publish")
     public ResponseEntity<ApiResponse<EventDto>> publishEvent(
             @PathVariable UUID eventId,
@@ -124,30 +250,26 @@ public class EventController {
     }
     
     @PostMapping(value = "/{eventId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<ImageUploadResponse>> uploadEventImage(
+    public ResponseEntity<ApiResponse<ImageJobDto>> uploadEventImage(
             @PathVariable UUID eventId,
             @RequestParam("image") MultipartFile image,
             @RequestHeader("Authorization") String authHeader) throws IOException {
         
         UUID organizerId = extractUserIdFromToken(authHeader);
         
-        // Upload image to S3
-        String s3Url = imageService.uploadEventImage(image, eventId);
-        
-        // Update event with image URL
-        EventDto event = eventService.updateEventImage(eventId, s3Url, organizerId);
+        // Renditions are produced in the background; poll the job for the resulting URLs
+        ImageJobDto job = imageService.submitEventImage(image, eventId, organizerId);
         
-        // Get CDN URL
-        String cdnUrl = imageService.getCdnUrl(s3Url);
-        
-        ImageUploadResponse response = new ImageUploadResponse(
-            s3Url,
-            cdnUrl,
-            image.getOriginalFilename(),
-            image.getSize()
-        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+    }
+    
+    @GetMapping("/{eventId}/image/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ImageJobDto>> getImageJob(
+            @PathVariable UUID eventId,
+            @PathVariable UUID jobId) {
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        ImageJobDto job = imageService.getImageJob(eventId, jobId);
+        return ResponseEntity.ok(ApiResponse.success(job));
     }
     
     @DeleteMapping("/{eventId}/image")
@@ -178,8 +300,48 @@ public class EventController {
         return ResponseEntity.ok(event);
     }
     
+    @PutMapping("/internal/{eventId}/price-range")
+    public ResponseEntity<EventDto> updatePriceRange(
+            @PathVariable UUID eventId,
+            @Valid @RequestBody PriceRangeRequest request) {
+        EventDto event = eventService.updatePriceRange(eventId, request);
+        return ResponseEntity.ok(event);
+    }
+    
+    @PostMapping("/internal/{eventId}/reservations")
+    public ResponseEntity<Void> recordReservation(
+            @PathVariable UUID eventId,
+            @RequestParam(defaultValue = "1") int quantity) {
+        discoveryService.record(eventId, DiscoverySignal.RESERVATION, quantity);
+        return ResponseEntity.accepted().build();
+    }
+    
     private UUID extractUserIdFromToken(String authHeader) {
         String token = authHeader.replace("Bearer ", "");
         return jwtUtil.extractUserId(token);
     }
+    
+    // Writes the pre-compressed page as is; clients revalidate with the ETag instead of refetching
+    private ResponseEntity<?> serveSnapshot(ListingSnapshot snapshot, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String eTag = gzip ? snapshot.getGzipETag() : snapshot.getIdentityETag();
+        
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzippedBody());
+        }
+        return response.body(snapshot.getBody());
+    }
 }
\ No newline at end of file
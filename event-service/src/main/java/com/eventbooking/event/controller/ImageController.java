@@ -0,0 +1,58 @@
+package com.eventbooking.event.controller;
+
+import com.eventbooking.event.model.ImageVariant;
+import com.eventbooking.event.service.ImageService;
+import com.eventbooking.event.util.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin(origins = "*")
+public class ImageController {
+    
+    // Variants are content-addressed, so a URL's bytes never change
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    
+    private final ImageService imageService;
+    
+    @Autowired
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+    
+    @GetMapping("/{sourceHash}")
+    public ResponseEntity<Resource> getImage(
+            @PathVariable String sourceHash,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestParam(name = "fmt", required = false) String format,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) throws IOException {
+        
+        ImageVariant variant = imageService.resolveVariant(sourceHash, width, format);
+        
+        // The ETag is known before touching storage, so revalidation never renders or reads anything
+        if (ETags.matches(ifNoneMatch, variant.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(variant.getETag())
+                .cacheControl(IMMUTABLE)
+                .build();
+        }
+        
+        Path file = imageService.getVariantFile(variant);
+        return ResponseEntity.ok()
+            .eTag(variant.getETag())
+            .cacheControl(IMMUTABLE)
+            .contentType(MediaType.parseMediaType(variant.getContentType()))
+            .body(new FileSystemResource(file));
+    }
+}
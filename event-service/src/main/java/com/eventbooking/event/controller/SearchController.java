@@ -1,6 +1,7 @@
 package com.eventbooking.event.controller;
 
 import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.event.dto.CursorPage;
 import com.eventbooking.event.dto.EventDto;
 import com.eventbooking.event.dto.SearchCriteria;
 import com.eventbooking.event.dto.SearchSuggestionsDto;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -37,21 +39,53 @@ public class SearchController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateTo,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "ANY") SearchCriteria.TagMatch tagMatch,
             Pageable pageable) {
         
-        SearchCriteria criteria = new SearchCriteria();
-        criteria.setQuery(query);
-        criteria.setCity(city);
-        criteria.setCategoryId(category);
-        criteria.setDateFrom(dateFrom);
-        criteria.setDateTo(dateTo);
-        criteria.setMinPrice(minPrice);
-        criteria.setMaxPrice(maxPrice);
+        SearchCriteria criteria = buildCriteria(query, city, category, dateFrom, dateTo, minPrice, maxPrice);
+        criteria.setLatitude(lat);
+        criteria.setLongitude(lon);
+        criteria.setRadiusKm(radiusKm);
+        criteria.setTags(tags);
+        criteria.setTagMatch(tagMatch);
         
         Page<EventDto> events = searchService.searchEvents(criteria, pageable);
         return ResponseEntity.ok(ApiResponse.success(events));
     }
     
+    @GetMapping("/search/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<EventDto>>> scrollSearchEvents(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) UUID category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateTo,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "ANY") SearchCriteria.TagMatch tagMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        SearchCriteria criteria = buildCriteria(query, city, category, dateFrom, dateTo, minPrice, maxPrice);
+        criteria.setLatitude(lat);
+        criteria.setLongitude(lon);
+        criteria.setRadiusKm(radiusKm);
+        criteria.setTags(tags);
+        criteria.setTagMatch(tagMatch);
+        
+        CursorPage<EventDto> events = searchService.scrollEvents(criteria, cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(events));
+    }
+    
     @GetMapping("/suggestions")
     public ResponseEntity<ApiResponse<SearchSuggestionsDto>> getSearchSuggestions(
             @RequestParam String query) {
@@ -59,4 +93,17 @@ public class SearchController {
         SearchSuggestionsDto suggestions = searchService.getSearchSuggestions(query);
         return ResponseEntity.ok(ApiResponse.success(suggestions));
     }
+    
+    private SearchCriteria buildCriteria(String query, String city, UUID category, LocalDateTime dateFrom,
+                                         LocalDateTime dateTo, BigDecimal minPrice, BigDecimal maxPrice) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setQuery(query);
+        criteria.setCity(city);
+        criteria.setCategoryId(category);
+        criteria.setDateFrom(dateFrom);
+        criteria.setDateTo(dateTo);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        return criteria;
+    }
 }
\ No newline at end of file
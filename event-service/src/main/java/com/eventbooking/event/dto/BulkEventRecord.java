@@ -0,0 +1,187 @@
+package com.eventbooking.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One event row of a bulk import or export. Flat, with the venue inlined, so the same shape
+ * serves as an NDJSON line and as a CSV row.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkEventRecord {
+    
+    private UUID id; // Export only; ignored on import
+    private String status; // Export only; imported events start as drafts
+    
+    private String name;
+    private String description;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime eventDate;
+    private UUID categoryId;
+    private Integer maxCapacity;
+    private List<String> tags;
+    
+    private String venueName;
+    private String venueAddress;
+    private String venueCity;
+    private String venueState;
+    private String venueZipCode;
+    private String venueCountry;
+    private BigDecimal venueLatitude;
+    private BigDecimal venueLongitude;
+    private Integer venueMaxCapacity;
+    private String venueType;
+    
+    // Default constructor
+    public BulkEventRecord() {}
+    
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+    
+    public void setEventDate(LocalDateTime eventDate) {
+        this.eventDate = eventDate;
+    }
+    
+    public UUID getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(UUID categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+    
+    public void setMaxCapacity(Integer maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    
+    public String getVenueName() {
+        return venueName;
+    }
+    
+    public void setVenueName(String venueName) {
+        this.venueName = venueName;
+    }
+    
+    public String getVenueAddress() {
+        return venueAddress;
+    }
+    
+    public void setVenueAddress(String venueAddress) {
+        this.venueAddress = venueAddress;
+    }
+    
+    public String getVenueCity() {
+        return venueCity;
+    }
+    
+    public void setVenueCity(String venueCity) {
+        this.venueCity = venueCity;
+    }
+    
+    public String getVenueState() {
+        return venueState;
+    }
+    
+    public void setVenueState(String venueState) {
+        this.venueState = venueState;
+    }
+    
+    public String getVenueZipCode() {
+        return venueZipCode;
+    }
+    
+    public void setVenueZipCode(String venueZipCode) {
+        this.venueZipCode = venueZipCode;
+    }
+    
+    public String getVenueCountry() {
+        return venueCountry;
+    }
+    
+    public void setVenueCountry(String venueCountry) {
+        this.venueCountry = venueCountry;
+    }
+    
+    public BigDecimal getVenueLatitude() {
+        return venueLatitude;
+    }
+    
+    public void setVenueLatitude(BigDecimal venueLatitude) {
+        this.venueLatitude = venueLatitude;
+    }
+    
+    public BigDecimal getVenueLongitude() {
+        return venueLongitude;
+    }
+    
+    public void setVenueLongitude(BigDecimal venueLongitude) {
+        this.venueLongitude = venueLongitude;
+    }
+    
+    public Integer getVenueMaxCapacity() {
+        return venueMaxCapacity;
+    }
+    
+    public void setVenueMaxCapacity(Integer venueMaxCapacity) {
+        this.venueMaxCapacity = venueMaxCapacity;
+    }
+    
+    public String getVenueType() {
+        return venueType;
+    }
+    
+    public void setVenueType(String venueType) {
+        this.venueType = venueType;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventbooking.event.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResult {
+    
+    public static class RowError {
+        
+        private long line;
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public void setLine(long line) {
+            this.line = line;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+    
+    private int imported;
+    private int failed;
+    private boolean truncated; // Rows past the per-request limit were not read
+    private List<RowError> errors = new ArrayList<>(); // First errors only; failed has the full count
+    
+    // Default constructor
+    public BulkImportResult() {}
+    
+    // Getters and setters
+    public int getImported() {
+        return imported;
+    }
+    
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,83 @@
+package com.eventbooking.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token to pass back
+ * for the following page; it is null on the last page. {@code approximateTotal} is only
+ * filled in when the caller asked for it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long approximateTotal;
+    
+    // Default constructor
+    public CursorPage() {}
+    
+    // Constructor with all fields
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor, Long approximateTotal) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.approximateTotal = approximateTotal;
+    }
+    
+    /**
+     * Clamps a client-supplied page size to {@code [1, MAX_SIZE]}.
+     */
+    public static int clampSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+    
+    // Getters and setters
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+    
+    public void setApproximateTotal(Long approximateTotal) {
+        this.approximateTotal = approximateTotal;
+    }
+}
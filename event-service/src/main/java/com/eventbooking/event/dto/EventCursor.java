@@ -0,0 +1,79 @@
+package com.eventbooking.event.dto;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in an event listing ordered by {@code (eventDate, id)}. Encoded for clients as an
+ * opaque URL-safe token so the sort key can change without breaking the API contract.
+ */
+public class EventCursor {
+    
+    private static final String SEPARATOR = "|";
+    private static final LocalDateTime EARLIEST_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    
+    private final LocalDateTime eventDate;
+    private final UUID id;
+    
+    public EventCursor(LocalDateTime eventDate, UUID id) {
+        this.eventDate = eventDate;
+        this.id = id;
+    }
+    
+    /**
+     * Position before every event, used for the first page.
+     */
+    public static EventCursor first() {
+        return new EventCursor(EARLIEST_DATE, MIN_ID);
+    }
+    
+    /**
+     * Position after every event at {@code eventDate}, i.e. seeks strictly past that instant.
+     */
+    public static EventCursor after(LocalDateTime eventDate) {
+        return new EventCursor(eventDate, MAX_ID);
+    }
+    
+    public boolean isBefore(EventCursor other) {
+        return eventDate.isBefore(other.eventDate);
+    }
+    
+    public static EventCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidEventDataException("Invalid cursor");
+            }
+            return new EventCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidEventDataException("Invalid cursor");
+        }
+    }
+    
+    public String encode() {
+        String raw = eventDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+}
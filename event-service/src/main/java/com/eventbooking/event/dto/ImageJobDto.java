@@ -0,0 +1,98 @@
+package com.eventbooking.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageJobDto {
+    
+    public enum Status {
+        QUEUED, PROCESSING, COMPLETED, FAILED
+    }
+    
+    private UUID jobId;
+    private UUID eventId;
+    private Status status;
+    private String sourceHash; // SHA-256 of the uploaded file
+    private String imageUrl;
+    private String cdnUrl;
+    private Map<String, String> renditions = new LinkedHashMap<>(); // Rendition name -> rendition URL
+    private String error;
+    
+    // Default constructor
+    public ImageJobDto() {}
+    
+    public ImageJobDto(UUID jobId, UUID eventId, Status status) {
+        this.jobId = jobId;
+        this.eventId = eventId;
+        this.status = status;
+    }
+    
+    // Getters and setters
+    public UUID getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+    
+    public UUID getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public String getSourceHash() {
+        return sourceHash;
+    }
+    
+    public void setSourceHash(String sourceHash) {
+        this.sourceHash = sourceHash;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    public String getCdnUrl() {
+        return cdnUrl;
+    }
+    
+    public void setCdnUrl(String cdnUrl) {
+        this.cdnUrl = cdnUrl;
+    }
+    
+    public Map<String, String> getRenditions() {
+        return renditions;
+    }
+    
+    public void setRenditions(Map<String, String> renditions) {
+        this.renditions = renditions;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventbooking.event.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+public class PriceRangeRequest {
+    
+    @DecimalMin(value = "0.0", message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+    
+    @DecimalMin(value = "0.0", message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+    
+    // Default constructor
+    public PriceRangeRequest() {}
+    
+    public PriceRangeRequest(BigDecimal minPrice, BigDecimal maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+    
+    // Getters and setters
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+    
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+    
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+}
@@ -2,6 +2,7 @@ package com.eventbooking.event.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class SearchCriteria {
@@ -13,6 +14,11 @@ public class SearchCriteria {
     private LocalDateTime dateTo;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private List<String> tags;
+    private TagMatch tagMatch = TagMatch.ANY;
     
     // Default constructor
     public SearchCriteria() {}
@@ -74,6 +80,54 @@ public class SearchCriteria {
         this.maxPrice = maxPrice;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+    
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+    
+    public boolean hasGeoFilter() {
+        return latitude != null && longitude != null && radiusKm != null;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    
+    public TagMatch getTagMatch() {
+        return tagMatch;
+    }
+    
+    public void setTagMatch(TagMatch tagMatch) {
+        this.tagMatch = tagMatch != null ? tagMatch : TagMatch.ANY;
+    }
+    
+    public boolean hasTagFilter() {
+        return tags != null && tags.stream().anyMatch(tag -> tag != null && !tag.isBlank());
+    }
+    
     @Override
     public String toString() {
         return "SearchCriteria{" +
@@ -84,6 +138,17 @@ public class SearchCriteria {
                 ", dateTo=" + dateTo +
                 ", minPrice=" + minPrice +
                 ", maxPrice=" + maxPrice +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", radiusKm=" + radiusKm +
+                ", tags=" + tags +
+                ", tagMatch=" + tagMatch +
                 '}';
     }
+    
+    // Whether an event needs any one of the requested tags or every one of them
+    public enum TagMatch {
+        ANY,
+        ALL
+    }
 }
\ No newline at end of file
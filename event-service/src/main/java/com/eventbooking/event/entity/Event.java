@@ -1,15 +1,23 @@
 package com.eventbooking.event.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_status_date_id", columnList = "status,event_date,id"),
+    @Index(name = "idx_events_organizer_date_id", columnList = "organizer_id,event_date,id")
+})
 public class Event {
     
     @Id
@@ -52,8 +60,14 @@ public class Event {
     @Column(name = "max_price", precision = 10, scale = 2)
     private BigDecimal maxPrice;
     
-    @Column(name = "tags", columnDefinition = "TEXT")
-    private String tags; // JSON array of tags
+    // Normalized tags (see Tags), one event_tags row each; batch-loaded so a listing page takes one query
+    @ElementCollection
+    @CollectionTable(name = "event_tags", joinColumns = @JoinColumn(name = "event_id"),
+        indexes = @Index(name = "idx_event_tags_tag_event", columnList = "tag,event_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "tag", length = 50, nullable = false)
+    @BatchSize(size = 100)
+    private List<String> tags = new ArrayList<>();
     
     @CreationTimestamp
     @Column(name = "created_at")
@@ -171,12 +185,29 @@ public class Event {
         this.maxPrice = maxPrice;
     }
     
-    public String getTags() {
+    @JsonIgnore
+    public List<String> getTags() {
         return tags;
     }
     
-    public void setTags(String tags) {
-        this.tags = tags;
+    @JsonIgnore
+    public void setTags(List<String> tags) {
+        // Updated in place so Hibernate diffs the managed collection instead of replacing it
+        this.tags.clear();
+        if (tags != null) {
+            this.tags.addAll(tags);
+        }
+    }
+    
+    // Cached copies (CachedEvent) carry a plain list, never Hibernate's lazy collection
+    @JsonProperty("tags")
+    private List<String> getTagsForCache() {
+        return new ArrayList<>(tags);
+    }
+    
+    @JsonProperty("tags")
+    private void setTagsForCache(List<String> tags) {
+        this.tags = tags != null ? new ArrayList<>(tags) : new ArrayList<>();
     }
     
     public LocalDateTime getCreatedAt() {
@@ -0,0 +1,223 @@
+package com.eventbooking.event.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Denormalized search read model: one row per event with the venue and category columns
+ * search filters on, copied in and pre-normalized so every filter is an equality or range
+ * predicate on this table. The search_vector tsvector column is generated by PostgreSQL
+ * (see scripts/init-event-db.sql) and is deliberately not mapped here.
+ */
+@Entity
+@Table(name = "event_search_view", indexes = {
+    @Index(name = "idx_event_search_status_date_id", columnList = "status,event_date,event_id"),
+    @Index(name = "idx_event_search_city_date", columnList = "status,city_normalized,event_date"),
+    @Index(name = "idx_event_search_category_date", columnList = "status,category_id,event_date"),
+    @Index(name = "idx_event_search_price", columnList = "status,min_price,max_price"),
+    @Index(name = "idx_event_search_geohash", columnList = "status,geohash")
+})
+public class EventSearchView {
+    
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+    
+    @Column(nullable = false, length = 255)
+    private String name;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "venue_id")
+    private UUID venueId;
+    
+    @Column(name = "venue_name", length = 255)
+    private String venueName;
+    
+    @Column(name = "venue_name_normalized", length = 255)
+    private String venueNameNormalized;
+    
+    @Column(length = 100)
+    private String city;
+    
+    @Column(name = "city_normalized", length = 100)
+    private String cityNormalized;
+    
+    @Column(name = "category_id")
+    private UUID categoryId;
+    
+    @Column(name = "category_name", length = 100)
+    private String categoryName;
+    
+    @Column(name = "event_date", nullable = false)
+    private LocalDateTime eventDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50, nullable = false)
+    private EventStatus status;
+    
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+    
+    @Column(name = "max_price", precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+    
+    @Column(precision = 10, scale = 8)
+    private BigDecimal latitude;
+    
+    @Column(precision = 11, scale = 8)
+    private BigDecimal longitude;
+    
+    @Column(length = 12)
+    private String geohash;
+    
+    // Default constructor
+    public EventSearchView() {}
+    
+    // Normalization applied to the *_normalized columns and to the filter values compared with them
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    // Getters and setters
+    public UUID getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public UUID getVenueId() {
+        return venueId;
+    }
+    
+    public void setVenueId(UUID venueId) {
+        this.venueId = venueId;
+    }
+    
+    public String getVenueName() {
+        return venueName;
+    }
+    
+    public void setVenueName(String venueName) {
+        this.venueName = venueName;
+    }
+    
+    public String getVenueNameNormalized() {
+        return venueNameNormalized;
+    }
+    
+    public void setVenueNameNormalized(String venueNameNormalized) {
+        this.venueNameNormalized = venueNameNormalized;
+    }
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public void setCity(String city) {
+        this.city = city;
+    }
+    
+    public String getCityNormalized() {
+        return cityNormalized;
+    }
+    
+    public void setCityNormalized(String cityNormalized) {
+        this.cityNormalized = cityNormalized;
+    }
+    
+    public UUID getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(UUID categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+    
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+    
+    public void setEventDate(LocalDateTime eventDate) {
+        this.eventDate = eventDate;
+    }
+    
+    public EventStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(EventStatus status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+    
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+    
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+    
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = latitude;
+    }
+    
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = longitude;
+    }
+    
+    public String getGeohash() {
+        return geohash;
+    }
+    
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+}
@@ -0,0 +1,83 @@
+package com.eventbooking.event.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A cancelled event whose refunds the Payment Service has not accepted yet. Written in the
+ * cancel transaction and deleted once the refund job request is delivered.
+ */
+@Entity
+@Table(name = "refund_requests")
+public class RefundRequest {
+    
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+    
+    @Column(nullable = false, length = 255)
+    private String reason;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Default constructor
+    public RefundRequest() {}
+    
+    public RefundRequest(UUID eventId, String reason, LocalDateTime nextAttemptAt) {
+        this.eventId = eventId;
+        this.reason = reason;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    // Getters and setters
+    public UUID getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
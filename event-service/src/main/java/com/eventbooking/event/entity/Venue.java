@@ -1,5 +1,7 @@
 package com.eventbooking.event.entity;
 
+import com.eventbooking.event.util.GeoHash;
+import com.eventbooking.event.util.VenueKeys;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -8,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "venues")
+@Table(name = "venues", indexes = {
+    @Index(name = "idx_venues_geohash", columnList = "geohash"),
+    @Index(name = "uk_venues_normalized_key", columnList = "normalized_key", unique = true)
+})
 public class Venue {
     
     @Id
@@ -24,6 +29,10 @@ public class Venue {
     @Column(length = 100)
     private String city;
     
+    // Canonical name and city (see VenueKeys), kept in step by syncDerivedColumns(); unique per venue
+    @Column(name = "normalized_key", length = VenueKeys.MAX_LENGTH)
+    private String normalizedKey;
+    
     @Column(length = 100)
     private String state;
     
@@ -39,6 +48,10 @@ public class Venue {
     @Column(precision = 11, scale = 8)
     private BigDecimal longitude;
     
+    // Full-precision geohash of latitude/longitude, kept in step by syncDerivedColumns()
+    @Column(length = 12)
+    private String geohash;
+    
     @Column(name = "max_capacity")
     private Integer maxCapacity;
     
@@ -61,6 +74,13 @@ public class Venue {
         this.country = country;
     }
     
+    @PrePersist
+    @PreUpdate
+    void syncDerivedColumns() {
+        this.geohash = GeoHash.encode(latitude, longitude);
+        this.normalizedKey = VenueKeys.of(name, city);
+    }
+    
     // Getters and setters
     public UUID getId() {
         return id;
@@ -94,6 +114,14 @@ public class Venue {
         this.city = city;
     }
     
+    public String getNormalizedKey() {
+        return normalizedKey;
+    }
+    
+    public void setNormalizedKey(String normalizedKey) {
+        this.normalizedKey = normalizedKey;
+    }
+    
     public String getState() {
         return state;
     }
@@ -134,6 +162,14 @@ public class Venue {
         this.longitude = longitude;
     }
     
+    public String getGeohash() {
+        return geohash;
+    }
+    
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+    
     public Integer getMaxCapacity() {
         return maxCapacity;
     }
@@ -0,0 +1,14 @@
+package com.eventbooking.event.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ImageJobNotFoundException extends RuntimeException {
+    
+    public ImageJobNotFoundException(UUID jobId) {
+        super("Image job not found with ID: " + jobId);
+    }
+}
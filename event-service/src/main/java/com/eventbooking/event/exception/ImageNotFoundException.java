@@ -0,0 +1,12 @@
+package com.eventbooking.event.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ImageNotFoundException extends RuntimeException {
+    
+    public ImageNotFoundException(String sourceHash) {
+        super("Image not found: " + sourceHash);
+    }
+}
@@ -0,0 +1,12 @@
+package com.eventbooking.event.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ImageProcessingBusyException extends RuntimeException {
+    
+    public ImageProcessingBusyException(String message) {
+        super(message);
+    }
+}
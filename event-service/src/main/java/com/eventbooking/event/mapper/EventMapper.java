@@ -1,27 +1,29 @@
 package com.eventbooking.event.mapper;
 
 import com.eventbooking.event.dto.CategoryDto;
+import com.eventbooking.event.dto.CursorPage;
+import com.eventbooking.event.dto.EventCursor;
 import com.eventbooking.event.dto.EventDto;
 import com.eventbooking.event.dto.VenueDto;
 import com.eventbooking.event.entity.Event;
 import com.eventbooking.event.entity.EventCategory;
 import com.eventbooking.event.entity.Venue;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eventbooking.event.service.CategoryCache;
+import com.eventbooking.event.util.Tags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class EventMapper {
     
-    private final ObjectMapper objectMapper;
+    private final CategoryCache categoryCache;
     
     @Autowired
-    public EventMapper(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    public EventMapper(CategoryCache categoryCache) {
+        this.categoryCache = categoryCache;
     }
     
     public EventDto toDto(Event event) {
@@ -36,19 +38,40 @@ public class EventMapper {
         dto.setDescription(event.getDescription());
         dto.setEventDate(event.getEventDate());
         dto.setVenue(toVenueDto(event.getVenue()));
-        dto.setCategory(toCategoryDto(event.getCategory()));
+        dto.setCategory(toCategoryDto(resolveCategory(event.getCategory())));
         dto.setImageUrl(event.getImageUrl());
         dto.setStatus(event.getStatus());
         dto.setMaxCapacity(event.getMaxCapacity());
         dto.setMinPrice(event.getMinPrice());
         dto.setMaxPrice(event.getMaxPrice());
-        dto.setTags(parseTagsFromJson(event.getTags()));
+        dto.setTags(toTagList(event.getTags()));
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
         
         return dto;
     }
     
+    /**
+     * Builds a keyset page from rows fetched with a limit of {@code size + 1}; the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public CursorPage<EventDto> toCursorPage(List<Event> rows, int size, Long approximateTotal) {
+        boolean hasNext = rows.size() > size;
+        List<Event> pageRows = hasNext ? rows.subList(0, size) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Event last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new EventCursor(last.getEventDate(), last.getId()).encode();
+        }
+        
+        List<EventDto> content = pageRows.stream()
+            .map(this::toDto)
+            .collect(Collectors.toList());
+        
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor, approximateTotal);
+    }
+    
     public VenueDto toVenueDto(Venue venue) {
         if (venue == null) {
             return null;
@@ -88,16 +111,21 @@ public class EventMapper {
         return dto;
     }
     
-    private List<String> parseTagsFromJson(String tagsJson) {
-        if (tagsJson == null || tagsJson.trim().isEmpty()) {
+    // Reading the id of a lazy category proxy does not initialize it, so this never queries per row
+    private EventCategory resolveCategory(EventCategory category) {
+        if (category == null) {
             return null;
         }
-        
-        try {
-            return objectMapper.readValue(tagsJson, new TypeReference<List<String>>() {});
-        } catch (JsonProcessingException e) {
-            // Return null if JSON parsing fails
+        return categoryCache.get(category.getId()).orElse(category);
+    }
+    
+    // Tags are already normalized on write; interning shares one instance of each across all mapped rows
+    private List<String> toTagList(List<String> tags) {
+        if (tags == null || tags.isEmpty()) {
             return null;
         }
+        return tags.stream()
+            .map(Tags::intern)
+            .toList();
     }
 }
\ No newline at end of file
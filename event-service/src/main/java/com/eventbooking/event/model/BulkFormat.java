@@ -0,0 +1,31 @@
+package com.eventbooking.event.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Wire formats accepted by bulk event import and produced by export. Both carry one
+ * BulkEventRecord per line (CSV after a header row), so large files stream row by row.
+ */
+public enum BulkFormat {
+    
+    NDJSON(MediaType.valueOf("application/x-ndjson")),
+    CSV(MediaType.valueOf("text/csv"));
+    
+    private final MediaType mediaType;
+    
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+    
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+    
+    // Falls back to NDJSON for anything that is not CSV, including a missing content type
+    public static BulkFormat fromContentType(String contentType) {
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(CSV.mediaType)) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventbooking.event.model;
+
+import com.eventbooking.event.entity.Event;
+
+import java.io.Serializable;
+
+/**
+ * Redis envelope for a cached event. Besides the event itself it records how long the
+ * load took and when the entry expires, which is what probabilistic early refresh needs.
+ */
+public class CachedEvent implements Serializable {
+    
+    private Event event;
+    private long loadTimeMillis;  // How long the database load took (XFetch "delta")
+    private long expiresAtMillis; // Epoch millis at which the Redis entry expires
+    
+    // Default constructor
+    public CachedEvent() {}
+    
+    public CachedEvent(Event event, long loadTimeMillis, long expiresAtMillis) {
+        this.event = event;
+        this.loadTimeMillis = loadTimeMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+    
+    // Getters and setters
+    public Event getEvent() {
+        return event;
+    }
+    
+    public void setEvent(Event event) {
+        this.event = event;
+    }
+    
+    public long getLoadTimeMillis() {
+        return loadTimeMillis;
+    }
+    
+    public void setLoadTimeMillis(long loadTimeMillis) {
+        this.loadTimeMillis = loadTimeMillis;
+    }
+    
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+    
+    public void setExpiresAtMillis(long expiresAtMillis) {
+        this.expiresAtMillis = expiresAtMillis;
+    }
+}
@@ -0,0 +1,43 @@
+package com.eventbooking.event.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis entry for one cached search page: the matching event ids in result order and the
+ * total match count. The events themselves are hydrated from the per-event cache, so an entry
+ * is a few hundred bytes and always shows the latest event details.
+ */
+public class CachedSearchPage implements Serializable {
+    
+    private List<UUID> eventIds = new ArrayList<>();
+    private long totalElements;
+    
+    // Default constructor
+    public CachedSearchPage() {}
+    
+    public CachedSearchPage(List<UUID> eventIds, long totalElements) {
+        // Copied into an ArrayList so the typed JSON serializer can read it back
+        this.eventIds = new ArrayList<>(eventIds);
+        this.totalElements = totalElements;
+    }
+    
+    // Getters and setters
+    public List<UUID> getEventIds() {
+        return eventIds;
+    }
+    
+    public void setEventIds(List<UUID> eventIds) {
+        this.eventIds = eventIds;
+    }
+    
+    public long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -0,0 +1,22 @@
+package com.eventbooking.event.model;
+
+/**
+ * Interactions that feed the trending and popular rankings, weighted by how strongly each one
+ * signals interest in the event.
+ */
+public enum DiscoverySignal {
+    
+    VIEW(1),
+    SEARCH_CLICK(3),
+    RESERVATION(10); // Per ticket reserved
+    
+    private final int weight;
+    
+    DiscoverySignal(int weight) {
+        this.weight = weight;
+    }
+    
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,31 @@
+package com.eventbooking.event.model;
+
+import java.nio.file.Path;
+
+/**
+ * A rendered image file waiting to be written to image storage under {@code key}.
+ */
+public class ImageObject {
+    
+    private final String key;
+    private final Path file;
+    private final String contentType;
+    
+    public ImageObject(String key, Path file, String contentType) {
+        this.key = key;
+        this.file = file;
+        this.contentType = contentType;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,28 @@
+package com.eventbooking.event.model;
+
+/**
+ * Named widths pre-rendered for every uploaded event image, so the common sizes are already in
+ * image storage before the first request. Other widths are rendered on demand.
+ */
+public enum ImageRendition {
+    
+    THUMBNAIL("thumbnail", 320),
+    CARD("card", 640),
+    HERO("hero", 1920);
+    
+    private final String key;
+    private final int width;
+    
+    ImageRendition(String key, int width) {
+        this.key = key;
+        this.width = width;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+}
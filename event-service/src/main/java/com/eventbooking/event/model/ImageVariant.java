@@ -0,0 +1,53 @@
+package com.eventbooking.event.model;
+
+/**
+ * One rendition of a content-addressed source image: the source's SHA-256, a target width and
+ * an output format. A variant always renders to the same bytes, so its name doubles as a
+ * strong ETag and its storage key never needs invalidating.
+ */
+public class ImageVariant {
+    
+    private final String sourceHash;
+    private final int width;
+    private final String format;
+    
+    public ImageVariant(String sourceHash, int width, String format) {
+        this.sourceHash = sourceHash;
+        this.width = width;
+        this.format = format;
+    }
+    
+    public static String sourceKey(String sourceHash) {
+        return "images/" + sourceHash + "/source";
+    }
+    
+    public String getSourceHash() {
+        return sourceHash;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public String getContentType() {
+        return "jpg".equals(format) ? "image/jpeg" : "image/" + format;
+    }
+    
+    // Object storage key: images/{sha256}/w{width}.{format}
+    public String getKey() {
+        return "images/" + sourceHash + "/w" + width + "." + format;
+    }
+    
+    // Flat name used for the local disk cache
+    public String getFileName() {
+        return sourceHash + "-w" + width + "." + format;
+    }
+    
+    public String getETag() {
+        return "\"" + getFileName() + "\"";
+    }
+}
@@ -0,0 +1,49 @@
+package com.eventbooking.event.model;
+
+import com.eventbooking.event.util.ETags;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One pre-serialized, gzip-compressed listing page, ready to be written to the response as is.
+ * The ETag is computed once from the compressed bytes; the identity representation gets its
+ * own tag because it is a different byte sequence.
+ */
+public class ListingSnapshot {
+    
+    private final byte[] gzippedBody;
+    private final String gzipETag;
+    private final String identityETag;
+    
+    public ListingSnapshot(byte[] gzippedBody) {
+        this.gzippedBody = gzippedBody;
+        String eTag = ETags.of(gzippedBody);
+        this.gzipETag = eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+        this.identityETag = eTag;
+    }
+    
+    public byte[] getGzippedBody() {
+        return gzippedBody;
+    }
+    
+    // Decompressed body, for the rare client that does not accept gzip
+    public byte[] getBody() {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzippedBody))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt listing snapshot", e);
+        }
+    }
+    
+    public String getGzipETag() {
+        return gzipETag;
+    }
+    
+    public String getIdentityETag() {
+        return identityETag;
+    }
+}
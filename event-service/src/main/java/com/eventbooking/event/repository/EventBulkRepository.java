@@ -0,0 +1,201 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.dto.BulkEventRecord;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.Venue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for bulk event import and export. Inserts go out as statement batches
+ * rather than one persist (and identifier round trip) per entity; callers assign the ids and
+ * run the inserts inside their own transaction.
+ */
+@Repository
+public class EventBulkRepository {
+    
+    // Venues another request created in the meantime are skipped; callers re-read ids by normalized key
+    private static final String INSERT_VENUE = """
+        INSERT INTO venues (id, name, normalized_key, address, city, state, zip_code, country, latitude, longitude,
+            geohash, max_capacity, venue_type, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT DO NOTHING
+        """;
+    
+    private static final String INSERT_EVENT = """
+        INSERT INTO events (id, organizer_id, name, description, event_date, venue_id, category_id, status,
+            max_capacity, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    
+    private static final String INSERT_TAG = "INSERT INTO event_tags (event_id, position, tag) VALUES (?, ?, ?)";
+    
+    private static final String INSERT_SEARCH_ROW = """
+        INSERT INTO event_search_view (event_id, name, description, venue_id, venue_name, venue_name_normalized,
+            city, city_normalized, category_id, category_name, event_date, status, min_price, max_price,
+            latitude, longitude, geohash)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    
+    // One row per (event, tag); rows of an event are adjacent, in tag order
+    private static final String SELECT_BY_ORGANIZER = """
+        SELECT e.id, e.status, e.name, e.description, e.event_date, e.category_id, e.max_capacity,
+            v.name AS venue_name, v.address, v.city, v.state, v.zip_code, v.country, v.latitude, v.longitude,
+            v.max_capacity AS venue_max_capacity, v.venue_type, t.tag
+        FROM events e
+        LEFT JOIN venues v ON v.id = e.venue_id
+        LEFT JOIN event_tags t ON t.event_id = e.id
+        WHERE e.organizer_id = ?
+        ORDER BY e.event_date ASC, e.id ASC, t.position ASC
+        """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    public EventBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    public void insertVenues(List<Venue> venues) {
+        if (venues.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(venues.size());
+        for (Venue venue : venues) {
+            rows.add(new Object[] {
+                venue.getId(), venue.getName(), venue.getNormalizedKey(), venue.getAddress(), venue.getCity(),
+                venue.getState(),
+                venue.getZipCode(), venue.getCountry(), venue.getLatitude(), venue.getLongitude(), venue.getGeohash(),
+                venue.getMaxCapacity(), venue.getVenueType(), now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_VENUE, rows);
+    }
+    
+    // Inserts the events and their tags; venues must already exist
+    public void insertEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        List<Object[]> tags = new ArrayList<>();
+        for (Event event : events) {
+            rows.add(new Object[] {
+                event.getId(), event.getOrganizerId(), event.getName(), event.getDescription(),
+                Timestamp.valueOf(event.getEventDate()),
+                event.getVenue() != null ? event.getVenue().getId() : null,
+                event.getCategory() != null ? event.getCategory().getId() : null,
+                event.getStatus().name(), event.getMaxCapacity(), now, now
+            });
+            List<String> eventTags = event.getTags();
+            for (int position = 0; position < eventTags.size(); position++) {
+                tags.add(new Object[] {event.getId(), position, eventTags.get(position)});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tags);
+        }
+    }
+    
+    public void insertSearchRows(List<EventSearchView> searchRows) {
+        if (searchRows.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(searchRows.size());
+        for (EventSearchView row : searchRows) {
+            rows.add(new Object[] {
+                row.getEventId(), row.getName(), row.getDescription(), row.getVenueId(), row.getVenueName(),
+                row.getVenueNameNormalized(), row.getCity(), row.getCityNormalized(), row.getCategoryId(),
+                row.getCategoryName(), Timestamp.valueOf(row.getEventDate()), row.getStatus().name(),
+                row.getMinPrice(), row.getMaxPrice(), row.getLatitude(), row.getLongitude(), row.getGeohash()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SEARCH_ROW, rows);
+    }
+    
+    /**
+     * Streams the organizer's events, in (event_date, id) order, to the consumer. The driver
+     * fetches fetchSize rows at a time (on PostgreSQL only inside a transaction, where it keeps
+     * a server-side cursor open), so memory stays flat however many events the organizer has.
+     */
+    public void streamByOrganizer(UUID organizerId, int fetchSize, Consumer<BulkEventRecord> consumer) {
+        RecordAssembler assembler = new RecordAssembler(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_ORGANIZER);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, organizerId);
+            return statement;
+        }, assembler);
+        assembler.finish();
+    }
+    
+    // Folds the per-tag rows of each event back into one record
+    private static final class RecordAssembler implements RowCallbackHandler {
+        
+        private final Consumer<BulkEventRecord> consumer;
+        private BulkEventRecord current;
+        
+        RecordAssembler(Consumer<BulkEventRecord> consumer) {
+            this.consumer = consumer;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            if (current == null || !current.getId().equals(id)) {
+                finish();
+                current = toRecord(id, rs);
+            }
+            String tag = rs.getString("tag");
+            if (tag != null) {
+                current.getTags().add(tag);
+            }
+        }
+        
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+        
+        private static BulkEventRecord toRecord(UUID id, ResultSet rs) throws SQLException {
+            BulkEventRecord record = new BulkEventRecord();
+            record.setId(id);
+            record.setStatus(rs.getString("status"));
+            record.setName(rs.getString("name"));
+            record.setDescription(rs.getString("description"));
+            record.setEventDate(rs.getTimestamp("event_date").toLocalDateTime());
+            record.setCategoryId(rs.getObject("category_id", UUID.class));
+            record.setMaxCapacity(rs.getObject("max_capacity", Integer.class));
+            record.setTags(new ArrayList<>());
+            record.setVenueName(rs.getString("venue_name"));
+            record.setVenueAddress(rs.getString("address"));
+            record.setVenueCity(rs.getString("city"));
+            record.setVenueState(rs.getString("state"));
+            record.setVenueZipCode(rs.getString("zip_code"));
+            record.setVenueCountry(rs.getString("country"));
+            record.setVenueLatitude(rs.getBigDecimal("latitude"));
+            record.setVenueLongitude(rs.getBigDecimal("longitude"));
+            record.setVenueMaxCapacity(rs.getObject("venue_max_capacity", Integer.class));
+            record.setVenueType(rs.getString("venue_type"));
+            return record;
+        }
+    }
+}
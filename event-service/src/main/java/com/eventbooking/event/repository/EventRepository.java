@@ -2,66 +2,130 @@ package com.eventbooking.event.repository;
 
 import com.eventbooking.event.entity.Event;
 import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.entity.Venue;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
     
+    // Find event with venue, category and tags initialized, safe to cache and share across threads
+    @EntityGraph(attributePaths = {"venue", "category", "tags"})
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findDetailedById(@Param("id") UUID id);
+    
     // Find events by organizer
+    @EntityGraph(attributePaths = "venue")
     Page<Event> findByOrganizerId(UUID organizerId, Pageable pageable);
     
     // Find published events
+    @EntityGraph(attributePaths = "venue")
     Page<Event> findByStatus(EventStatus status, Pageable pageable);
     
-    // Optimized search query with proper indexing
+    long countByStatus(EventStatus status);
+    
+    long countByOrganizerId(UUID organizerId);
+    
+    // Content-addressed images can be shared by several events
+    long countByImageUrl(String imageUrl);
+    
+    // Keyset pagination: seek past (afterDate, afterId) instead of OFFSET, backed by idx_events_status_date_id
+    @EntityGraph(attributePaths = "venue")
     @Query("""
-        SELECT DISTINCT e FROM Event e 
-        LEFT JOIN e.venue v 
-        LEFT JOIN e.category c 
-        WHERE (:query IS NULL OR 
-               LOWER(e.name) LIKE LOWER(CONCAT('%', :query, '%')) OR 
-               LOWER(e.description) LIKE LOWER(CONCAT('%', :query, '%')) OR
-               LOWER(v.name) LIKE LOWER(CONCAT('%', :query, '%'))) 
-        AND (:city IS NULL OR LOWER(v.city) = LOWER(:city)) 
-        AND (:categoryId IS NULL OR c.id = :categoryId) 
-        AND (:dateFrom IS NULL OR e.eventDate >= :dateFrom) 
-        AND (:dateTo IS NULL OR e.eventDate <= :dateTo) 
-        AND (:minPrice IS NULL OR e.minPrice >= :minPrice) 
-        AND (:maxPrice IS NULL OR e.maxPrice <= :maxPrice) 
-        AND e.status = 'PUBLISHED'
+        SELECT e FROM Event e 
+        WHERE e.status = :status 
+        AND e.eventDate >= :afterDate 
+        AND (e.eventDate > :afterDate OR e.id > :afterId) 
+        ORDER BY e.eventDate ASC, e.id ASC
         """)
-    Page<Event> searchEvents(
-        @Param("query") String query,
-        @Param("city") String city,
-        @Param("categoryId") UUID categoryId,
-        @Param("dateFrom") LocalDateTime dateFrom,
-        @Param("dateTo") LocalDateTime dateTo,
-        @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice,
+    List<Event> findByStatusAfter(
+        @Param("status") EventStatus status,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
         Pageable pageable
     );
     
+    // Keyset pagination for organizer dashboards, backed by idx_events_organizer_date_id
+    @EntityGraph(attributePaths = "venue")
+    @Query("""
+        SELECT e FROM Event e 
+        WHERE e.organizerId = :organizerId 
+        AND e.eventDate >= :afterDate 
+        AND (e.eventDate > :afterDate OR e.id > :afterId) 
+        ORDER BY e.eventDate ASC, e.id ASC
+        """)
+    List<Event> findByOrganizerIdAfter(
+        @Param("organizerId") UUID organizerId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
+    
+    // Hydrates ranked discovery lists; the caller restores the order of the ids
+    @EntityGraph(attributePaths = "venue")
+    List<Event> findByIdIn(Collection<UUID> ids);
+    
+    // Search hits missing from the event cache, initialized like findDetailedById so they can be cached
+    @EntityGraph(attributePaths = {"venue", "category", "tags"})
+    @Query("SELECT e FROM Event e WHERE e.id IN :ids")
+    List<Event> findDetailedByIdIn(@Param("ids") Collection<UUID> ids);
+    
     // Find events by category
+    @EntityGraph(attributePaths = "venue")
     Page<Event> findByCategoryIdAndStatus(UUID categoryId, EventStatus status, Pageable pageable);
     
     // Find events by city
-    @Query("SELECT e FROM Event e JOIN e.venue v WHERE LOWER(v.city) = LOWER(:city) AND e.status = :status")
+    @Query(value = "SELECT e FROM Event e JOIN FETCH e.venue v WHERE LOWER(v.city) = LOWER(:city) AND e.status = :status",
+           countQuery = "SELECT COUNT(e) FROM Event e JOIN e.venue v WHERE LOWER(v.city) = LOWER(:city) AND e.status = :status")
     Page<Event> findByCityAndStatus(@Param("city") String city, @Param("status") EventStatus status, Pageable pageable);
     
     // Find upcoming events
-    @Query("SELECT e FROM Event e WHERE e.eventDate > :now AND e.status = 'PUBLISHED' ORDER BY e.eventDate ASC")
+    @EntityGraph(attributePaths = "venue")
+    @Query("SELECT e FROM Event e WHERE e.eventDate > :now AND e.status = 'PUBLISHED' ORDER BY e.eventDate ASC, e.id ASC")
     Page<Event> findUpcomingEvents(@Param("now") LocalDateTime now, Pageable pageable);
     
+    @EntityGraph(attributePaths = "venue")
+    @Query("""
+        SELECT e FROM Event e 
+        WHERE e.eventDate > :now AND e.status = 'PUBLISHED' AND e.category.id = :categoryId 
+        ORDER BY e.eventDate ASC, e.id ASC
+        """)
+    Page<Event> findUpcomingEventsByCategory(
+        @Param("now") LocalDateTime now,
+        @Param("categoryId") UUID categoryId,
+        Pageable pageable
+    );
+    
+    @Query(value = """
+        SELECT e FROM Event e JOIN FETCH e.venue v 
+        WHERE e.eventDate > :now AND e.status = 'PUBLISHED' AND LOWER(v.city) = LOWER(:city) 
+        ORDER BY e.eventDate ASC, e.id ASC
+        """,
+           countQuery = """
+        SELECT COUNT(e) FROM Event e JOIN e.venue v 
+        WHERE e.eventDate > :now AND e.status = 'PUBLISHED' AND LOWER(v.city) = LOWER(:city)
+        """)
+    Page<Event> findUpcomingEventsByCity(
+        @Param("now") LocalDateTime now,
+        @Param("city") String city,
+        Pageable pageable
+    );
+    
+    @Query("SELECT COUNT(e) FROM Event e WHERE e.eventDate > :now AND e.status = 'PUBLISHED'")
+    long countUpcomingEvents(@Param("now") LocalDateTime now);
+    
     // Search suggestions for autocomplete
     @Query("""
         SELECT DISTINCT e.name FROM Event e 
@@ -85,4 +149,9 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
         AND e.status = 'PUBLISHED'
         """)
     List<String> findCitySuggestions(@Param("query") String query, Pageable pageable);
+    
+    // Points events at the surviving venue when duplicates are merged
+    @Modifying
+    @Query("UPDATE Event e SET e.venue = :venue WHERE e.venue.id IN :duplicateIds")
+    int reassignVenue(@Param("venue") Venue venue, @Param("duplicateIds") Collection<UUID> duplicateIds);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.entity.EventSearchView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface EventSearchViewRepository extends JpaRepository<EventSearchView, UUID>, EventSearchViewRepositoryCustom {
+    
+    @Modifying
+    @Query("UPDATE EventSearchView s SET s.geohash = :geohash WHERE s.venueId = :venueId")
+    int updateGeohashByVenueId(@Param("venueId") UUID venueId, @Param("geohash") String geohash);
+    
+    // Points search rows at the surviving venue when duplicates are merged
+    @Modifying
+    @Query("""
+        UPDATE EventSearchView s
+        SET s.venueId = :venueId, s.venueName = :venueName, s.venueNameNormalized = :venueNameNormalized
+        WHERE s.venueId IN :duplicateIds
+        """)
+    int reassignVenue(
+        @Param("venueId") UUID venueId,
+        @Param("venueName") String venueName,
+        @Param("venueNameNormalized") String venueNameNormalized,
+        @Param("duplicateIds") Collection<UUID> duplicateIds
+    );
+}
@@ -0,0 +1,24 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.dto.SearchCriteria;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Search queries against event_search_view. They are assembled per request so that only the
+ * filters actually present become predicates, and they return event ids only; callers hydrate
+ * the events themselves.
+ */
+public interface EventSearchViewRepositoryCustom {
+    
+    // One offset page of matching event ids, ordered by the pageable's sort (event date by default)
+    List<UUID> searchEventIds(SearchCriteria criteria, Pageable pageable);
+    
+    // Keyset page of matching event ids ordered by (event_date, event_id), seeking past the given position
+    List<UUID> searchEventIdsAfter(SearchCriteria criteria, LocalDateTime afterDate, UUID afterId, int limit);
+    
+    long countEvents(SearchCriteria criteria);
+}
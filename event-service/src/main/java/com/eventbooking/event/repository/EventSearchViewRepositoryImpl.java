@@ -0,0 +1,187 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.dto.SearchCriteria;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.util.GeoHash;
+import com.eventbooking.event.util.Tags;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class EventSearchViewRepositoryImpl implements EventSearchViewRepositoryCustom {
+    
+    // Sortable request properties and the view columns backing them
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "eventDate", "s.event_date",
+        "name", "s.name",
+        "minPrice", "s.min_price",
+        "maxPrice", "s.max_price"
+    );
+    
+    // Great-circle (haversine) distance from (:latitude, :longitude) to the venue, in kilometres
+    private static final String DISTANCE_KM = "(" + GeoHash.EARTH_RADIUS_KM + " * 2 * ASIN(SQRT("
+        + "POWER(SIN(RADIANS(s.latitude - :latitude) / 2), 2) + "
+        + "COS(RADIANS(:latitude)) * COS(RADIANS(s.latitude)) * POWER(SIN(RADIANS(s.longitude - :longitude) / 2), 2))))";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<UUID> searchEventIds(SearchCriteria criteria, Pageable pageable) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "SELECT s.event_id FROM event_search_view s" + whereClause(criteria, parameters)
+            + orderByClause(pageable.getSort(), criteria);
+        
+        Query query = createQuery(sql, parameters, UUID.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return toIds(query.getResultList());
+    }
+    
+    @Override
+    public List<UUID> searchEventIdsAfter(SearchCriteria criteria, LocalDateTime afterDate, UUID afterId, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "SELECT s.event_id FROM event_search_view s" + whereClause(criteria, parameters)
+            + " AND (s.event_date, s.event_id) > (:afterDate, :afterId)"
+            + " ORDER BY s.event_date ASC, s.event_id ASC";
+        parameters.put("afterDate", afterDate);
+        parameters.put("afterId", afterId);
+        
+        Query query = createQuery(sql, parameters, UUID.class);
+        query.setMaxResults(limit);
+        return toIds(query.getResultList());
+    }
+    
+    @Override
+    public long countEvents(SearchCriteria criteria) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) FROM event_search_view s" + whereClause(criteria, parameters);
+        
+        return ((Number) createQuery(sql, parameters, Long.class).getSingleResult()).longValue();
+    }
+    
+    private String whereClause(SearchCriteria criteria, Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder(" WHERE s.status = 'PUBLISHED'");
+        
+        if (StringUtils.hasText(criteria.getQuery())) {
+            // search_vector is a generated tsvector column with a GIN index
+            where.append(" AND s.search_vector @@ plainto_tsquery('english', :query)");
+            parameters.put("query", criteria.getQuery().trim());
+        }
+        if (StringUtils.hasText(criteria.getCity())) {
+            where.append(" AND s.city_normalized = :city");
+            parameters.put("city", EventSearchView.normalize(criteria.getCity()));
+        }
+        if (criteria.getCategoryId() != null) {
+            where.append(" AND s.category_id = :categoryId");
+            parameters.put("categoryId", criteria.getCategoryId());
+        }
+        if (criteria.getDateFrom() != null) {
+            where.append(" AND s.event_date >= :dateFrom");
+            parameters.put("dateFrom", criteria.getDateFrom());
+        }
+        if (criteria.getDateTo() != null) {
+            where.append(" AND s.event_date <= :dateTo");
+            parameters.put("dateTo", criteria.getDateTo());
+        }
+        if (criteria.getMinPrice() != null) {
+            where.append(" AND s.min_price >= :minPrice");
+            parameters.put("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            where.append(" AND s.max_price <= :maxPrice");
+            parameters.put("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.hasTagFilter()) {
+            appendTagFilter(where, criteria, parameters);
+        }
+        if (criteria.hasGeoFilter()) {
+            appendGeoFilter(where, criteria, parameters);
+        }
+        
+        return where.toString();
+    }
+    
+    // Both forms are driven by the (tag, event_id) index on event_tags rather than probing every candidate row
+    private void appendTagFilter(StringBuilder where, SearchCriteria criteria, Map<String, Object> parameters) {
+        List<String> tags = Tags.normalize(criteria.getTags());
+        if (criteria.getTagMatch() == SearchCriteria.TagMatch.ALL) {
+            where.append(" AND s.event_id IN (SELECT t.event_id FROM event_tags t WHERE t.tag IN (:tags)"
+                + " GROUP BY t.event_id HAVING COUNT(DISTINCT t.tag) = :tagCount)");
+            parameters.put("tagCount", tags.size());
+        } else {
+            where.append(" AND s.event_id IN (SELECT t.event_id FROM event_tags t WHERE t.tag IN (:tags))");
+        }
+        parameters.put("tags", tags);
+    }
+    
+    // Prunes candidates to the geohash cells around the point (index range scans), then checks exact distance
+    private void appendGeoFilter(StringBuilder where, SearchCriteria criteria, Map<String, Object> parameters) {
+        Set<String> cells = GeoHash.coveringCells(criteria.getLatitude(), criteria.getLongitude(), criteria.getRadiusKm());
+        if (!cells.isEmpty()) {
+            List<String> ranges = new ArrayList<>();
+            for (String cell : cells) {
+                int index = ranges.size();
+                String upperBound = GeoHash.upperBound(cell);
+                parameters.put("cellStart" + index, cell);
+                if (upperBound != null) {
+                    parameters.put("cellEnd" + index, upperBound);
+                    ranges.add("(s.geohash >= :cellStart" + index + " AND s.geohash < :cellEnd" + index + ")");
+                } else {
+                    ranges.add("s.geohash >= :cellStart" + index);
+                }
+            }
+            where.append(" AND (").append(String.join(" OR ", ranges)).append(")");
+        }
+        
+        where.append(" AND ").append(DISTANCE_KM).append(" <= :radiusKm");
+        parameters.put("latitude", criteria.getLatitude());
+        parameters.put("longitude", criteria.getLongitude());
+        parameters.put("radiusKm", criteria.getRadiusKm());
+    }
+    
+    private String orderByClause(Sort sort, SearchCriteria criteria) {
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (Sort.Order order : sort) {
+            String column = "distance".equals(order.getProperty()) && criteria.hasGeoFilter()
+                ? DISTANCE_KM
+                : SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidEventDataException("Unsupported sort property: " + order.getProperty());
+            }
+            orderBy.append(column).append(order.isAscending() ? " ASC, " : " DESC, ");
+        }
+        if (sort.isUnsorted()) {
+            // Proximity searches are nearest-first unless a sort is requested
+            orderBy.append(criteria.hasGeoFilter() ? DISTANCE_KM + " ASC, " : "s.event_date ASC, ");
+        }
+        // Event id as tie-breaker keeps offset pages stable
+        return orderBy.append("s.event_id ASC").toString();
+    }
+    
+    private Query createQuery(String sql, Map<String, Object> parameters, Class<?> resultType) {
+        Query query = entityManager.createNativeQuery(sql, resultType);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+    
+    private List<UUID> toIds(List<?> rows) {
+        return rows.stream()
+            .map(UUID.class::cast)
+            .toList();
+    }
+}
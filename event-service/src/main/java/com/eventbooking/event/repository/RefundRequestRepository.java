@@ -0,0 +1,17 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.entity.RefundRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefundRequestRepository extends JpaRepository<RefundRequest, UUID> {
+    
+    // Requests due for delivery, oldest first
+    List<RefundRequest> findByNextAttemptAtLessThanEqualOrderByCreatedAtAsc(LocalDateTime now, Pageable pageable);
+}
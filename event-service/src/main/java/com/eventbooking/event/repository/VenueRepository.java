@@ -6,15 +6,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface VenueRepository extends JpaRepository<Venue, UUID> {
+public interface VenueRepository extends JpaRepository<Venue, UUID>, VenueRepositoryCustom {
     
-    // Find venue by name and city (to avoid duplicates)
-    Optional<Venue> findByNameIgnoreCaseAndCityIgnoreCase(String name, String city);
+    // Find venue by canonical name and city (see VenueKeys), backed by the unique index
+    Optional<Venue> findByNormalizedKey(String normalizedKey);
+    
+    List<Venue> findByNormalizedKeyIn(Collection<String> normalizedKeys);
+    
+    // Venues created before normalized keys were maintained
+    List<Venue> findByNormalizedKeyIsNull();
     
     // Find venues by city
     List<Venue> findByCityIgnoreCase(String city);
@@ -35,4 +41,7 @@ public interface VenueRepository extends JpaRepository<Venue, UUID> {
         @Param("minLon") Double minLongitude,
         @Param("maxLon") Double maxLongitude
     );
+    
+    // Venues created before geohashes were maintained
+    List<Venue> findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.entity.Venue;
+
+public interface VenueRepositoryCustom {
+    
+    /**
+     * Insert the venue unless one with the same normalized key exists. The unique index settles
+     * concurrent inserts of the same venue: the losers wait for the winner and insert nothing.
+     * The venue's id and normalized key must already be set.
+     * 
+     * @return true if this call inserted the row
+     */
+    boolean insertIfAbsent(Venue venue);
+}
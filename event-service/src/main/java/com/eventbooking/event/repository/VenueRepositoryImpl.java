@@ -0,0 +1,43 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.entity.Venue;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+
+public class VenueRepositoryImpl implements VenueRepositoryCustom {
+    
+    // No conflict target: the random id cannot collide, so only the normalized key index can
+    private static final String INSERT_IF_ABSENT = """
+        INSERT INTO venues (id, name, normalized_key, address, city, state, zip_code, country, latitude, longitude,
+            geohash, max_capacity, venue_type, created_at)
+        VALUES (:id, :name, :normalizedKey, :address, :city, :state, :zipCode, :country, :latitude, :longitude,
+            :geohash, :maxCapacity, :venueType, :createdAt)
+        ON CONFLICT DO NOTHING
+        """;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public boolean insertIfAbsent(Venue venue) {
+        int inserted = entityManager.createNativeQuery(INSERT_IF_ABSENT)
+            .setParameter("id", venue.getId())
+            .setParameter("name", venue.getName())
+            .setParameter("normalizedKey", venue.getNormalizedKey())
+            .setParameter("address", venue.getAddress())
+            .setParameter("city", venue.getCity())
+            .setParameter("state", venue.getState())
+            .setParameter("zipCode", venue.getZipCode())
+            .setParameter("country", venue.getCountry())
+            .setParameter("latitude", venue.getLatitude())
+            .setParameter("longitude", venue.getLongitude())
+            .setParameter("geohash", venue.getGeohash())
+            .setParameter("maxCapacity", venue.getMaxCapacity())
+            .setParameter("venueType", venue.getVenueType())
+            .setParameter("createdAt", LocalDateTime.now())
+            .executeUpdate();
+        return inserted > 0;
+    }
+}
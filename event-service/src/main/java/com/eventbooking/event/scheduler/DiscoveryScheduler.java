@@ -0,0 +1,57 @@
+package com.eventbooking.event.scheduler;
+
+import com.eventbooking.event.service.DiscoveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DiscoveryScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryScheduler.class);
+    
+    private final DiscoveryService discoveryService;
+    
+    @Autowired
+    public DiscoveryScheduler(DiscoveryService discoveryService) {
+        this.discoveryService = discoveryService;
+    }
+    
+    /**
+     * Write the signals counted in memory to Redis, one pipelined batch per interval.
+     */
+    @Scheduled(fixedDelayString = "${event.discovery.flush-interval-ms:10000}")
+    public void flushSignals() {
+        try {
+            discoveryService.flush();
+        } catch (Exception e) {
+            logger.error("Error flushing discovery signals", e);
+        }
+    }
+    
+    /**
+     * Reload the trending, popular and similar lists served from memory.
+     */
+    @Scheduled(fixedDelayString = "${event.discovery.refresh-interval-ms:60000}")
+    public void refreshLists() {
+        try {
+            discoveryService.refresh();
+        } catch (Exception e) {
+            logger.error("Error refreshing discovery lists", e);
+        }
+    }
+    
+    /**
+     * Recompute similar events offline; only one instance runs it per schedule.
+     */
+    @Scheduled(cron = "${event.discovery.similar-cron:0 15 * * * *}")
+    public void recomputeSimilarEvents() {
+        try {
+            discoveryService.recomputeSimilar();
+        } catch (Exception e) {
+            logger.error("Error recomputing similar events", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.eventbooking.event.scheduler;
+
+import com.eventbooking.event.service.ListingSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ListingSnapshotScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ListingSnapshotScheduler.class);
+    
+    private final ListingSnapshotService listingSnapshotService;
+    
+    @Autowired
+    public ListingSnapshotScheduler(ListingSnapshotService listingSnapshotService) {
+        this.listingSnapshotService = listingSnapshotService;
+    }
+    
+    /**
+     * Poll for stale or newer listing snapshots. Cheap when nothing changed: two Redis reads.
+     */
+    @Scheduled(fixedDelayString = "${event.snapshot.poll-interval-ms:2000}")
+    public void refreshListingSnapshots() {
+        try {
+            listingSnapshotService.refresh();
+        } catch (Exception e) {
+            logger.error("Error refreshing listing snapshots", e);
+        }
+    }
+}
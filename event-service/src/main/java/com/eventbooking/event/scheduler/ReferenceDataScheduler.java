@@ -0,0 +1,28 @@
+package com.eventbooking.event.scheduler;
+
+import com.eventbooking.event.service.ReferenceDataRefresher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReferenceDataScheduler {
+    
+    private final ReferenceDataRefresher referenceDataRefresher;
+    
+    @Autowired
+    public ReferenceDataScheduler(ReferenceDataRefresher referenceDataRefresher) {
+        this.referenceDataRefresher = referenceDataRefresher;
+    }
+    
+    /**
+     * Pub/sub delivery is best effort, so snapshots are also reloaded now and then in case a
+     * change announcement was missed. Failures are logged by the refresher.
+     */
+    @Scheduled(
+        initialDelayString = "${event.reference-data.refresh-interval-ms:600000}",
+        fixedDelayString = "${event.reference-data.refresh-interval-ms:600000}")
+    public void reloadReferenceData() {
+        referenceDataRefresher.reloadAll();
+    }
+}
@@ -0,0 +1,33 @@
+package com.eventbooking.event.scheduler;
+
+import com.eventbooking.event.service.RefundRequestRelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RefundRequestScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefundRequestScheduler.class);
+    
+    private final RefundRequestRelay refundRequestRelay;
+    
+    @Autowired
+    public RefundRequestScheduler(RefundRequestRelay refundRequestRelay) {
+        this.refundRequestRelay = refundRequestRelay;
+    }
+    
+    /**
+     * Send the refund requests of cancelled events the Payment Service has not accepted yet.
+     */
+    @Scheduled(fixedDelayString = "${event.refund-requests.poll-interval-ms:5000}")
+    public void relayRefundRequests() {
+        try {
+            refundRequestRelay.relayDue();
+        } catch (Exception e) {
+            logger.error("Error relaying refund requests", e);
+        }
+    }
+}
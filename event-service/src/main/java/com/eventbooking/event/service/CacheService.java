@@ -1,10 +1,14 @@
 package com.eventbooking.event.service;
 
 import com.eventbooking.event.entity.Event;
-import org.springframework.data.domain.Page;
+import com.eventbooking.event.model.CachedSearchPage;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface CacheService {
     
@@ -12,13 +16,39 @@ public interface CacheService {
     
     Optional<Event> getCachedEvent(UUID eventId);
     
+    /**
+     * Returns the cached event, or loads it with {@code loader} on a miss. Concurrent misses
+     * for the same id share a single load, hot entries are refreshed shortly before they
+     * expire, and ids the loader could not find are remembered briefly.
+     */
+    Optional<Event> getOrLoadEvent(UUID eventId, Function<UUID, Optional<Event>> loader);
+    
+    /**
+     * Returns the cached events among {@code eventIds}, read with a single multi-get. Ids
+     * without an entry are simply absent from the map.
+     */
+    Map<UUID, Event> getCachedEvents(Collection<UUID> eventIds);
+    
+    /**
+     * Caches fully initialized events that have no entry yet, in one pipelined round trip.
+     * {@code loadTimeMillis} is how long loading them took, which early refresh weighs the
+     * same way as the load time of a single event.
+     */
+    void cacheEvents(Collection<Event> events, long loadTimeMillis);
+    
     void evictEvent(UUID eventId);
     
-    void cacheSearchResults(String cacheKey, Page<?> results);
+    void cacheSearchPage(String cacheKey, CachedSearchPage page);
     
-    <T> Page<T> getCachedSearchResults(String cacheKey, Class<T> type);
+    CachedSearchPage getCachedSearchPage(String cacheKey);
     
     void evictSearchCaches(UUID categoryId, String city);
     
     String generateSearchCacheKey(Object criteria);
+    
+    /**
+     * Returns a recently computed row count for {@code countKey}, running {@code counter} only
+     * when none is cached. Counts may lag behind writes by the cache TTL.
+     */
+    long getOrComputeCount(String countKey, Supplier<Long> counter);
 }
\ No newline at end of file
@@ -1,16 +1,36 @@
 package com.eventbooking.event.service;
 
 import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.model.CachedEvent;
+import com.eventbooking.event.model.CachedSearchPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class CacheServiceImpl implements CacheService {
@@ -18,26 +38,114 @@ public class CacheServiceImpl implements CacheService {
     private final RedisTemplate<String, Object> redisTemplate;
     
     private static final String EVENT_CACHE_KEY = "event:";
+    private static final String MISSING_EVENT_CACHE_KEY = "event:missing:";
     private static final String SEARCH_CACHE_KEY = "search:";
+    private static final String COUNT_CACHE_KEY = "count:";
     private static final Duration EVENT_CACHE_TTL = Duration.ofHours(1);
     private static final Duration SEARCH_CACHE_TTL = Duration.ofMinutes(15);
+    private static final Duration COUNT_CACHE_TTL = Duration.ofMinutes(5);
+    
+    @Value("${event.cache.negative-ttl-seconds:30}")
+    private long negativeTtlSeconds;
+    
+    // XFetch beta: values above 1 favour earlier refreshes, 0 disables early refresh
+    @Value("${event.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+    
+    // Loads currently running in this instance, keyed by event id (single-flight)
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<Event>>> inFlightLoads = new ConcurrentHashMap<>();
+    
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter negativeHits;
+    private final Counter collapsedLoads;
+    private final Counter earlyRefreshes;
     
     @Autowired
-    public CacheServiceImpl(RedisTemplate<String, Object> redisTemplate) {
+    public CacheServiceImpl(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.cacheHits = meterRegistry.counter("event.cache.requests", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("event.cache.requests", "result", "miss");
+        this.negativeHits = meterRegistry.counter("event.cache.requests", "result", "negative_hit");
+        this.collapsedLoads = meterRegistry.counter("event.cache.loads.collapsed");
+        this.earlyRefreshes = meterRegistry.counter("event.cache.early.refreshes");
     }
     
     @Override
     public void cacheEvent(Event event) {
-        String key = EVENT_CACHE_KEY + event.getId();
-        redisTemplate.opsForValue().set(key, event, EVENT_CACHE_TTL);
+        cacheEvent(event, 0L);
     }
     
     @Override
     public Optional<Event> getCachedEvent(UUID eventId) {
-        String key = EVENT_CACHE_KEY + eventId;
-        Event event = (Event) redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(event);
+        return Optional.ofNullable(readCachedEvent(eventId)).map(CachedEvent::getEvent);
+    }
+    
+    @Override
+    public Optional<Event> getOrLoadEvent(UUID eventId, Function<UUID, Optional<Event>> loader) {
+        CachedEvent cached = readCachedEvent(eventId);
+        if (cached != null) {
+            if (!shouldRefreshEarly(cached)) {
+                cacheHits.increment();
+                return Optional.ofNullable(cached.getEvent());
+            }
+            // Only one caller refreshes; everyone else keeps serving the still-valid entry
+            if (inFlightLoads.containsKey(eventId)) {
+                cacheHits.increment();
+                return Optional.ofNullable(cached.getEvent());
+            }
+            earlyRefreshes.increment();
+            return load(eventId, loader);
+        }
+        
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(MISSING_EVENT_CACHE_KEY + eventId))) {
+            negativeHits.increment();
+            return Optional.empty();
+        }
+        
+        cacheMisses.increment();
+        return load(eventId, loader);
+    }
+    
+    @Override
+    public Map<UUID, Event> getCachedEvents(Collection<UUID> eventIds) {
+        List<UUID> ids = new ArrayList<>(eventIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        
+        List<Object> values = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> EVENT_CACHE_KEY + id).toList());
+        Map<UUID, Event> events = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = values != null ? values.get(i) : null;
+            if (value instanceof CachedEvent cached && cached.getEvent() != null) {
+                events.put(ids.get(i), cached.getEvent());
+            }
+        }
+        cacheHits.increment(events.size());
+        cacheMisses.increment(ids.size() - events.size());
+        return events;
+    }
+    
+    @Override
+    public void cacheEvents(Collection<Event> events, long loadTimeMillis) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        long expiresAtMillis = System.currentTimeMillis() + EVENT_CACHE_TTL.toMillis();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                // Only fills gaps: reads may come from a replica, and must not replace what a write just cached
+                for (Event event : events) {
+                    operations.opsForValue().setIfAbsent(EVENT_CACHE_KEY + event.getId(),
+                        new CachedEvent(event, loadTimeMillis, expiresAtMillis), EVENT_CACHE_TTL);
+                }
+                return null;
+            }
+        });
     }
     
     @Override
@@ -47,14 +155,13 @@ public class CacheServiceImpl implements CacheService {
     }
     
     @Override
-    public void cacheSearchResults(String cacheKey, Page<?> results) {
-        redisTemplate.opsForValue().set(cacheKey, results, SEARCH_CACHE_TTL);
+    public void cacheSearchPage(String cacheKey, CachedSearchPage page) {
+        redisTemplate.opsForValue().set(cacheKey, page, SEARCH_CACHE_TTL);
     }
     
     @Override
-    @SuppressWarnings("unchecked")
-    public <T> Page<T> getCachedSearchResults(String cacheKey, Class<T> type) {
-        return (Page<T>) redisTemplate.opsForValue().get(cacheKey);
+    public CachedSearchPage getCachedSearchPage(String cacheKey) {
+        return redisTemplate.opsForValue().get(cacheKey) instanceof CachedSearchPage page ? page : null;
     }
     
     @Override
@@ -66,8 +173,87 @@ public class CacheServiceImpl implements CacheService {
         }
     }
     
+    // Callers pass a canonical fingerprint (see SearchFingerprint); the digest keeps keys short
     @Override
     public String generateSearchCacheKey(Object criteria) {
-        return SEARCH_CACHE_KEY + DigestUtils.md5DigestAsHex(criteria.toString().getBytes());
+        return SEARCH_CACHE_KEY + DigestUtils.md5DigestAsHex(criteria.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public long getOrComputeCount(String countKey, Supplier<Long> counter) {
+        String key = COUNT_CACHE_KEY + countKey;
+        Object cached = redisTemplate.opsForValue().get(key);
+        if (cached instanceof Number count) {
+            return count.longValue();
+        }
+        
+        long count = counter.get();
+        redisTemplate.opsForValue().set(key, count, COUNT_CACHE_TTL);
+        return count;
+    }
+    
+    private Optional<Event> load(UUID eventId, Function<UUID, Optional<Event>> loader) {
+        CompletableFuture<Optional<Event>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Event>> existing = inFlightLoads.putIfAbsent(eventId, pending);
+        if (existing != null) {
+            collapsedLoads.increment();
+            return awaitLoad(existing);
+        }
+        
+        try {
+            long start = System.nanoTime();
+            Optional<Event> loaded = loader.apply(eventId);
+            long loadTimeMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            
+            if (loaded.isPresent()) {
+                cacheEvent(loaded.get(), loadTimeMillis);
+            } else {
+                redisTemplate.opsForValue().set(MISSING_EVENT_CACHE_KEY + eventId, Boolean.TRUE,
+                    Duration.ofSeconds(negativeTtlSeconds));
+            }
+            
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(eventId, pending);
+        }
+    }
+    
+    private Optional<Event> awaitLoad(CompletableFuture<Optional<Event>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private void cacheEvent(Event event, long loadTimeMillis) {
+        String key = EVENT_CACHE_KEY + event.getId();
+        long expiresAtMillis = System.currentTimeMillis() + EVENT_CACHE_TTL.toMillis();
+        redisTemplate.opsForValue().set(key, new CachedEvent(event, loadTimeMillis, expiresAtMillis), EVENT_CACHE_TTL);
+    }
+    
+    private CachedEvent readCachedEvent(UUID eventId) {
+        String key = EVENT_CACHE_KEY + eventId;
+        return (CachedEvent) redisTemplate.opsForValue().get(key);
+    }
+    
+    /**
+     * XFetch: refresh before expiry with a probability that rises as the entry gets older
+     * and the original load was slower, so hot keys never expire under load.
+     */
+    private boolean shouldRefreshEarly(CachedEvent cached) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = -cached.getLoadTimeMillis() * earlyRefreshBeta * Math.log(random);
+        return System.currentTimeMillis() + gap >= cached.getExpiresAtMillis();
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.repository.EventCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * In-memory snapshot of the event_categories table. Categories are a dozen seeded rows, so
+ * validating, mapping, listing and suggesting categories never needs a query once loaded.
+ */
+@Component
+public class CategoryCache extends ReferenceDataSnapshot<UUID, EventCategory> {
+    
+    public static final String NAME = "categories";
+    
+    private final EventCategoryRepository categoryRepository;
+    
+    @Autowired
+    public CategoryCache(EventCategoryRepository categoryRepository) {
+        super(NAME, EventCategory::getId);
+        this.categoryRepository = categoryRepository;
+    }
+    
+    @Override
+    protected List<EventCategory> loadAll() {
+        return categoryRepository.findAll(Sort.by("displayOrder", "name"));
+    }
+    
+    // Active categories in display order
+    public List<EventCategory> getActive() {
+        return values().stream()
+            .filter(category -> Boolean.TRUE.equals(category.getIsActive()))
+            .toList();
+    }
+    
+    // Names of active categories containing the query, ignoring case
+    public List<String> suggestNames(String query, int limit) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        return getActive().stream()
+            .map(EventCategory::getName)
+            .filter(name -> name.toLowerCase(Locale.ROOT).contains(needle))
+            .limit(limit)
+            .toList();
+    }
+}
@@ -3,30 +3,28 @@ package com.eventbooking.event.service;
 import com.eventbooking.event.dto.CategoryDto;
 import com.eventbooking.event.entity.EventCategory;
 import com.eventbooking.event.mapper.EventMapper;
-import com.eventbooking.event.repository.EventCategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional(readOnly = true)
 public class CategoryServiceImpl implements CategoryService {
     
-    private final EventCategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final EventMapper eventMapper;
     
     @Autowired
-    public CategoryServiceImpl(EventCategoryRepository categoryRepository, EventMapper eventMapper) {
-        this.categoryRepository = categoryRepository;
+    public CategoryServiceImpl(CategoryCache categoryCache, EventMapper eventMapper) {
+        this.categoryCache = categoryCache;
         this.eventMapper = eventMapper;
     }
     
+    // Served from the in-memory snapshot, no query
     @Override
     public List<CategoryDto> getActiveCategories() {
-        List<EventCategory> categories = categoryRepository.findByIsActiveTrueOrderByDisplayOrderAsc();
+        List<EventCategory> categories = categoryCache.getActive();
         return categories.stream()
             .map(eventMapper::toCategoryDto)
             .collect(Collectors.toList());
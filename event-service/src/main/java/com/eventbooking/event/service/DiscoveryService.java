@@ -0,0 +1,37 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.model.DiscoverySignal;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trending, popular and similar upcoming events. Signals are counted in memory and flushed to
+ * Redis sorted sets in batches; the top lists per city and category are read back into memory
+ * on refresh, so serving them never touches Redis or the database.
+ */
+public interface DiscoveryService {
+    
+    int MAX_LIMIT = 50;
+    
+    // Cheap enough to call on every request: an in-memory increment
+    void record(UUID eventId, DiscoverySignal signal, int count);
+    
+    // Upcoming events with the most recent activity; city and category are optional filters
+    List<EventDto> getTrending(String city, UUID categoryId, int limit);
+    
+    // Upcoming events with the most activity overall; city and category are optional filters
+    List<EventDto> getPopular(String city, UUID categoryId, int limit);
+    
+    List<EventDto> getSimilar(UUID eventId, int limit);
+    
+    // Writes the signals counted since the last flush to Redis
+    void flush();
+    
+    // Reloads the top lists and similar-event lists from Redis
+    void refresh();
+    
+    // Recomputes similar events from tag, category and city co-occurrence among upcoming events
+    void recomputeSimilar();
+}
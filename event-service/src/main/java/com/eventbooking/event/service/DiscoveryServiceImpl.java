@@ -0,0 +1,416 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.mapper.EventMapper;
+import com.eventbooking.event.model.DiscoverySignal;
+import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class DiscoveryServiceImpl implements DiscoveryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryServiceImpl.class);
+    
+    // Sorted sets of event id -> score, one per scope ("all", "city:{normalized}", "category:{id}")
+    private static final String TRENDING_KEY_PREFIX = "discovery:trending:";
+    private static final String POPULAR_KEY_PREFIX = "discovery:popular:";
+    private static final String SCOPES_KEY = "discovery:scopes";
+    // Hash of event id -> comma-separated similar event ids
+    private static final String SIMILAR_KEY = "discovery:similar";
+    private static final String SIMILAR_LOCK_KEY = "discovery:similar:lock";
+    
+    static final String ALL_SCOPE = "all";
+    
+    // Trending scores use forward decay: a signal at time t adds weight * 2^(t / halfLife), so older
+    // scores never need rewriting. The exponent restarts every epoch to stay within double range;
+    // the previous epoch is still read, scaled down by the same factor.
+    private static final int HALF_LIVES_PER_EPOCH = 64;
+    private static final long MAX_TRACKED = 10_000;
+    private static final Duration SIMILAR_LOCK_TTL = Duration.ofMinutes(10);
+    
+    private final StringRedisTemplate redisTemplate;
+    private final EventRepository eventRepository;
+    private final EventSearchViewRepository searchViewRepository;
+    private final EventMapper eventMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @Value("${event.discovery.half-life-hours:6}")
+    private double halfLifeHours;
+    
+    @Value("${event.discovery.top-k:50}")
+    private int topK;
+    
+    @Value("${event.discovery.similar-limit:10}")
+    private int similarLimit;
+    
+    @Value("${event.discovery.similar-max-events:10000}")
+    private int similarMaxEvents;
+    
+    // Signals counted since the last flush; increments never block each other
+    private final ConcurrentMap<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+    
+    private volatile Map<String, List<EventDto>> trendingLists = Map.of();
+    private volatile Map<String, List<EventDto>> popularLists = Map.of();
+    private volatile Map<UUID, List<UUID>> similarIds = Map.of();
+    
+    @Autowired
+    public DiscoveryServiceImpl(
+            StringRedisTemplate redisTemplate,
+            EventRepository eventRepository,
+            EventSearchViewRepository searchViewRepository,
+            EventMapper eventMapper,
+            PlatformTransactionManager transactionManager) {
+        this.redisTemplate = redisTemplate;
+        this.eventRepository = eventRepository;
+        this.searchViewRepository = searchViewRepository;
+        this.eventMapper = eventMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Override
+    public void record(UUID eventId, DiscoverySignal signal, int count) {
+        if (eventId == null || count <= 0) {
+            return;
+        }
+        pending.computeIfAbsent(eventId, id -> new LongAdder()).add((long) signal.getWeight() * count);
+    }
+    
+    @Override
+    public List<EventDto> getTrending(String city, UUID categoryId, int limit) {
+        return select(trendingLists, city, categoryId, limit);
+    }
+    
+    @Override
+    public List<EventDto> getPopular(String city, UUID categoryId, int limit) {
+        return select(popularLists, city, categoryId, limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventDto> getSimilar(UUID eventId, int limit) {
+        List<UUID> ids = similarIds.getOrDefault(eventId, List.of());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // Over-fetch a little; events that have ended since the last recompute are dropped
+        List<UUID> candidates = ids.subList(0, Math.min(ids.size(), clamp(limit) * 2));
+        Map<UUID, EventDto> events = loadUpcoming(candidates);
+        return candidates.stream()
+            .map(events::get)
+            .filter(Objects::nonNull)
+            .limit(clamp(limit))
+            .toList();
+    }
+    
+    @Override
+    public void flush() {
+        Map<UUID, Long> weights = drain(pending);
+        if (weights.isEmpty()) {
+            return;
+        }
+        
+        // Primary-key lookups for just the events that received signals; unknown ids are dropped
+        Map<UUID, EventSearchView> views = searchViewRepository.findAllById(weights.keySet()).stream()
+            .filter(view -> view.getStatus() == EventStatus.PUBLISHED)
+            .collect(Collectors.toMap(EventSearchView::getEventId, Function.identity()));
+        if (views.isEmpty()) {
+            return;
+        }
+        
+        double halfLives = halfLivesNow();
+        long epoch = (long) Math.floor(halfLives / HALF_LIVES_PER_EPOCH);
+        double growth = Math.pow(2, halfLives - epoch * HALF_LIVES_PER_EPOCH);
+        Duration trendingTtl = Duration.ofMillis((long) (2 * HALF_LIVES_PER_EPOCH * halfLifeHours * 3_600_000));
+        
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                ZSetOperations<String, String> zSet = operations.opsForZSet();
+                Set<String> scopes = new HashSet<>();
+                
+                views.values().forEach(view -> {
+                    String member = view.getEventId().toString();
+                    long weight = weights.get(view.getEventId());
+                    for (String scope : scopesOf(view)) {
+                        scopes.add(scope);
+                        zSet.incrementScore(trendingKey(epoch, scope), member, weight * growth);
+                        zSet.incrementScore(POPULAR_KEY_PREFIX + scope, member, weight);
+                    }
+                });
+                
+                for (String scope : scopes) {
+                    operations.expire(trendingKey(epoch, scope), trendingTtl);
+                    // Keeps each ranking bounded; the lowest scores are the least likely to resurface
+                    zSet.removeRange(trendingKey(epoch, scope), 0, -(MAX_TRACKED + 1));
+                    zSet.removeRange(POPULAR_KEY_PREFIX + scope, 0, -(MAX_TRACKED + 1));
+                }
+                operations.opsForSet().add(SCOPES_KEY, scopes.toArray(new String[0]));
+                return null;
+            }
+        });
+        logger.debug("Flushed discovery signals for {} events", views.size());
+    }
+    
+    @Override
+    public void refresh() {
+        Set<String> scopes = redisTemplate.opsForSet().members(SCOPES_KEY);
+        if (scopes == null) {
+            scopes = Set.of();
+        }
+        
+        long epoch = (long) Math.floor(halfLivesNow() / HALF_LIVES_PER_EPOCH);
+        int candidates = topK * 2;
+        
+        Map<String, List<UUID>> trendingIds = new HashMap<>();
+        Map<String, List<UUID>> popularIds = new HashMap<>();
+        for (String scope : scopes) {
+            Map<UUID, Double> scores = new HashMap<>();
+            readTop(trendingKey(epoch, scope), candidates, 1.0, scores);
+            readTop(trendingKey(epoch - 1, scope), candidates, Math.pow(2, -HALF_LIVES_PER_EPOCH), scores);
+            trendingIds.put(scope, rank(scores));
+            
+            Map<UUID, Double> counts = new HashMap<>();
+            readTop(POPULAR_KEY_PREFIX + scope, candidates, 1.0, counts);
+            popularIds.put(scope, rank(counts));
+        }
+        
+        Set<UUID> eventIds = new HashSet<>();
+        trendingIds.values().forEach(eventIds::addAll);
+        popularIds.values().forEach(eventIds::addAll);
+        Map<UUID, EventDto> events = eventIds.isEmpty()
+            ? Map.of()
+            : readOnlyTransaction.execute(status -> loadUpcoming(eventIds));
+        
+        trendingLists = toLists(trendingIds, events);
+        popularLists = toLists(popularIds, events);
+        similarIds = readSimilar();
+        
+        // Ended and cancelled events drop out of the rankings as soon as they reach the top
+        Set<UUID> ended = new HashSet<>(eventIds);
+        ended.removeAll(events.keySet());
+        if (!ended.isEmpty()) {
+            removeFromRankings(ended, scopes, epoch);
+        }
+    }
+    
+    @Override
+    public void recomputeSimilar() {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SIMILAR_LOCK_KEY, "1", SIMILAR_LOCK_TTL))) {
+            return;
+        }
+        try {
+            List<EventDto> events = readOnlyTransaction.execute(status -> eventRepository
+                .findUpcomingEvents(LocalDateTime.now(), PageRequest.of(0, similarMaxEvents))
+                .map(eventMapper::toDto)
+                .getContent());
+            
+            Map<UUID, Set<String>> features = new HashMap<>();
+            for (EventDto event : events) {
+                features.put(event.getId(), featuresOf(event));
+            }
+            Map<UUID, List<UUID>> similar = SimilarEvents.compute(features, similarLimit);
+            
+            // Built under a temporary key and renamed, so readers never see a half-written hash
+            String buildKey = SIMILAR_KEY + ":building";
+            redisTemplate.delete(buildKey);
+            if (!similar.isEmpty()) {
+                Map<String, String> entries = new HashMap<>();
+                similar.forEach((eventId, ids) -> entries.put(eventId.toString(),
+                    ids.stream().map(UUID::toString).collect(Collectors.joining(","))));
+                redisTemplate.opsForHash().putAll(buildKey, entries);
+                redisTemplate.rename(buildKey, SIMILAR_KEY);
+            } else {
+                redisTemplate.delete(SIMILAR_KEY);
+            }
+            
+            similarIds = similar;
+            logger.info("Recomputed similar events for {} upcoming events", events.size());
+        } finally {
+            redisTemplate.delete(SIMILAR_LOCK_KEY);
+        }
+    }
+    
+    private List<EventDto> select(Map<String, List<EventDto>> lists, String city, UUID categoryId, int limit) {
+        String normalizedCity = city == null || city.isBlank() ? null : EventSearchView.normalize(city);
+        String scope = categoryId != null ? "category:" + categoryId
+            : normalizedCity != null ? "city:" + normalizedCity
+            : ALL_SCOPE;
+        
+        List<EventDto> events = lists.getOrDefault(scope, List.of());
+        if (categoryId != null && normalizedCity != null) {
+            // Category lists are the narrower of the two, so the city is filtered in memory
+            return events.stream()
+                .filter(event -> event.getVenue() != null
+                    && normalizedCity.equals(EventSearchView.normalize(event.getVenue().getCity())))
+                .limit(clamp(limit))
+                .toList();
+        }
+        return events.subList(0, Math.min(events.size(), clamp(limit)));
+    }
+    
+    // Published events that have not started yet, keyed by id
+    private Map<UUID, EventDto> loadUpcoming(Collection<UUID> eventIds) {
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.findByIdIn(eventIds).stream()
+            .filter(event -> event.getStatus() == EventStatus.PUBLISHED && event.getEventDate().isAfter(now))
+            .collect(Collectors.toMap(Event::getId, eventMapper::toDto));
+    }
+    
+    private void readTop(String key, int count, double scale, Map<UUID, Double> scores) {
+        Set<ZSetOperations.TypedTuple<String>> top = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, count - 1);
+        if (top == null) {
+            return;
+        }
+        for (ZSetOperations.TypedTuple<String> entry : top) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                scores.merge(UUID.fromString(entry.getValue()), entry.getScore() * scale, Double::sum);
+            }
+        }
+    }
+    
+    private List<UUID> rank(Map<UUID, Double> scores) {
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+    
+    private Map<String, List<EventDto>> toLists(Map<String, List<UUID>> idsByScope, Map<UUID, EventDto> events) {
+        Map<String, List<EventDto>> lists = new HashMap<>();
+        idsByScope.forEach((scope, ids) -> {
+            List<EventDto> list = ids.stream()
+                .map(events::get)
+                .filter(Objects::nonNull)
+                .limit(topK)
+                .toList();
+            if (!list.isEmpty()) {
+                lists.put(scope, list);
+            }
+        });
+        return lists;
+    }
+    
+    private Map<UUID, List<UUID>> readSimilar() {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(SIMILAR_KEY);
+        if (entries == null || entries.isEmpty()) {
+            // Keep whatever this instance computed itself until the shared copy appears
+            return similarIds;
+        }
+        
+        Map<UUID, List<UUID>> similar = new HashMap<>();
+        entries.forEach((eventId, ids) -> similar.put(UUID.fromString((String) eventId),
+            Arrays.stream(((String) ids).split(",")).map(UUID::fromString).toList()));
+        return similar;
+    }
+    
+    private void removeFromRankings(Set<UUID> eventIds, Set<String> scopes, long epoch) {
+        Object[] members = eventIds.stream().map(UUID::toString).toArray();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (String scope : scopes) {
+                    operations.opsForZSet().remove(trendingKey(epoch, scope), members);
+                    operations.opsForZSet().remove(trendingKey(epoch - 1, scope), members);
+                    operations.opsForZSet().remove(POPULAR_KEY_PREFIX + scope, members);
+                }
+                return null;
+            }
+        });
+    }
+    
+    private double halfLivesNow() {
+        return System.currentTimeMillis() / (halfLifeHours * 3_600_000);
+    }
+    
+    private static Map<UUID, Long> drain(ConcurrentMap<UUID, LongAdder> pending) {
+        Map<UUID, Long> drained = new LinkedHashMap<>();
+        pending.forEach((eventId, adder) -> {
+            long value = adder.sumThenReset();
+            if (value > 0) {
+                drained.put(eventId, value);
+            } else {
+                // Idle since the last flush; an increment racing this removal is lost, which rankings tolerate
+                pending.remove(eventId, adder);
+            }
+        });
+        return drained;
+    }
+    
+    private static List<String> scopesOf(EventSearchView view) {
+        List<String> scopes = new ArrayList<>(3);
+        scopes.add(ALL_SCOPE);
+        if (view.getCityNormalized() != null) {
+            scopes.add("city:" + view.getCityNormalized());
+        }
+        if (view.getCategoryId() != null) {
+            scopes.add("category:" + view.getCategoryId());
+        }
+        return scopes;
+    }
+    
+    private static Set<String> featuresOf(EventDto event) {
+        Set<String> features = new HashSet<>();
+        if (event.getTags() != null) {
+            event.getTags().stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .forEach(tag -> features.add("tag:" + EventSearchView.normalize(tag)));
+        }
+        if (event.getCategory() != null) {
+            features.add("category:" + event.getCategory().getId());
+        }
+        if (event.getVenue() != null && event.getVenue().getCity() != null) {
+            features.add("city:" + EventSearchView.normalize(event.getVenue().getCity()));
+        }
+        return features;
+    }
+    
+    private static String trendingKey(long epoch, String scope) {
+        return TRENDING_KEY_PREFIX + epoch + ":" + scope;
+    }
+    
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,38 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.BulkImportResult;
+import com.eventbooking.event.model.BulkFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+public interface EventBulkService {
+    
+    /**
+     * Create draft events from a stream of BulkEventRecord rows. Rows are validated like single
+     * event creation; invalid rows are reported by line and skipped, and the valid ones are
+     * written in chunks, each chunk in its own transaction. Venues are matched by name and city
+     * against a map built once per import, so a venue shared by many rows is looked up once.
+     * 
+     * @param input NDJSON lines, or CSV with a header row naming BulkEventRecord properties
+     * @param format The input format
+     * @param organizerId The organizer the events are created for
+     * @return Counts of imported and failed rows, with the first row errors
+     * @throws IOException if the input cannot be read
+     */
+    BulkImportResult importEvents(InputStream input, BulkFormat format, UUID organizerId) throws IOException;
+    
+    /**
+     * Write all of the organizer's events, in event date order, as BulkEventRecord rows in the
+     * same format accepted by import. Rows are read through a database cursor and written as
+     * they arrive, so memory use does not grow with the number of events.
+     * 
+     * @param organizerId The organizer whose events are exported
+     * @param format The output format
+     * @param output The stream to write to; left open
+     * @throws IOException if the output cannot be written
+     */
+    void exportEvents(UUID organizerId, BulkFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,502 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.BulkEventRecord;
+import com.eventbooking.event.dto.BulkImportResult;
+import com.eventbooking.event.dto.CreateEventRequest;
+import com.eventbooking.event.dto.VenueRequest;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.model.BulkFormat;
+import com.eventbooking.event.repository.EventBulkRepository;
+import com.eventbooking.event.repository.VenueRepository;
+import com.eventbooking.event.util.Csv;
+import com.eventbooking.event.util.Tags;
+import com.eventbooking.event.util.VenueKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class EventBulkServiceImpl implements EventBulkService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventBulkServiceImpl.class);
+    
+    // CSV columns, named after the BulkEventRecord properties; import accepts them in any order
+    static final List<String> CSV_COLUMNS = List.of(
+        "id", "status", "name", "description", "eventDate", "categoryId", "maxCapacity", "tags",
+        "venueName", "venueAddress", "venueCity", "venueState", "venueZipCode", "venueCountry",
+        "venueLatitude", "venueLongitude", "venueMaxCapacity", "venueType");
+    
+    // Tags share one CSV field
+    private static final String TAG_SEPARATOR = "|";
+    private static final Pattern TAG_SPLITTER = Pattern.compile(Pattern.quote(TAG_SEPARATOR));
+    
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {};
+    
+    private final EventBulkRepository bulkRepository;
+    private final VenueRepository venueRepository;
+    private final VenueService venueService;
+    private final CategoryCache categoryCache;
+    private final SearchIndexService searchIndexService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${event.bulk.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${event.bulk.max-rows:10000}")
+    private int maxRows;
+    
+    @Value("${event.bulk.max-reported-errors:100}")
+    private int maxReportedErrors;
+    
+    @Value("${event.bulk.export-fetch-size:500}")
+    private int exportFetchSize;
+    
+    @Autowired
+    public EventBulkServiceImpl(
+            EventBulkRepository bulkRepository,
+            VenueRepository venueRepository,
+            VenueService venueService,
+            CategoryCache categoryCache,
+            SearchIndexService searchIndexService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager) {
+        this.bulkRepository = bulkRepository;
+        this.venueRepository = venueRepository;
+        this.venueService = venueService;
+        this.categoryCache = categoryCache;
+        this.searchIndexService = searchIndexService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public BulkImportResult importEvents(InputStream input, BulkFormat format, UUID organizerId) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource rows = format == BulkFormat.CSV ? new CsvRows(reader) : new NdjsonRows(reader);
+        ImportBatch batch = new ImportBatch(organizerId);
+        
+        int rowCount = 0;
+        try {
+            for (ParsedRow row = rows.next(); row != null; row = rows.next()) {
+                if (++rowCount > maxRows) {
+                    batch.result.setTruncated(true);
+                    break;
+                }
+                if (row.error != null) {
+                    batch.fail(row.line, row.error);
+                    continue;
+                }
+                PendingEvent pending = prepare(row, batch);
+                if (pending != null) {
+                    batch.chunk.add(pending);
+                    if (batch.chunk.size() >= chunkSize) {
+                        writeChunk(batch);
+                    }
+                }
+            }
+        } catch (InvalidEventDataException e) {
+            // Unreadable CSV structure: nothing after this point can be parsed reliably
+            if (rowCount == 0) {
+                throw e;
+            }
+            batch.fail(rows.line(), e.getMessage());
+            batch.result.setTruncated(true);
+        }
+        writeChunk(batch);
+        
+        logger.info("Bulk import for organizer {}: {} events imported, {} rows failed",
+            organizerId, batch.result.getImported(), batch.result.getFailed());
+        return batch.result;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEvents(UUID organizerId, BulkFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == BulkFormat.CSV) {
+            Csv.writeRecord(writer, CSV_COLUMNS);
+        }
+        
+        try {
+            bulkRepository.streamByOrganizer(organizerId, exportFetchSize, record -> {
+                try {
+                    writeRecord(writer, format, record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+    
+    // Validates the row as single event creation would; null (with the error recorded) if invalid
+    private PendingEvent prepare(ParsedRow row, ImportBatch batch) {
+        BulkEventRecord record = row.record;
+        CreateEventRequest request = toCreateRequest(record);
+        
+        Set<ConstraintViolation<CreateEventRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            batch.fail(row.line, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+            return null;
+        }
+        
+        EventCategory category = categoryCache.get(request.getCategoryId()).orElse(null);
+        if (category == null) {
+            batch.fail(row.line, "Category not found");
+            return null;
+        }
+        
+        try {
+            return new PendingEvent(row.line, request, category, Tags.normalize(request.getTags()));
+        } catch (InvalidEventDataException e) {
+            batch.fail(row.line, e.getMessage());
+            return null;
+        }
+    }
+    
+    // Writes the chunk in one transaction; if any statement fails, every row of the chunk is reported
+    private void writeChunk(ImportBatch batch) {
+        if (batch.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingEvent> chunk = batch.chunk;
+        batch.chunk = new ArrayList<>();
+        List<String> createdVenueKeys = new ArrayList<>();
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                resolveVenues(chunk, batch, createdVenueKeys);
+                List<Event> events = new ArrayList<>(chunk.size());
+                for (PendingEvent pending : chunk) {
+                    events.add(toEvent(pending, batch));
+                }
+                List<EventSearchView> searchRows = events.stream().map(searchIndexService::toSearchRow).toList();
+                
+                bulkRepository.insertEvents(events);
+                bulkRepository.insertSearchRows(searchRows);
+            });
+            batch.result.setImported(batch.result.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            logger.warn("Bulk import chunk of {} rows failed for organizer {}", chunk.size(), batch.organizerId, e);
+            // Venues created in the rolled back chunk do not exist
+            createdVenueKeys.forEach(batch.venues::remove);
+            for (PendingEvent pending : chunk) {
+                batch.fail(pending.line, "Could not be saved");
+            }
+        }
+    }
+    
+    // Matches chunk rows to venues, looking up each venue key once per import and creating the missing ones
+    private void resolveVenues(List<PendingEvent> chunk, ImportBatch batch, List<String> createdVenueKeys) {
+        Set<String> unseenKeys = new HashSet<>();
+        for (PendingEvent pending : chunk) {
+            if (!batch.venues.containsKey(pending.venueKey)) {
+                unseenKeys.add(pending.venueKey);
+            }
+        }
+        if (unseenKeys.isEmpty()) {
+            return;
+        }
+        for (Venue venue : venueRepository.findByNormalizedKeyIn(unseenKeys)) {
+            batch.venues.put(venue.getNormalizedKey(), venue);
+        }
+        
+        List<Venue> newVenues = new ArrayList<>();
+        for (PendingEvent pending : chunk) {
+            if (!batch.venues.containsKey(pending.venueKey)) {
+                Venue venue = venueService.newVenue(pending.request.getVenue());
+                batch.venues.put(pending.venueKey, venue);
+                createdVenueKeys.add(pending.venueKey);
+                newVenues.add(venue);
+            }
+        }
+        if (newVenues.isEmpty()) {
+            return;
+        }
+        
+        bulkRepository.insertVenues(newVenues);
+        // Keys a concurrent request created first were skipped by the insert; use that request's venue
+        for (Venue venue : venueRepository.findByNormalizedKeyIn(createdVenueKeys)) {
+            batch.venues.put(venue.getNormalizedKey(), venue);
+        }
+    }
+    
+    private Event toEvent(PendingEvent pending, ImportBatch batch) {
+        CreateEventRequest request = pending.request;
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setOrganizerId(batch.organizerId);
+        event.setName(request.getName());
+        event.setDescription(request.getDescription());
+        event.setEventDate(request.getEventDate());
+        event.setVenue(batch.venues.get(pending.venueKey));
+        event.setCategory(pending.category);
+        event.setMaxCapacity(request.getMaxCapacity());
+        event.setStatus(EventStatus.DRAFT);
+        event.setTags(pending.tags);
+        return event;
+    }
+    
+    private CreateEventRequest toCreateRequest(BulkEventRecord record) {
+        VenueRequest venue = new VenueRequest();
+        venue.setName(record.getVenueName());
+        venue.setAddress(record.getVenueAddress());
+        venue.setCity(record.getVenueCity());
+        venue.setState(record.getVenueState());
+        venue.setZipCode(record.getVenueZipCode());
+        venue.setCountry(record.getVenueCountry());
+        venue.setLatitude(record.getVenueLatitude());
+        venue.setLongitude(record.getVenueLongitude());
+        venue.setMaxCapacity(record.getVenueMaxCapacity());
+        venue.setVenueType(record.getVenueType());
+        
+        CreateEventRequest request = new CreateEventRequest();
+        request.setName(record.getName());
+        request.setDescription(record.getDescription());
+        request.setEventDate(record.getEventDate());
+        request.setCategoryId(record.getCategoryId());
+        request.setMaxCapacity(record.getMaxCapacity());
+        request.setTags(record.getTags());
+        request.setVenue(venue);
+        return request;
+    }
+    
+    private void writeRecord(Writer writer, BulkFormat format, BulkEventRecord record) throws IOException {
+        if (format == BulkFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.write('\n');
+            return;
+        }
+        
+        Map<String, Object> fields = objectMapper.convertValue(record, FIELDS);
+        List<String> values = new ArrayList<>(CSV_COLUMNS.size());
+        for (String column : CSV_COLUMNS) {
+            Object value = fields.get(column);
+            if (value instanceof List<?> list) {
+                value = list.stream().map(String::valueOf).collect(Collectors.joining(TAG_SEPARATOR));
+            }
+            values.add(value != null ? value.toString() : null);
+        }
+        Csv.writeRecord(writer, values);
+    }
+    
+    // Short, client-facing description of why a row could not be read
+    private static String describe(JsonProcessingException e) {
+        if (e instanceof UnrecognizedPropertyException unrecognized) {
+            return "Unknown field " + unrecognized.getPropertyName();
+        }
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            List<JsonMappingException.Reference> path = mapping.getPath();
+            return "Invalid value for " + path.get(path.size() - 1).getFieldName();
+        }
+        return "Malformed JSON";
+    }
+    
+    private interface RowSource {
+        
+        // Next non-blank row, or null at end of input
+        ParsedRow next() throws IOException;
+        
+        // Current position in the input, for errors that abort reading
+        long line();
+    }
+    
+    private final class NdjsonRows implements RowSource {
+        
+        private final BufferedReader reader;
+        private long line;
+        
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(line, objectMapper.readValue(text, BulkEventRecord.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(line, null, describe(e));
+                }
+            }
+            return null;
+        }
+        
+        @Override
+        public long line() {
+            return line;
+        }
+    }
+    
+    private final class CsvRows implements RowSource {
+        
+        private final Csv.RecordReader reader;
+        private List<String> header;
+        
+        CsvRows(BufferedReader reader) {
+            this.reader = new Csv.RecordReader(reader);
+        }
+        
+        @Override
+        public ParsedRow next() throws IOException {
+            if (header == null) {
+                header = readHeader();
+                if (header == null) {
+                    return null;
+                }
+            }
+            
+            List<String> values;
+            while ((values = reader.next()) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                long line = reader.getRecordLine();
+                if (values.size() > header.size()) {
+                    return new ParsedRow(line, null, "Expected at most " + header.size() + " fields");
+                }
+                
+                Map<String, Object> fields = new LinkedHashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    String value = values.get(i).trim();
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    fields.put(header.get(i), "tags".equals(header.get(i))
+                        ? Arrays.asList(TAG_SPLITTER.split(value))
+                        : value);
+                }
+                try {
+                    return new ParsedRow(line, objectMapper.convertValue(fields, BulkEventRecord.class), null);
+                } catch (IllegalArgumentException e) {
+                    String error = e.getCause() instanceof JsonProcessingException cause ? describe(cause) : "Invalid row";
+                    return new ParsedRow(line, null, error);
+                }
+            }
+            return null;
+        }
+        
+        @Override
+        public long line() {
+            return reader.getRecordLine();
+        }
+        
+        private List<String> readHeader() throws IOException {
+            List<String> columns = reader.next();
+            if (columns == null) {
+                return null;
+            }
+            List<String> names = columns.stream().map(String::trim).toList();
+            for (String name : names) {
+                if (!CSV_COLUMNS.contains(name)) {
+                    throw new InvalidEventDataException("Unknown CSV column: " + name);
+                }
+            }
+            return names;
+        }
+    }
+    
+    private static final class ParsedRow {
+        
+        private final long line;
+        private final BulkEventRecord record;
+        private final String error;
+        
+        ParsedRow(long line, BulkEventRecord record, String error) {
+            this.line = line;
+            this.record = record;
+            this.error = error;
+        }
+    }
+    
+    private static final class PendingEvent {
+        
+        private final long line;
+        private final CreateEventRequest request;
+        private final EventCategory category;
+        private final List<String> tags;
+        private final String venueKey;
+        
+        PendingEvent(long line, CreateEventRequest request, EventCategory category, List<String> tags) {
+            this.line = line;
+            this.request = request;
+            this.category = category;
+            this.tags = tags;
+            this.venueKey = VenueKeys.of(request.getVenue().getName(), request.getVenue().getCity());
+        }
+    }
+    
+    // State of one import request: the venue map lives as long as the request, the chunk until written
+    private final class ImportBatch {
+        
+        private final UUID organizerId;
+        private final BulkImportResult result = new BulkImportResult();
+        private final Map<String, Venue> venues = new HashMap<>();
+        private List<PendingEvent> chunk = new ArrayList<>();
+        
+        ImportBatch(UUID organizerId) {
+            this.organizerId = organizerId;
+        }
+        
+        void fail(long line, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new BulkImportResult.RowError(line, message));
+            }
+        }
+    }
+}
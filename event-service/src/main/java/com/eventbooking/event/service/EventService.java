@@ -1,7 +1,9 @@
 package com.eventbooking.event.service;
 
 import com.eventbooking.event.dto.CreateEventRequest;
+import com.eventbooking.event.dto.CursorPage;
 import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.dto.PriceRangeRequest;
 import com.eventbooking.event.dto.UpdateEventRequest;
 import com.eventbooking.event.entity.EventStatus;
 import org.springframework.data.domain.Page;
@@ -26,6 +28,17 @@ public interface EventService {
     
     Page<EventDto> getUpcomingEvents(Pageable pageable);
     
+    Page<EventDto> getUpcomingEventsByCategory(UUID categoryId, Pageable pageable);
+    
+    Page<EventDto> getUpcomingEventsByCity(String city, Pageable pageable);
+    
+    // Keyset-paginated listings: cost does not grow with page depth
+    CursorPage<EventDto> scrollEventsByOrganizer(UUID organizerId, String cursor, int size, boolean includeTotal);
+    
+    CursorPage<EventDto> scrollPublishedEvents(String cursor, int size, boolean includeTotal);
+    
+    CursorPage<EventDto> scrollUpcomingEvents(String cursor, int size, boolean includeTotal);
+    
     EventDto publishEvent(UUID eventId, UUID organizerId);
     
     EventDto cancelEvent(UUID eventId, UUID organizerId);
@@ -34,4 +47,7 @@ public interface EventService {
     
     // Internal API for other services
     EventDto getEventForTicketService(UUID eventId);
+    
+    // Ticket Service reports the cheapest and dearest ticket type whenever its ticket types change
+    EventDto updatePriceRange(UUID eventId, PriceRangeRequest request);
 }
\ No newline at end of file
@@ -9,13 +9,11 @@ import com.eventbooking.event.exception.EventAccessDeniedException;
 import com.eventbooking.event.exception.EventNotFoundException;
 import com.eventbooking.event.exception.InvalidEventDataException;
 import com.eventbooking.event.mapper.EventMapper;
-import com.eventbooking.event.repository.EventCategoryRepository;
 import com.eventbooking.event.repository.EventRepository;
-import com.eventbooking.event.repository.VenueRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eventbooking.event.util.Tags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,36 +28,42 @@ import java.util.UUID;
 public class EventServiceImpl implements EventService {
     
     private final EventRepository eventRepository;
-    private final EventCategoryRepository categoryRepository;
-    private final VenueRepository venueRepository;
+    private final CategoryCache categoryCache;
+    private final VenueService venueService;
     private final EventMapper eventMapper;
     private final CacheService cacheService;
-    private final ObjectMapper objectMapper;
+    private final SearchIndexService searchIndexService;
+    private final ListingSnapshotService listingSnapshotService;
+    private final RefundRequestRelay refundRequestRelay;
     
     @Autowired
     public EventServiceImpl(
             EventRepository eventRepository,
-            EventCategoryRepository categoryRepository,
-            VenueRepository venueRepository,
+            CategoryCache categoryCache,
+            VenueService venueService,
             EventMapper eventMapper,
             CacheService cacheService,
-            ObjectMapper objectMapper) {
+            SearchIndexService searchIndexService,
+            ListingSnapshotService listingSnapshotService,
+            RefundRequestRelay refundRequestRelay) {
         this.eventRepository = eventRepository;
-        this.categoryRepository = categoryRepository;
-        this.venueRepository = venueRepository;
+        this.categoryCache = categoryCache;
+        this.venueService = venueService;
         this.eventMapper = eventMapper;
         this.cacheService = cacheService;
-        this.objectMapper = objectMapper;
+        this.searchIndexService = searchIndexService;
+        this.listingSnapshotService = listingSnapshotService;
+        this.refundRequestRelay = refundRequestRelay;
     }
     
     @Override
     public EventDto createEvent(CreateEventRequest request, UUID organizerId) {
-        // Validate category exists
-        EventCategory category = categoryRepository.findById(request.getCategoryId())
+        // Validate category exists; the shared snapshot instance is only referenced, never modified
+        EventCategory category = categoryCache.get(request.getCategoryId())
             .orElseThrow(() -> new InvalidEventDataException("Category not found"));
         
         // Create or find venue
-        Venue venue = createOrFindVenue(request.getVenue());
+        Venue venue = venueService.findOrCreate(request.getVenue());
         
         // Create event
         Event event = new Event();
@@ -72,16 +76,10 @@ public class EventServiceImpl implements EventService {
         event.setMaxCapacity(request.getMaxCapacity());
         event.setStatus(EventStatus.DRAFT);
         
-        // Convert tags to JSON
-        if (request.getTags() != null && !request.getTags().isEmpty()) {
-            try {
-                event.setTags(objectMapper.writeValueAsString(request.getTags()));
-            } catch (JsonProcessingException e) {
-                throw new InvalidEventDataException("Invalid tags format");
-            }
-        }
+        event.setTags(Tags.normalize(request.getTags()));
         
         Event savedEvent = eventRepository.save(event);
+        searchIndexService.indexEvent(savedEvent);
         
         // Cache the event
         cacheService.cacheEvent(savedEvent);
@@ -92,18 +90,10 @@ public class EventServiceImpl implements EventService {
     @Override
     @Transactional(readOnly = true)
     public EventDto getEventById(UUID eventId) {
-        // Check cache first
-        Optional<Event> cachedEvent = cacheService.getCachedEvent(eventId);
-        if (cachedEvent.isPresent()) {
-            return eventMapper.toDto(cachedEvent.get());
-        }
-        
-        Event event = eventRepository.findById(eventId)
+        // Concurrent misses for the same event share one database load
+        Event event = cacheService.getOrLoadEvent(eventId, eventRepository::findDetailedById)
             .orElseThrow(() -> new EventNotFoundException(eventId));
         
-        // Cache the event
-        cacheService.cacheEvent(event);
-        
         return eventMapper.toDto(event);
     }
     
@@ -128,11 +118,11 @@ public class EventServiceImpl implements EventService {
             event.setEventDate(request.getEventDate());
         }
         if (request.getVenue() != null) {
-            Venue venue = createOrFindVenue(request.getVenue());
+            Venue venue = venueService.findOrCreate(request.getVenue());
             event.setVenue(venue);
         }
         if (request.getCategoryId() != null) {
-            EventCategory category = categoryRepository.findById(request.getCategoryId())
+            EventCategory category = categoryCache.get(request.getCategoryId())
                 .orElseThrow(() -> new InvalidEventDataException("Category not found"));
             event.setCategory(category);
         }
@@ -140,17 +130,15 @@ public class EventServiceImpl implements EventService {
             event.setMaxCapacity(request.getMaxCapacity());
         }
         if (request.getTags() != null) {
-            try {
-                event.setTags(objectMapper.writeValueAsString(request.getTags()));
-            } catch (JsonProcessingException e) {
-                throw new InvalidEventDataException("Invalid tags format");
-            }
+            event.setTags(Tags.normalize(request.getTags()));
         }
         
         Event savedEvent = eventRepository.save(event);
+        searchIndexService.indexEvent(savedEvent);
         
         // Update cache
         cacheService.cacheEvent(savedEvent);
+        invalidateListingsIfPublished(savedEvent);
         
         return eventMapper.toDto(savedEvent);
     }
@@ -171,6 +159,7 @@ public class EventServiceImpl implements EventService {
         }
         
         eventRepository.delete(event);
+        searchIndexService.removeEvent(eventId);
         
         // Remove from cache
         cacheService.evictEvent(eventId);
@@ -197,6 +186,77 @@ public class EventServiceImpl implements EventService {
         return events.map(eventMapper::toDto);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EventDto> getUpcomingEventsByCategory(UUID categoryId, Pageable pageable) {
+        Page<Event> events = eventRepository.findUpcomingEventsByCategory(LocalDateTime.now(), categoryId, pageable);
+        return events.map(eventMapper::toDto);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EventDto> getUpcomingEventsByCity(String city, Pageable pageable) {
+        Page<Event> events = eventRepository.findUpcomingEventsByCity(LocalDateTime.now(), city, pageable);
+        return events.map(eventMapper::toDto);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EventDto> scrollEventsByOrganizer(UUID organizerId, String cursor, int size, boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        EventCursor position = Optional.ofNullable(EventCursor.decode(cursor)).orElseGet(EventCursor::first);
+        
+        List<Event> rows = eventRepository.findByOrganizerIdAfter(
+            organizerId, position.getEventDate(), position.getId(), PageRequest.of(0, pageSize + 1));
+        
+        Long total = includeTotal
+            ? cacheService.getOrComputeCount("organizer:" + organizerId,
+                () -> eventRepository.countByOrganizerId(organizerId))
+            : null;
+        
+        return eventMapper.toCursorPage(rows, pageSize, total);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EventDto> scrollPublishedEvents(String cursor, int size, boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        EventCursor position = Optional.ofNullable(EventCursor.decode(cursor)).orElseGet(EventCursor::first);
+        
+        List<Event> rows = eventRepository.findByStatusAfter(
+            EventStatus.PUBLISHED, position.getEventDate(), position.getId(), PageRequest.of(0, pageSize + 1));
+        
+        Long total = includeTotal
+            ? cacheService.getOrComputeCount("published",
+                () -> eventRepository.countByStatus(EventStatus.PUBLISHED))
+            : null;
+        
+        return eventMapper.toCursorPage(rows, pageSize, total);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EventDto> scrollUpcomingEvents(String cursor, int size, boolean includeTotal) {
+        int pageSize = CursorPage.clampSize(size);
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Upcoming is the published listing seeked past "now"; stale cursors are moved forward
+        EventCursor start = EventCursor.after(now);
+        EventCursor position = EventCursor.decode(cursor);
+        if (position == null || position.isBefore(start)) {
+            position = start;
+        }
+        
+        List<Event> rows = eventRepository.findByStatusAfter(
+            EventStatus.PUBLISHED, position.getEventDate(), position.getId(), PageRequest.of(0, pageSize + 1));
+        
+        Long total = includeTotal
+            ? cacheService.getOrComputeCount("upcoming", () -> eventRepository.countUpcomingEvents(now))
+            : null;
+        
+        return eventMapper.toCursorPage(rows, pageSize, total);
+    }
+    
     @Override
     public EventDto publishEvent(UUID eventId, UUID organizerId) {
         Event event = eventRepository.findById(eventId)
@@ -214,9 +274,11 @@ public class EventServiceImpl implements EventService {
         
         event.setStatus(EventStatus.PUBLISHED);
         Event savedEvent = eventRepository.save(event);
+        searchIndexService.indexEvent(savedEvent);
         
         // Update cache
         cacheService.cacheEvent(savedEvent);
+        listingSnapshotService.invalidate();
         
         // TODO: Publish event to SNS for notifications
         
@@ -235,9 +297,15 @@ public class EventServiceImpl implements EventService {
         
         event.setStatus(EventStatus.CANCELLED);
         Event savedEvent = eventRepository.save(event);
+        searchIndexService.indexEvent(savedEvent);
         
         // Update cache
         cacheService.cacheEvent(savedEvent);
+        listingSnapshotService.invalidate();
+        
+        // Ticket holders are refunded by a bulk job in the Payment Service, requested from the
+        // relay once this commits
+        refundRequestRelay.record(eventId, "Event cancelled by organizer");
         
         // TODO: Publish cancellation event to SNS for notifications
         
@@ -259,6 +327,7 @@ public class EventServiceImpl implements EventService {
         
         // Update cache
         cacheService.cacheEvent(savedEvent);
+        invalidateListingsIfPublished(savedEvent);
         
         return eventMapper.toDto(savedEvent);
     }
@@ -272,28 +341,32 @@ public class EventServiceImpl implements EventService {
         return eventMapper.toDto(event);
     }
     
-    private Venue createOrFindVenue(VenueRequest venueRequest) {
-        // Try to find existing venue by name and city
-        Optional<Venue> existingVenue = venueRepository
-            .findByNameIgnoreCaseAndCityIgnoreCase(venueRequest.getName(), venueRequest.getCity());
+    @Override
+    public EventDto updatePriceRange(UUID eventId, PriceRangeRequest request) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new EventNotFoundException(eventId));
         
-        if (existingVenue.isPresent()) {
-            return existingVenue.get();
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new InvalidEventDataException("Minimum price must not exceed maximum price");
         }
         
-        // Create new venue
-        Venue venue = new Venue();
-        venue.setName(venueRequest.getName());
-        venue.setAddress(venueRequest.getAddress());
-        venue.setCity(venueRequest.getCity());
-        venue.setState(venueRequest.getState());
-        venue.setZipCode(venueRequest.getZipCode());
-        venue.setCountry(venueRequest.getCountry());
-        venue.setLatitude(venueRequest.getLatitude());
-        venue.setLongitude(venueRequest.getLongitude());
-        venue.setMaxCapacity(venueRequest.getMaxCapacity());
-        venue.setVenueType(venueRequest.getVenueType());
-        
-        return venueRepository.save(venue);
+        event.setMinPrice(request.getMinPrice());
+        event.setMaxPrice(request.getMaxPrice());
+        Event savedEvent = eventRepository.save(event);
+        searchIndexService.indexEvent(savedEvent);
+        
+        // Update cache
+        cacheService.cacheEvent(savedEvent);
+        invalidateListingsIfPublished(savedEvent);
+        
+        return eventMapper.toDto(savedEvent);
+    }
+    
+    // Drafts never appear in the listing snapshots
+    private void invalidateListingsIfPublished(Event event) {
+        if (event.getStatus() == EventStatus.PUBLISHED) {
+            listingSnapshotService.invalidate();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.ImageJobDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Image job state in Redis, so any instance can answer a status poll for a job processed on
+ * another. Jobs expire a day after their last update.
+ */
+@Component
+public class ImageJobStore {
+    
+    private static final String JOB_KEY_PREFIX = "image:job:";
+    private static final Duration JOB_TTL = Duration.ofDays(1);
+    
+    private final RedisTemplate<String, Object> redisTemplate;
+    
+    @Autowired
+    public ImageJobStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+    
+    public void save(ImageJobDto job) {
+        redisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getJobId(), job, JOB_TTL);
+    }
+    
+    public Optional<ImageJobDto> find(UUID jobId) {
+        Object cached = redisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId);
+        return cached instanceof ImageJobDto job ? Optional.of(job) : Optional.empty();
+    }
+    
+    public void delete(UUID jobId) {
+        redisTemplate.delete(JOB_KEY_PREFIX + jobId);
+    }
+}
@@ -0,0 +1,162 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Decoding, scaling and encoding shared by the upload pipeline and on-demand renditions.
+ */
+final class ImageRenderer {
+    
+    static final long MAX_PIXELS = 50_000_000; // Rejects decompression bombs before decoding
+    
+    static final boolean WEBP_WRITER_AVAILABLE = ImageIO.getImageWritersByFormatName("webp").hasNext();
+    
+    private ImageRenderer() {}
+    
+    // Identifies the format from its magic bytes and checks dimensions from the header, without decoding pixels
+    static SourceFormat inspect(Path file) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        
+        SourceFormat format = SourceFormat.detect(header, read);
+        if (format == null) {
+            throw new InvalidEventDataException("File is not a valid image");
+        }
+        
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(format.readerFormat);
+            if (!readers.hasNext()) {
+                throw new InvalidEventDataException("Unsupported image format: " + format.readerFormat);
+            }
+            
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    throw new InvalidEventDataException("Image dimensions are too large");
+                }
+            } catch (IOException e) {
+                throw new InvalidEventDataException("File is not a valid image");
+            } finally {
+                reader.dispose();
+            }
+        }
+        return format;
+    }
+    
+    // Sources much wider than targetWidth are subsampled while decoding; the result is still at least targetWidth wide
+    static BufferedImage decode(Path file, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for " + file);
+            }
+            
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, reader.getWidth(0) / targetWidth);
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    // Scales to width keeping the aspect ratio, never upscaling
+    static BufferedImage scale(BufferedImage source, int width, boolean keepAlpha) {
+        int originalWidth = source.getWidth();
+        int originalHeight = source.getHeight();
+        double ratio = Math.min(1.0, (double) width / originalWidth);
+        int newWidth = Math.max(1, (int) (originalWidth * ratio));
+        int newHeight = Math.max(1, (int) (originalHeight * ratio));
+        
+        BufferedImage scaled = new BufferedImage(newWidth, newHeight,
+            keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        
+        // Use high-quality rendering
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+            RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+            RenderingHints.VALUE_ANTIALIAS_ON);
+        
+        if (!keepAlpha) {
+            // Transparent areas flatten onto white rather than black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, newWidth, newHeight);
+        }
+        graphics.drawImage(source, 0, 0, newWidth, newHeight, null);
+        graphics.dispose();
+        return scaled;
+    }
+    
+    // Encodes straight to a file so renditions never sit in the heap as byte arrays
+    static void write(BufferedImage image, String formatName, Path target) throws IOException {
+        if (!ImageIO.write(image, formatName, target.toFile())) {
+            throw new IOException("No image writer for " + formatName);
+        }
+    }
+    
+    enum SourceFormat {
+        JPEG("jpeg", "image/jpeg", "jpg"),
+        PNG("png", "image/png", "png"),
+        WEBP("webp", "image/webp", "jpg");
+        
+        private final String readerFormat;
+        private final String contentType;
+        private final String outputFormat;
+        
+        SourceFormat(String readerFormat, String contentType, String outputFormat) {
+            this.readerFormat = readerFormat;
+            this.contentType = contentType;
+            this.outputFormat = outputFormat;
+        }
+        
+        String getContentType() {
+            return contentType;
+        }
+        
+        // Format the pre-rendered renditions are written in
+        String getOutputFormat() {
+            return outputFormat;
+        }
+        
+        static SourceFormat detect(byte[] header, int length) {
+            if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+                return JPEG;
+            }
+            if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                    && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+                return PNG;
+            }
+            if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                    && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+                return WEBP;
+            }
+            return null;
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package com.eventbooking.event.service;
 
+import com.eventbooking.event.dto.ImageJobDto;
+import com.eventbooking.event.model.ImageVariant;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.UUID;
 
 public interface ImageService {
     
     /**
-     * Upload an image to S3 with validation and optimization
+     * Validate an event image and queue it for background processing. The upload is spooled to
+     * disk and its header checked on the calling thread; resizing, encoding the renditions and
+     * uploading them happen on the image worker pool, which then sets the event's image URL.
+     * Images are stored under the SHA-256 of the file, so re-uploading a file that is already
+     * stored completes immediately without any processing.
      * 
      * @param file The image file to upload
-     * @param eventId The event ID for organizing images
-     * @return The S3 URL of the uploaded image
-     * @throws IOException if upload fails
+     * @param eventId The event the image belongs to
+     * @param organizerId The user uploading the image, who must organize the event
+     * @return The queued job, to be polled with {@link #getImageJob}
+     * @throws IOException if the upload cannot be spooled to disk
      */
-    String uploadEventImage(MultipartFile file, UUID eventId) throws IOException;
+    ImageJobDto submitEventImage(MultipartFile file, UUID eventId, UUID organizerId) throws IOException;
     
     /**
-     * Delete an image from S3
+     * Get the current state of an image processing job
      * 
-     * @param imageUrl The S3 URL of the image to delete
+     * @param eventId The event the job was submitted for
+     * @param jobId The job ID returned by {@link #submitEventImage}
+     * @return The job, including rendition URLs once completed
+     */
+    ImageJobDto getImageJob(UUID eventId, UUID jobId);
+    
+    /**
+     * Delete an image, together with the other renditions produced from the same upload
+     * 
+     * @param imageUrl The URL of the image to delete
      */
     void deleteEventImage(String imageUrl);
     
@@ -31,4 +48,37 @@ public interface ImageService {
      * @return The CloudFront CDN URL
      */
     String getCdnUrl(String s3Url);
+    
+    /**
+     * Get the URL of an image rendered at the given width and format. Content-addressed images
+     * are served through the on-demand rendition endpoint; legacy images exist at a single size,
+     * so their CDN URL is returned as is.
+     * 
+     * @param imageUrl An image URL stored on an event
+     * @param width The requested width in pixels
+     * @param format jpg, png or webp
+     * @return The rendition URL
+     */
+    String getCdnUrl(String imageUrl, int width, String format);
+    
+    /**
+     * Validate and normalize a rendition request. Widths are rounded up to the nearest
+     * supported width so the number of variants per image stays bounded.
+     * 
+     * @param sourceHash SHA-256 of the source image
+     * @param width The requested width, or null for the largest rendition
+     * @param format The requested format, or null for JPEG
+     * @return The variant to serve
+     */
+    ImageVariant resolveVariant(String sourceHash, Integer width, String format);
+    
+    /**
+     * Get a rendered variant from the local disk cache, falling back to image storage and
+     * rendering it from the source image only if neither has it.
+     * 
+     * @param variant A variant returned by {@link #resolveVariant}
+     * @return The rendered file in the local disk cache
+     * @throws IOException if the variant cannot be fetched or rendered
+     */
+    Path getVariantFile(ImageVariant variant) throws IOException;
 }
@@ -1,28 +1,48 @@
 package com.eventbooking.event.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.CannedAccessControlList;
-import com.amazonaws.services.s3.model.DeleteObjectRequest;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.dto.ImageJobDto;
+import com.eventbooking.event.exception.EventAccessDeniedException;
+import com.eventbooking.event.exception.ImageJobNotFoundException;
+import com.eventbooking.event.exception.ImageNotFoundException;
+import com.eventbooking.event.exception.ImageProcessingBusyException;
 import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.model.ImageObject;
+import com.eventbooking.event.model.ImageRendition;
+import com.eventbooking.event.model.ImageVariant;
+import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.service.ImageRenderer.SourceFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class ImageServiceImpl implements ImageService {
@@ -34,59 +54,104 @@ public class ImageServiceImpl implements ImageService {
     );
     
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
-    private static final int MAX_WIDTH = 1920;
-    private static final int MAX_HEIGHT = 1080;
     
-    private final AmazonS3 amazonS3;
+    // Widths renditions are rounded up to, so each image has a bounded number of variants
+    private static final int[] VARIANT_WIDTHS = {160, 320, 480, 640, 960, 1280, 1920};
+    private static final Set<String> VARIANT_FORMATS = Set.of("jpg", "png", "webp");
     
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private static final Pattern SOURCE_HASH = Pattern.compile("^[0-9a-f]{64}$");
+    
+    // Content-addressed keys: images/{sha256}/{source|w{width}.{ext}}
+    private static final Pattern CONTENT_KEY = Pattern.compile("^images/([0-9a-f]{64})/[^/]+$");
+    
+    // Keys written by the earlier per-upload pipeline: events/{eventId}/{jobId}/{rendition}.{ext}
+    private static final Pattern RENDITION_KEY = Pattern.compile("^events/[^/]+/[^/]+/[^/]+$");
+    
+    private final ImageStorage imageStorage;
+    private final ImageJobStore jobStore;
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final RenditionDiskCache renditionCache;
+    private final TaskExecutor imageProcessingExecutor;
+    
+    // Concurrent requests for the same missing variant wait on a single render
+    private final ConcurrentMap<String, CompletableFuture<Path>> inFlightRenders = new ConcurrentHashMap<>();
     
     @Value("${aws.cloudfront.domain:}")
     private String cloudFrontDomain;
     
+    @Value("${image.processing.temp-dir:${java.io.tmpdir}}")
+    private String tempDir;
+    
+    @Value("${image.renditions.base-url:http://localhost:8082/api/images}")
+    private String renditionBaseUrl;
+    
     @Autowired
-    public ImageServiceImpl(AmazonS3 amazonS3) {
-        this.amazonS3 = amazonS3;
+    public ImageServiceImpl(
+            ImageStorage imageStorage,
+            ImageJobStore jobStore,
+            EventService eventService,
+            EventRepository eventRepository,
+            RenditionDiskCache renditionCache,
+            @Qualifier("imageProcessingExecutor") TaskExecutor imageProcessingExecutor) {
+        this.imageStorage = imageStorage;
+        this.jobStore = jobStore;
+        this.eventService = eventService;
+        this.eventRepository = eventRepository;
+        this.renditionCache = renditionCache;
+        this.imageProcessingExecutor = imageProcessingExecutor;
     }
     
     @Override
-    public String uploadEventImage(MultipartFile file, UUID eventId) throws IOException {
+    public ImageJobDto submitEventImage(MultipartFile file, UUID eventId, UUID organizerId) throws IOException {
         // Validate file
-        validateImage(file);
-        
-        // Generate unique file name
-        String originalFilename = file.getOriginalFilename();
-        String extension = getFileExtension(originalFilename);
-        String fileName = String.format("events/%s/%s.%s", 
-            eventId, UUID.randomUUID(), extension);
+        validateUpload(file);
         
-        // Resize and optimize image
-        byte[] optimizedImage = resizeAndOptimizeImage(file);
+        // Check ownership up front rather than after the work is done
+        EventDto event = eventService.getEventById(eventId);
+        if (!organizerId.equals(event.getOrganizerId())) {
+            throw new EventAccessDeniedException("Not authorized to update this event");
+        }
         
-        // Upload to S3
-        try (InputStream inputStream = new ByteArrayInputStream(optimizedImage)) {
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentLength(optimizedImage.length);
-            metadata.setContentType(file.getContentType());
-            metadata.setCacheControl("public, max-age=31536000"); // 1 year cache
-            
-            PutObjectRequest putObjectRequest = new PutObjectRequest(
-                bucketName, fileName, inputStream, metadata)
-                .withCannedAcl(CannedAccessControlList.PublicRead);
+        Path upload = Files.createTempFile(Path.of(tempDir), "upload-", ".img");
+        try {
+            // Moves the multipart part file where the container spooled it to disk, rather than copying through the heap
+            file.transferTo(upload);
+            SourceFormat format = ImageRenderer.inspect(upload);
             
-            amazonS3.putObject(putObjectRequest);
+            ImageJobDto job = new ImageJobDto(UUID.randomUUID(), eventId, ImageJobDto.Status.QUEUED);
+            job.setSourceHash(sha256(upload));
             
-            String s3Url = amazonS3.getUrl(bucketName, fileName).toString();
-            logger.info("Successfully uploaded image to S3: {}", s3Url);
+            if (isStored(job.getSourceHash(), format)) {
+                // The same file was uploaded before, so its renditions already exist
+                completeJob(job, format, organizerId);
+                jobStore.save(job);
+                deleteQuietly(upload);
+                logger.info("Reused stored image {} for event {}", job.getSourceHash(), eventId);
+                return job;
+            }
             
-            return s3Url;
-        } catch (Exception e) {
-            logger.error("Failed to upload image to S3", e);
-            throw new IOException("Failed to upload image", e);
+            jobStore.save(job);
+            try {
+                imageProcessingExecutor.execute(() -> processImage(job, upload, format, organizerId));
+            } catch (TaskRejectedException e) {
+                jobStore.delete(job.getJobId());
+                throw new ImageProcessingBusyException("Image processing is at capacity, please retry shortly");
+            }
+            return job;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(upload);
+            throw e;
         }
     }
     
+    @Override
+    public ImageJobDto getImageJob(UUID eventId, UUID jobId) {
+        return jobStore.find(jobId)
+            .filter(job -> job.getEventId().equals(eventId))
+            .orElseThrow(() -> new ImageJobNotFoundException(jobId));
+    }
+    
     @Override
     public void deleteEventImage(String imageUrl) {
         if (imageUrl == null || imageUrl.isEmpty()) {
@@ -94,15 +159,28 @@ public class ImageServiceImpl implements ImageService {
         }
         
         try {
-            // Extract key from S3 URL
-            String key = extractKeyFromUrl(imageUrl);
+            String key = imageStorage.keyFromUrl(imageUrl);
+            Matcher contentKey = CONTENT_KEY.matcher(key);
             
-            DeleteObjectRequest deleteObjectRequest = new DeleteObjectRequest(bucketName, key);
-            amazonS3.deleteObject(deleteObjectRequest);
+            if (contentKey.matches()) {
+                // The caller's event still references the image; any further reference is another event sharing it
+                if (eventRepository.countByImageUrl(imageUrl) > 1) {
+                    logger.info("Keeping shared image: {}", key);
+                    return;
+                }
+                String sourceHash = contentKey.group(1);
+                imageStorage.deleteAll("images/" + sourceHash + "/");
+                renditionCache.removeAll(sourceHash);
+            } else if (RENDITION_KEY.matcher(key).matches()) {
+                // Remove the sibling renditions produced from the same upload too
+                imageStorage.deleteAll(key.substring(0, key.lastIndexOf('/') + 1));
+            } else {
+                imageStorage.delete(key);
+            }
             
-            logger.info("Successfully deleted image from S3: {}", key);
+            logger.info("Successfully deleted image: {}", key);
         } catch (Exception e) {
-            logger.error("Failed to delete image from S3: {}", imageUrl, e);
+            logger.error("Failed to delete image: {}", imageUrl, e);
             // Don't throw exception, just log the error
         }
     }
@@ -113,136 +191,235 @@ public class ImageServiceImpl implements ImageService {
             return s3Url;
         }
         
-        String key = extractKeyFromUrl(s3Url);
+        String key = imageStorage.keyFromUrl(s3Url);
         return String.format("https://%s/%s", cloudFrontDomain, key);
     }
     
-    private void validateImage(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new InvalidEventDataException("Image file is required");
+    @Override
+    public String getCdnUrl(String imageUrl, int width, String format) {
+        Matcher contentKey = CONTENT_KEY.matcher(imageStorage.keyFromUrl(imageUrl));
+        if (!contentKey.matches()) {
+            return getCdnUrl(imageUrl);
+        }
+        return renditionUrl(resolveVariant(contentKey.group(1), width, format));
+    }
+    
+    @Override
+    public ImageVariant resolveVariant(String sourceHash, Integer width, String format) {
+        if (sourceHash == null || !SOURCE_HASH.matcher(sourceHash).matches()) {
+            throw new InvalidEventDataException("Invalid image id");
+        }
+        if (width != null && width <= 0) {
+            throw new InvalidEventDataException("Image width must be positive");
         }
         
-        // Check file size
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new InvalidEventDataException(
-                String.format("Image file size exceeds maximum allowed size of %d MB", 
-                    MAX_FILE_SIZE / (1024 * 1024)));
+        String normalizedFormat = format == null ? "jpg" : format.toLowerCase(Locale.ROOT);
+        if ("jpeg".equals(normalizedFormat)) {
+            normalizedFormat = "jpg";
+        }
+        if (!VARIANT_FORMATS.contains(normalizedFormat)) {
+            throw new InvalidEventDataException("Invalid image format. Allowed formats: jpg, png, webp");
+        }
+        if ("webp".equals(normalizedFormat) && !ImageRenderer.WEBP_WRITER_AVAILABLE) {
+            // No WebP encoder on this runtime; JPEG is the closest universally supported format
+            normalizedFormat = "jpg";
         }
         
-        // Check content type
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
-            throw new InvalidEventDataException(
-                "Invalid image format. Allowed formats: JPEG, PNG, WebP");
+        return new ImageVariant(sourceHash, snapWidth(width), normalizedFormat);
+    }
+    
+    @Override
+    public Path getVariantFile(ImageVariant variant) throws IOException {
+        Optional<Path> cached = renditionCache.get(variant.getFileName());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
+        CompletableFuture<Path> pending = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlightRenders.putIfAbsent(variant.getFileName(), pending);
+        if (existing != null) {
+            return awaitRender(existing);
         }
         
-        // Validate it's actually an image
         try {
-            BufferedImage image = ImageIO.read(file.getInputStream());
-            if (image == null) {
-                throw new InvalidEventDataException("File is not a valid image");
+            Path file = loadVariant(variant);
+            pending.complete(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRenders.remove(variant.getFileName(), pending);
+        }
+    }
+    
+    // Runs on the image worker pool
+    void processImage(ImageJobDto job, Path upload, SourceFormat format, UUID organizerId) {
+        List<Path> renderedFiles = new ArrayList<>();
+        try {
+            job.setStatus(ImageJobDto.Status.PROCESSING);
+            jobStore.save(job);
+            
+            BufferedImage source = ImageRenderer.decode(upload, ImageRendition.HERO.getWidth());
+            
+            // The source is kept so other widths and formats can be rendered on demand
+            List<ImageObject> objects = new ArrayList<>();
+            objects.add(new ImageObject(ImageVariant.sourceKey(job.getSourceHash()), upload, format.getContentType()));
+            for (ImageRendition rendition : ImageRendition.values()) {
+                objects.add(render(source,
+                    new ImageVariant(job.getSourceHash(), rendition.getWidth(), format.getOutputFormat()), renderedFiles));
+                if (ImageRenderer.WEBP_WRITER_AVAILABLE) {
+                    objects.add(render(source,
+                        new ImageVariant(job.getSourceHash(), rendition.getWidth(), "webp"), renderedFiles));
+                }
             }
-        } catch (IOException e) {
-            throw new InvalidEventDataException("Failed to read image file");
+            
+            imageStorage.store(objects);
+            completeJob(job, format, organizerId);
+            logger.info("Processed image job {} for event {}", job.getJobId(), job.getEventId());
+        } catch (Exception e) {
+            logger.error("Image job {} failed", job.getJobId(), e);
+            job.setStatus(ImageJobDto.Status.FAILED);
+            job.setError(e.getMessage());
+        } finally {
+            jobStore.save(job);
+            deleteQuietly(upload);
+            renderedFiles.forEach(this::deleteQuietly);
         }
     }
     
-    private byte[] resizeAndOptimizeImage(MultipartFile file) throws IOException {
-        BufferedImage originalImage = ImageIO.read(file.getInputStream());
+    private void completeJob(ImageJobDto job, SourceFormat format, UUID organizerId) {
+        ImageVariant hero = new ImageVariant(job.getSourceHash(), ImageRendition.HERO.getWidth(), format.getOutputFormat());
+        String heroUrl = imageStorage.urlFor(hero.getKey());
+        eventService.updateEventImage(job.getEventId(), heroUrl, organizerId);
         
-        if (originalImage == null) {
-            throw new IOException("Failed to read image");
+        for (ImageRendition rendition : ImageRendition.values()) {
+            job.getRenditions().put(rendition.getKey(),
+                getCdnUrl(heroUrl, rendition.getWidth(), format.getOutputFormat()));
         }
-        
-        // Calculate new dimensions while maintaining aspect ratio
-        int originalWidth = originalImage.getWidth();
-        int originalHeight = originalImage.getHeight();
-        
-        int newWidth = originalWidth;
-        int newHeight = originalHeight;
-        
-        if (originalWidth > MAX_WIDTH || originalHeight > MAX_HEIGHT) {
-            double widthRatio = (double) MAX_WIDTH / originalWidth;
-            double heightRatio = (double) MAX_HEIGHT / originalHeight;
-            double ratio = Math.min(widthRatio, heightRatio);
-            
-            newWidth = (int) (originalWidth * ratio);
-            newHeight = (int) (originalHeight * ratio);
+        job.setImageUrl(heroUrl);
+        job.setCdnUrl(getCdnUrl(heroUrl));
+        job.setStatus(ImageJobDto.Status.COMPLETED);
+    }
+    
+    private boolean isStored(String sourceHash, SourceFormat format) {
+        ImageVariant hero = new ImageVariant(sourceHash, ImageRendition.HERO.getWidth(), format.getOutputFormat());
+        return imageStorage.exists(hero.getKey()) && imageStorage.exists(ImageVariant.sourceKey(sourceHash));
+    }
+    
+    // Object storage first (pre-rendered at upload, or rendered by another instance), then render from the source
+    private Path loadVariant(ImageVariant variant) throws IOException {
+        Path file = Files.createTempFile(Path.of(tempDir), "variant-", "." + variant.getFormat());
+        try {
+            if (!imageStorage.fetch(variant.getKey(), file)) {
+                renderVariant(variant, file);
+            }
+            return renditionCache.put(variant.getFileName(), file);
+        } finally {
+            deleteQuietly(file);
         }
-        
-        // Resize image if needed
-        BufferedImage resizedImage;
-        if (newWidth != originalWidth || newHeight != originalHeight) {
-            resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-            Graphics2D graphics = resizedImage.createGraphics();
-            
-            // Use high-quality rendering
-            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
-                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, 
-                RenderingHints.VALUE_RENDER_QUALITY);
-            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
-                RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+    
+    private void renderVariant(ImageVariant variant, Path target) throws IOException {
+        Path source = Files.createTempFile(Path.of(tempDir), "source-", ".img");
+        try {
+            if (!imageStorage.fetch(ImageVariant.sourceKey(variant.getSourceHash()), source)) {
+                throw new ImageNotFoundException(variant.getSourceHash());
+            }
             
-            graphics.drawImage(originalImage, 0, 0, newWidth, newHeight, null);
-            graphics.dispose();
-        } else {
-            resizedImage = originalImage;
+            BufferedImage image = ImageRenderer.decode(source, variant.getWidth());
+            ImageRenderer.write(ImageRenderer.scale(image, variant.getWidth(), !"jpg".equals(variant.getFormat())),
+                variant.getFormat(), target);
+            imageStorage.store(List.of(new ImageObject(variant.getKey(), target, variant.getContentType())));
+            logger.debug("Rendered image variant {}", variant.getKey());
+        } finally {
+            deleteQuietly(source);
         }
-        
-        // Convert to byte array
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        String formatName = getImageFormat(file.getContentType());
-        ImageIO.write(resizedImage, formatName, outputStream);
-        
-        return outputStream.toByteArray();
     }
     
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "jpg";
+    private Path awaitRender(CompletableFuture<Path> render) throws IOException {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
     }
     
-    private String getImageFormat(String contentType) {
-        if (contentType == null) {
-            return "jpg";
+    private String renditionUrl(ImageVariant variant) {
+        String baseUrl = cloudFrontDomain == null || cloudFrontDomain.isEmpty()
+            ? renditionBaseUrl
+            : String.format("https://%s/api/images", cloudFrontDomain);
+        return String.format("%s/%s?w=%d&fmt=%s", baseUrl, variant.getSourceHash(), variant.getWidth(), variant.getFormat());
+    }
+    
+    private int snapWidth(Integer width) {
+        if (width != null) {
+            for (int candidate : VARIANT_WIDTHS) {
+                if (candidate >= width) {
+                    return candidate;
+                }
+            }
+        }
+        return VARIANT_WIDTHS[VARIANT_WIDTHS.length - 1];
+    }
+    
+    private void validateUpload(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidEventDataException("Image file is required");
         }
         
-        switch (contentType.toLowerCase()) {
-            case "image/png":
-                return "png";
-            case "image/webp":
-                return "webp";
-            case "image/jpeg":
-            case "image/jpg":
-            default:
-                return "jpg";
-        }
-    }
-    
-    private String extractKeyFromUrl(String url) {
-        // Extract key from S3 URL
-        // Format: https://bucket-name.s3.region.amazonaws.com/key
-        // or: https://s3.region.amazonaws.com/bucket-name/key
+        // Check file size
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new InvalidEventDataException(
+                String.format("Image file size exceeds maximum allowed size of %d MB",
+                    MAX_FILE_SIZE / (1024 * 1024)));
+        }
         
-        if (url.contains(bucketName)) {
-            int bucketIndex = url.indexOf(bucketName);
-            int keyStartIndex = url.indexOf("/", bucketIndex + bucketName.length());
-            if (keyStartIndex != -1) {
-                return url.substring(keyStartIndex + 1);
-            }
+        // Check content type
+        String contentType = file.getContentType();
+        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
+            throw new InvalidEventDataException(
+                "Invalid image format. Allowed formats: JPEG, PNG, WebP");
+        }
+    }
+    
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
         
-        // Fallback: assume everything after the domain is the key
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private ImageObject render(BufferedImage source, ImageVariant variant, List<Path> renderedFiles) throws IOException {
+        Path file = Files.createTempFile(Path.of(tempDir), "rendition-", "." + variant.getFormat());
+        renderedFiles.add(file);
+        ImageRenderer.write(ImageRenderer.scale(source, variant.getWidth(), !"jpg".equals(variant.getFormat())),
+            variant.getFormat(), file);
+        return new ImageObject(variant.getKey(), file, variant.getContentType());
+    }
+    
+    private void deleteQuietly(Path file) {
         try {
-            java.net.URL parsedUrl = new java.net.URL(url);
-            String path = parsedUrl.getPath();
-            return path.startsWith("/") ? path.substring(1) : path;
-        } catch (Exception e) {
-            logger.error("Failed to extract key from URL: {}", url, e);
-            return url;
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temp file {}", file, e);
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.model.ImageObject;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where processed event images are written. S3 in deployed environments; a local directory
+ * for development and tests.
+ */
+public interface ImageStorage {
+    
+    /**
+     * Stores all objects, in parallel where the backend supports it, and returns the public URL
+     * of each by key. Either every object is stored or an IOException is thrown.
+     */
+    Map<String, String> store(List<ImageObject> objects) throws IOException;
+    
+    boolean exists(String key);
+    
+    /**
+     * Downloads the object to target. Returns false, leaving target untouched, if there is no
+     * object under key.
+     */
+    boolean fetch(String key, Path target) throws IOException;
+    
+    // Public URL of the object under key, whether or not it has been stored yet
+    String urlFor(String key);
+    
+    void delete(String key);
+    
+    // Deletes every object whose key starts with prefix
+    void deleteAll(String prefix);
+    
+    // Storage key for a URL previously returned by store
+    String keyFromUrl(String url);
+}
@@ -0,0 +1,30 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.model.ListingSnapshot;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pre-built upcoming-event listing pages, overall and per category and city, held in memory
+ * as gzipped JSON and shared between instances through Redis. Lookups are empty when the
+ * request does not match a built page (non-default size or sort, a page past the snapshot, or
+ * a listing too large to snapshot); callers then fall back to querying.
+ */
+public interface ListingSnapshotService {
+    
+    int PAGE_SIZE = 20;
+    
+    Optional<ListingSnapshot> getUpcoming(Pageable pageable);
+    
+    Optional<ListingSnapshot> getUpcomingByCategory(UUID categoryId, Pageable pageable);
+    
+    Optional<ListingSnapshot> getUpcomingByCity(String city, Pageable pageable);
+    
+    // Marks the snapshot stale once the current transaction commits, so the next refresh rebuilds it
+    void invalidate();
+    
+    // Rebuilds from the database if the snapshot is stale or old, then picks up the latest shared snapshot
+    void refresh();
+}
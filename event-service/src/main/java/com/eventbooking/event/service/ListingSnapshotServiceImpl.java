@@ -0,0 +1,270 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.mapper.EventMapper;
+import com.eventbooking.event.model.ListingSnapshot;
+import com.eventbooking.event.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class ListingSnapshotServiceImpl implements ListingSnapshotService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ListingSnapshotServiceImpl.class);
+    
+    // Version (build time in epoch millis) of the snapshot all instances should serve
+    private static final String CURRENT_KEY = "listing-snapshot:current";
+    // Hash of page name -> gzipped JSON, one per version
+    private static final String PAGES_KEY_PREFIX = "listing-snapshot:pages:";
+    private static final String STALE_KEY = "listing-snapshot:stale";
+    private static final String LOCK_KEY = "listing-snapshot:lock";
+    
+    private static final Duration LOCK_TTL = Duration.ofMinutes(1);
+    // Deletes the lock only if it still holds our token: after a rebuild that outlived the TTL,
+    // another instance may hold it
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+    private static final Duration PAGES_TTL = Duration.ofHours(1); // Superseded versions expire on their own
+    
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @Value("${event.snapshot.refresh-interval-seconds:60}")
+    private long refreshIntervalSeconds;
+    
+    @Value("${event.snapshot.max-pages:25}")
+    private int maxPages;
+    
+    private volatile Snapshot current = Snapshot.EMPTY;
+    
+    @Autowired
+    public ListingSnapshotServiceImpl(
+            EventRepository eventRepository,
+            EventMapper eventMapper,
+            ObjectMapper objectMapper,
+            RedisTemplate<String, byte[]> redisTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Override
+    public Optional<ListingSnapshot> getUpcoming(Pageable pageable) {
+        return lookup("upcoming", pageable);
+    }
+    
+    @Override
+    public Optional<ListingSnapshot> getUpcomingByCategory(UUID categoryId, Pageable pageable) {
+        return lookup("category:" + categoryId, pageable);
+    }
+    
+    @Override
+    public Optional<ListingSnapshot> getUpcomingByCity(String city, Pageable pageable) {
+        return lookup("city:" + EventSearchView.normalize(city), pageable);
+    }
+    
+    @Override
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rebuild started before commit would not see the change
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale();
+                }
+            });
+        } else {
+            markStale();
+        }
+    }
+    
+    @Override
+    public void refresh() {
+        String sharedVersion = readString(CURRENT_KEY);
+        boolean due = Boolean.TRUE.equals(redisTemplate.hasKey(STALE_KEY)) || isExpired(sharedVersion);
+        
+        // Only one instance rebuilds; the others pick the result up from Redis
+        byte[] lockToken = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        if (due && Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, lockToken, LOCK_TTL))) {
+            try {
+                rebuild();
+            } finally {
+                redisTemplate.execute(RELEASE_LOCK, List.of(LOCK_KEY), lockToken);
+            }
+            return;
+        }
+        
+        if (sharedVersion != null && !sharedVersion.equals(current.version)) {
+            load(sharedVersion);
+        }
+    }
+    
+    private Optional<ListingSnapshot> lookup(String listing, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getPageSize() != PAGE_SIZE || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.pages.get(listing + ":" + pageable.getPageNumber()));
+    }
+    
+    private void markStale() {
+        try {
+            redisTemplate.opsForValue().set(STALE_KEY, new byte[] {1});
+        } catch (Exception e) {
+            // The periodic refresh still picks the change up
+            logger.warn("Failed to mark listing snapshot stale", e);
+        }
+    }
+    
+    private void rebuild() {
+        // Cleared before reading, so an invalidation that lands mid-build triggers another rebuild
+        redisTemplate.delete(STALE_KEY);
+        Map<String, byte[]> pages = readOnlyTransaction.execute(status -> buildPages());
+        
+        String version = String.valueOf(System.currentTimeMillis());
+        String pagesKey = PAGES_KEY_PREFIX + version;
+        redisTemplate.opsForHash().putAll(pagesKey, pages);
+        redisTemplate.expire(pagesKey, PAGES_TTL);
+        redisTemplate.opsForValue().set(CURRENT_KEY, version.getBytes(StandardCharsets.UTF_8));
+        
+        current = new Snapshot(version, toSnapshots(pages));
+        logger.info("Rebuilt listing snapshot {} with {} pages", version, pages.size());
+    }
+    
+    private void load(String version) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(PAGES_KEY_PREFIX + version);
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        Map<String, byte[]> pages = new HashMap<>();
+        entries.forEach((name, body) -> pages.put((String) name, (byte[]) body));
+        current = new Snapshot(version, toSnapshots(pages));
+        logger.debug("Loaded listing snapshot {}", version);
+    }
+    
+    private Map<String, byte[]> buildPages() {
+        int maxEvents = maxPages * PAGE_SIZE;
+        Page<Event> upcoming = eventRepository.findUpcomingEvents(LocalDateTime.now(), PageRequest.of(0, maxEvents));
+        List<EventDto> events = upcoming.getContent().stream().map(eventMapper::toDto).toList();
+        
+        Map<String, byte[]> pages = new HashMap<>();
+        addPages(pages, "upcoming", events, upcoming.getTotalElements());
+        
+        if (upcoming.hasNext()) {
+            // Per-category and per-city pages would be built from a truncated list
+            logger.info("More than {} upcoming events; category and city listings are not snapshotted", maxEvents);
+            return pages;
+        }
+        
+        Map<String, List<EventDto>> byCategory = events.stream()
+            .filter(event -> event.getCategory() != null)
+            .collect(Collectors.groupingBy(event -> "category:" + event.getCategory().getId(),
+                LinkedHashMap::new, Collectors.toList()));
+        Map<String, List<EventDto>> byCity = events.stream()
+            .filter(event -> event.getVenue() != null && event.getVenue().getCity() != null)
+            .collect(Collectors.groupingBy(event -> "city:" + EventSearchView.normalize(event.getVenue().getCity()),
+                LinkedHashMap::new, Collectors.toList()));
+        
+        byCategory.forEach((listing, listed) -> addPages(pages, listing, listed, listed.size()));
+        byCity.forEach((listing, listed) -> addPages(pages, listing, listed, listed.size()));
+        return pages;
+    }
+    
+    private void addPages(Map<String, byte[]> pages, String listing, List<EventDto> events, long total) {
+        int pageCount = Math.max(1, (events.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        for (int pageNumber = 0; pageNumber < pageCount; pageNumber++) {
+            List<EventDto> content = events.subList(
+                Math.min(events.size(), pageNumber * PAGE_SIZE),
+                Math.min(events.size(), (pageNumber + 1) * PAGE_SIZE));
+            Page<EventDto> page = new PageImpl<>(content, PageRequest.of(pageNumber, PAGE_SIZE), total);
+            pages.put(listing + ":" + pageNumber, gzip(page));
+        }
+    }
+    
+    // Same body the query path returns, so clients cannot tell which one served them
+    private byte[] gzip(Page<EventDto> page) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, ApiResponse.success(page));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize listing page", e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private Map<String, ListingSnapshot> toSnapshots(Map<String, byte[]> pages) {
+        Map<String, ListingSnapshot> snapshots = new HashMap<>();
+        pages.forEach((name, body) -> snapshots.put(name, new ListingSnapshot(body)));
+        return snapshots;
+    }
+    
+    private boolean isExpired(String version) {
+        if (version == null) {
+            return true;
+        }
+        try {
+            return System.currentTimeMillis() - Long.parseLong(version) >= Duration.ofSeconds(refreshIntervalSeconds).toMillis();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+    
+    private String readString(String key) {
+        byte[] value = redisTemplate.opsForValue().get(key);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+    
+    private static final class Snapshot {
+        
+        static final Snapshot EMPTY = new Snapshot(null, Map.of());
+        
+        private final String version;
+        private final Map<String, ListingSnapshot> pages; // "{listing}:{page}" -> page
+        
+        Snapshot(String version, Map<String, ListingSnapshot> pages) {
+            this.version = version;
+            this.pages = pages;
+        }
+    }
+}
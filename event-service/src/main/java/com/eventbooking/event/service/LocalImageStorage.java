@@ -0,0 +1,97 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.model.ImageObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filesystem stand-in for S3, for local development and tests. Objects are written under
+ * {@code image.storage.local.root} and addressed as {@code image.storage.local.base-url/key}.
+ */
+@Component
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+    
+    private final Path root;
+    private final String baseUrl;
+    
+    public LocalImageStorage(
+            @Value("${image.storage.local.root}") Path root,
+            @Value("${image.storage.local.base-url}") String baseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+    
+    @Override
+    public Map<String, String> store(List<ImageObject> objects) throws IOException {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageObject object : objects) {
+            Path target = resolve(object.getKey());
+            Files.createDirectories(target.getParent());
+            Files.copy(object.getFile(), target, StandardCopyOption.REPLACE_EXISTING);
+            urls.put(object.getKey(), urlFor(object.getKey()));
+        }
+        return urls;
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+    
+    @Override
+    public boolean fetch(String key, Path target) throws IOException {
+        Path source = resolve(key);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+    
+    @Override
+    public String urlFor(String key) {
+        return baseUrl + "/" + key;
+    }
+    
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete " + key, e);
+        }
+    }
+    
+    @Override
+    public void deleteAll(String prefix) {
+        try {
+            FileSystemUtils.deleteRecursively(resolve(prefix));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete " + prefix, e);
+        }
+    }
+    
+    @Override
+    public String keyFromUrl(String url) {
+        return url.startsWith(baseUrl + "/") ? url.substring(baseUrl.length() + 1) : url;
+    }
+    
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Key escapes storage root: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventbooking.event.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reloads reference-data snapshots when a change is announced on the reference-data:changed
+ * Redis channel. The message is a snapshot name, or "*" for all of them, so an operator can
+ * also trigger a reload with {@code PUBLISH reference-data:changed categories}.
+ */
+@Component
+public class ReferenceDataRefresher implements MessageListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataRefresher.class);
+    
+    public static final String CHANNEL = "reference-data:changed";
+    public static final String ALL = "*";
+    
+    private final List<ReferenceDataSnapshot<?, ?>> snapshots;
+    private final StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    public ReferenceDataRefresher(List<ReferenceDataSnapshot<?, ?>> snapshots, StringRedisTemplate redisTemplate) {
+        this.snapshots = snapshots;
+        this.redisTemplate = redisTemplate;
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload(new String(message.getBody(), StandardCharsets.UTF_8).trim());
+    }
+    
+    // Writers to a lookup table call this after commit; every instance reloads, this one included
+    public void publishChange(String name) {
+        redisTemplate.convertAndSend(CHANNEL, name);
+    }
+    
+    public void reload(String name) {
+        for (ReferenceDataSnapshot<?, ?> snapshot : snapshots) {
+            if (ALL.equals(name) || snapshot.getName().equals(name)) {
+                reloadQuietly(snapshot);
+            }
+        }
+    }
+    
+    public void reloadAll() {
+        reload(ALL);
+    }
+    
+    // A failed reload leaves the previous snapshot in place
+    private void reloadQuietly(ReferenceDataSnapshot<?, ?> snapshot) {
+        try {
+            snapshot.reload();
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload {}, keeping the previous snapshot", snapshot.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.eventbooking.event.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory copy of a small lookup table. The whole table is loaded in one query and
+ * swapped in atomically, so readers never see a half-applied reload and never touch the database.
+ * Subclass it as a component per table; {@link ReferenceDataRefresher} reloads every snapshot
+ * when a change is announced, and on a slow timer in case an announcement was missed.
+ */
+public abstract class ReferenceDataSnapshot<K, V> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataSnapshot.class);
+    
+    private final String name;
+    private final Function<V, K> keyOf;
+    
+    private volatile Entries<K, V> current;
+    
+    protected ReferenceDataSnapshot(String name, Function<V, K> keyOf) {
+        this.name = name;
+        this.keyOf = keyOf;
+    }
+    
+    // Every row of the table, in the order values() should list them
+    protected abstract List<V> loadAll();
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Optional<V> get(K key) {
+        return key == null ? Optional.empty() : Optional.ofNullable(entries().byKey.get(key));
+    }
+    
+    // All rows in load order; the list is shared and unmodifiable
+    public List<V> values() {
+        return entries().values;
+    }
+    
+    public synchronized Map<K, V> reload() {
+        List<V> loaded = loadAll();
+        Map<K, V> byKey = new LinkedHashMap<>();
+        for (V value : loaded) {
+            byKey.put(keyOf.apply(value), value);
+        }
+        
+        current = new Entries<>(Collections.unmodifiableMap(byKey), List.copyOf(byKey.values()));
+        logger.debug("Loaded {} {}", byKey.size(), name);
+        return current.byKey;
+    }
+    
+    // Loaded on first use, so a snapshot nobody reads costs nothing
+    private Entries<K, V> entries() {
+        Entries<K, V> entries = current;
+        if (entries == null) {
+            synchronized (this) {
+                if (current == null) {
+                    reload();
+                }
+                entries = current;
+            }
+        }
+        return entries;
+    }
+    
+    private static final class Entries<K, V> {
+        
+        private final Map<K, V> byKey;
+        private final List<V> values;
+        
+        private Entries(Map<K, V> byKey, List<V> values) {
+            this.byKey = byKey;
+            this.values = values;
+        }
+    }
+}
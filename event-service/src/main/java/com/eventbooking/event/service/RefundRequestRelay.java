@@ -0,0 +1,101 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.client.PaymentServiceClient;
+import com.eventbooking.event.entity.RefundRequest;
+import com.eventbooking.event.repository.RefundRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gets the refunds of cancelled events started in the Payment Service. The request is stored
+ * in the cancel transaction, so it exists exactly when the cancellation commits, and is sent
+ * from here with no transaction held; it stays stored, retried with exponential backoff,
+ * until the Payment Service accepts it. Starting a refund job is idempotent per event, so a
+ * request sent twice, by two instances or after a lost response, refunds once.
+ */
+@Component
+public class RefundRequestRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefundRequestRelay.class);
+    
+    private final RefundRequestRepository refundRequestRepository;
+    private final PaymentServiceClient paymentServiceClient;
+    private final Counter failures;
+    
+    @Value("${event.refund-requests.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${event.refund-requests.retry-initial-delay-ms:5000}")
+    private long retryInitialDelayMs;
+    
+    @Value("${event.refund-requests.retry-max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+    
+    @Autowired
+    public RefundRequestRelay(RefundRequestRepository refundRequestRepository,
+                              PaymentServiceClient paymentServiceClient,
+                              MeterRegistry meterRegistry) {
+        this.refundRequestRepository = refundRequestRepository;
+        this.paymentServiceClient = paymentServiceClient;
+        this.failures = meterRegistry.counter("event.refund_requests.failures");
+    }
+    
+    /**
+     * Stores a refund request for the event in the caller's transaction. An event already
+     * waiting for its refunds keeps its pending request.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UUID eventId, String reason) {
+        if (!refundRequestRepository.existsById(eventId)) {
+            refundRequestRepository.save(new RefundRequest(eventId, reason, LocalDateTime.now()));
+        }
+    }
+    
+    /**
+     * Sends the requests that are due; each outcome is written in its own transaction.
+     *
+     * @return the number of requests the Payment Service accepted
+     */
+    public int relayDue() {
+        List<RefundRequest> due = refundRequestRepository.findByNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
+            LocalDateTime.now(), PageRequest.of(0, batchSize));
+        
+        int sent = 0;
+        for (RefundRequest request : due) {
+            try {
+                paymentServiceClient.requestEventRefunds(request.getEventId(), request.getReason());
+                refundRequestRepository.deleteById(request.getEventId());
+                sent++;
+            } catch (RestClientException e) {
+                int attempts = request.getAttempts() + 1;
+                request.setAttempts(attempts);
+                request.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs(attempts))));
+                refundRequestRepository.save(request);
+                failures.increment();
+                logger.error("Failed to request refunds for cancelled event {} (attempt {}), will retry: {}",
+                    request.getEventId(), attempts, e.getMessage());
+            }
+        }
+        return sent;
+    }
+    
+    private long retryDelayMs(int attempts) {
+        // Doubles from the initial delay up to the maximum
+        long delay = retryInitialDelayMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, retryMaxDelayMs);
+    }
+}
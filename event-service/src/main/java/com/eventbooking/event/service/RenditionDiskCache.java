@@ -0,0 +1,137 @@
+package com.eventbooking.event.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded, least-recently-used cache of rendered image variants on local disk, in front
+ * of image storage. Entries are immutable (variant names are content-addressed), so the cache
+ * only ever needs eviction, never invalidation.
+ */
+@Component
+public class RenditionDiskCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RenditionDiskCache.class);
+    
+    private final Path directory;
+    private final long maxBytes;
+    
+    // File name -> size in bytes, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    
+    public RenditionDiskCache(
+            @Value("${image.renditions.cache-dir:${java.io.tmpdir}/event-image-renditions}") Path directory,
+            @Value("${image.renditions.cache-max-bytes:536870912}") long maxBytes) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        
+        Files.createDirectories(this.directory);
+        loadExisting();
+    }
+    
+    public synchronized Optional<Path> get(String fileName) {
+        if (entries.get(fileName) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(directory.resolve(fileName));
+    }
+    
+    /**
+     * Moves file into the cache under fileName, evicting least recently used entries until the
+     * cache is back under its size limit, and returns the cached path.
+     */
+    public Path put(String fileName, Path file) throws IOException {
+        Path target = directory.resolve(fileName).normalize();
+        if (!target.getParent().equals(directory)) {
+            throw new IllegalArgumentException("Invalid cache file name: " + fileName);
+        }
+        
+        // Moved under a unique name first, so readers never see a partially copied file
+        Path staged = Files.createTempFile(directory, ".staged-", ".tmp");
+        Files.move(file, staged, StandardCopyOption.REPLACE_EXISTING);
+        long size = Files.size(staged);
+        
+        synchronized (this) {
+            Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = entries.put(fileName, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evict(fileName);
+        }
+        return target;
+    }
+    
+    // Drops every cached variant of a deleted source image
+    public synchronized void removeAll(String sourceHash) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().startsWith(sourceHash + "-")) {
+                delete(entry.getKey());
+                totalBytes -= entry.getValue();
+                iterator.remove();
+            }
+        }
+    }
+    
+    public synchronized long size() {
+        return totalBytes;
+    }
+    
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            delete(entry.getKey());
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+    
+    private void delete(String fileName) {
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached rendition {}", fileName, e);
+        }
+    }
+    
+    // Re-indexes renditions left by a previous run, oldest first so they are evicted first
+    private void loadExisting() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile)
+                .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+                .toList();
+        }
+        
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            if (fileName.startsWith(".staged-")) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            long size = Files.size(file);
+            entries.put(fileName, size);
+            totalBytes += size;
+        }
+        evict(null);
+    }
+}
@@ -0,0 +1,164 @@
+package com.eventbooking.event.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import com.amazonaws.services.s3.transfer.Upload;
+import com.eventbooking.event.model.ImageObject;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3ImageStorage implements ImageStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(S3ImageStorage.class);
+    
+    private static final long MULTIPART_THRESHOLD = 8 * 1024 * 1024; // 8MB
+    private static final long MIN_PART_SIZE = 5 * 1024 * 1024;       // S3 minimum part size
+    
+    private final AmazonS3 amazonS3;
+    private final TransferManager transferManager;
+    
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+    
+    @Autowired
+    public S3ImageStorage(AmazonS3 amazonS3) {
+        this.amazonS3 = amazonS3;
+        // Large objects are split into parts that upload concurrently; small ones go in a single PUT
+        this.transferManager = TransferManagerBuilder.standard()
+            .withS3Client(amazonS3)
+            .withMultipartUploadThreshold(MULTIPART_THRESHOLD)
+            .withMinimumUploadPartSize(MIN_PART_SIZE)
+            .withShutDownThreadPools(false)
+            .build();
+    }
+    
+    @Override
+    public Map<String, String> store(List<ImageObject> objects) throws IOException {
+        // Start every upload before waiting on any, so renditions go up in parallel
+        List<Upload> uploads = new ArrayList<>();
+        for (ImageObject object : objects) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(object.getFile().toFile().length());
+            metadata.setContentType(object.getContentType());
+            metadata.setCacheControl("public, max-age=31536000"); // 1 year cache
+            
+            PutObjectRequest request = new PutObjectRequest(bucketName, object.getKey(), object.getFile().toFile())
+                .withMetadata(metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead);
+            uploads.add(transferManager.upload(request));
+        }
+        
+        Map<String, String> urls = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < uploads.size(); i++) {
+                uploads.get(i).waitForCompletion();
+                String key = objects.get(i).getKey();
+                urls.put(key, urlFor(key));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            uploads.forEach(Upload::abort);
+            throw new IOException("Interrupted while uploading images", e);
+        } catch (Exception e) {
+            uploads.forEach(Upload::abort);
+            throw new IOException("Failed to upload images to S3", e);
+        }
+        return urls;
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return amazonS3.doesObjectExist(bucketName, key);
+    }
+    
+    @Override
+    public boolean fetch(String key, Path target) throws IOException {
+        try {
+            amazonS3.getObject(new GetObjectRequest(bucketName, key), target.toFile());
+            return true;
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Failed to download " + key + " from S3", e);
+        }
+    }
+    
+    @Override
+    public String urlFor(String key) {
+        return amazonS3.getUrl(bucketName, key).toString();
+    }
+    
+    @Override
+    public void delete(String key) {
+        amazonS3.deleteObject(bucketName, key);
+    }
+    
+    @Override
+    public void deleteAll(String prefix) {
+        ListObjectsV2Result listing = amazonS3.listObjectsV2(
+            new ListObjectsV2Request().withBucketName(bucketName).withPrefix(prefix));
+        List<DeleteObjectsRequest.KeyVersion> keys = listing.getObjectSummaries().stream()
+            .map(S3ObjectSummary::getKey)
+            .map(DeleteObjectsRequest.KeyVersion::new)
+            .toList();
+        
+        if (!keys.isEmpty()) {
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(keys));
+        }
+    }
+    
+    @Override
+    public String keyFromUrl(String url) {
+        // Extract key from S3 URL
+        // Format: https://bucket-name.s3.region.amazonaws.com/key
+        // or: https://s3.region.amazonaws.com/bucket-name/key
+        
+        if (url.contains(bucketName)) {
+            int bucketIndex = url.indexOf(bucketName);
+            int keyStartIndex = url.indexOf("/", bucketIndex + bucketName.length());
+            if (keyStartIndex != -1) {
+                return url.substring(keyStartIndex + 1);
+            }
+        }
+        
+        // Fallback: assume everything after the domain is the key
+        try {
+            java.net.URL parsedUrl = new java.net.URL(url);
+            String path = parsedUrl.getPath();
+            return path.startsWith("/") ? path.substring(1) : path;
+        } catch (Exception e) {
+            logger.error("Failed to extract key from URL: {}", url, e);
+            return url;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        transferManager.shutdownNow(false);
+    }
+}
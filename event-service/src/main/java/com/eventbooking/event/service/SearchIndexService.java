@@ -0,0 +1,23 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+
+import java.util.UUID;
+
+/**
+ * Keeps the event_search_view read model in step with event writes. Callers invoke it inside
+ * the transaction that changes the event, so the view never drifts from the source rows.
+ */
+public interface SearchIndexService {
+    
+    void indexEvent(Event event);
+    
+    // The view row for the event, unsaved; bulk import batches the inserts itself
+    EventSearchView toSearchRow(Event event);
+    
+    void removeEvent(UUID eventId);
+    
+    // Fills in geohashes for venues (and their search rows) that predate geohash maintenance
+    int backfillGeohashes();
+}
@@ -0,0 +1,100 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import com.eventbooking.event.repository.VenueRepository;
+import com.eventbooking.event.util.GeoHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class SearchIndexServiceImpl implements SearchIndexService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+    
+    private final EventSearchViewRepository searchViewRepository;
+    private final VenueRepository venueRepository;
+    private final CategoryCache categoryCache;
+    
+    @Autowired
+    public SearchIndexServiceImpl(
+            EventSearchViewRepository searchViewRepository,
+            VenueRepository venueRepository,
+            CategoryCache categoryCache) {
+        this.searchViewRepository = searchViewRepository;
+        this.venueRepository = venueRepository;
+        this.categoryCache = categoryCache;
+    }
+    
+    @Override
+    public void indexEvent(Event event) {
+        EventSearchView row = searchViewRepository.findById(event.getId()).orElseGet(EventSearchView::new);
+        searchViewRepository.save(populate(row, event));
+    }
+    
+    @Override
+    public EventSearchView toSearchRow(Event event) {
+        return populate(new EventSearchView(), event);
+    }
+    
+    @Override
+    public void removeEvent(UUID eventId) {
+        searchViewRepository.deleteById(eventId);
+    }
+    
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillGeohashes() {
+        List<Venue> venues = venueRepository.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+        for (Venue venue : venues) {
+            String geohash = GeoHash.encode(venue.getLatitude(), venue.getLongitude());
+            venue.setGeohash(geohash);
+            searchViewRepository.updateGeohashByVenueId(venue.getId(), geohash);
+        }
+        
+        if (!venues.isEmpty()) {
+            logger.info("Backfilled geohashes for {} venues", venues.size());
+        }
+        return venues.size();
+    }
+    
+    private EventSearchView populate(EventSearchView row, Event event) {
+        row.setEventId(event.getId());
+        row.setName(event.getName());
+        row.setDescription(event.getDescription());
+        row.setEventDate(event.getEventDate());
+        row.setStatus(event.getStatus());
+        row.setMinPrice(event.getMinPrice());
+        row.setMaxPrice(event.getMaxPrice());
+        
+        Venue venue = event.getVenue();
+        row.setVenueId(venue != null ? venue.getId() : null);
+        row.setVenueName(venue != null ? venue.getName() : null);
+        row.setVenueNameNormalized(venue != null ? EventSearchView.normalize(venue.getName()) : null);
+        row.setCity(venue != null ? venue.getCity() : null);
+        row.setCityNormalized(venue != null ? EventSearchView.normalize(venue.getCity()) : null);
+        row.setLatitude(venue != null ? venue.getLatitude() : null);
+        row.setLongitude(venue != null ? venue.getLongitude() : null);
+        row.setGeohash(venue != null ? GeoHash.encode(venue.getLatitude(), venue.getLongitude()) : null);
+        
+        // The category reference may be an uninitialized proxy; its id is enough to resolve it in memory
+        EventCategory category = event.getCategory() != null
+            ? categoryCache.get(event.getCategory().getId()).orElse(event.getCategory())
+            : null;
+        row.setCategoryId(category != null ? category.getId() : null);
+        row.setCategoryName(category != null ? category.getName() : null);
+        return row;
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventbooking.event.service;
 
+import com.eventbooking.event.dto.CursorPage;
 import com.eventbooking.event.dto.EventDto;
 import com.eventbooking.event.dto.SearchCriteria;
 import com.eventbooking.event.dto.SearchSuggestionsDto;
@@ -10,5 +11,7 @@ public interface SearchService {
     
     Page<EventDto> searchEvents(SearchCriteria criteria, Pageable pageable);
     
+    CursorPage<EventDto> scrollEvents(SearchCriteria criteria, String cursor, int size, boolean includeTotal);
+    
     SearchSuggestionsDto getSearchSuggestions(String query);
 }
\ No newline at end of file
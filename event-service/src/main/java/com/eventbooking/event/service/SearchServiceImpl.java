@@ -1,72 +1,107 @@
 package com.eventbooking.event.service;
 
+import com.eventbooking.event.dto.CursorPage;
+import com.eventbooking.event.dto.EventCursor;
 import com.eventbooking.event.dto.EventDto;
 import com.eventbooking.event.dto.SearchCriteria;
 import com.eventbooking.event.dto.SearchSuggestionsDto;
 import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.exception.InvalidEventDataException;
 import com.eventbooking.event.mapper.EventMapper;
-import com.eventbooking.event.repository.EventCategoryRepository;
+import com.eventbooking.event.model.CachedSearchPage;
 import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import com.eventbooking.event.util.SearchFingerprint;
+import com.eventbooking.event.util.Tags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @Transactional(readOnly = true)
 public class SearchServiceImpl implements SearchService {
     
+    private static final double DEFAULT_RADIUS_KM = 25;
+    private static final double MAX_RADIUS_KM = 500;
+    
     private final EventRepository eventRepository;
-    private final EventCategoryRepository categoryRepository;
+    private final EventSearchViewRepository searchViewRepository;
+    private final CategoryCache categoryCache;
     private final EventMapper eventMapper;
     private final CacheService cacheService;
     
     @Autowired
     public SearchServiceImpl(
             EventRepository eventRepository,
-            EventCategoryRepository categoryRepository,
+            EventSearchViewRepository searchViewRepository,
+            CategoryCache categoryCache,
             EventMapper eventMapper,
             CacheService cacheService) {
         this.eventRepository = eventRepository;
-        this.categoryRepository = categoryRepository;
+        this.searchViewRepository = searchViewRepository;
+        this.categoryCache = categoryCache;
         this.eventMapper = eventMapper;
         this.cacheService = cacheService;
     }
     
     @Override
     public Page<EventDto> searchEvents(SearchCriteria criteria, Pageable pageable) {
-        String cacheKey = cacheService.generateSearchCacheKey(criteria.toString() + pageable.toString());
+        validateGeoFilter(criteria);
+        normalizeTags(criteria);
+        SearchFingerprint.bucket(criteria);
+        String cacheKey = cacheService.generateSearchCacheKey(SearchFingerprint.of(criteria, pageable));
         
-        // Check cache first
-        Page<EventDto> cachedResults = cacheService.getCachedSearchResults(cacheKey, EventDto.class);
-        if (cachedResults != null) {
-            return cachedResults;
+        // A cached search holds only the page's ids and the total; the events come from the event cache
+        CachedSearchPage cached = cacheService.getCachedSearchPage(cacheKey);
+        if (cached != null) {
+            return new PageImpl<>(toDtos(loadEvents(cached.getEventIds())), pageable, cached.getTotalElements());
         }
         
-        // Execute search query
-        Page<Event> events = eventRepository.searchEvents(
-            criteria.getQuery(),
-            criteria.getCity(),
-            criteria.getCategoryId(),
-            criteria.getDateFrom(),
-            criteria.getDateTo(),
-            criteria.getMinPrice(),
-            criteria.getMaxPrice(),
-            pageable
+        // Filter on the read model, then load just the matching page of events
+        List<UUID> eventIds = searchViewRepository.searchEventIds(criteria, pageable);
+        Page<EventDto> results = PageableExecutionUtils.getPage(
+            toDtos(loadEvents(eventIds)),
+            pageable,
+            () -> searchViewRepository.countEvents(criteria)
         );
         
-        Page<EventDto> results = events.map(eventMapper::toDto);
-        
-        // Cache results
-        cacheService.cacheSearchResults(cacheKey, results);
+        cacheService.cacheSearchPage(cacheKey, new CachedSearchPage(eventIds, results.getTotalElements()));
         
         return results;
     }
     
+    @Override
+    public CursorPage<EventDto> scrollEvents(SearchCriteria criteria, String cursor, int size, boolean includeTotal) {
+        validateGeoFilter(criteria);
+        normalizeTags(criteria);
+        SearchFingerprint.bucket(criteria);
+        int pageSize = CursorPage.clampSize(size);
+        EventCursor position = Optional.ofNullable(EventCursor.decode(cursor)).orElseGet(EventCursor::first);
+        
+        List<UUID> eventIds = searchViewRepository.searchEventIdsAfter(
+            criteria, position.getEventDate(), position.getId(), pageSize + 1);
+        
+        Long total = includeTotal
+            ? cacheService.getOrComputeCount(cacheService.generateSearchCacheKey(SearchFingerprint.of(criteria)),
+                () -> searchViewRepository.countEvents(criteria))
+            : null;
+        
+        return eventMapper.toCursorPage(loadEvents(eventIds), pageSize, total);
+    }
+    
     @Override
     public SearchSuggestionsDto getSearchSuggestions(String query) {
         if (query == null || query.trim().isEmpty()) {
@@ -79,9 +114,65 @@ public class SearchServiceImpl implements SearchService {
         // Get suggestions from different sources
         List<String> eventSuggestions = eventRepository.findEventNameSuggestions(trimmedQuery, limit);
         List<String> venueSuggestions = eventRepository.findVenueNameSuggestions(trimmedQuery, limit);
-        List<String> categorySuggestions = categoryRepository.findCategoryNameSuggestions(trimmedQuery, limit);
+        List<String> categorySuggestions = categoryCache.suggestNames(trimmedQuery, limit.getPageSize());
         List<String> citySuggestions = eventRepository.findCitySuggestions(trimmedQuery, limit);
         
         return new SearchSuggestionsDto(eventSuggestions, venueSuggestions, categorySuggestions, citySuggestions);
     }
+    
+    // Proximity search needs both coordinates; the radius defaults and is capped so cell pruning stays effective
+    private void validateGeoFilter(SearchCriteria criteria) {
+        if (criteria.getLatitude() == null && criteria.getLongitude() == null) {
+            if (criteria.getRadiusKm() != null) {
+                throw new InvalidEventDataException("radiusKm requires lat and lon");
+            }
+            return;
+        }
+        if (criteria.getLatitude() == null || criteria.getLongitude() == null) {
+            throw new InvalidEventDataException("Both lat and lon are required for proximity search");
+        }
+        if (Math.abs(criteria.getLatitude()) > 90 || Math.abs(criteria.getLongitude()) > 180) {
+            throw new InvalidEventDataException("Coordinates out of range");
+        }
+        if (criteria.getRadiusKm() == null) {
+            criteria.setRadiusKm(DEFAULT_RADIUS_KM);
+        }
+        if (criteria.getRadiusKm() <= 0 || criteria.getRadiusKm() > MAX_RADIUS_KM) {
+            throw new InvalidEventDataException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+        }
+    }
+    
+    // Stored tags are normalized, so "Rock" and "rock " are the same filter and the same cache key
+    private void normalizeTags(SearchCriteria criteria) {
+        if (criteria.getTags() != null) {
+            criteria.setTags(criteria.hasTagFilter() ? Tags.normalize(criteria.getTags()) : null);
+        }
+    }
+    
+    /**
+     * Reads the events from the event cache with one multi-get, loads any misses in a single
+     * query and caches them for the next search, then restores the order the read model returned.
+     */
+    private List<Event> loadEvents(List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<UUID, Event> eventsById = new HashMap<>(cacheService.getCachedEvents(eventIds));
+        List<UUID> missing = eventIds.stream().filter(id -> !eventsById.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long start = System.nanoTime();
+            List<Event> loaded = eventRepository.findDetailedByIdIn(missing);
+            cacheService.cacheEvents(loaded, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            loaded.forEach(event -> eventsById.put(event.getId(), event));
+        }
+        return eventIds.stream()
+            .map(eventsById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    private List<EventDto> toDtos(List<Event> events) {
+        return events.stream().map(eventMapper::toDto).toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.eventbooking.event.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Item-to-item similarity from shared features (tags, category, city). Each feature is weighted
+ * by how rare it is, so two events sharing an uncommon tag rank above two events that merely
+ * share a big category. Candidates come from an inverted index, so events without any feature in
+ * common are never compared.
+ */
+final class SimilarEvents {
+    
+    private SimilarEvents() {}
+    
+    static Map<UUID, List<UUID>> compute(Map<UUID, Set<String>> featuresByEvent, int limit) {
+        Map<String, List<UUID>> postings = new HashMap<>();
+        featuresByEvent.forEach((eventId, features) ->
+            features.forEach(feature -> postings.computeIfAbsent(feature, key -> new ArrayList<>()).add(eventId)));
+        
+        int eventCount = featuresByEvent.size();
+        Map<String, Double> weights = new HashMap<>();
+        postings.forEach((feature, events) -> weights.put(feature, Math.log(1.0 + (double) eventCount / events.size())));
+        
+        Map<UUID, List<UUID>> similar = new HashMap<>();
+        featuresByEvent.forEach((eventId, features) -> {
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String feature : features) {
+                double weight = weights.get(feature);
+                for (UUID other : postings.get(feature)) {
+                    if (!other.equals(eventId)) {
+                        scores.merge(other, weight, Double::sum);
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return;
+            }
+            
+            // Normalized by feature counts so events with many tags do not match everything
+            Map<UUID, Double> normalized = new HashMap<>();
+            scores.forEach((other, score) ->
+                normalized.put(other, score / Math.sqrt((double) features.size() * featuresByEvent.get(other).size())));
+            
+            List<UUID> ranked = normalized.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+            similar.put(eventId, ranked);
+        });
+        return similar;
+    }
+}
@@ -0,0 +1,22 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.VenueRequest;
+import com.eventbooking.event.entity.Venue;
+
+public interface VenueService {
+    
+    /**
+     * Get the venue with the same canonical name and city (see VenueKeys), creating it if there
+     * is none. Concurrent calls for the same venue resolve to a single row.
+     * 
+     * @param request The venue as given on an event
+     * @return The existing or newly created venue, managed by the current transaction
+     */
+    Venue findOrCreate(VenueRequest request);
+    
+    // Unsaved venue for the request with id, normalized key and geohash set; bulk import batches the inserts itself
+    Venue newVenue(VenueRequest request);
+    
+    // Keys venues that predate normalized keys, merging those that turn out to be duplicates
+    int deduplicateVenues();
+}
@@ -0,0 +1,140 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.VenueRequest;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import com.eventbooking.event.repository.VenueRepository;
+import com.eventbooking.event.util.GeoHash;
+import com.eventbooking.event.util.VenueKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class VenueServiceImpl implements VenueService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VenueServiceImpl.class);
+    
+    // The first venue created for a place survives a merge
+    private static final Comparator<Venue> OLDEST_FIRST = Comparator
+        .comparing(Venue::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(Venue::getId);
+    
+    private final VenueRepository venueRepository;
+    private final EventRepository eventRepository;
+    private final EventSearchViewRepository searchViewRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public VenueServiceImpl(
+            VenueRepository venueRepository,
+            EventRepository eventRepository,
+            EventSearchViewRepository searchViewRepository,
+            PlatformTransactionManager transactionManager) {
+        this.venueRepository = venueRepository;
+        this.eventRepository = eventRepository;
+        this.searchViewRepository = searchViewRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    @Transactional
+    public Venue findOrCreate(VenueRequest request) {
+        String key = VenueKeys.of(request.getName(), request.getCity());
+        Venue existing = venueRepository.findByNormalizedKey(key).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        
+        venueRepository.insertIfAbsent(newVenue(request));
+        // Inserted by this call or by a concurrent one; either way the key now has exactly one venue
+        return venueRepository.findByNormalizedKey(key)
+            .orElseThrow(() -> new IllegalStateException("Venue missing after insert: " + key));
+    }
+    
+    @Override
+    public Venue newVenue(VenueRequest request) {
+        Venue venue = new Venue();
+        venue.setId(UUID.randomUUID());
+        venue.setName(request.getName());
+        venue.setNormalizedKey(VenueKeys.of(request.getName(), request.getCity()));
+        venue.setAddress(request.getAddress());
+        venue.setCity(request.getCity());
+        venue.setState(request.getState());
+        venue.setZipCode(request.getZipCode());
+        venue.setCountry(request.getCountry());
+        venue.setLatitude(request.getLatitude());
+        venue.setLongitude(request.getLongitude());
+        venue.setGeohash(GeoHash.encode(request.getLatitude(), request.getLongitude()));
+        venue.setMaxCapacity(request.getMaxCapacity());
+        venue.setVenueType(request.getVenueType());
+        return venue;
+    }
+    
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int deduplicateVenues() {
+        try {
+            Integer merged = transactionTemplate.execute(status -> mergeUnkeyedVenues());
+            return merged != null ? merged : 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance keyed the same venues first
+            logger.warn("Venue deduplication skipped: {}", e.getMostSpecificCause().getMessage());
+            return 0;
+        }
+    }
+    
+    private int mergeUnkeyedVenues() {
+        List<Venue> unkeyed = venueRepository.findByNormalizedKeyIsNull();
+        if (unkeyed.isEmpty()) {
+            return 0;
+        }
+        
+        Map<String, List<Venue>> byKey = unkeyed.stream()
+            .collect(Collectors.groupingBy(venue -> VenueKeys.of(venue.getName(), venue.getCity()),
+                LinkedHashMap::new, Collectors.toList()));
+        Map<String, Venue> keyed = venueRepository.findByNormalizedKeyIn(byKey.keySet()).stream()
+            .collect(Collectors.toMap(Venue::getNormalizedKey, Function.identity()));
+        
+        int merged = 0;
+        for (Map.Entry<String, List<Venue>> group : byKey.entrySet()) {
+            List<Venue> venues = new ArrayList<>(group.getValue());
+            venues.sort(OLDEST_FIRST);
+            Venue keeper = keyed.getOrDefault(group.getKey(), venues.get(0));
+            
+            List<UUID> duplicateIds = venues.stream()
+                .filter(venue -> venue != keeper)
+                .map(Venue::getId)
+                .toList();
+            if (!duplicateIds.isEmpty()) {
+                eventRepository.reassignVenue(keeper, duplicateIds);
+                searchViewRepository.reassignVenue(keeper.getId(), keeper.getName(),
+                    EventSearchView.normalize(keeper.getName()), duplicateIds);
+                venueRepository.deleteAllByIdInBatch(duplicateIds);
+                merged += duplicateIds.size();
+            }
+            keeper.setNormalizedKey(group.getKey());
+        }
+        
+        logger.info("Keyed {} venues, merging {} duplicates", unkeyed.size(), merged);
+        return merged;
+    }
+}
@@ -0,0 +1,126 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV reading and writing: comma separated, fields optionally quoted with
+ * doubled quotes inside, and quoted fields may span lines. Records are read one at a time so
+ * callers can stream arbitrarily long files.
+ */
+public final class Csv {
+    
+    // Upper bound on one record, so a missing closing quote cannot buffer the rest of the file
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+    
+    private Csv() {}
+    
+    public static final class RecordReader {
+        
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+        private int pushedBack = -1;
+        
+        // Expects a buffered reader; characters are consumed one at a time
+        public RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+        
+        // Next record's fields, or null at end of input
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = 0;
+            while (true) {
+                if (++length > MAX_RECORD_LENGTH) {
+                    throw new InvalidEventDataException("CSV record at line " + recordLine + " is too long");
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new InvalidEventDataException("Unterminated quoted field at line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int peek = read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            pushedBack = peek;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int peek = read();
+                        if (peek != '\n') {
+                            pushedBack = peek;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+        
+        // Line on which the record last returned by next() started
+        public long getRecordLine() {
+            return recordLine;
+        }
+        
+        private int read() throws IOException {
+            if (pushedBack != -1) {
+                int c = pushedBack;
+                pushedBack = -1;
+                return c;
+            }
+            int c = reader.read();
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+    
+    // Writes one record terminated by CRLF; null values are written as empty fields
+    public static void writeRecord(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,148 @@
+package com.eventbooking.event.util;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohash cell encoding for proximity search. Venues store a full-precision geohash; a radius
+ * query is pruned to the 3x3 block of cells around the search point, at the finest precision
+ * whose cells are still at least as large as the radius, before exact distances are computed.
+ */
+public final class GeoHash {
+    
+    public static final int MAX_PRECISION = 9;
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double KM_PER_DEGREE_LAT = 110.574;
+    private static final double KM_PER_DEGREE_LON_AT_EQUATOR = 111.320;
+    
+    private GeoHash() {}
+    
+    public static String encode(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return encode(latitude.doubleValue(), longitude.doubleValue(), MAX_PRECISION);
+    }
+    
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+        
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLon = mid;
+                } else {
+                    index <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLat = mid;
+                } else {
+                    index <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+    
+    /**
+     * Cells that together contain every point within {@code radiusKm} of the given point. Returns
+     * an empty set when the radius is too large for cell pruning to help (or the point is close
+     * enough to a pole that cells degenerate); callers then rely on the exact distance check alone.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm) {
+        int precision = precisionFor(latitude, radiusKm);
+        if (precision == 0) {
+            return Set.of();
+        }
+        
+        double latSpan = latitudeSpan(precision);
+        double lonSpan = longitudeSpan(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            double cellLat = latitude + dLat * latSpan;
+            if (cellLat < -90 || cellLat > 90) {
+                continue;
+            }
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                cells.add(encode(cellLat, wrapLongitude(longitude + dLon * lonSpan), precision));
+            }
+        }
+        return cells;
+    }
+    
+    // Smallest string greater than every geohash starting with prefix, or null if there is none
+    public static String upperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            int digit = BASE32.indexOf(prefix.charAt(i));
+            if (digit < BASE32.length() - 1) {
+                return prefix.substring(0, i) + BASE32.charAt(digit + 1);
+            }
+        }
+        return null;
+    }
+    
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+    
+    private static int precisionFor(double latitude, double radiusKm) {
+        // Cells are narrowest on the side of the search circle nearest the pole
+        double widestLatitude = Math.min(90, Math.abs(latitude) + radiusKm / KM_PER_DEGREE_LAT);
+        double lonScale = Math.cos(Math.toRadians(widestLatitude));
+        
+        for (int precision = MAX_PRECISION; precision >= 1; precision--) {
+            double heightKm = latitudeSpan(precision) * KM_PER_DEGREE_LAT;
+            double widthKm = longitudeSpan(precision) * KM_PER_DEGREE_LON_AT_EQUATOR * lonScale;
+            if (heightKm >= radiusKm && widthKm >= radiusKm) {
+                return precision;
+            }
+        }
+        return 0;
+    }
+    
+    private static double latitudeSpan(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+    
+    private static double longitudeSpan(int precision) {
+        int lonBits = 5 * precision - (5 * precision) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+    
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,129 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.dto.SearchCriteria;
+import com.eventbooking.event.entity.EventSearchView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Canonical form of a search request, used as its cache key. Requests the search read model
+ * answers identically ("Rock " and "rock", tags in any order, an explicit default sort, 10 and
+ * 10.00) produce the same fingerprint; the repository, not this class, defines the semantics.
+ */
+public final class SearchFingerprint {
+    
+    // Three decimals is roughly 100 m, well inside the smallest geohash cell a search covers
+    private static final int COORDINATE_SCALE = 3;
+    
+    private SearchFingerprint() {}
+    
+    /**
+     * Rounds the continuous filters in place so requests a few seconds or metres apart run the
+     * same query: date bounds widen to whole minutes, prices to whole cents, coordinates round
+     * to three decimals and the radius rounds up to a tenth of a kilometre.
+     */
+    public static void bucket(SearchCriteria criteria) {
+        if (criteria.getDateFrom() != null) {
+            criteria.setDateFrom(criteria.getDateFrom().truncatedTo(ChronoUnit.MINUTES));
+        }
+        if (criteria.getDateTo() != null) {
+            LocalDateTime floor = criteria.getDateTo().truncatedTo(ChronoUnit.MINUTES);
+            criteria.setDateTo(floor.equals(criteria.getDateTo()) ? floor : floor.plusMinutes(1));
+        }
+        if (criteria.getMinPrice() != null) {
+            criteria.setMinPrice(criteria.getMinPrice().setScale(2, RoundingMode.FLOOR));
+        }
+        if (criteria.getMaxPrice() != null) {
+            criteria.setMaxPrice(criteria.getMaxPrice().setScale(2, RoundingMode.CEILING));
+        }
+        if (criteria.getLatitude() != null) {
+            criteria.setLatitude(round(criteria.getLatitude()));
+        }
+        if (criteria.getLongitude() != null) {
+            criteria.setLongitude(round(criteria.getLongitude()));
+        }
+        if (criteria.getRadiusKm() != null) {
+            criteria.setRadiusKm(Math.ceil(criteria.getRadiusKm() * 10) / 10);
+        }
+    }
+    
+    // Fingerprint of the filters alone, for cached match counts
+    public static String of(SearchCriteria criteria) {
+        StringJoiner key = new StringJoiner("&");
+        if (StringUtils.hasText(criteria.getQuery())) {
+            // plainto_tsquery folds case and ignores extra whitespace
+            key.add("q=" + criteria.getQuery().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+        }
+        if (StringUtils.hasText(criteria.getCity())) {
+            key.add("city=" + EventSearchView.normalize(criteria.getCity()));
+        }
+        if (criteria.getCategoryId() != null) {
+            key.add("cat=" + criteria.getCategoryId());
+        }
+        if (criteria.getDateFrom() != null) {
+            key.add("from=" + criteria.getDateFrom());
+        }
+        if (criteria.getDateTo() != null) {
+            key.add("to=" + criteria.getDateTo());
+        }
+        if (criteria.getMinPrice() != null) {
+            key.add("min=" + plain(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            key.add("max=" + plain(criteria.getMaxPrice()));
+        }
+        if (criteria.hasGeoFilter()) {
+            key.add("geo=" + plain(criteria.getLatitude()) + "," + plain(criteria.getLongitude())
+                + "," + plain(criteria.getRadiusKm()));
+        }
+        if (criteria.hasTagFilter()) {
+            List<String> tags = Tags.normalize(criteria.getTags()).stream().sorted().toList();
+            // With a single tag ANY and ALL match the same events
+            String match = tags.size() > 1 ? criteria.getTagMatch().name().toLowerCase(Locale.ROOT) + ":" : "";
+            key.add("tags=" + match + String.join(",", tags));
+        }
+        return key.toString();
+    }
+    
+    // Fingerprint of the filters plus the requested page and its effective order
+    public static String of(SearchCriteria criteria, Pageable pageable) {
+        StringJoiner key = new StringJoiner("&").add(of(criteria));
+        if (pageable.isPaged()) {
+            key.add("page=" + pageable.getPageNumber() + "," + pageable.getPageSize());
+        }
+        return key.add("sort=" + sort(pageable.getSort(), criteria)).toString();
+    }
+    
+    // An unsorted request is ordered by distance or date, the same as asking for that order explicitly
+    private static String sort(Sort sort, SearchCriteria criteria) {
+        if (sort.isUnsorted()) {
+            return criteria.hasGeoFilter() ? "distance:asc" : "eventDate:asc";
+        }
+        StringJoiner orders = new StringJoiner(",");
+        for (Sort.Order order : sort) {
+            orders.add(order.getProperty() + ":" + (order.isAscending() ? "asc" : "desc"));
+        }
+        return orders.toString();
+    }
+    
+    private static double round(double coordinate) {
+        return BigDecimal.valueOf(coordinate).setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).doubleValue();
+    }
+    
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+    
+    private static String plain(double value) {
+        return plain(BigDecimal.valueOf(value));
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Event tag normalization and interning. Tags are stored trimmed and lower-cased, so tag
+ * filters are plain equality lookups on the event_tags index.
+ */
+public final class Tags {
+    
+    public static final int MAX_LENGTH = 50;
+    public static final int MAX_TAGS = 20;
+    
+    // Tags are a small vocabulary repeated across thousands of rows; beyond this size new ones are not pooled
+    private static final int MAX_INTERNED = 10_000;
+    private static final ConcurrentMap<String, String> INTERNED = new ConcurrentHashMap<>();
+    
+    private Tags() {}
+    
+    // Trimmed, lower-cased and de-duplicated, keeping first-seen order; blank tags are dropped
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            String value = tag.trim().toLowerCase(Locale.ROOT);
+            if (value.length() > MAX_LENGTH) {
+                throw new InvalidEventDataException("Tags must be at most " + MAX_LENGTH + " characters");
+            }
+            normalized.add(intern(value));
+        }
+        if (normalized.size() > MAX_TAGS) {
+            throw new InvalidEventDataException("An event can have at most " + MAX_TAGS + " tags");
+        }
+        return new ArrayList<>(normalized);
+    }
+    
+    // Shared instance of the tag, so mapped listings hold one copy per distinct tag rather than one per row
+    public static String intern(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String pooled = INTERNED.get(tag);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return tag;
+        }
+        pooled = INTERNED.putIfAbsent(tag, tag);
+        return pooled != null ? pooled : tag;
+    }
+}
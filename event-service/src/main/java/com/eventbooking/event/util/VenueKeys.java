@@ -0,0 +1,31 @@
+package com.eventbooking.event.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical venue identity: name and city lower-cased, trimmed, accent-stripped and with runs
+ * of whitespace collapsed, so "Café  Central, Wien" and "cafe central, WIEN" are one venue.
+ */
+public final class VenueKeys {
+    
+    public static final int MAX_LENGTH = 400;
+    
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private VenueKeys() {}
+    
+    public static String of(String name, String city) {
+        return canonical(name) + '|' + canonical(city);
+    }
+    
+    static String canonical(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,133 @@
+package com.eventbooking.event.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each holds a marker
+ * row naming itself, so a query shows which pool served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate replicaAdmin;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaAdmin = new JdbcTemplate(replica);
+        replicaAdmin.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replicaAdmin.update("INSERT INTO replica_lag VALUES (0)");
+
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", 5, meterRegistry);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        lagMonitor.check();
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> server()));
+        assertEquals(1.0, routedCount("replica", "read"));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        lagMonitor.check();
+
+        assertEquals("primary", readWriteTransaction.execute(status -> server()));
+    }
+
+    @Test
+    void readAfterWriteInSameRequest_ShouldStayOnPrimary() {
+        lagMonitor.check();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        readWriteTransaction.execute(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> server()));
+        assertEquals(1.0, routedCount("primary", "read_your_writes"));
+
+        // The next request reads from the replica again
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", readOnlyTransaction.execute(status -> server()));
+    }
+
+    @Test
+    void replicaLaggingBeyondThreshold_ShouldFallBackToPrimary() {
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 30");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(30.0, meterRegistry.get("event.datasource.replica.lag.seconds").gauge().value());
+        assertEquals("primary", readOnlyTransaction.execute(status -> server()));
+        assertEquals(1.0, routedCount("primary", "replica_unavailable"));
+
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 1");
+        lagMonitor.check();
+        assertEquals("replica", readOnlyTransaction.execute(status -> server()));
+    }
+
+    @Test
+    void replicaNotYetCheckedOrUnreachable_ShouldFallBackToPrimary() {
+        assertEquals("primary", readOnlyTransaction.execute(status -> server()));
+
+        replicaAdmin.execute("DROP TABLE replica_lag");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnlyTransaction.execute(status -> server()));
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private double routedCount(String pool, String reason) {
+        return meterRegistry.get("event.datasource.connections.routed").tag("pool", pool).tag("reason", reason)
+            .counter().count();
+    }
+
+    private DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate admin = new JdbcTemplate(dataSource);
+        admin.execute("CREATE TABLE marker (name VARCHAR(20))");
+        admin.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,122 @@
+package com.eventbooking.event.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing through JPA with open-in-view, as a request like DELETE /api/events/{id}/image runs
+ * it: a read-only transaction loads the event, then a read-write one updates it, both in the
+ * request's one EntityManager. Uses the Hibernate settings from DataSourceConfig.
+ */
+class ReplicaRoutingOpenInViewTest {
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private OpenEntityManagerInViewInterceptor openInView;
+    private EntityManager entityManager;
+    private JdbcTemplate primaryAdmin;
+    private JdbcTemplate replicaAdmin;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        primaryAdmin = new JdbcTemplate(primary);
+        replicaAdmin = new JdbcTemplate(replica);
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, "SELECT 0", 5, meterRegistry);
+        lagMonitor.check();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        hibernateProperties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        new DataSourceConfig().replicaConnectionHandling().customize(hibernateProperties);
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(new LazyConnectionDataSourceProxy(routing));
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setPackagesToScan(ReplicaRoutingOpenInViewTest.class.getPackageName());
+        entityManagerFactoryBean.setJpaPropertyMap(hibernateProperties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        entityManagerFactoryBean.destroy();
+    }
+
+    @Test
+    void readThenWriteInOneRequest_ShouldRouteEachTransactionOnItsOwn() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("DELETE", "/api/events/1/image");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        ServletWebRequest request = new ServletWebRequest(servletRequest);
+        openInView.preHandle(request);
+        try {
+            assertEquals("replica", readOnlyTransaction.execute(status -> server()));
+
+            assertEquals("primary", readWriteTransaction.execute(status -> {
+                entityManager.createNativeQuery("UPDATE marker SET writes = writes + 1").executeUpdate();
+                return server();
+            }));
+
+            // Read-your-writes holds within the same session as well
+            assertEquals("primary", readOnlyTransaction.execute(status -> server()));
+        } finally {
+            openInView.afterCompletion(request, null);
+        }
+
+        assertEquals(1, primaryAdmin.queryForObject("SELECT writes FROM marker", Integer.class));
+        assertEquals(0, replicaAdmin.queryForObject("SELECT writes FROM marker", Integer.class));
+    }
+
+    private String server() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM marker").getSingleResult();
+    }
+
+    private DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate admin = new JdbcTemplate(dataSource);
+        admin.execute("CREATE TABLE marker (name VARCHAR(20), writes INT)");
+        admin.update("INSERT INTO marker VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
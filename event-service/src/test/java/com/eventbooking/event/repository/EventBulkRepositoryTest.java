@@ -0,0 +1,109 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.dto.BulkEventRecord;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.util.VenueKeys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against H2 in PostgreSQL mode, which accepts the ON CONFLICT DO NOTHING venue insert.
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:bulk;MODE=PostgreSQL",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EventBulkRepositoryTest.TestConfig.class)
+class EventBulkRepositoryTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Event.class)
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    @Import(EventBulkRepository.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private EventBulkRepository bulkRepository;
+
+    @Autowired
+    private EventSearchViewRepository searchViewRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Test
+    void insertedEvents_ShouldStreamBackInDateOrderWithTags() {
+        UUID organizerId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2030, 6, 1, 20, 0);
+
+        Venue venue = new Venue();
+        venue.setId(UUID.randomUUID());
+        venue.setName("Blue Room");
+        venue.setCity("Chicago");
+        venue.setNormalizedKey(VenueKeys.of(venue.getName(), venue.getCity()));
+        venue.setLatitude(new BigDecimal("41.88000000"));
+        venue.setLongitude(new BigDecimal("-87.63000000"));
+        bulkRepository.insertVenues(List.of(venue));
+
+        // A second insert of the same venue is skipped rather than failing the batch
+        Venue sameVenue = new Venue();
+        sameVenue.setId(UUID.randomUUID());
+        sameVenue.setName("BLUE ROOM");
+        sameVenue.setNormalizedKey(venue.getNormalizedKey());
+        bulkRepository.insertVenues(List.of(sameVenue));
+        assertEquals(1, venueRepository.count());
+
+        Event later = event(organizerId, "Late Set", start.plusDays(1), venue, List.of("jazz", "live"));
+        Event earlier = event(organizerId, "Early Set", start, venue, List.of());
+        Event otherOrganizer = event(UUID.randomUUID(), "Elsewhere", start, venue, List.of("rock"));
+        bulkRepository.insertEvents(List.of(later, earlier, otherOrganizer));
+
+        EventSearchView row = new EventSearchView();
+        row.setEventId(later.getId());
+        row.setName(later.getName());
+        row.setEventDate(later.getEventDate());
+        row.setStatus(EventStatus.DRAFT);
+        bulkRepository.insertSearchRows(List.of(row));
+
+        List<BulkEventRecord> records = new ArrayList<>();
+        bulkRepository.streamByOrganizer(organizerId, 1, records::add);
+
+        assertEquals(List.of(earlier.getId(), later.getId()), records.stream().map(BulkEventRecord::getId).toList());
+        assertEquals(List.of(), records.get(0).getTags());
+        assertEquals(List.of("jazz", "live"), records.get(1).getTags());
+        assertEquals("Blue Room", records.get(1).getVenueName());
+        assertEquals("DRAFT", records.get(1).getStatus());
+        assertEquals(0, new BigDecimal("41.88").compareTo(records.get(1).getVenueLatitude()));
+        assertTrue(searchViewRepository.existsById(later.getId()));
+    }
+
+    private Event event(UUID organizerId, String name, LocalDateTime eventDate, Venue venue, List<String> tags) {
+        Event event = new Event(organizerId, name, eventDate, venue);
+        event.setId(UUID.randomUUID());
+        event.setStatus(EventStatus.DRAFT);
+        event.setTags(tags);
+        return event;
+    }
+}
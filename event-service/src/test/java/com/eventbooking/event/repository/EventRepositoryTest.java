@@ -0,0 +1,137 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.config.JacksonConfig;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.mapper.EventMapper;
+import com.eventbooking.event.service.CategoryCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the listing read paths against N+1 lazy loading: mapping a full page of events to
+ * DTOs must not issue any statement beyond the page query itself (and its count, for Page)
+ * and a single batched load of the page's tags.
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ContextConfiguration(classes = EventRepositoryTest.TestConfig.class)
+class EventRepositoryTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Event.class)
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    @Import({EventMapper.class, CategoryCache.class, JacksonConfig.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        EventCategory category = new EventCategory();
+        category.setName("Music");
+        category.setIsActive(true);
+        entityManager.persist(category);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < PAGE_SIZE + 10; i++) {
+            Venue venue = new Venue();
+            venue.setName("Venue " + i);
+            venue.setCity("New York");
+            entityManager.persist(venue);
+
+            Event event = new Event(UUID.randomUUID(), "Concert " + i, start.plusHours(i), venue);
+            event.setCategory(category);
+            event.setStatus(EventStatus.PUBLISHED);
+            event.setTags(List.of("live", "tag" + i));
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        categoryCache.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByStatusAfter_MappingFullPage_ShouldIssuePageAndTagStatementsOnly() {
+        List<Event> events = eventRepository.findByStatusAfter(
+            EventStatus.PUBLISHED, LocalDateTime.of(1900, 1, 1, 0, 0), new UUID(0L, 0L),
+            PageRequest.of(0, PAGE_SIZE));
+        List<EventDto> dtos = events.stream().map(eventMapper::toDto).toList();
+
+        assertEquals(PAGE_SIZE, dtos.size());
+        assertNotNull(dtos.get(0).getVenue().getName());
+        assertEquals("Music", dtos.get(0).getCategory().getName());
+        assertEquals(List.of("live", "tag0"), dtos.get(0).getTags());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByStatus_MappingFullPage_ShouldIssuePageCountAndTagStatementsOnly() {
+        Page<EventDto> page = eventRepository.findByStatus(EventStatus.PUBLISHED, PageRequest.of(0, PAGE_SIZE))
+            .map(eventMapper::toDto);
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertEquals(PAGE_SIZE + 10, page.getTotalElements());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdIn_MappingSearchHits_ShouldIssueHitAndTagStatementsOnly() {
+        List<UUID> ids = eventRepository.findAll(PageRequest.of(0, PAGE_SIZE)).map(Event::getId).getContent();
+        entityManager.clear();
+        statistics.clear();
+
+        List<EventDto> dtos = eventRepository.findByIdIn(ids).stream().map(eventMapper::toDto).toList();
+
+        assertEquals(PAGE_SIZE, dtos.size());
+        assertEquals("New York", dtos.get(0).getVenue().getCity());
+        assertEquals(2, dtos.get(0).getTags().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
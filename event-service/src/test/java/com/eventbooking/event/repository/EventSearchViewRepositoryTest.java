@@ -0,0 +1,185 @@
+package com.eventbooking.event.repository;
+
+import com.eventbooking.event.dto.SearchCriteria;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.util.GeoHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the dynamically assembled read-model queries. Full-text matching relies on the
+ * PostgreSQL-generated search_vector column, so only the structured filters are covered here.
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ContextConfiguration(classes = EventSearchViewRepositoryTest.TestConfig.class)
+class EventSearchViewRepositoryTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = EventSearchView.class)
+    @EnableJpaRepositories(basePackageClasses = EventSearchViewRepository.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private EventSearchViewRepository searchViewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<UUID> newYorkIds = new ArrayList<>();
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.of(2030, 6, 1, 20, 0);
+        for (int i = 0; i < 5; i++) {
+            newYorkIds.add(persist("Concert " + i, "New York", start.plusDays(i), BigDecimal.valueOf(20 + i * 10),
+                EventStatus.PUBLISHED));
+        }
+        persist("Boston Show", "Boston", start, BigDecimal.valueOf(30), EventStatus.PUBLISHED);
+        persist("Draft Show", "New York", start, BigDecimal.valueOf(30), EventStatus.DRAFT);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchEventIds_WithCityFilter_ShouldMatchNormalizedCityOnPublishedEvents() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setCity("  NEW york ");
+
+        List<UUID> ids = searchViewRepository.searchEventIds(criteria, PageRequest.of(0, 10));
+
+        assertEquals(newYorkIds, ids);
+        assertEquals(5, searchViewRepository.countEvents(criteria));
+    }
+
+    @Test
+    void searchEventIds_WithPriceRangeAndSort_ShouldApplyRangeAndOrder() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setCity("New York");
+        criteria.setMinPrice(BigDecimal.valueOf(30));
+
+        List<UUID> ids = searchViewRepository.searchEventIds(criteria,
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "minPrice")));
+
+        assertEquals(List.of(newYorkIds.get(4), newYorkIds.get(3)), ids);
+    }
+
+    @Test
+    void searchEventIds_WithUnsupportedSort_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () ->
+            searchViewRepository.searchEventIds(new SearchCriteria(), PageRequest.of(0, 10, Sort.by("description")))
+        );
+    }
+
+    @Test
+    void searchEventIdsAfter_ShouldSeekPastPosition() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setCity("New York");
+
+        List<UUID> ids = searchViewRepository.searchEventIdsAfter(criteria, start.plusDays(1), newYorkIds.get(1), 2);
+
+        assertEquals(List.of(newYorkIds.get(2), newYorkIds.get(3)), ids);
+    }
+
+    @Test
+    void searchEventIds_WithGeoFilter_ShouldReturnNearestFirstWithinRadius() {
+        UUID midtown = persistAt("Midtown Show", 40.7549, -73.9840);
+        UUID brooklyn = persistAt("Brooklyn Show", 40.6782, -73.9442);
+        persistAt("Philadelphia Show", 39.9526, -75.1652);
+        entityManager.flush();
+        entityManager.clear();
+
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setLatitude(40.7580);
+        criteria.setLongitude(-73.9855);
+        criteria.setRadiusKm(15.0);
+
+        List<UUID> ids = searchViewRepository.searchEventIds(criteria, PageRequest.of(0, 10));
+
+        assertEquals(List.of(midtown, brooklyn), ids);
+        assertEquals(2, searchViewRepository.countEvents(criteria));
+    }
+
+    @Test
+    void searchEventIds_WithTagFilter_ShouldMatchAnyOrAllTags() {
+        UUID jazzAndLive = persistTagged("Jazz Night", start, List.of("jazz", "live"));
+        UUID jazzOnly = persistTagged("Jazz Brunch", start.plusDays(1), List.of("jazz"));
+        persistTagged("Rock Night", start.plusDays(2), List.of("rock", "live"));
+        entityManager.flush();
+        entityManager.clear();
+
+        SearchCriteria any = new SearchCriteria();
+        any.setTags(List.of(" JAZZ "));
+        assertEquals(List.of(jazzAndLive, jazzOnly), searchViewRepository.searchEventIds(any, PageRequest.of(0, 10)));
+
+        SearchCriteria all = new SearchCriteria();
+        all.setTags(List.of("jazz", "live"));
+        all.setTagMatch(SearchCriteria.TagMatch.ALL);
+        assertEquals(List.of(jazzAndLive), searchViewRepository.searchEventIds(all, PageRequest.of(0, 10)));
+        assertEquals(1, searchViewRepository.countEvents(all));
+    }
+
+    private UUID persistTagged(String name, LocalDateTime eventDate, List<String> tags) {
+        Event event = new Event(UUID.randomUUID(), name, eventDate, null);
+        event.setStatus(EventStatus.PUBLISHED);
+        event.setTags(tags);
+        entityManager.persist(event);
+
+        EventSearchView row = new EventSearchView();
+        row.setEventId(event.getId());
+        row.setName(name);
+        row.setCity("Chicago");
+        row.setCityNormalized(EventSearchView.normalize("Chicago"));
+        row.setEventDate(eventDate);
+        row.setStatus(EventStatus.PUBLISHED);
+        entityManager.persist(row);
+        return event.getId();
+    }
+
+    private UUID persistAt(String name, double latitude, double longitude) {
+        UUID eventId = persist(name, "Somewhere", start, BigDecimal.TEN, EventStatus.PUBLISHED);
+        EventSearchView row = entityManager.find(EventSearchView.class, eventId);
+        row.setLatitude(BigDecimal.valueOf(latitude));
+        row.setLongitude(BigDecimal.valueOf(longitude));
+        row.setGeohash(GeoHash.encode(row.getLatitude(), row.getLongitude()));
+        return eventId;
+    }
+
+    private UUID persist(String name, String city, LocalDateTime eventDate, BigDecimal price, EventStatus status) {
+        EventSearchView row = new EventSearchView();
+        row.setEventId(UUID.randomUUID());
+        row.setName(name);
+        row.setCity(city);
+        row.setCityNormalized(EventSearchView.normalize(city));
+        row.setEventDate(eventDate);
+        row.setStatus(status);
+        row.setMinPrice(price);
+        row.setMaxPrice(price.add(BigDecimal.valueOf(100)));
+        entityManager.persist(row);
+        return row.getEventId();
+    }
+}
@@ -0,0 +1,190 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.model.CachedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheServiceImplTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheServiceImpl cacheService;
+    private UUID eventId;
+    private Event testEvent;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CacheServiceImpl(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(cacheService, "negativeTtlSeconds", 30L);
+        ReflectionTestUtils.setField(cacheService, "earlyRefreshBeta", 1.0);
+
+        eventId = UUID.randomUUID();
+        testEvent = new Event();
+        testEvent.setId(eventId);
+        testEvent.setName("Rock Concert");
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void getOrLoadEvent_WithCachedEvent_ShouldNotCallLoader() {
+        long expiresAt = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+        when(valueOperations.get("event:" + eventId)).thenReturn(new CachedEvent(testEvent, 5, expiresAt));
+
+        Optional<Event> result = cacheService.getOrLoadEvent(eventId, id -> {
+            throw new AssertionError("loader should not be called");
+        });
+
+        assertTrue(result.isPresent());
+        assertEquals(1.0, meterRegistry.counter("event.cache.requests", "result", "hit").count());
+    }
+
+    @Test
+    void getOrLoadEvent_WithCacheMiss_ShouldLoadAndCacheEnvelope() {
+        when(valueOperations.get("event:" + eventId)).thenReturn(null);
+        when(redisTemplate.hasKey("event:missing:" + eventId)).thenReturn(false);
+
+        Optional<Event> result = cacheService.getOrLoadEvent(eventId, id -> Optional.of(testEvent));
+
+        assertTrue(result.isPresent());
+        ArgumentCaptor<Object> cached = ArgumentCaptor.forClass(Object.class);
+        verify(valueOperations).set(eq("event:" + eventId), cached.capture(), eq(Duration.ofHours(1)));
+        assertInstanceOf(CachedEvent.class, cached.getValue());
+        assertEquals(testEvent, ((CachedEvent) cached.getValue()).getEvent());
+    }
+
+    @Test
+    void getOrLoadEvent_WithMissingEvent_ShouldCacheNegativeResult() {
+        when(valueOperations.get("event:" + eventId)).thenReturn(null);
+        when(redisTemplate.hasKey("event:missing:" + eventId)).thenReturn(false);
+
+        Optional<Event> result = cacheService.getOrLoadEvent(eventId, id -> Optional.empty());
+
+        assertFalse(result.isPresent());
+        verify(valueOperations).set("event:missing:" + eventId, Boolean.TRUE, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void getOrLoadEvent_WithNegativeCacheHit_ShouldNotCallLoader() {
+        when(valueOperations.get("event:" + eventId)).thenReturn(null);
+        when(redisTemplate.hasKey("event:missing:" + eventId)).thenReturn(true);
+
+        Optional<Event> result = cacheService.getOrLoadEvent(eventId, id -> {
+            throw new AssertionError("loader should not be called");
+        });
+
+        assertFalse(result.isPresent());
+        assertEquals(1.0, meterRegistry.counter("event.cache.requests", "result", "negative_hit").count());
+    }
+
+    @Test
+    void getOrLoadEvent_WithConcurrentMisses_ShouldLoadOnce() throws Exception {
+        int callers = 8;
+        when(valueOperations.get("event:" + eventId)).thenReturn(null);
+        when(redisTemplate.hasKey("event:missing:" + eventId)).thenReturn(false);
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Optional<Event>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cacheService.getOrLoadEvent(eventId, id -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return Optional.of(testEvent);
+                })));
+            }
+
+            // Wait until every other caller has joined the in-flight load
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.counter("event.cache.loads.collapsed").count() < callers - 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<Optional<Event>> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers - 1, meterRegistry.counter("event.cache.loads.collapsed").count());
+    }
+
+    @Test
+    void getOrLoadEvent_WithEntryAboutToExpire_ShouldRefreshEarly() {
+        ReflectionTestUtils.setField(cacheService, "earlyRefreshBeta", 1_000_000.0);
+        long expiresAt = System.currentTimeMillis() + 1000;
+        when(valueOperations.get("event:" + eventId)).thenReturn(new CachedEvent(testEvent, 100, expiresAt));
+
+        AtomicInteger loads = new AtomicInteger();
+        Optional<Event> result = cacheService.getOrLoadEvent(eventId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(testEvent);
+        });
+
+        assertTrue(result.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("event.cache.early.refreshes").count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void getCachedEvents_ShouldReadAllIdsInOneMultiGet() {
+        UUID missingId = UUID.randomUUID();
+        long expiresAt = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+        when(valueOperations.multiGet(List.of("event:" + eventId, "event:" + missingId)))
+            .thenReturn(Arrays.asList(new CachedEvent(testEvent, 5, expiresAt), null));
+
+        Map<UUID, Event> result = cacheService.getCachedEvents(List.of(eventId, missingId));
+
+        assertEquals(Map.of(eventId, testEvent), result);
+        assertEquals(1.0, meterRegistry.counter("event.cache.requests", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("event.cache.requests", "result", "miss").count());
+    }
+}
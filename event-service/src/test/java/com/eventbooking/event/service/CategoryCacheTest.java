@@ -0,0 +1,82 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.repository.EventCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCacheTest {
+
+    @Mock
+    private EventCategoryRepository categoryRepository;
+
+    private CategoryCache categoryCache;
+
+    private EventCategory music;
+    private EventCategory theatre;
+    private EventCategory archived;
+
+    @BeforeEach
+    void setUp() {
+        categoryCache = new CategoryCache(categoryRepository);
+        music = category("Music", true);
+        theatre = category("Musical Theatre", true);
+        archived = category("Music Archive", false);
+        lenient().when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(music, theatre, archived));
+    }
+
+    @Test
+    void reads_ShouldLoadTableOnce() {
+        assertEquals(music, categoryCache.get(music.getId()).orElseThrow());
+        assertEquals(archived, categoryCache.get(archived.getId()).orElseThrow());
+        assertTrue(categoryCache.get(UUID.randomUUID()).isEmpty());
+        assertTrue(categoryCache.get(null).isEmpty());
+        categoryCache.getActive();
+        categoryCache.suggestNames("mus", 5);
+
+        verify(categoryRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void getActive_ShouldSkipInactiveAndKeepLoadOrder() {
+        assertEquals(List.of(music, theatre), categoryCache.getActive());
+    }
+
+    @Test
+    void suggestNames_ShouldMatchActiveNamesIgnoringCase() {
+        assertEquals(List.of("Music", "Musical Theatre"), categoryCache.suggestNames(" MUS", 5));
+        assertEquals(List.of("Music"), categoryCache.suggestNames("mus", 1));
+        assertTrue(categoryCache.suggestNames("jazz", 5).isEmpty());
+    }
+
+    @Test
+    void reload_ShouldSwapInNewRows() {
+        categoryCache.get(music.getId());
+        EventCategory comedy = category("Comedy", true);
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(comedy));
+
+        categoryCache.reload();
+
+        assertTrue(categoryCache.get(music.getId()).isEmpty());
+        assertEquals(List.of(comedy), categoryCache.getActive());
+    }
+
+    private EventCategory category(String name, boolean active) {
+        EventCategory category = new EventCategory(name, null);
+        category.setId(UUID.randomUUID());
+        category.setIsActive(active);
+        return category;
+    }
+}
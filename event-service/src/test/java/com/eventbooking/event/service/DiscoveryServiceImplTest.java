@@ -0,0 +1,266 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.CategoryDto;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.dto.VenueDto;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.mapper.EventMapper;
+import com.eventbooking.event.model.DiscoverySignal;
+import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiscoveryServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventSearchViewRepository searchViewRepository;
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DiscoveryServiceImpl discoveryService;
+
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        discoveryService = new DiscoveryServiceImpl(
+            redisTemplate, eventRepository, searchViewRepository, eventMapper, transactionManager);
+        ReflectionTestUtils.setField(discoveryService, "halfLifeHours", 6.0);
+        ReflectionTestUtils.setField(discoveryService, "topK", 50);
+        ReflectionTestUtils.setField(discoveryService, "similarLimit", 10);
+        ReflectionTestUtils.setField(discoveryService, "similarMaxEvents", 1000);
+
+        categoryId = UUID.randomUUID();
+
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Pipelined callbacks run against the same mocks
+        lenient().when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            SessionCallback<?> callback = invocation.getArgument(0);
+            callback.execute(redisTemplate);
+            return List.of();
+        });
+    }
+
+    @Test
+    void flush_ShouldAddWeightsToEveryScopeOfPublishedEvents() {
+        UUID eventId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        discoveryService.record(eventId, DiscoverySignal.VIEW, 1);
+        discoveryService.record(eventId, DiscoverySignal.VIEW, 1);
+        discoveryService.record(eventId, DiscoverySignal.RESERVATION, 2);
+        discoveryService.record(unknownId, DiscoverySignal.VIEW, 1);
+
+        when(searchViewRepository.findAllById(any())).thenReturn(List.of(searchView(eventId, EventStatus.PUBLISHED)));
+
+        discoveryService.flush();
+
+        String member = eventId.toString();
+        verify(zSetOperations).incrementScore("discovery:popular:all", member, 22.0);
+        verify(zSetOperations).incrementScore("discovery:popular:city:new york", member, 22.0);
+        verify(zSetOperations).incrementScore("discovery:popular:category:" + categoryId, member, 22.0);
+
+        ArgumentCaptor<Double> trendingScore = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOperations).incrementScore(
+            argThat(key -> key.startsWith("discovery:trending:") && key.endsWith(":all")), eq(member), trendingScore.capture());
+        assertTrue(trendingScore.getValue() >= 22.0);
+
+        verify(zSetOperations, never()).incrementScore(anyString(), eq(unknownId.toString()), anyDouble());
+        verify(setOperations).add(eq("discovery:scopes"), any(String[].class));
+    }
+
+    @Test
+    void flush_WithNoSignals_ShouldNotTouchRedis() {
+        discoveryService.flush();
+
+        verifyNoInteractions(searchViewRepository);
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void flush_ShouldDrainCountedSignals() {
+        UUID eventId = UUID.randomUUID();
+        discoveryService.record(eventId, DiscoverySignal.SEARCH_CLICK, 1);
+        when(searchViewRepository.findAllById(any())).thenReturn(List.of(searchView(eventId, EventStatus.PUBLISHED)));
+
+        discoveryService.flush();
+        discoveryService.flush();
+
+        verify(searchViewRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void refresh_ShouldServeRankedUpcomingEventsAndDropEndedOnes() {
+        UUID upcomingId = UUID.randomUUID();
+        UUID endedId = UUID.randomUUID();
+        when(setOperations.members("discovery:scopes")).thenReturn(Set.of("all"));
+        when(zSetOperations.reverseRangeWithScores(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            if (key.startsWith("discovery:popular:")) {
+                return tuples(Map.of(endedId.toString(), 50.0, upcomingId.toString(), 10.0));
+            }
+            return tuples(Map.of(upcomingId.toString(), 3.0));
+        });
+
+        Event upcoming = event(upcomingId, LocalDateTime.now().plusDays(3));
+        Event ended = event(endedId, LocalDateTime.now().minusDays(1));
+        when(eventRepository.findByIdIn(any())).thenReturn(List.of(upcoming, ended));
+        EventDto upcomingDto = dto(upcomingId, "New York", List.of());
+        when(eventMapper.toDto(upcoming)).thenReturn(upcomingDto);
+        when(hashOperations.entries("discovery:similar")).thenReturn(Map.of());
+
+        discoveryService.refresh();
+
+        assertEquals(List.of(upcomingDto), discoveryService.getPopular(null, null, 10));
+        assertEquals(List.of(upcomingDto), discoveryService.getTrending(null, null, 10));
+        assertTrue(discoveryService.getTrending("Boston", null, 10).isEmpty());
+        verify(zSetOperations).remove("discovery:popular:all", endedId.toString());
+    }
+
+    @Test
+    void getTrending_WithCategoryAndCity_ShouldFilterCategoryListByCity() {
+        EventDto newYork = dto(UUID.randomUUID(), "New York", List.of());
+        EventDto boston = dto(UUID.randomUUID(), "Boston", List.of());
+        ReflectionTestUtils.setField(discoveryService, "trendingLists",
+            Map.of("category:" + categoryId, List.of(boston, newYork)));
+
+        assertEquals(List.of(newYork), discoveryService.getTrending(" new YORK", categoryId, 10));
+        assertEquals(List.of(boston, newYork), discoveryService.getTrending(null, categoryId, 10));
+        assertEquals(List.of(boston), discoveryService.getTrending(null, categoryId, 1));
+    }
+
+    @Test
+    void recomputeSimilar_ShouldPublishListsBuiltFromSharedFeatures() {
+        UUID jazzA = UUID.randomUUID();
+        UUID jazzB = UUID.randomUUID();
+        UUID rock = UUID.randomUUID();
+        Event eventA = event(jazzA, LocalDateTime.now().plusDays(1));
+        Event eventB = event(jazzB, LocalDateTime.now().plusDays(2));
+        Event eventC = event(rock, LocalDateTime.now().plusDays(3));
+        EventDto dtoA = dto(jazzA, "New York", List.of("jazz", "live"));
+        EventDto dtoB = dto(jazzB, "Boston", List.of("Jazz"));
+        EventDto dtoC = dto(rock, "Chicago", List.of("rock"));
+
+        when(valueOperations.setIfAbsent(eq("discovery:similar:lock"), anyString(), any(Duration.class))).thenReturn(true);
+        when(eventRepository.findUpcomingEvents(any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(eventA, eventB, eventC)));
+        when(eventMapper.toDto(eventA)).thenReturn(dtoA);
+        when(eventMapper.toDto(eventB)).thenReturn(dtoB);
+        when(eventMapper.toDto(eventC)).thenReturn(dtoC);
+
+        discoveryService.recomputeSimilar();
+
+        verify(hashOperations).putAll(eq("discovery:similar:building"), anyMap());
+        verify(redisTemplate).rename("discovery:similar:building", "discovery:similar");
+        verify(redisTemplate).delete("discovery:similar:lock");
+
+        // The shared tag puts the other jazz event ahead of the one sharing only the category
+        when(eventRepository.findByIdIn(any())).thenReturn(List.of(eventA, eventB, eventC));
+        List<EventDto> similar = discoveryService.getSimilar(jazzB, 10);
+        assertEquals(dtoA, similar.get(0));
+        assertFalse(similar.contains(dtoB));
+    }
+
+    @Test
+    void recomputeSimilar_WhenAnotherInstanceHoldsLock_ShouldSkip() {
+        when(valueOperations.setIfAbsent(eq("discovery:similar:lock"), anyString(), any(Duration.class))).thenReturn(false);
+
+        discoveryService.recomputeSimilar();
+
+        verifyNoInteractions(eventRepository);
+        verify(redisTemplate, never()).delete("discovery:similar:lock");
+    }
+
+    private EventSearchView searchView(UUID eventId, EventStatus status) {
+        EventSearchView view = new EventSearchView();
+        view.setEventId(eventId);
+        view.setStatus(status);
+        view.setCityNormalized("new york");
+        view.setCategoryId(categoryId);
+        return view;
+    }
+
+    private Event event(UUID eventId, LocalDateTime eventDate) {
+        Event event = new Event();
+        event.setId(eventId);
+        event.setStatus(EventStatus.PUBLISHED);
+        event.setEventDate(eventDate);
+        return event;
+    }
+
+    private EventDto dto(UUID eventId, String city, List<String> tags) {
+        CategoryDto category = new CategoryDto();
+        category.setId(categoryId);
+
+        VenueDto venue = new VenueDto();
+        venue.setCity(city);
+
+        EventDto dto = new EventDto();
+        dto.setId(eventId);
+        dto.setCategory(category);
+        dto.setVenue(venue);
+        dto.setTags(tags);
+        return dto;
+    }
+
+    private Set<ZSetOperations.TypedTuple<String>> tuples(Map<String, Double> scores) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>();
+        scores.forEach((member, score) -> tuples.add(new DefaultTypedTuple<>(member, score)));
+        return tuples;
+    }
+}
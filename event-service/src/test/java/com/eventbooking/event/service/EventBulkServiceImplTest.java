@@ -0,0 +1,241 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.config.JacksonConfig;
+import com.eventbooking.event.dto.BulkEventRecord;
+import com.eventbooking.event.dto.BulkImportResult;
+import com.eventbooking.event.dto.VenueRequest;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventCategory;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.model.BulkFormat;
+import com.eventbooking.event.repository.EventBulkRepository;
+import com.eventbooking.event.repository.VenueRepository;
+import com.eventbooking.event.util.VenueKeys;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventBulkServiceImplTest {
+
+    @Mock
+    private EventBulkRepository bulkRepository;
+
+    @Mock
+    private VenueRepository venueRepository;
+
+    @Mock
+    private VenueService venueService;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventBulkServiceImpl bulkService;
+
+    private UUID organizerId;
+    private UUID categoryId;
+    private String eventDate;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new EventBulkServiceImpl(bulkRepository, venueRepository, venueService, categoryCache, searchIndexService,
+            new JacksonConfig().objectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+            transactionManager);
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 500);
+        ReflectionTestUtils.setField(bulkService, "maxRows", 10000);
+        ReflectionTestUtils.setField(bulkService, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(bulkService, "exportFetchSize", 500);
+
+        organizerId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+        eventDate = LocalDateTime.now().plusDays(30).withNano(0).toString();
+
+        EventCategory category = new EventCategory();
+        category.setId(categoryId);
+        category.setName("Music");
+        lenient().when(categoryCache.get(categoryId)).thenReturn(Optional.of(category));
+        lenient().when(searchIndexService.toSearchRow(any(Event.class))).thenReturn(new EventSearchView());
+        lenient().when(venueService.newVenue(any(VenueRequest.class))).thenAnswer(invocation -> {
+            VenueRequest request = invocation.getArgument(0);
+            Venue venue = new Venue();
+            venue.setId(UUID.randomUUID());
+            venue.setNormalizedKey(VenueKeys.of(request.getName(), request.getCity()));
+            return venue;
+        });
+    }
+
+    @Test
+    void importEvents_WithNdjson_ShouldWriteValidRowsAndReportInvalidOnes() throws IOException {
+        String input = String.join("\n",
+            ndjson("Jazz Night", categoryId, "Blue Room", "[\"Jazz\", \"live\"]"),
+            ndjson("Jazz Brunch", categoryId, "blue room", null),
+            "",
+            ndjson("", categoryId, "Blue Room", null),
+            ndjson("Unknown Category", UUID.randomUUID(), "Blue Room", null),
+            "{\"name\": ");
+        when(venueRepository.findByNormalizedKeyIn(anyCollection())).thenReturn(List.of());
+
+        BulkImportResult result = bulkService.importEvents(stream(input), BulkFormat.NDJSON, organizerId);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(4L, 5L, 6L), result.getErrors().stream().map(BulkImportResult.RowError::getLine).toList());
+        assertEquals("Category not found", result.getErrors().get(1).getMessage());
+        assertEquals("Malformed JSON", result.getErrors().get(2).getMessage());
+
+        // Both rows share one venue, created once
+        ArgumentCaptor<List<Venue>> venues = ArgumentCaptor.forClass(List.class);
+        verify(bulkRepository).insertVenues(venues.capture());
+        assertEquals(1, venues.getValue().size());
+
+        ArgumentCaptor<List<Event>> events = ArgumentCaptor.forClass(List.class);
+        verify(bulkRepository).insertEvents(events.capture());
+        assertEquals(2, events.getValue().size());
+        Event first = events.getValue().get(0);
+        assertEquals(organizerId, first.getOrganizerId());
+        assertEquals(List.of("jazz", "live"), first.getTags());
+        assertSame(first.getVenue(), events.getValue().get(1).getVenue());
+        verify(bulkRepository).insertSearchRows(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void importEvents_WithCsv_ShouldReuseExistingVenuesAcrossChunks() throws IOException {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 2);
+        Venue existing = new Venue();
+        existing.setId(UUID.randomUUID());
+        existing.setName("Blue Room");
+        existing.setCity("Chicago");
+        existing.setNormalizedKey("blue room|chicago");
+        when(venueRepository.findByNormalizedKeyIn(anyCollection())).thenReturn(List.of(existing));
+
+        String input = "venueCity,name,eventDate,categoryId,venueName,venueCountry,tags,maxCapacity\r\n"
+            + "Chicago,\"Jazz, Night\"," + eventDate + "," + categoryId + ",BLUE ROOM,USA,jazz|Live,100\r\n"
+            + "Chicago,Jazz Brunch," + eventDate + "," + categoryId + ",Blue Room,USA,,\r\n"
+            + "Chicago,Late Set," + eventDate + "," + categoryId + ",Blue Room,USA,,lots\r\n"
+            + "Chicago,Last Set," + eventDate + "," + categoryId + ",Blue Room,USA,,\r\n";
+
+        BulkImportResult result = bulkService.importEvents(stream(input), BulkFormat.CSV, organizerId);
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Invalid value for maxCapacity", result.getErrors().get(0).getMessage());
+        assertEquals(4, result.getErrors().get(0).getLine());
+
+        // The venue is looked up once for the whole import
+        verify(venueRepository, times(1)).findByNormalizedKeyIn(anyCollection());
+        verify(bulkRepository, never()).insertVenues(anyList());
+
+        ArgumentCaptor<List<Event>> events = ArgumentCaptor.forClass(List.class);
+        verify(bulkRepository, times(2)).insertEvents(events.capture());
+        Event first = events.getAllValues().get(0).get(0);
+        assertEquals("Jazz, Night", first.getName());
+        assertEquals(100, first.getMaxCapacity());
+        assertEquals(List.of("jazz", "live"), first.getTags());
+        assertSame(existing, first.getVenue());
+    }
+
+    @Test
+    void importEvents_WithUnknownCsvColumn_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () ->
+            bulkService.importEvents(stream("name,colour\nJazz,blue\n"), BulkFormat.CSV, organizerId));
+        verifyNoInteractions(bulkRepository);
+    }
+
+    @Test
+    void importEvents_WhenChunkFails_ShouldReportItsRowsAndForgetItsVenues() throws IOException {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 1);
+        when(venueRepository.findByNormalizedKeyIn(anyCollection())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("duplicate"))
+            .doNothing()
+            .when(bulkRepository).insertEvents(anyList());
+
+        String input = ndjson("First", categoryId, "Blue Room", null) + "\n"
+            + ndjson("Second", categoryId, "Blue Room", null);
+
+        BulkImportResult result = bulkService.importEvents(stream(input), BulkFormat.NDJSON, organizerId);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().get(0).getLine());
+        // The venue from the rolled back chunk is created again by the next one
+        verify(bulkRepository, times(2)).insertVenues(argThat(venues -> venues.size() == 1));
+    }
+
+    @Test
+    void importEvents_PastMaxRows_ShouldStopAndFlagTruncation() throws IOException {
+        ReflectionTestUtils.setField(bulkService, "maxRows", 1);
+        when(venueRepository.findByNormalizedKeyIn(anyCollection())).thenReturn(List.of());
+
+        String input = ndjson("First", categoryId, "Blue Room", null) + "\n"
+            + ndjson("Second", categoryId, "Blue Room", null);
+
+        BulkImportResult result = bulkService.importEvents(stream(input), BulkFormat.NDJSON, organizerId);
+
+        assertEquals(1, result.getImported());
+        assertTrue(result.isTruncated());
+    }
+
+    @Test
+    void exportEvents_WithCsv_ShouldWriteHeaderAndStreamedRows() throws IOException {
+        BulkEventRecord record = new BulkEventRecord();
+        record.setId(UUID.randomUUID());
+        record.setStatus("DRAFT");
+        record.setName("Jazz, Night");
+        record.setEventDate(LocalDateTime.of(2030, 6, 1, 20, 0));
+        record.setTags(List.of("jazz", "live"));
+        record.setVenueLatitude(new BigDecimal("41.88000000"));
+        doAnswer(invocation -> {
+            Consumer<BulkEventRecord> consumer = invocation.getArgument(2);
+            consumer.accept(record);
+            return null;
+        }).when(bulkRepository).streamByOrganizer(eq(organizerId), eq(500), any());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkService.exportEvents(organizerId, BulkFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(String.join(",", EventBulkServiceImpl.CSV_COLUMNS), lines[0]);
+        assertEquals(record.getId() + ",DRAFT,\"Jazz, Night\",,2030-06-01T20:00:00,,,jazz|live,,,,,,,41.88000000,,,",
+            lines[1]);
+    }
+
+    private String ndjson(String name, UUID category, String venueName, String tags) {
+        return "{\"name\": \"" + name + "\", \"eventDate\": \"" + eventDate + "\", \"categoryId\": \"" + category
+            + "\", \"venueName\": \"" + venueName + "\", \"venueCity\": \"Chicago\", \"venueCountry\": \"USA\""
+            + (tags != null ? ", \"tags\": " + tags : "") + "}";
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
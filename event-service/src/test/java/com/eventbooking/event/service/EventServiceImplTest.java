@@ -9,11 +9,7 @@ import com.eventbooking.event.exception.EventAccessDeniedException;
 import com.eventbooking.event.exception.EventNotFoundException;
 import com.eventbooking.event.exception.InvalidEventDataException;
 import com.eventbooking.event.mapper.EventMapper;
-import com.eventbooking.event.repository.EventCategoryRepository;
 import com.eventbooking.event.repository.EventRepository;
-import com.eventbooking.event.repository.VenueRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,8 +21,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,10 +37,10 @@ class EventServiceImplTest {
     private EventRepository eventRepository;
 
     @Mock
-    private EventCategoryRepository categoryRepository;
+    private CategoryCache categoryCache;
 
     @Mock
-    private VenueRepository venueRepository;
+    private VenueService venueService;
 
     @Mock
     private EventMapper eventMapper;
@@ -51,7 +49,13 @@ class EventServiceImplTest {
     private CacheService cacheService;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private ListingSnapshotService listingSnapshotService;
+
+    @Mock
+    private RefundRequestRelay refundRequestRelay;
 
     @InjectMocks
     private EventServiceImpl eventService;
@@ -102,14 +106,14 @@ class EventServiceImplTest {
     // ========== Event Creation Tests ==========
 
     @Test
-    void createEvent_WithValidData_ShouldCreateEvent() throws JsonProcessingException {
+    void createEvent_WithValidData_ShouldCreateEvent() {
         CreateEventRequest request = new CreateEventRequest();
         request.setName("Test Concert");
         request.setDescription("A great concert");
         request.setEventDate(LocalDateTime.now().plusDays(30));
         request.setCategoryId(categoryId);
         request.setMaxCapacity(1000);
-        request.setTags(Arrays.asList("music", "rock"));
+        request.setTags(Arrays.asList(" Music", "rock", "music", ""));
         
         VenueRequest venueRequest = new VenueRequest();
         venueRequest.setName("Test Arena");
@@ -120,10 +124,8 @@ class EventServiceImplTest {
         venueRequest.setCountry("USA");
         request.setVenue(venueRequest);
 
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(testCategory));
-        when(venueRepository.findByNameIgnoreCaseAndCityIgnoreCase(anyString(), anyString()))
-            .thenReturn(Optional.of(testVenue));
-        when(objectMapper.writeValueAsString(anyList())).thenReturn("[\"music\",\"rock\"]");
+        when(categoryCache.get(categoryId)).thenReturn(Optional.of(testCategory));
+        when(venueService.findOrCreate(venueRequest)).thenReturn(testVenue);
         when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
@@ -131,7 +133,7 @@ class EventServiceImplTest {
 
         assertNotNull(result);
         assertEquals(testEventDto.getName(), result.getName());
-        verify(eventRepository).save(any(Event.class));
+        verify(eventRepository).save(argThat(event -> event.getTags().equals(List.of("music", "rock"))));
         verify(cacheService).cacheEvent(testEvent);
     }
 
@@ -140,7 +142,7 @@ class EventServiceImplTest {
         CreateEventRequest request = new CreateEventRequest();
         request.setCategoryId(UUID.randomUUID());
 
-        when(categoryRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(categoryCache.get(any(UUID.class))).thenReturn(Optional.empty());
 
         assertThrows(InvalidEventDataException.class, () -> 
             eventService.createEvent(request, organizerId)
@@ -148,7 +150,7 @@ class EventServiceImplTest {
     }
 
     @Test
-    void createEvent_WithNewVenue_ShouldCreateVenue() throws JsonProcessingException {
+    void createEvent_ShouldUseVenueResolvedByVenueService() {
         CreateEventRequest request = new CreateEventRequest();
         request.setName("Test Concert");
         request.setEventDate(LocalDateTime.now().plusDays(30));
@@ -164,52 +166,50 @@ class EventServiceImplTest {
         venueRequest.setCountry("USA");
         request.setVenue(venueRequest);
 
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(testCategory));
-        when(venueRepository.findByNameIgnoreCaseAndCityIgnoreCase(anyString(), anyString()))
-            .thenReturn(Optional.empty());
-        when(venueRepository.save(any(Venue.class))).thenReturn(testVenue);
+        when(categoryCache.get(categoryId)).thenReturn(Optional.of(testCategory));
+        when(venueService.findOrCreate(venueRequest)).thenReturn(testVenue);
         when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         EventDto result = eventService.createEvent(request, organizerId);
 
         assertNotNull(result);
-        verify(venueRepository).save(any(Venue.class));
-        verify(eventRepository).save(any(Event.class));
+        verify(eventRepository).save(argThat(event -> event.getVenue() == testVenue));
     }
 
     // ========== Event Retrieval Tests ==========
 
     @Test
     void getEventById_WithCachedEvent_ShouldReturnFromCache() {
-        when(cacheService.getCachedEvent(eventId)).thenReturn(Optional.of(testEvent));
+        when(cacheService.getOrLoadEvent(eq(eventId), any())).thenReturn(Optional.of(testEvent));
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         EventDto result = eventService.getEventById(eventId);
 
         assertNotNull(result);
         assertEquals(testEventDto.getName(), result.getName());
-        verify(cacheService).getCachedEvent(eventId);
-        verify(eventRepository, never()).findById(any());
+        verify(cacheService).getOrLoadEvent(eq(eventId), any());
+        verify(eventRepository, never()).findDetailedById(any());
     }
 
     @Test
     void getEventById_WithoutCache_ShouldFetchFromDatabase() {
-        when(cacheService.getCachedEvent(eventId)).thenReturn(Optional.empty());
-        when(eventRepository.findById(eventId)).thenReturn(Optional.of(testEvent));
+        when(cacheService.getOrLoadEvent(eq(eventId), any())).thenAnswer(invocation -> {
+            Function<UUID, Optional<Event>> loader = invocation.getArgument(1);
+            return loader.apply(eventId);
+        });
+        when(eventRepository.findDetailedById(eventId)).thenReturn(Optional.of(testEvent));
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         EventDto result = eventService.getEventById(eventId);
 
         assertNotNull(result);
-        verify(eventRepository).findById(eventId);
-        verify(cacheService).cacheEvent(testEvent);
+        verify(eventRepository).findDetailedById(eventId);
     }
 
     @Test
     void getEventById_WithNonExistentEvent_ShouldThrowException() {
-        when(cacheService.getCachedEvent(eventId)).thenReturn(Optional.empty());
-        when(eventRepository.findById(eventId)).thenReturn(Optional.empty());
+        when(cacheService.getOrLoadEvent(eq(eventId), any())).thenReturn(Optional.empty());
 
         assertThrows(EventNotFoundException.class, () -> 
             eventService.getEventById(eventId)
@@ -232,6 +232,7 @@ class EventServiceImplTest {
 
         assertNotNull(result);
         verify(eventRepository).save(testEvent);
+        verify(searchIndexService).indexEvent(testEvent);
         verify(cacheService).cacheEvent(testEvent);
     }
 
@@ -269,6 +270,7 @@ class EventServiceImplTest {
         eventService.deleteEvent(eventId, organizerId);
 
         verify(eventRepository).delete(testEvent);
+        verify(searchIndexService).removeEvent(eventId);
         verify(cacheService).evictEvent(eventId);
     }
 
@@ -309,7 +311,9 @@ class EventServiceImplTest {
         assertNotNull(result);
         assertEquals(EventStatus.PUBLISHED, testEvent.getStatus());
         verify(eventRepository).save(testEvent);
+        verify(searchIndexService).indexEvent(testEvent);
         verify(cacheService).cacheEvent(testEvent);
+        verify(listingSnapshotService).invalidate();
     }
 
     @Test
@@ -336,6 +340,39 @@ class EventServiceImplTest {
         assertNotNull(result);
         assertEquals(EventStatus.CANCELLED, testEvent.getStatus());
         verify(eventRepository).save(testEvent);
+        verify(listingSnapshotService).invalidate();
+        verify(refundRequestRelay).record(eq(eventId), anyString());
+    }
+
+    // ========== Price Range Tests ==========
+
+    @Test
+    void updatePriceRange_WithValidRange_ShouldUpdateEventAndSearchView() {
+        PriceRangeRequest request = new PriceRangeRequest(BigDecimal.valueOf(25.00), BigDecimal.valueOf(120.00));
+
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
+        when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
+
+        EventDto result = eventService.updatePriceRange(eventId, request);
+
+        assertNotNull(result);
+        assertEquals(BigDecimal.valueOf(25.00), testEvent.getMinPrice());
+        assertEquals(BigDecimal.valueOf(120.00), testEvent.getMaxPrice());
+        verify(searchIndexService).indexEvent(testEvent);
+        verify(cacheService).cacheEvent(testEvent);
+    }
+
+    @Test
+    void updatePriceRange_WithInvertedRange_ShouldThrowException() {
+        PriceRangeRequest request = new PriceRangeRequest(BigDecimal.valueOf(200.00), BigDecimal.valueOf(50.00));
+
+        when(eventRepository.findById(eventId)).thenReturn(Optional.of(testEvent));
+
+        assertThrows(InvalidEventDataException.class, () ->
+            eventService.updatePriceRange(eventId, request)
+        );
+        verify(searchIndexService, never()).indexEvent(any());
     }
 
     // ========== Event Listing Tests ==========
@@ -387,6 +424,58 @@ class EventServiceImplTest {
         verify(eventRepository).findUpcomingEvents(any(LocalDateTime.class), eq(pageable));
     }
 
+    @Test
+    void scrollPublishedEvents_WithCursor_ShouldSeekPastCursor() {
+        LocalDateTime lastDate = LocalDateTime.now().plusDays(3);
+        UUID lastId = UUID.randomUUID();
+        String cursor = new EventCursor(lastDate, lastId).encode();
+        List<Event> rows = Collections.singletonList(testEvent);
+        CursorPage<EventDto> page = new CursorPage<>(Collections.singletonList(testEventDto), 1, false, null, null);
+
+        when(eventRepository.findByStatusAfter(EventStatus.PUBLISHED, lastDate, lastId, PageRequest.of(0, 11)))
+            .thenReturn(rows);
+        when(eventMapper.toCursorPage(rows, 10, null)).thenReturn(page);
+
+        CursorPage<EventDto> result = eventService.scrollPublishedEvents(cursor, 10, false);
+
+        assertSame(page, result);
+        verify(cacheService, never()).getOrComputeCount(anyString(), any());
+    }
+
+    @Test
+    void scrollUpcomingEvents_WithStaleCursor_ShouldStartFromNow() {
+        String staleCursor = new EventCursor(LocalDateTime.now().minusDays(1), UUID.randomUUID()).encode();
+
+        when(eventRepository.findByStatusAfter(eq(EventStatus.PUBLISHED), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        eventService.scrollUpcomingEvents(staleCursor, 20, false);
+
+        verify(eventRepository).findByStatusAfter(eq(EventStatus.PUBLISHED),
+            argThat(date -> !date.isBefore(LocalDateTime.now().minusMinutes(1))),
+            eq(new UUID(-1L, -1L)), eq(PageRequest.of(0, 21)));
+    }
+
+    @Test
+    void scrollEventsByOrganizer_WithIncludeTotal_ShouldUseCachedCount() {
+        when(eventRepository.findByOrganizerIdAfter(eq(organizerId), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class))).thenReturn(Collections.singletonList(testEvent));
+        when(cacheService.getOrComputeCount(eq("organizer:" + organizerId), any())).thenReturn(42L);
+
+        eventService.scrollEventsByOrganizer(organizerId, null, 500, true);
+
+        verify(eventRepository).findByOrganizerIdAfter(eq(organizerId), any(LocalDateTime.class),
+            eq(new UUID(0L, 0L)), eq(PageRequest.of(0, CursorPage.MAX_SIZE + 1)));
+        verify(eventMapper).toCursorPage(anyList(), eq(CursorPage.MAX_SIZE), eq(42L));
+    }
+
+    @Test
+    void scrollPublishedEvents_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () -> 
+            eventService.scrollPublishedEvents("not-a-cursor", 10, false)
+        );
+    }
+
     // ========== Image Management Tests ==========
 
     @Test
@@ -1,260 +1,490 @@
 package com.eventbooking.event.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.DeleteObjectRequest;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.dto.ImageJobDto;
+import com.eventbooking.event.exception.EventAccessDeniedException;
+import com.eventbooking.event.exception.ImageJobNotFoundException;
+import com.eventbooking.event.exception.ImageNotFoundException;
+import com.eventbooking.event.exception.ImageProcessingBusyException;
 import com.eventbooking.event.exception.InvalidEventDataException;
+import com.eventbooking.event.model.ImageVariant;
+import com.eventbooking.event.repository.EventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ImageServiceImplTest {
 
+    private static final String BASE_URL = "http://images.test";
+    private static final String RENDITION_URL = "http://events.test/api/images";
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private ImageJobStore jobStore;
+
     @Mock
-    private AmazonS3 amazonS3;
+    private EventService eventService;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @TempDir
+    Path storageRoot;
 
-    @InjectMocks
+    @TempDir
+    Path tempDir;
+
+    @TempDir
+    Path cacheDir;
+
+    private LocalImageStorage imageStorage;
+    private RenditionDiskCache renditionCache;
     private ImageServiceImpl imageService;
 
     private UUID eventId;
-    private String bucketName;
-    private String cloudFrontDomain;
+    private UUID organizerId;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws IOException {
         eventId = UUID.randomUUID();
-        bucketName = "test-bucket";
-        cloudFrontDomain = "d123456.cloudfront.net";
-        
-        ReflectionTestUtils.setField(imageService, "bucketName", bucketName);
-        ReflectionTestUtils.setField(imageService, "cloudFrontDomain", cloudFrontDomain);
+        organizerId = UUID.randomUUID();
+
+        imageStorage = new LocalImageStorage(storageRoot, BASE_URL);
+        renditionCache = new RenditionDiskCache(cacheDir, 10 * 1024 * 1024);
+        // Run jobs inline so each test sees the finished job
+        imageService = createService(imageStorage, Runnable::run);
     }
 
-    // ========== Image Upload Tests ==========
+    // ========== Image Submission Tests ==========
 
     @Test
-    void uploadEventImage_WithValidJpegImage_ShouldUploadSuccessfully() throws IOException {
-        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "jpg", baos);
-        byte[] imageBytes = baos.toByteArray();
+    void submitEventImage_WithValidJpegImage_ShouldStoreSourceAndRenditions() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 800, 600, BufferedImage.TYPE_INT_RGB);
+
+        ImageJobDto job = imageService.submitEventImage(file, eventId, organizerId);
+
+        assertEquals(ImageJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(64, job.getSourceHash().length());
+        assertEquals(3, job.getRenditions().size());
+        assertEquals(RENDITION_URL + "/" + job.getSourceHash() + "?w=320&fmt=jpg", job.getRenditions().get("thumbnail"));
+
+        String heroKey = "images/" + job.getSourceHash() + "/w1920.jpg";
+        assertEquals(BASE_URL + "/" + heroKey, job.getImageUrl());
+        verify(eventService).updateEventImage(eventId, BASE_URL + "/" + heroKey, organizerId);
+
+        assertArrayEquals(file.getBytes(), Files.readAllBytes(
+            storageRoot.resolve("images/" + job.getSourceHash() + "/source")));
+        BufferedImage thumbnail = ImageIO.read(storageRoot.resolve(
+            "images/" + job.getSourceHash() + "/w320.jpg").toFile());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(240, thumbnail.getHeight());
+    }
 
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "test-image.jpg",
-            "image/jpeg",
-            imageBytes
-        );
+    @Test
+    void submitEventImage_WithValidPngImage_ShouldKeepPngFormat() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = imageFile("image/png", "png", 400, 400, BufferedImage.TYPE_INT_ARGB);
 
-        String expectedUrl = String.format("https://%s.s3.amazonaws.com/events/%s/test.jpg", 
-            bucketName, eventId);
-        
-        when(amazonS3.putObject(any(PutObjectRequest.class))).thenReturn(null);
-        when(amazonS3.getUrl(eq(bucketName), anyString())).thenReturn(new URL(expectedUrl));
+        ImageJobDto job = imageService.submitEventImage(file, eventId, organizerId);
 
-        String result = imageService.uploadEventImage(file, eventId);
+        assertEquals(ImageJobDto.Status.COMPLETED, job.getStatus());
+        assertTrue(job.getImageUrl().endsWith("/w1920.png"));
+        assertTrue(job.getRenditions().get("thumbnail").endsWith("fmt=png"));
+    }
+
+    @Test
+    void submitEventImage_WithLargeImage_ShouldScaleHeroToWidth() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 3000, 2000, BufferedImage.TYPE_INT_RGB);
 
-        assertNotNull(result);
-        assertTrue(result.contains(bucketName));
-        verify(amazonS3).putObject(any(PutObjectRequest.class));
+        ImageJobDto job = imageService.submitEventImage(file, eventId, organizerId);
+
+        BufferedImage hero = ImageIO.read(storageRoot.resolve(imageStorage.keyFromUrl(job.getImageUrl())).toFile());
+        assertEquals(1920, hero.getWidth());
+        assertEquals(1280, hero.getHeight());
     }
 
     @Test
-    void uploadEventImage_WithValidPngImage_ShouldUploadSuccessfully() throws IOException {
-        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", baos);
-        byte[] imageBytes = baos.toByteArray();
+    void submitEventImage_ShouldTrackJobAndCleanUpTempFiles() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 800, 600, BufferedImage.TYPE_INT_RGB);
 
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "test-image.png",
-            "image/png",
-            imageBytes
-        );
+        imageService.submitEventImage(file, eventId, organizerId);
 
-        String expectedUrl = String.format("https://%s.s3.amazonaws.com/events/%s/test.png", 
-            bucketName, eventId);
-        
-        when(amazonS3.putObject(any(PutObjectRequest.class))).thenReturn(null);
-        when(amazonS3.getUrl(eq(bucketName), anyString())).thenReturn(new URL(expectedUrl));
+        // QUEUED, PROCESSING and the final state
+        verify(jobStore, times(3)).save(any(ImageJobDto.class));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submitEventImage_WithPreviouslyStoredImage_ShouldCompleteWithoutProcessing() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 800, 600, BufferedImage.TYPE_INT_RGB);
+        ImageJobDto first = imageService.submitEventImage(file, eventId, organizerId);
+
+        TaskExecutor unused = task -> fail("Stored image should not be processed again");
+        imageService = createService(imageStorage, unused);
+        ImageJobDto second = imageService.submitEventImage(file, eventId, organizerId);
+
+        assertEquals(ImageJobDto.Status.COMPLETED, second.getStatus());
+        assertEquals(first.getSourceHash(), second.getSourceHash());
+        assertEquals(first.getImageUrl(), second.getImageUrl());
+        assertEquals(first.getRenditions(), second.getRenditions());
+        verify(eventService, times(2)).updateEventImage(eventId, first.getImageUrl(), organizerId);
+    }
+
+    @Test
+    void submitEventImage_WhenEventUpdateFails_ShouldMarkJobFailed() throws IOException {
+        mockEventOwnedBy(organizerId);
+        when(eventService.updateEventImage(any(), anyString(), any())).thenThrow(new IllegalStateException("boom"));
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 800, 600, BufferedImage.TYPE_INT_RGB);
 
-        String result = imageService.uploadEventImage(file, eventId);
+        ImageJobDto job = imageService.submitEventImage(file, eventId, organizerId);
 
-        assertNotNull(result);
-        verify(amazonS3).putObject(any(PutObjectRequest.class));
+        assertEquals(ImageJobDto.Status.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
     }
 
     @Test
-    void uploadEventImage_WithNullFile_ShouldThrowException() {
-        assertThrows(InvalidEventDataException.class, () -> 
-            imageService.uploadEventImage(null, eventId)
+    void submitEventImage_WithNullFile_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () ->
+            imageService.submitEventImage(null, eventId, organizerId)
         );
     }
 
     @Test
-    void uploadEventImage_WithEmptyFile_ShouldThrowException() {
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "test.jpg",
-            "image/jpeg",
-            new byte[0]
+    void submitEventImage_WithEmptyFile_ShouldThrowException() {
+        MockMultipartFile file = new MockMultipartFile("image", "empty.jpg", "image/jpeg", new byte[0]);
+
+        assertThrows(InvalidEventDataException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+    }
+
+    @Test
+    void submitEventImage_WithInvalidContentType_ShouldThrowException() {
+        MockMultipartFile file = new MockMultipartFile("image", "test.txt", "text/plain", "hello".getBytes());
 
-        assertThrows(InvalidEventDataException.class, () -> 
-            imageService.uploadEventImage(file, eventId)
+        InvalidEventDataException exception = assertThrows(InvalidEventDataException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+        assertTrue(exception.getMessage().contains("Invalid image format"));
     }
 
     @Test
-    void uploadEventImage_WithInvalidContentType_ShouldThrowException() {
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "test.txt",
-            "text/plain",
-            "not an image".getBytes()
+    void submitEventImage_WithOversizedFile_ShouldThrowException() {
+        byte[] largeContent = new byte[11 * 1024 * 1024];
+        MockMultipartFile file = new MockMultipartFile("image", "large.jpg", "image/jpeg", largeContent);
+
+        InvalidEventDataException exception = assertThrows(InvalidEventDataException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+        assertTrue(exception.getMessage().contains("exceeds maximum allowed size"));
+    }
 
-        assertThrows(InvalidEventDataException.class, () -> 
-            imageService.uploadEventImage(file, eventId)
+    @Test
+    void submitEventImage_WithMismatchedMagicBytes_ShouldRejectAndCleanUp() throws IOException {
+        mockEventOwnedBy(organizerId);
+        MockMultipartFile file = new MockMultipartFile("image", "fake.jpg", "image/jpeg", "not an image".getBytes());
+
+        assertThrows(InvalidEventDataException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+        verify(jobStore, never()).save(any());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
     }
 
     @Test
-    void uploadEventImage_WithOversizedFile_ShouldThrowException() {
-        byte[] largeFile = new byte[11 * 1024 * 1024]; // 11MB (exceeds 10MB limit)
-        
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "large-image.jpg",
-            "image/jpeg",
-            largeFile
+    void submitEventImage_ByNonOwner_ShouldThrowAccessDenied() throws IOException {
+        mockEventOwnedBy(UUID.randomUUID());
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 100, 100, BufferedImage.TYPE_INT_RGB);
+
+        assertThrows(EventAccessDeniedException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+        verify(jobStore, never()).save(any());
+    }
 
-        assertThrows(InvalidEventDataException.class, () -> 
-            imageService.uploadEventImage(file, eventId)
+    @Test
+    void submitEventImage_WhenWorkersSaturated_ShouldThrowBusyAndDropJob() throws IOException {
+        mockEventOwnedBy(organizerId);
+        TaskExecutor saturated = task -> {
+            throw new TaskRejectedException("queue full");
+        };
+        imageService = createService(imageStorage, saturated);
+        MockMultipartFile file = imageFile("image/jpeg", "jpg", 100, 100, BufferedImage.TYPE_INT_RGB);
+
+        assertThrows(ImageProcessingBusyException.class, () ->
+            imageService.submitEventImage(file, eventId, organizerId)
         );
+
+        ArgumentCaptor<ImageJobDto> captor = ArgumentCaptor.forClass(ImageJobDto.class);
+        verify(jobStore).save(captor.capture());
+        verify(jobStore).delete(captor.getValue().getJobId());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
     }
 
+    // ========== Job Status Tests ==========
+
     @Test
-    void uploadEventImage_WithLargeImage_ShouldResizeImage() throws IOException {
-        // Create a large image (2400x1800)
-        BufferedImage largeImage = new BufferedImage(2400, 1800, BufferedImage.TYPE_INT_RGB);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(largeImage, "jpg", baos);
-        byte[] imageBytes = baos.toByteArray();
+    void getImageJob_WithKnownJob_ShouldReturnJob() {
+        UUID jobId = UUID.randomUUID();
+        ImageJobDto job = new ImageJobDto(jobId, eventId, ImageJobDto.Status.PROCESSING);
+        when(jobStore.find(jobId)).thenReturn(Optional.of(job));
 
-        MockMultipartFile file = new MockMultipartFile(
-            "image",
-            "large-image.jpg",
-            "image/jpeg",
-            imageBytes
-        );
+        assertSame(job, imageService.getImageJob(eventId, jobId));
+    }
 
-        String expectedUrl = String.format("https://%s.s3.amazonaws.com/events/%s/test.jpg", 
-            bucketName, eventId);
-        
-        when(amazonS3.putObject(any(PutObjectRequest.class))).thenReturn(null);
-        when(amazonS3.getUrl(eq(bucketName), anyString())).thenReturn(new URL(expectedUrl));
+    @Test
+    void getImageJob_ForDifferentEvent_ShouldThrowNotFound() {
+        UUID jobId = UUID.randomUUID();
+        when(jobStore.find(jobId)).thenReturn(Optional.of(
+            new ImageJobDto(jobId, UUID.randomUUID(), ImageJobDto.Status.COMPLETED)));
 
-        String result = imageService.uploadEventImage(file, eventId);
+        assertThrows(ImageJobNotFoundException.class, () -> imageService.getImageJob(eventId, jobId));
+    }
 
-        assertNotNull(result);
-        verify(amazonS3).putObject(any(PutObjectRequest.class));
+    @Test
+    void getImageJob_WithUnknownJob_ShouldThrowNotFound() {
+        UUID jobId = UUID.randomUUID();
+        when(jobStore.find(jobId)).thenReturn(Optional.empty());
+
+        assertThrows(ImageJobNotFoundException.class, () -> imageService.getImageJob(eventId, jobId));
     }
 
     // ========== Image Deletion Tests ==========
 
     @Test
-    void deleteEventImage_WithValidUrl_ShouldDeleteFromS3() {
-        String imageUrl = String.format("https://%s.s3.amazonaws.com/events/%s/image.jpg", 
-            bucketName, eventId);
+    void deleteEventImage_WithUnsharedContentAddressedUrl_ShouldDeleteSourceAndVariants() throws IOException {
+        String prefix = "images/" + HASH + "/";
+        Path source = writeStoredFile(prefix + "source");
+        Path hero = writeStoredFile(prefix + "w1920.jpg");
+        renditionCache.put(HASH + "-w160.jpg", Files.write(tempDir.resolve("cached"), new byte[] {1}));
+        when(eventRepository.countByImageUrl(BASE_URL + "/" + prefix + "w1920.jpg")).thenReturn(1L);
+
+        imageService.deleteEventImage(BASE_URL + "/" + prefix + "w1920.jpg");
+
+        assertFalse(Files.exists(source));
+        assertFalse(Files.exists(hero));
+        assertTrue(renditionCache.get(HASH + "-w160.jpg").isEmpty());
+    }
 
-        doNothing().when(amazonS3).deleteObject(any(DeleteObjectRequest.class));
+    @Test
+    void deleteEventImage_WithSharedContentAddressedUrl_ShouldKeepImage() throws IOException {
+        String heroKey = "images/" + HASH + "/w1920.jpg";
+        Path hero = writeStoredFile(heroKey);
+        when(eventRepository.countByImageUrl(BASE_URL + "/" + heroKey)).thenReturn(2L);
 
-        imageService.deleteEventImage(imageUrl);
+        imageService.deleteEventImage(BASE_URL + "/" + heroKey);
 
-        verify(amazonS3).deleteObject(any(DeleteObjectRequest.class));
+        assertTrue(Files.exists(hero));
     }
 
     @Test
-    void deleteEventImage_WithNullUrl_ShouldNotCallS3() {
-        imageService.deleteEventImage(null);
+    void deleteEventImage_WithPerUploadRenditionUrl_ShouldDeleteAllRenditions() throws IOException {
+        String prefix = String.format("events/%s/%s/", eventId, UUID.randomUUID());
+        Path hero = writeStoredFile(prefix + "hero.jpg");
+        Path thumbnail = writeStoredFile(prefix + "thumbnail.jpg");
 
-        verify(amazonS3, never()).deleteObject(any(DeleteObjectRequest.class));
+        imageService.deleteEventImage(BASE_URL + "/" + prefix + "hero.jpg");
+
+        assertFalse(Files.exists(hero));
+        assertFalse(Files.exists(thumbnail));
+    }
+
+    @Test
+    void deleteEventImage_WithLegacyUrl_ShouldDeleteOnlyThatObject() throws IOException {
+        Path legacy = writeStoredFile(String.format("events/%s/legacy.jpg", eventId));
+        Path sibling = writeStoredFile(String.format("events/%s/other.jpg", eventId));
+
+        imageService.deleteEventImage(BASE_URL + "/" + String.format("events/%s/legacy.jpg", eventId));
+
+        assertFalse(Files.exists(legacy));
+        assertTrue(Files.exists(sibling));
     }
 
     @Test
-    void deleteEventImage_WithEmptyUrl_ShouldNotCallS3() {
+    void deleteEventImage_WithNullOrEmptyUrl_ShouldDoNothing() {
+        ImageStorage storage = mock(ImageStorage.class);
+        imageService = createService(storage, Runnable::run);
+
+        imageService.deleteEventImage(null);
         imageService.deleteEventImage("");
 
-        verify(amazonS3, never()).deleteObject(any(DeleteObjectRequest.class));
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void deleteEventImage_WithStorageException_ShouldNotThrowException() {
+        ImageStorage storage = mock(ImageStorage.class);
+        when(storage.keyFromUrl(anyString())).thenReturn("events/1/legacy.jpg");
+        doThrow(new IllegalStateException("storage down")).when(storage).delete("events/1/legacy.jpg");
+        imageService = createService(storage, Runnable::run);
+
+        assertDoesNotThrow(() -> imageService.deleteEventImage(BASE_URL + "/events/1/legacy.jpg"));
+    }
+
+    // ========== On-demand Rendition Tests ==========
+
+    @Test
+    void resolveVariant_ShouldRoundWidthUpAndDefaultToJpeg() {
+        ImageVariant variant = imageService.resolveVariant(HASH, 300, null);
+
+        assertEquals(320, variant.getWidth());
+        assertEquals("jpg", variant.getFormat());
+        assertEquals("\"" + HASH + "-w320.jpg\"", variant.getETag());
+        assertEquals(1920, imageService.resolveVariant(HASH, 5000, "png").getWidth());
+        assertEquals(1920, imageService.resolveVariant(HASH, null, "jpeg").getWidth());
+    }
+
+    @Test
+    void resolveVariant_WithWebp_ShouldFallBackToJpegWithoutEncoder() {
+        ImageVariant variant = imageService.resolveVariant(HASH, 320, "webp");
+
+        assertEquals(ImageRenderer.WEBP_WRITER_AVAILABLE ? "webp" : "jpg", variant.getFormat());
+    }
+
+    @Test
+    void resolveVariant_WithInvalidInput_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () -> imageService.resolveVariant("../etc/passwd", 320, "jpg"));
+        assertThrows(InvalidEventDataException.class, () -> imageService.resolveVariant(HASH, 0, "jpg"));
+        assertThrows(InvalidEventDataException.class, () -> imageService.resolveVariant(HASH, 320, "gif"));
     }
 
     @Test
-    void deleteEventImage_WithS3Exception_ShouldNotThrowException() {
-        String imageUrl = String.format("https://%s.s3.amazonaws.com/events/%s/image.jpg", 
-            bucketName, eventId);
+    void getVariantFile_WithPreRenderedWidth_ShouldServeStoredRendition() throws IOException {
+        mockEventOwnedBy(organizerId);
+        ImageJobDto job = imageService.submitEventImage(
+            imageFile("image/jpeg", "jpg", 800, 600, BufferedImage.TYPE_INT_RGB), eventId, organizerId);
+
+        Path file = imageService.getVariantFile(imageService.resolveVariant(job.getSourceHash(), 640, "jpg"));
 
-        doThrow(new RuntimeException("S3 error")).when(amazonS3)
-            .deleteObject(any(DeleteObjectRequest.class));
+        assertArrayEquals(Files.readAllBytes(storageRoot.resolve("images/" + job.getSourceHash() + "/w640.jpg")),
+            Files.readAllBytes(file));
+    }
 
-        assertDoesNotThrow(() -> imageService.deleteEventImage(imageUrl));
+    @Test
+    void getVariantFile_WithNewWidth_ShouldRenderStoreAndCache() throws IOException {
+        mockEventOwnedBy(organizerId);
+        ImageJobDto job = imageService.submitEventImage(
+            imageFile("image/png", "png", 800, 600, BufferedImage.TYPE_INT_ARGB), eventId, organizerId);
+        ImageVariant variant = imageService.resolveVariant(job.getSourceHash(), 100, "jpg");
+
+        Path file = imageService.getVariantFile(variant);
+
+        BufferedImage rendered = ImageIO.read(file.toFile());
+        assertEquals(160, rendered.getWidth());
+        assertEquals(120, rendered.getHeight());
+        assertTrue(Files.exists(storageRoot.resolve("images/" + job.getSourceHash() + "/w160.jpg")));
+
+        // Served from the disk cache even once the stored copy is gone
+        Files.delete(storageRoot.resolve("images/" + job.getSourceHash() + "/w160.jpg"));
+        Files.delete(storageRoot.resolve("images/" + job.getSourceHash() + "/source"));
+        assertEquals(file, imageService.getVariantFile(variant));
+    }
+
+    @Test
+    void getVariantFile_WithUnknownSource_ShouldThrowNotFound() {
+        ImageVariant variant = imageService.resolveVariant(HASH, 320, "jpg");
+
+        assertThrows(ImageNotFoundException.class, () -> imageService.getVariantFile(variant));
+        assertTrue(renditionCache.get(variant.getFileName()).isEmpty());
     }
 
     // ========== CDN URL Tests ==========
 
     @Test
     void getCdnUrl_WithCloudFrontConfigured_ShouldReturnCdnUrl() {
-        String s3Url = String.format("https://%s.s3.amazonaws.com/events/%s/image.jpg", 
-            bucketName, eventId);
-        
-        String result = imageService.getCdnUrl(s3Url);
+        ReflectionTestUtils.setField(imageService, "cloudFrontDomain", "d123456.cloudfront.net");
+
+        String result = imageService.getCdnUrl(BASE_URL + "/events/1/2/hero.jpg");
+
+        assertEquals("https://d123456.cloudfront.net/events/1/2/hero.jpg", result);
+    }
 
-        assertNotNull(result);
-        assertTrue(result.contains(cloudFrontDomain));
-        assertTrue(result.startsWith("https://"));
+    @Test
+    void getCdnUrl_WithWidthForContentAddressedImage_ShouldReturnRenditionUrl() {
+        String url = BASE_URL + "/images/" + HASH + "/w1920.jpg";
+
+        assertEquals(RENDITION_URL + "/" + HASH + "?w=480&fmt=png", imageService.getCdnUrl(url, 400, "png"));
+
+        ReflectionTestUtils.setField(imageService, "cloudFrontDomain", "d123456.cloudfront.net");
+        assertEquals("https://d123456.cloudfront.net/api/images/" + HASH + "?w=160&fmt=jpg",
+            imageService.getCdnUrl(url, 160, "jpg"));
     }
 
     @Test
-    void getCdnUrl_WithoutCloudFrontConfigured_ShouldReturnS3Url() {
-        ReflectionTestUtils.setField(imageService, "cloudFrontDomain", "");
-        
-        String s3Url = String.format("https://%s.s3.amazonaws.com/events/%s/image.jpg", 
-            bucketName, eventId);
-        
-        String result = imageService.getCdnUrl(s3Url);
+    void getCdnUrl_WithWidthForLegacyImage_ShouldReturnOriginalUrl() {
+        String url = BASE_URL + "/events/1/legacy.jpg";
 
-        assertEquals(s3Url, result);
+        assertEquals(url, imageService.getCdnUrl(url, 320, "webp"));
     }
 
     @Test
-    void getCdnUrl_WithNullCloudFrontDomain_ShouldReturnS3Url() {
-        ReflectionTestUtils.setField(imageService, "cloudFrontDomain", null);
-        
-        String s3Url = String.format("https://%s.s3.amazonaws.com/events/%s/image.jpg", 
-            bucketName, eventId);
-        
-        String result = imageService.getCdnUrl(s3Url);
+    void getCdnUrl_WithoutCloudFrontConfigured_ShouldReturnStorageUrl() {
+        String url = BASE_URL + "/events/1/2/hero.jpg";
+
+        assertEquals(url, imageService.getCdnUrl(url));
+    }
+
+    private ImageServiceImpl createService(ImageStorage storage, TaskExecutor executor) {
+        ImageServiceImpl service = new ImageServiceImpl(
+            storage, jobStore, eventService, eventRepository, renditionCache, executor);
+        ReflectionTestUtils.setField(service, "tempDir", tempDir.toString());
+        ReflectionTestUtils.setField(service, "cloudFrontDomain", "");
+        ReflectionTestUtils.setField(service, "renditionBaseUrl", RENDITION_URL);
+        return service;
+    }
+
+    private void mockEventOwnedBy(UUID ownerId) {
+        EventDto event = new EventDto();
+        event.setId(eventId);
+        event.setOrganizerId(ownerId);
+        when(eventService.getEventById(eventId)).thenReturn(event);
+    }
+
+    private MockMultipartFile imageFile(String contentType, String format, int width, int height, int type)
+            throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return new MockMultipartFile("image", "test." + format, contentType, out.toByteArray());
+    }
 
-        assertEquals(s3Url, result);
+    private Path writeStoredFile(String key) throws IOException {
+        Path file = storageRoot.resolve(key);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, new byte[] {1, 2, 3});
     }
 }
@@ -0,0 +1,201 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.config.JacksonConfig;
+import com.eventbooking.event.dto.CategoryDto;
+import com.eventbooking.event.dto.EventDto;
+import com.eventbooking.event.dto.VenueDto;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.mapper.EventMapper;
+import com.eventbooking.event.model.ListingSnapshot;
+import com.eventbooking.event.repository.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingSnapshotServiceImplTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private ListingSnapshotServiceImpl snapshotService;
+
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new ListingSnapshotServiceImpl(
+            eventRepository, eventMapper, objectMapper, redisTemplate, transactionManager);
+        ReflectionTestUtils.setField(snapshotService, "refreshIntervalSeconds", 60L);
+        ReflectionTestUtils.setField(snapshotService, "maxPages", 25);
+
+        categoryId = UUID.randomUUID();
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    @Test
+    void refresh_WithNoSnapshot_ShouldBuildListingPages() throws Exception {
+        givenUpcomingEvents(25);
+        when(valueOperations.setIfAbsent(eq("listing-snapshot:lock"), any(), any(Duration.class))).thenReturn(true);
+
+        snapshotService.refresh();
+
+        ListingSnapshot first = snapshotService.getUpcoming(PageRequest.of(0, 20)).orElseThrow();
+        JsonNode body = objectMapper.readTree(first.getBody());
+        assertTrue(body.get("success").asBoolean());
+        assertEquals(20, body.get("data").get("content").size());
+        assertEquals(25, body.get("data").get("totalElements").asInt());
+
+        ListingSnapshot second = snapshotService.getUpcoming(PageRequest.of(1, 20)).orElseThrow();
+        assertEquals(5, objectMapper.readTree(second.getBody()).get("data").get("content").size());
+
+        assertTrue(snapshotService.getUpcomingByCategory(categoryId, PageRequest.of(0, 20)).isPresent());
+        assertTrue(snapshotService.getUpcomingByCity("  NEW york ", PageRequest.of(0, 20)).isPresent());
+        assertTrue(snapshotService.getUpcoming(PageRequest.of(2, 20)).isEmpty());
+
+        verify(valueOperations).set(eq("listing-snapshot:current"), any(byte[].class));
+
+        // The lock is released with the token it was taken with, never deleted outright
+        ArgumentCaptor<byte[]> lockToken = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOperations).setIfAbsent(eq("listing-snapshot:lock"), lockToken.capture(), any(Duration.class));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("listing-snapshot:lock")), same(lockToken.getValue()));
+        verify(redisTemplate, never()).delete("listing-snapshot:lock");
+    }
+
+    @Test
+    void refresh_WithTruncatedListing_ShouldOnlySnapshotUpcoming() {
+        ReflectionTestUtils.setField(snapshotService, "maxPages", 1);
+        givenUpcomingEvents(25);
+        when(valueOperations.setIfAbsent(eq("listing-snapshot:lock"), any(), any(Duration.class))).thenReturn(true);
+
+        snapshotService.refresh();
+
+        assertTrue(snapshotService.getUpcoming(PageRequest.of(0, 20)).isPresent());
+        assertTrue(snapshotService.getUpcomingByCategory(categoryId, PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void refresh_WhenAnotherInstanceHoldsLock_ShouldLoadSharedVersion() {
+        String version = String.valueOf(System.currentTimeMillis());
+        when(valueOperations.get("listing-snapshot:current")).thenReturn(version.getBytes(StandardCharsets.UTF_8));
+        when(redisTemplate.hasKey("listing-snapshot:stale")).thenReturn(true);
+        when(valueOperations.setIfAbsent(eq("listing-snapshot:lock"), any(), any(Duration.class))).thenReturn(false);
+        when(hashOperations.entries("listing-snapshot:pages:" + version))
+            .thenReturn(Map.of("upcoming:0", new byte[] {31, -117, 8, 0, 0, 0, 0, 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+
+        snapshotService.refresh();
+
+        assertTrue(snapshotService.getUpcoming(PageRequest.of(0, 20)).isPresent());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void refresh_WithFreshSnapshot_ShouldNotRebuild() {
+        String version = String.valueOf(System.currentTimeMillis());
+        when(valueOperations.get("listing-snapshot:current")).thenReturn(version.getBytes(StandardCharsets.UTF_8));
+        when(redisTemplate.hasKey("listing-snapshot:stale")).thenReturn(false);
+        when(hashOperations.entries("listing-snapshot:pages:" + version)).thenReturn(Map.of());
+
+        snapshotService.refresh();
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), any(), any(Duration.class));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void getUpcoming_WithNonDefaultPageSizeOrSort_ShouldFallBack() {
+        givenUpcomingEvents(5);
+        when(valueOperations.setIfAbsent(eq("listing-snapshot:lock"), any(), any(Duration.class))).thenReturn(true);
+        snapshotService.refresh();
+
+        assertTrue(snapshotService.getUpcoming(PageRequest.of(0, 10)).isEmpty());
+        assertTrue(snapshotService.getUpcoming(PageRequest.of(0, 20, Sort.by("name"))).isEmpty());
+        assertTrue(snapshotService.getUpcoming(Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void invalidate_OutsideTransaction_ShouldMarkStale() {
+        snapshotService.invalidate();
+
+        ArgumentCaptor<byte[]> flag = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOperations).set(eq("listing-snapshot:stale"), flag.capture());
+        assertEquals(1, flag.getValue().length);
+    }
+
+    private void givenUpcomingEvents(int count) {
+        CategoryDto category = new CategoryDto();
+        category.setId(categoryId);
+        category.setName("Music");
+
+        VenueDto venue = new VenueDto();
+        venue.setCity("New York");
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Event event = new Event();
+            event.setId(UUID.randomUUID());
+            events.add(event);
+
+            EventDto dto = new EventDto();
+            dto.setId(event.getId());
+            dto.setName("Event " + i);
+            dto.setEventDate(LocalDateTime.now().plusDays(i + 1));
+            dto.setCategory(category);
+            dto.setVenue(venue);
+            lenient().when(eventMapper.toDto(event)).thenReturn(dto);
+        }
+
+        when(eventRepository.findUpcomingEvents(any(LocalDateTime.class), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                Pageable pageable = invocation.getArgument(1);
+                List<Event> content = events.subList(0, Math.min(events.size(), pageable.getPageSize()));
+                return new PageImpl<>(content, pageable, events.size());
+            });
+    }
+}
@@ -0,0 +1,73 @@
+package com.eventbooking.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataRefresherTest {
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private CategoryCache otherSnapshot;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ReferenceDataRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new ReferenceDataRefresher(List.of(categoryCache, otherSnapshot), redisTemplate);
+        lenient().when(categoryCache.getName()).thenReturn("categories");
+        lenient().when(otherSnapshot.getName()).thenReturn("currencies");
+    }
+
+    @Test
+    void onMessage_ShouldReloadOnlyTheNamedSnapshot() {
+        refresher.onMessage(message("categories"), null);
+
+        verify(categoryCache).reload();
+        verify(otherSnapshot, never()).reload();
+    }
+
+    @Test
+    void onMessage_WithWildcard_ShouldReloadEverySnapshot() {
+        refresher.onMessage(message("*"), null);
+
+        verify(categoryCache).reload();
+        verify(otherSnapshot).reload();
+    }
+
+    @Test
+    void reloadAll_WhenOneReloadFails_ShouldStillReloadTheRest() {
+        when(categoryCache.reload()).thenThrow(new IllegalStateException("database down"));
+
+        refresher.reloadAll();
+
+        verify(otherSnapshot).reload();
+    }
+
+    @Test
+    void publishChange_ShouldAnnounceOnChannel() {
+        refresher.publishChange("categories");
+
+        verify(redisTemplate).convertAndSend("reference-data:changed", "categories");
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("reference-data:changed".getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.client.PaymentServiceClient;
+import com.eventbooking.event.entity.RefundRequest;
+import com.eventbooking.event.repository.RefundRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundRequestRelayTest {
+
+    @Mock
+    private RefundRequestRepository refundRequestRepository;
+
+    @Mock
+    private PaymentServiceClient paymentServiceClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefundRequestRelay relay;
+    private UUID eventId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new RefundRequestRelay(refundRequestRepository, paymentServiceClient, meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 50);
+        ReflectionTestUtils.setField(relay, "retryInitialDelayMs", 5000L);
+        ReflectionTestUtils.setField(relay, "retryMaxDelayMs", 600000L);
+        eventId = UUID.randomUUID();
+    }
+
+    @Test
+    void record_ShouldStoreRequestDueNow() {
+        when(refundRequestRepository.existsById(eventId)).thenReturn(false);
+
+        relay.record(eventId, "Event cancelled by organizer");
+
+        verify(refundRequestRepository).save(argThat(request ->
+            request.getEventId().equals(eventId)
+                && request.getAttempts() == 0
+                && !request.getNextAttemptAt().isAfter(LocalDateTime.now())));
+    }
+
+    @Test
+    void record_WhenAlreadyPending_ShouldKeepExistingRequest() {
+        when(refundRequestRepository.existsById(eventId)).thenReturn(true);
+
+        relay.record(eventId, "Event cancelled by organizer");
+
+        verify(refundRequestRepository, never()).save(any());
+    }
+
+    @Test
+    void relayDue_WhenPaymentServiceFails_ShouldKeepRequestAndRetryIt() {
+        RefundRequest request = new RefundRequest(eventId, "Event cancelled by organizer", LocalDateTime.now());
+        when(refundRequestRepository.findByNextAttemptAtLessThanEqualOrderByCreatedAtAsc(any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(request));
+        doThrow(new ResourceAccessException("Connection refused"))
+            .doNothing()
+            .when(paymentServiceClient).requestEventRefunds(eventId, "Event cancelled by organizer");
+
+        assertEquals(0, relay.relayDue());
+
+        assertEquals(1, request.getAttempts());
+        assertTrue(request.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(refundRequestRepository).save(request);
+        verify(refundRequestRepository, never()).deleteById(any());
+        assertEquals(1.0, meterRegistry.get("event.refund_requests.failures").counter().count());
+
+        // Due again once the backoff has passed
+        assertEquals(1, relay.relayDue());
+
+        verify(paymentServiceClient, times(2)).requestEventRefunds(eventId, "Event cancelled by organizer");
+        verify(refundRequestRepository).deleteById(eventId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.eventbooking.event.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenditionDiskCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void put_OverSizeLimit_ShouldEvictLeastRecentlyUsed() throws IOException {
+        RenditionDiskCache cache = new RenditionDiskCache(cacheDir, 250);
+        cache.put("a-w160.jpg", file("a", 100));
+        cache.put("b-w160.jpg", file("b", 100));
+
+        // Touch a so that b becomes the eldest
+        assertTrue(cache.get("a-w160.jpg").isPresent());
+        cache.put("c-w160.jpg", file("c", 100));
+
+        assertTrue(cache.get("a-w160.jpg").isPresent());
+        assertTrue(cache.get("b-w160.jpg").isEmpty());
+        assertTrue(cache.get("c-w160.jpg").isPresent());
+        assertFalse(Files.exists(cacheDir.resolve("b-w160.jpg")));
+        assertEquals(200, cache.size());
+    }
+
+    @Test
+    void put_ShouldMoveFileIntoCache() throws IOException {
+        RenditionDiskCache cache = new RenditionDiskCache(cacheDir, 1000);
+        Path source = file("a", 10);
+
+        Path cached = cache.put("a-w320.png", source);
+
+        assertEquals(cacheDir.resolve("a-w320.png"), cached);
+        assertFalse(Files.exists(source));
+        assertEquals(10, Files.size(cached));
+    }
+
+    @Test
+    void put_WithPathInName_ShouldBeRejected() throws IOException {
+        RenditionDiskCache cache = new RenditionDiskCache(cacheDir, 1000);
+        Path source = file("a", 10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.put("../escape.jpg", source));
+    }
+
+    @Test
+    void removeAll_ShouldDropEveryVariantOfSource() throws IOException {
+        RenditionDiskCache cache = new RenditionDiskCache(cacheDir, 1000);
+        cache.put("a-w160.jpg", file("a1", 10));
+        cache.put("a-w320.jpg", file("a2", 10));
+        cache.put("b-w160.jpg", file("b", 10));
+
+        cache.removeAll("a");
+
+        assertTrue(cache.get("a-w160.jpg").isEmpty());
+        assertTrue(cache.get("a-w320.jpg").isEmpty());
+        assertTrue(cache.get("b-w160.jpg").isPresent());
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    void constructor_ShouldIndexFilesFromPreviousRun() throws IOException {
+        new RenditionDiskCache(cacheDir, 1000).put("a-w160.jpg", file("a", 10));
+
+        RenditionDiskCache reopened = new RenditionDiskCache(cacheDir, 1000);
+
+        assertTrue(reopened.get("a-w160.jpg").isPresent());
+        assertEquals(10, reopened.size());
+    }
+
+    private Path file(String name, int size) throws IOException {
+        return Files.write(workDir.resolve(name), new byte[size]);
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventbooking.event.service;
 
+import com.eventbooking.event.dto.CursorPage;
 import com.eventbooking.event.dto.EventDto;
 import com.eventbooking.event.dto.SearchCriteria;
 import com.eventbooking.event.dto.SearchSuggestionsDto;
@@ -7,25 +8,29 @@ import com.eventbooking.event.entity.Event;
 import com.eventbooking.event.entity.EventCategory;
 import com.eventbooking.event.entity.EventStatus;
 import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.exception.InvalidEventDataException;
 import com.eventbooking.event.mapper.EventMapper;
-import com.eventbooking.event.repository.EventCategoryRepository;
+import com.eventbooking.event.model.CachedSearchPage;
 import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,7 +44,10 @@ class SearchServiceImplTest {
     private EventRepository eventRepository;
 
     @Mock
-    private EventCategoryRepository categoryRepository;
+    private EventSearchViewRepository searchViewRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
 
     @Mock
     private EventMapper eventMapper;
@@ -90,126 +98,204 @@ class SearchServiceImplTest {
     // ========== Search Tests ==========
 
     @Test
-    void searchEvents_WithCachedResults_ShouldReturnFromCache() {
+    void searchEvents_WithCachedResults_ShouldHydrateFromEventCache() {
         SearchCriteria criteria = new SearchCriteria();
         criteria.setQuery("concert");
-        Pageable pageable = PageRequest.of(0, 10);
-        
-        Page<EventDto> cachedPage = new PageImpl<>(Collections.singletonList(testEventDto));
+        Pageable pageable = PageRequest.of(0, 1);
         String cacheKey = "search_key";
 
         when(cacheService.generateSearchCacheKey(anyString())).thenReturn(cacheKey);
-        when(cacheService.getCachedSearchResults(cacheKey, EventDto.class)).thenReturn(cachedPage);
+        when(cacheService.getCachedSearchPage(cacheKey)).thenReturn(new CachedSearchPage(List.of(testEvent.getId()), 42));
+        when(cacheService.getCachedEvents(List.of(testEvent.getId()))).thenReturn(Map.of(testEvent.getId(), testEvent));
+        when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         Page<EventDto> result = searchService.searchEvents(criteria, pageable);
 
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(eventRepository, never()).searchEvents(any(), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(List.of(testEventDto), result.getContent());
+        assertEquals(42, result.getTotalElements());
+        verify(searchViewRepository, never()).searchEventIds(any(), any());
+        verify(eventRepository, never()).findDetailedByIdIn(any());
     }
 
     @Test
-    void searchEvents_WithoutCache_ShouldFetchFromDatabase() {
+    void searchEvents_WithCachedIdsButEvictedEvent_ShouldLoadAndCacheOnlyTheMiss() {
+        Event cachedEvent = new Event();
+        cachedEvent.setId(UUID.randomUUID());
+        EventDto cachedEventDto = new EventDto();
+        cachedEventDto.setId(cachedEvent.getId());
+        List<UUID> ids = List.of(cachedEvent.getId(), testEvent.getId());
+
+        when(cacheService.generateSearchCacheKey(anyString())).thenReturn("search_key");
+        when(cacheService.getCachedSearchPage("search_key")).thenReturn(new CachedSearchPage(ids, 2));
+        when(cacheService.getCachedEvents(ids)).thenReturn(Map.of(cachedEvent.getId(), cachedEvent));
+        when(eventRepository.findDetailedByIdIn(List.of(testEvent.getId()))).thenReturn(List.of(testEvent));
+        when(eventMapper.toDto(cachedEvent)).thenReturn(cachedEventDto);
+        when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
+
+        Page<EventDto> result = searchService.searchEvents(new SearchCriteria(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(cachedEventDto, testEventDto), result.getContent());
+        verify(cacheService).cacheEvents(eq(List.of(testEvent)), anyLong());
+    }
+
+    @Test
+    void searchEvents_WithEquivalentCriteria_ShouldUseSameCacheKey() {
+        SearchCriteria first = new SearchCriteria();
+        first.setQuery("Rock  Concert ");
+        first.setCity(" new york");
+        first.setTags(List.of("Jazz", "live"));
+        SearchCriteria second = new SearchCriteria();
+        second.setQuery("rock concert");
+        second.setCity("New York");
+        second.setTags(List.of("live", "jazz"));
+
+        when(cacheService.getCachedSearchPage(any())).thenReturn(new CachedSearchPage(List.of(), 0));
+
+        searchService.searchEvents(first, PageRequest.of(0, 20));
+        searchService.searchEvents(second, PageRequest.of(0, 20, Sort.by("eventDate")));
+
+        ArgumentCaptor<Object> fingerprints = ArgumentCaptor.forClass(Object.class);
+        verify(cacheService, times(2)).generateSearchCacheKey(fingerprints.capture());
+        assertEquals(fingerprints.getAllValues().get(0), fingerprints.getAllValues().get(1));
+    }
+
+    @Test
+    void searchEvents_WithoutCache_ShouldFetchFromReadModel() {
         SearchCriteria criteria = new SearchCriteria();
         criteria.setQuery("concert");
         criteria.setCity("New York");
         Pageable pageable = PageRequest.of(0, 10);
-        
-        Page<Event> eventPage = new PageImpl<>(Collections.singletonList(testEvent));
         String cacheKey = "search_key";
 
         when(cacheService.generateSearchCacheKey(anyString())).thenReturn(cacheKey);
-        when(cacheService.getCachedSearchResults(cacheKey, EventDto.class)).thenReturn(null);
-        when(eventRepository.searchEvents(
-            eq("concert"),
-            eq("New York"),
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            eq(pageable)
-        )).thenReturn(eventPage);
+        when(searchViewRepository.searchEventIds(criteria, pageable)).thenReturn(List.of(testEvent.getId()));
+        when(eventRepository.findDetailedByIdIn(List.of(testEvent.getId()))).thenReturn(List.of(testEvent));
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         Page<EventDto> result = searchService.searchEvents(criteria, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(eventRepository).searchEvents(any(), any(), any(), any(), any(), any(), any(), any());
-        verify(cacheService).cacheSearchResults(eq(cacheKey), any());
+        assertEquals(testEventDto, result.getContent().get(0));
+        verify(cacheService).cacheEvents(eq(List.of(testEvent)), anyLong());
+        verify(cacheService).cacheSearchPage(eq(cacheKey), argThat(page ->
+            page.getEventIds().equals(List.of(testEvent.getId())) && page.getTotalElements() == 1));
     }
 
     @Test
-    void searchEvents_WithAllCriteria_ShouldApplyAllFilters() {
+    void searchEvents_WithFullPage_ShouldCountMatches() {
         SearchCriteria criteria = new SearchCriteria();
-        criteria.setQuery("concert");
-        criteria.setCity("New York");
         criteria.setCategoryId(testCategory.getId());
-        criteria.setDateFrom(LocalDateTime.now());
-        criteria.setDateTo(LocalDateTime.now().plusMonths(1));
         criteria.setMinPrice(BigDecimal.valueOf(50.00));
         criteria.setMaxPrice(BigDecimal.valueOf(100.00));
-        
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Event> eventPage = new PageImpl<>(Collections.singletonList(testEvent));
+        Pageable pageable = PageRequest.of(0, 1);
         String cacheKey = "search_key";
 
         when(cacheService.generateSearchCacheKey(anyString())).thenReturn(cacheKey);
-        when(cacheService.getCachedSearchResults(cacheKey, EventDto.class)).thenReturn(null);
-        when(eventRepository.searchEvents(
-            eq("concert"),
-            eq("New York"),
-            eq(testCategory.getId()),
-            any(LocalDateTime.class),
-            any(LocalDateTime.class),
-            eq(BigDecimal.valueOf(50.00)),
-            eq(BigDecimal.valueOf(100.00)),
-            eq(pageable)
-        )).thenReturn(eventPage);
+        when(searchViewRepository.searchEventIds(criteria, pageable)).thenReturn(List.of(testEvent.getId()));
+        when(searchViewRepository.countEvents(criteria)).thenReturn(42L);
+        when(eventRepository.findDetailedByIdIn(List.of(testEvent.getId()))).thenReturn(List.of(testEvent));
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
 
         Page<EventDto> result = searchService.searchEvents(criteria, pageable);
 
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        verify(eventRepository).searchEvents(
-            eq("concert"),
-            eq("New York"),
-            eq(testCategory.getId()),
-            any(LocalDateTime.class),
-            any(LocalDateTime.class),
-            eq(BigDecimal.valueOf(50.00)),
-            eq(BigDecimal.valueOf(100.00)),
-            eq(pageable)
-        );
+        assertEquals(42, result.getTotalElements());
     }
 
     @Test
-    void searchEvents_WithEmptyCriteria_ShouldReturnAllPublishedEvents() {
+    void searchEvents_WithHydratedEventsOutOfOrder_ShouldKeepReadModelOrder() {
+        Event laterEvent = new Event();
+        laterEvent.setId(UUID.randomUUID());
+        laterEvent.setName("Jazz Night");
+        EventDto laterEventDto = new EventDto();
+        laterEventDto.setId(laterEvent.getId());
+
         SearchCriteria criteria = new SearchCriteria();
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Event> eventPage = new PageImpl<>(Collections.singletonList(testEvent));
-        String cacheKey = "search_key";
+        List<UUID> ids = List.of(testEvent.getId(), laterEvent.getId());
 
-        when(cacheService.generateSearchCacheKey(anyString())).thenReturn(cacheKey);
-        when(cacheService.getCachedSearchResults(cacheKey, EventDto.class)).thenReturn(null);
-        when(eventRepository.searchEvents(
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            isNull(),
-            eq(pageable)
-        )).thenReturn(eventPage);
+        when(cacheService.generateSearchCacheKey(anyString())).thenReturn("search_key");
+        when(searchViewRepository.searchEventIds(criteria, pageable)).thenReturn(ids);
+        when(eventRepository.findDetailedByIdIn(ids)).thenReturn(List.of(laterEvent, testEvent));
         when(eventMapper.toDto(testEvent)).thenReturn(testEventDto);
+        when(eventMapper.toDto(laterEvent)).thenReturn(laterEventDto);
 
         Page<EventDto> result = searchService.searchEvents(criteria, pageable);
 
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
+        assertEquals(List.of(testEventDto, laterEventDto), result.getContent());
+    }
+
+    @Test
+    void searchEvents_WithNoMatches_ShouldSkipHydration() {
+        SearchCriteria criteria = new SearchCriteria();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(cacheService.generateSearchCacheKey(anyString())).thenReturn("search_key");
+        when(searchViewRepository.searchEventIds(criteria, pageable)).thenReturn(Collections.emptyList());
+
+        Page<EventDto> result = searchService.searchEvents(criteria, pageable);
+
+        assertEquals(0, result.getTotalElements());
+        verify(eventRepository, never()).findDetailedByIdIn(any());
+        verify(cacheService).cacheSearchPage(eq("search_key"), argThat(page -> page.getEventIds().isEmpty()));
+    }
+
+    @Test
+    void scrollEvents_WithCriteria_ShouldSeekWithoutCounting() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setQuery("concert");
+        List<Event> rows = Collections.singletonList(testEvent);
+        CursorPage<EventDto> page = new CursorPage<>(Collections.singletonList(testEventDto), 1, false, null, null);
+
+        when(searchViewRepository.searchEventIdsAfter(
+            eq(criteria), any(LocalDateTime.class), any(UUID.class), eq(11)
+        )).thenReturn(List.of(testEvent.getId()));
+        when(eventRepository.findDetailedByIdIn(List.of(testEvent.getId()))).thenReturn(rows);
+        when(eventMapper.toCursorPage(rows, 10, null)).thenReturn(page);
+
+        CursorPage<EventDto> result = searchService.scrollEvents(criteria, null, 10, false);
+
+        assertSame(page, result);
+        verify(searchViewRepository, never()).countEvents(any());
+        verify(cacheService, never()).getCachedSearchPage(anyString());
+    }
+
+    @Test
+    void searchEvents_WithCoordinatesButNoRadius_ShouldApplyDefaultRadius() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setLatitude(40.7580);
+        criteria.setLongitude(-73.9855);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(cacheService.generateSearchCacheKey(anyString())).thenReturn("search_key");
+        when(searchViewRepository.searchEventIds(criteria, pageable)).thenReturn(Collections.emptyList());
+
+        searchService.searchEvents(criteria, pageable);
+
+        assertEquals(25.0, criteria.getRadiusKm());
+    }
+
+    @Test
+    void searchEvents_WithLatitudeOnly_ShouldThrowException() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setLatitude(40.7580);
+
+        assertThrows(InvalidEventDataException.class, () ->
+            searchService.searchEvents(criteria, PageRequest.of(0, 10))
+        );
+        verifyNoInteractions(searchViewRepository);
+    }
+
+    @Test
+    void scrollEvents_WithRadiusTooLarge_ShouldThrowException() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setLatitude(40.7580);
+        criteria.setLongitude(-73.9855);
+        criteria.setRadiusKm(5000.0);
+
+        assertThrows(InvalidEventDataException.class, () ->
+            searchService.scrollEvents(criteria, null, 10, false)
+        );
     }
 
     // ========== Search Suggestions Tests ==========
@@ -226,7 +312,7 @@ class SearchServiceImplTest {
 
         when(eventRepository.findEventNameSuggestions(query, limit)).thenReturn(eventSuggestions);
         when(eventRepository.findVenueNameSuggestions(query, limit)).thenReturn(venueSuggestions);
-        when(categoryRepository.findCategoryNameSuggestions(query, limit)).thenReturn(categorySuggestions);
+        when(categoryCache.suggestNames(query, 5)).thenReturn(categorySuggestions);
         when(eventRepository.findCitySuggestions(query, limit)).thenReturn(citySuggestions);
 
         SearchSuggestionsDto result = searchService.getSearchSuggestions(query);
@@ -239,7 +325,7 @@ class SearchServiceImplTest {
         
         verify(eventRepository).findEventNameSuggestions(query, limit);
         verify(eventRepository).findVenueNameSuggestions(query, limit);
-        verify(categoryRepository).findCategoryNameSuggestions(query, limit);
+        verify(categoryCache).suggestNames(query, 5);
         verify(eventRepository).findCitySuggestions(query, limit);
     }
 
@@ -285,7 +371,7 @@ class SearchServiceImplTest {
 
         when(eventRepository.findEventNameSuggestions(query, limit)).thenReturn(eventSuggestions);
         when(eventRepository.findVenueNameSuggestions(query, limit)).thenReturn(venueSuggestions);
-        when(categoryRepository.findCategoryNameSuggestions(query, limit)).thenReturn(categorySuggestions);
+        when(categoryCache.suggestNames(query, 5)).thenReturn(categorySuggestions);
         when(eventRepository.findCitySuggestions(query, limit)).thenReturn(citySuggestions);
 
         SearchSuggestionsDto result = searchService.getSearchSuggestions(query);
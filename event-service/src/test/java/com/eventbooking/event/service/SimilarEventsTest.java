@@ -0,0 +1,56 @@
+package com.eventbooking.event.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarEventsTest {
+
+    @Test
+    void compute_ShouldRankRareSharedFeaturesFirst() {
+        UUID source = UUID.randomUUID();
+        UUID sameTag = UUID.randomUUID();
+        UUID sameCategory = UUID.randomUUID();
+        UUID filler = UUID.randomUUID();
+
+        Map<UUID, List<UUID>> similar = SimilarEvents.compute(Map.of(
+            source, Set.of("tag:jazz", "category:music"),
+            sameTag, Set.of("tag:jazz", "category:theatre"),
+            sameCategory, Set.of("tag:rock", "category:music"),
+            filler, Set.of("tag:pop", "category:music")), 10);
+
+        assertEquals(sameTag, similar.get(source).get(0));
+        assertEquals(3, similar.get(source).size());
+        assertFalse(similar.get(source).contains(source));
+    }
+
+    @Test
+    void compute_WithoutSharedFeatures_ShouldHaveNoEntry() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        Map<UUID, List<UUID>> similar = SimilarEvents.compute(Map.of(
+            first, Set.of("tag:jazz"),
+            second, Set.of("tag:rock")), 10);
+
+        assertTrue(similar.isEmpty());
+    }
+
+    @Test
+    void compute_ShouldRespectLimit() {
+        UUID source = UUID.randomUUID();
+        Map<UUID, Set<String>> features = new HashMap<>();
+        features.put(source, Set.of("category:music"));
+        for (int i = 0; i < 5; i++) {
+            features.put(UUID.randomUUID(), Set.of("category:music"));
+        }
+
+        assertEquals(2, SimilarEvents.compute(features, 2).get(source).size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.eventbooking.event.service;
+
+import com.eventbooking.event.dto.VenueRequest;
+import com.eventbooking.event.entity.Event;
+import com.eventbooking.event.entity.EventSearchView;
+import com.eventbooking.event.entity.EventStatus;
+import com.eventbooking.event.entity.Venue;
+import com.eventbooking.event.repository.EventRepository;
+import com.eventbooking.event.repository.EventSearchViewRepository;
+import com.eventbooking.event.repository.VenueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against H2 in PostgreSQL mode, which accepts the ON CONFLICT DO NOTHING venue insert.
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.datasource.url=jdbc:h2:mem:venues;MODE=PostgreSQL",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = VenueServiceImplTest.TestConfig.class)
+class VenueServiceImplTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Venue.class)
+    @EnableJpaRepositories(basePackageClasses = VenueRepository.class)
+    @Import(VenueServiceImpl.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private VenueService venueService;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventSearchViewRepository searchViewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findOrCreate_WithDifferentSpellingOfSameVenue_ShouldReturnOneVenue() {
+        Venue created = venueService.findOrCreate(request("Café Central", "Wien"));
+        Venue found = venueService.findOrCreate(request("  cafe central ", "WIEN"));
+
+        assertEquals(created.getId(), found.getId());
+        assertEquals("Café Central", found.getName());
+        assertEquals("cafe central|wien", found.getNormalizedKey());
+        assertEquals(1, venueRepository.count());
+    }
+
+    @Test
+    void findOrCreate_WhenKeyAlreadyInserted_ShouldNotInsertAgain() {
+        Venue existing = venueService.newVenue(request("Blue Room", "Chicago"));
+        assertTrue(venueRepository.insertIfAbsent(existing));
+        assertFalse(venueRepository.insertIfAbsent(venueService.newVenue(request("BLUE ROOM", "chicago"))));
+
+        assertEquals(existing.getId(), venueService.findOrCreate(request("Blue Room", "Chicago")).getId());
+    }
+
+    @Test
+    void deduplicateVenues_ShouldKeepOldestAndRepointEvents() {
+        Venue original = persistUnkeyed("Café Central", "Wien", LocalDateTime.of(2020, 1, 1, 0, 0));
+        Venue duplicate = persistUnkeyed("cafe  central", "WIEN", LocalDateTime.of(2021, 1, 1, 0, 0));
+        Venue other = persistUnkeyed("Blue Room", "Chicago", LocalDateTime.of(2021, 1, 1, 0, 0));
+        UUID eventId = persistEvent(duplicate);
+        entityManager.clear();
+
+        assertEquals(1, venueService.deduplicateVenues());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(venueRepository.existsById(duplicate.getId()));
+        assertEquals("cafe central|wien", venueRepository.findById(original.getId()).orElseThrow().getNormalizedKey());
+        assertEquals("blue room|chicago", venueRepository.findById(other.getId()).orElseThrow().getNormalizedKey());
+        assertEquals(original.getId(), eventRepository.findById(eventId).orElseThrow().getVenue().getId());
+        EventSearchView row = searchViewRepository.findById(eventId).orElseThrow();
+        assertEquals(original.getId(), row.getVenueId());
+        assertEquals("Café Central", row.getVenueName());
+
+        assertEquals(0, venueService.deduplicateVenues());
+    }
+
+    // Venues written before normalized keys existed; the key is cleared so duplicates can coexist
+    private Venue persistUnkeyed(String name, String city, LocalDateTime createdAt) {
+        Venue venue = new Venue();
+        venue.setName(name);
+        venue.setCity(city);
+        entityManager.persist(venue);
+        entityManager.flush();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE venues SET normalized_key = NULL, created_at = :createdAt WHERE id = :id")
+            .setParameter("createdAt", createdAt)
+            .setParameter("id", venue.getId())
+            .executeUpdate();
+        entityManager.detach(venue);
+        return venue;
+    }
+
+    private UUID persistEvent(Venue venue) {
+        Event event = new Event(UUID.randomUUID(), "Concert", LocalDateTime.of(2030, 6, 1, 20, 0),
+            entityManager.find(Venue.class, venue.getId()));
+        entityManager.persist(event);
+
+        EventSearchView row = new EventSearchView();
+        row.setEventId(event.getId());
+        row.setName(event.getName());
+        row.setEventDate(event.getEventDate());
+        row.setStatus(EventStatus.DRAFT);
+        row.setVenueId(venue.getId());
+        row.setVenueName(venue.getName());
+        entityManager.persist(row);
+        entityManager.flush();
+        return event.getId();
+    }
+
+    private VenueRequest request(String name, String city) {
+        VenueRequest request = new VenueRequest();
+        request.setName(name);
+        request.setCity(city);
+        request.setCountry("Austria");
+        return request;
+    }
+}
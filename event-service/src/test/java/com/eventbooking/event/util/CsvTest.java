@@ -0,0 +1,47 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTest {
+
+    @Test
+    void recordReader_ShouldHandleQuotesEmbeddedNewlinesAndLineNumbers() throws IOException {
+        Csv.RecordReader reader = new Csv.RecordReader(new StringReader(
+            "name,description\r\n\"Jazz, Live\",\"Two\nlines with \"\"quotes\"\"\"\nRock,\n"));
+
+        assertEquals(List.of("name", "description"), reader.next());
+        assertEquals(List.of("Jazz, Live", "Two\nlines with \"quotes\""), reader.next());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("Rock", ""), reader.next());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void recordReader_WithUnterminatedQuote_ShouldThrowException() {
+        Csv.RecordReader reader = new Csv.RecordReader(new StringReader("\"open,field\n"));
+
+        assertThrows(InvalidEventDataException.class, reader::next);
+    }
+
+    @Test
+    void writeRecord_ShouldRoundTrip() throws IOException {
+        List<String> values = Arrays.asList("plain", "a,b", "say \"hi\"", null, "multi\nline");
+        StringWriter writer = new StringWriter();
+
+        Csv.writeRecord(writer, values);
+
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",,\"multi\nline\"\r\n", writer.toString());
+        List<String> read = new Csv.RecordReader(new StringReader(writer.toString())).next();
+        assertEquals(Arrays.asList("plain", "a,b", "say \"hi\"", "", "multi\nline"), read);
+    }
+}
@@ -0,0 +1,30 @@
+package com.eventbooking.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void of_ShouldBeStableAndQuoted() {
+        String eTag = ETags.of("body".getBytes());
+
+        assertEquals(eTag, ETags.of("body".getBytes()));
+        assertNotEquals(eTag, ETags.of("other".getBytes()));
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        assertEquals(34, eTag.length());
+    }
+
+    @Test
+    void matches_ShouldUseWeakComparison() {
+        String eTag = "\"abc\"";
+
+        assertTrue(ETags.matches("\"abc\"", eTag));
+        assertTrue(ETags.matches("W/\"abc\"", eTag));
+        assertTrue(ETags.matches("\"x\", \"abc\"", eTag));
+        assertTrue(ETags.matches("*", eTag));
+        assertFalse(ETags.matches("\"abd\"", eTag));
+        assertFalse(ETags.matches(null, eTag));
+    }
+}
@@ -0,0 +1,54 @@
+package com.eventbooking.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void encode_WithKnownPoint_ShouldMatchReferenceHash() {
+        assertEquals("u4pruydqq", GeoHash.encode(new BigDecimal("57.64911"), new BigDecimal("10.40744")));
+        assertEquals("u4pr", GeoHash.encode(57.64911, 10.40744, 4));
+    }
+
+    @Test
+    void encode_WithMissingCoordinate_ShouldReturnNull() {
+        assertNull(GeoHash.encode(null, new BigDecimal("10.40744")));
+    }
+
+    @Test
+    void coveringCells_ShouldContainEveryPointWithinRadius() {
+        double latitude = 40.7128;
+        double longitude = -74.0060;
+        double radiusKm = 10;
+        Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm);
+        assertFalse(cells.isEmpty());
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double pointLat = latitude + (random.nextDouble() - 0.5) * 0.2;
+            double pointLon = longitude + (random.nextDouble() - 0.5) * 0.3;
+            if (GeoHash.distanceKm(latitude, longitude, pointLat, pointLon) <= radiusKm) {
+                String hash = GeoHash.encode(pointLat, pointLon, GeoHash.MAX_PRECISION);
+                assertTrue(cells.stream().anyMatch(hash::startsWith), "No covering cell for " + hash);
+            }
+        }
+    }
+
+    @Test
+    void coveringCells_WithHugeRadius_ShouldSkipPruning() {
+        assertTrue(GeoHash.coveringCells(0, 0, 10_000).isEmpty());
+    }
+
+    @Test
+    void upperBound_ShouldIncrementLastDigitWithCarry() {
+        assertEquals("u4ps", GeoHash.upperBound("u4pr"));
+        assertEquals("u4q", GeoHash.upperBound("u4pz"));
+        assertNull(GeoHash.upperBound("zz"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.dto.SearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchFingerprintTest {
+
+    @Test
+    void of_WithEquivalentCriteria_ShouldMatch() {
+        UUID categoryId = UUID.randomUUID();
+        SearchCriteria first = new SearchCriteria();
+        first.setQuery(" Rock   Festival");
+        first.setCity("BERLIN ");
+        first.setCategoryId(categoryId);
+        first.setMinPrice(new BigDecimal("10.00"));
+        first.setTags(List.of("outdoor", "rock"));
+        first.setTagMatch(SearchCriteria.TagMatch.ALL);
+
+        SearchCriteria second = new SearchCriteria();
+        second.setQuery("rock festival");
+        second.setCity("berlin");
+        second.setCategoryId(categoryId);
+        second.setMinPrice(BigDecimal.TEN);
+        second.setTags(List.of("Rock", "outdoor"));
+        second.setTagMatch(SearchCriteria.TagMatch.ALL);
+
+        assertEquals(
+            SearchFingerprint.of(first, PageRequest.of(1, 20)),
+            SearchFingerprint.of(second, PageRequest.of(1, 20, Sort.by(Sort.Direction.ASC, "eventDate"))));
+    }
+
+    @Test
+    void of_WithDifferentFiltersOrPages_ShouldDiffer() {
+        SearchCriteria any = new SearchCriteria();
+        any.setTags(List.of("jazz", "live"));
+        SearchCriteria all = new SearchCriteria();
+        all.setTags(List.of("jazz", "live"));
+        all.setTagMatch(SearchCriteria.TagMatch.ALL);
+
+        assertNotEquals(SearchFingerprint.of(any), SearchFingerprint.of(all));
+        assertNotEquals(SearchFingerprint.of(any, PageRequest.of(0, 20)), SearchFingerprint.of(any, PageRequest.of(1, 20)));
+        assertNotEquals(
+            SearchFingerprint.of(any, PageRequest.of(0, 20)),
+            SearchFingerprint.of(any, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "eventDate"))));
+    }
+
+    @Test
+    void of_WithSingleTag_ShouldIgnoreTagMatch() {
+        SearchCriteria any = new SearchCriteria();
+        any.setTags(List.of("jazz"));
+        SearchCriteria all = new SearchCriteria();
+        all.setTags(List.of("jazz"));
+        all.setTagMatch(SearchCriteria.TagMatch.ALL);
+
+        assertEquals(SearchFingerprint.of(any), SearchFingerprint.of(all));
+    }
+
+    @Test
+    void bucket_ShouldWidenBoundsAndRoundCoordinates() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setDateFrom(LocalDateTime.of(2030, 6, 1, 20, 0, 42));
+        criteria.setDateTo(LocalDateTime.of(2030, 6, 2, 23, 59, 1));
+        criteria.setMinPrice(new BigDecimal("10.999"));
+        criteria.setMaxPrice(new BigDecimal("99.001"));
+        criteria.setLatitude(40.758049);
+        criteria.setLongitude(-73.985512);
+        criteria.setRadiusKm(2.51);
+
+        SearchFingerprint.bucket(criteria);
+
+        assertEquals(LocalDateTime.of(2030, 6, 1, 20, 0), criteria.getDateFrom());
+        assertEquals(LocalDateTime.of(2030, 6, 3, 0, 0), criteria.getDateTo());
+        assertEquals(new BigDecimal("10.99"), criteria.getMinPrice());
+        assertEquals(new BigDecimal("99.01"), criteria.getMaxPrice());
+        assertEquals(40.758, criteria.getLatitude());
+        assertEquals(-73.986, criteria.getLongitude());
+        assertEquals(2.6, criteria.getRadiusKm());
+    }
+}
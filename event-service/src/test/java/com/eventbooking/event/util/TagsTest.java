@@ -0,0 +1,44 @@
+package com.eventbooking.event.util;
+
+import com.eventbooking.event.exception.InvalidEventDataException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagsTest {
+
+    @Test
+    void normalize_ShouldTrimLowerCaseAndDeduplicateInOrder() {
+        List<String> tags = Tags.normalize(Arrays.asList(" Rock", "jazz", "ROCK ", "", null, "Live"));
+
+        assertEquals(List.of("rock", "jazz", "live"), tags);
+        assertTrue(Tags.normalize(null).isEmpty());
+    }
+
+    @Test
+    void normalize_WithTooLongOrTooManyTags_ShouldThrowException() {
+        assertThrows(InvalidEventDataException.class, () ->
+            Tags.normalize(List.of("x".repeat(Tags.MAX_LENGTH + 1))));
+
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= Tags.MAX_TAGS; i++) {
+            tooMany.add("tag" + i);
+        }
+        assertThrows(InvalidEventDataException.class, () -> Tags.normalize(tooMany));
+        assertEquals(1, Tags.normalize(Collections.nCopies(Tags.MAX_TAGS + 1, "same")).size());
+    }
+
+    @Test
+    void intern_ShouldReturnSharedInstance() {
+        String first = new String("festival");
+        String second = new String("festival");
+
+        assertSame(Tags.intern(first), Tags.intern(second));
+        assertNull(Tags.intern(null));
+    }
+}
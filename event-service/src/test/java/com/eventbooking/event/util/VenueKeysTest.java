@@ -0,0 +1,20 @@
+package com.eventbooking.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VenueKeysTest {
+
+    @Test
+    void of_ShouldIgnoreCaseAccentsAndWhitespace() {
+        assertEquals("cafe central|wien", VenueKeys.of("  Café   Central ", "WIEN"));
+        assertEquals(VenueKeys.of("Café Central", "Wien"), VenueKeys.of("cafe\tcentral", " wien "));
+        assertNotEquals(VenueKeys.of("Café Central", "Wien"), VenueKeys.of("Café Central", "Graz"));
+    }
+
+    @Test
+    void of_WithMissingCity_ShouldStillProduceKey() {
+        assertEquals("arena|", VenueKeys.of("Arena", null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.eventbooking.notification.controller;
+
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import com.eventbooking.notification.service.TicketEventConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives integration events from other services. A 2xx response acknowledges the event;
+ * anything else makes the sender retry it.
+ */
+@RestController
+@RequestMapping("/api/notifications/events")
+public class NotificationEventController {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationEventController.class);
+    
+    private final TicketEventConsumer ticketEventConsumer;
+    
+    public NotificationEventController(TicketEventConsumer ticketEventConsumer) {
+        this.ticketEventConsumer = ticketEventConsumer;
+    }
+    
+    @PostMapping("/tickets-generated")
+    public ResponseEntity<Void> ticketsGenerated(@RequestBody TicketsGeneratedEvent event) {
+        log.info("Received tickets generated event {} for order: {}", event.getId(), event.getOrderId());
+        
+        ticketEventConsumer.onTicketsGenerated(event);
+        
+        return ResponseEntity.noContent().build();
+    }
+}
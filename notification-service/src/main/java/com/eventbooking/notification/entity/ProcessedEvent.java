@@ -0,0 +1,57 @@
+package com.eventbooking.notification.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marks an integration event as handled. The primary key is the event's own id, so a
+ * redelivered event is recognised and concurrent duplicates cannot both be recorded.
+ */
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEvent {
+    
+    @Id
+    private UUID id;
+    
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+    
+    public ProcessedEvent() {
+    }
+    
+    public ProcessedEvent(UUID id, String eventType, Instant processedAt) {
+        this.id = id;
+        this.eventType = eventType;
+        this.processedAt = processedAt;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+    
+    public void setProcessedAt(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+}
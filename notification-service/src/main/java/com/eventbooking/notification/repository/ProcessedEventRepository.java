@@ -0,0 +1,31 @@
+package com.eventbooking.notification.repository;
+
+import com.eventbooking.notification.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+    
+    /**
+     * Records the event as handled unless it already is. A concurrent insert of the same id
+     * waits for the first transaction to end: it inserts nothing if that one commits, and
+     * takes over the claim if it rolls back.
+     *
+     * @return 1 if this call claimed the event, 0 if it had already been claimed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (id, event_type, processed_at) " +
+                   "VALUES (:id, :eventType, :processedAt) " +
+                   "ON CONFLICT (id) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("id") UUID id,
+              @Param("eventType") String eventType,
+              @Param("processedAt") Instant processedAt);
+}
@@ -0,0 +1,67 @@
+package com.eventbooking.notification.service;
+
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import com.eventbooking.notification.dto.TicketDeliveryRequest;
+import com.eventbooking.notification.dto.TicketDeliveryResponse;
+import com.eventbooking.notification.entity.NotificationChannel;
+import com.eventbooking.notification.repository.ProcessedEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Delivers tickets announced by the Ticket Service. Events arrive at least once; each id is
+ * claimed in {@code processed_events} before the tickets are sent, in the same transaction as
+ * the delivery, so a repeat is acknowledged without sending the tickets again. A duplicate
+ * arriving while the first delivery is still running waits on the claim and then skips. A
+ * failed delivery rolls its claim back and is thrown back to the sender, which retries it.
+ */
+@Component
+public class TicketEventConsumer {
+    
+    private static final Logger log = LoggerFactory.getLogger(TicketEventConsumer.class);
+    
+    private final TicketDeliveryService ticketDeliveryService;
+    private final ProcessedEventRepository processedEventRepository;
+    
+    public TicketEventConsumer(TicketDeliveryService ticketDeliveryService,
+                               ProcessedEventRepository processedEventRepository) {
+        this.ticketDeliveryService = ticketDeliveryService;
+        this.processedEventRepository = processedEventRepository;
+    }
+    
+    /**
+     * @return false if the event had already been handled
+     */
+    @Transactional
+    public boolean onTicketsGenerated(TicketsGeneratedEvent event) {
+        if (processedEventRepository.claim(event.getId(), TicketsGeneratedEvent.TYPE, Instant.now()) == 0) {
+            log.info("Skipping already processed tickets generated event {} for order: {}", event.getId(), event.getOrderId());
+            return false;
+        }
+        
+        if (event.getCustomerEmail() == null || event.getCustomerEmail().isBlank()) {
+            // Nothing to send to; the tickets stay available from the user's orders
+            log.warn("No recipient email for order: {}, skipping ticket delivery", event.getOrderId());
+        } else {
+            TicketDeliveryRequest request = new TicketDeliveryRequest();
+            request.setUserId(event.getUserId());
+            request.setRecipientEmail(event.getCustomerEmail());
+            request.setOrderId(event.getOrderId());
+            request.setTicketIds(event.getTicketIds());
+            request.setChannel(NotificationChannel.EMAIL);
+            request.setIncludeCalendarEvent(true);
+            request.setGenerateWebLink(true);
+            
+            TicketDeliveryResponse response = ticketDeliveryService.deliverTickets(request);
+            if ("FAILED".equals(response.getDeliveryStatus())) {
+                throw new IllegalStateException("Ticket delivery failed for order " + event.getOrderId() + ": " + response.getMessage());
+            }
+        }
+        
+        return true;
+    }
+}
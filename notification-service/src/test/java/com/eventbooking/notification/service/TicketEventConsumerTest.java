@@ -0,0 +1,118 @@
+package com.eventbooking.notification.service;
+
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import com.eventbooking.notification.dto.TicketDeliveryRequest;
+import com.eventbooking.notification.dto.TicketDeliveryResponse;
+import com.eventbooking.notification.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketEventConsumerTest {
+
+    @Mock
+    private TicketDeliveryService ticketDeliveryService;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @InjectMocks
+    private TicketEventConsumer ticketEventConsumer;
+
+    private TicketsGeneratedEvent event;
+
+    @BeforeEach
+    void setUp() {
+        event = new TicketsGeneratedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(UUID.randomUUID());
+        event.setUserId(UUID.randomUUID());
+        event.setCustomerEmail("user@example.com");
+        event.setTicketIds(List.of(UUID.randomUUID()));
+    }
+
+    @Test
+    void onTicketsGenerated_ShouldDeliverAndRecordEvent() {
+        TicketDeliveryResponse response = new TicketDeliveryResponse();
+        response.setDeliveryStatus("SENT");
+        when(processedEventRepository.claim(eq(event.getId()), eq(TicketsGeneratedEvent.TYPE), any(Instant.class))).thenReturn(1);
+        when(ticketDeliveryService.deliverTickets(any(TicketDeliveryRequest.class))).thenReturn(response);
+
+        assertTrue(ticketEventConsumer.onTicketsGenerated(event));
+
+        InOrder inOrder = inOrder(processedEventRepository, ticketDeliveryService);
+        inOrder.verify(processedEventRepository).claim(eq(event.getId()), eq(TicketsGeneratedEvent.TYPE), any(Instant.class));
+        inOrder.verify(ticketDeliveryService).deliverTickets(any(TicketDeliveryRequest.class));
+    }
+
+    @Test
+    void onTicketsGenerated_WhenAlreadyProcessed_ShouldNotDeliverAgain() {
+        when(processedEventRepository.claim(eq(event.getId()), eq(TicketsGeneratedEvent.TYPE), any(Instant.class))).thenReturn(0);
+
+        assertFalse(ticketEventConsumer.onTicketsGenerated(event));
+
+        verifyNoInteractions(ticketDeliveryService);
+    }
+
+    @Test
+    void onTicketsGenerated_ConcurrentDuplicate_ShouldDeliverOnce() throws Exception {
+        TicketDeliveryResponse response = new TicketDeliveryResponse();
+        response.setDeliveryStatus("SENT");
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The database grants the claim to the first insert only
+        when(processedEventRepository.claim(eq(event.getId()), eq(TicketsGeneratedEvent.TYPE), any(Instant.class)))
+            .thenReturn(1, 0);
+        when(ticketDeliveryService.deliverTickets(any(TicketDeliveryRequest.class))).thenAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = executor.submit(() -> ticketEventConsumer.onTicketsGenerated(event));
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            // Redelivered while the first delivery is still sending
+            assertFalse(ticketEventConsumer.onTicketsGenerated(event));
+
+            release.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(ticketDeliveryService, times(1)).deliverTickets(any(TicketDeliveryRequest.class));
+    }
+
+    @Test
+    void onTicketsGenerated_WhenDeliveryFails_ShouldThrowWithoutRecording() {
+        TicketDeliveryResponse response = new TicketDeliveryResponse();
+        response.setDeliveryStatus("FAILED");
+        when(processedEventRepository.claim(eq(event.getId()), eq(TicketsGeneratedEvent.TYPE), any(Instant.class))).thenReturn(1);
+        when(ticketDeliveryService.deliverTickets(any(TicketDeliveryRequest.class))).thenReturn(response);
+
+        // Thrown out of the transaction, so the claim rolls back and a retry delivers again
+        assertThrows(IllegalStateException.class, () -> ticketEventConsumer.onTicketsGenerated(event));
+    }
+}
@@ -0,0 +1,57 @@
+package com.eventbooking.payment.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a cart through {@link PricingEngine}. Run with
+ * {@code mvn -pl payment-service -P benchmark verify}; add {@code -prof gc} to the
+ * {@code jmh.args} property to check that pricing into a reused breakdown allocates nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+    
+    @Param({"1", "4", "16"})
+    private int itemCount;
+    
+    private final PricingEngine pricingEngine = new PricingEngine();
+    private final PriceBreakdown breakdown = new PriceBreakdown();
+    private final FeeSchedule schedule = new FeeSchedule(725, 150, 875, true);
+    
+    private long[] unitPrices;
+    private int[] quantities;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        unitPrices = new long[itemCount];
+        quantities = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            unitPrices[i] = random.nextLong(500, 50_000);
+            quantities[i] = random.nextInt(1, 6);
+        }
+    }
+    
+    @Benchmark
+    public long price() {
+        pricingEngine.price(unitPrices, quantities, itemCount, schedule, breakdown);
+        return breakdown.getTotal();
+    }
+}
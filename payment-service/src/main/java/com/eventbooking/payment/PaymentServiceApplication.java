@@ -3,8 +3,10 @@ package com.eventbooking.payment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {"com.eventbooking.payment", "com.eventbooking.common"})
 public class PaymentServiceApplication {
     public static void main(String[] args) {
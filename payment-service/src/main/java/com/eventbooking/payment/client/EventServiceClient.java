@@ -0,0 +1,47 @@
+package com.eventbooking.payment.client;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Calls the Event Service internal API.
+ */
+@Component
+public class EventServiceClient {
+    
+    private final RestTemplate restTemplate;
+    private final String eventUrl;
+    
+    public EventServiceClient(RestTemplate restTemplate,
+                              @Value("${services.event-service.url}") String eventServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.eventUrl = eventServiceUrl + "/api/events/internal/{id}";
+    }
+    
+    /**
+     * The user who organizes an event, or empty if there is no such event. Other failures are
+     * thrown, so a caller cannot be let in because the Event Service was unreachable.
+     */
+    public Optional<UUID> getOrganizerId(UUID eventId) {
+        try {
+            Event event = restTemplate.getForObject(eventUrl, Event.class, eventId);
+            return Optional.ofNullable(event).map(Event::getOrganizerId);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+    
+    // The fields of the Event Service's event that this service needs
+    @Data
+    static class Event {
+        
+        private UUID id;
+        private UUID organizerId;
+    }
+}
@@ -3,6 +3,7 @@ package com.eventbooking.payment.controller;
 import com.eventbooking.common.dto.ApiResponse;
 import com.eventbooking.payment.dto.CreateOrderRequest;
 import com.eventbooking.payment.dto.OrderDto;
+import com.eventbooking.payment.dto.OrderSummaryDto;
 import com.eventbooking.payment.dto.UpdateOrderStatusRequest;
 import com.eventbooking.payment.entity.PaymentStatus;
 import com.eventbooking.payment.service.OrderService;
@@ -60,21 +61,21 @@ public class OrderController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<Page<OrderDto>>> getUserOrders(
+    public ResponseEntity<ApiResponse<Page<OrderSummaryDto>>> getUserOrders(
             @PathVariable UUID userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         log.info("Fetching orders for user: {}", userId);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<OrderDto> orders = orderService.getUserOrders(userId, pageable);
-        ApiResponse<Page<OrderDto>> response = ApiResponse.success("Orders retrieved successfully", orders);
+        Page<OrderSummaryDto> orders = orderService.getUserOrders(userId, pageable);
+        ApiResponse<Page<OrderSummaryDto>> response = ApiResponse.success("Orders retrieved successfully", orders);
         
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/user/{userId}/status/{status}")
-    public ResponseEntity<ApiResponse<Page<OrderDto>>> getUserOrdersByStatus(
+    public ResponseEntity<ApiResponse<Page<OrderSummaryDto>>> getUserOrdersByStatus(
             @PathVariable UUID userId,
             @PathVariable PaymentStatus status,
             @RequestParam(defaultValue = "0") int page,
@@ -82,8 +83,8 @@ public class OrderController {
         log.info("Fetching orders for user: {} with status: {}", userId, status);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<OrderDto> orders = orderService.getUserOrdersByStatus(userId, status, pageable);
-        ApiResponse<Page<OrderDto>> response = ApiResponse.success("Orders retrieved successfully", orders);
+        Page<OrderSummaryDto> orders = orderService.getUserOrdersByStatus(userId, status, pageable);
+        ApiResponse<Page<OrderSummaryDto>> response = ApiResponse.success("Orders retrieved successfully", orders);
         
         return ResponseEntity.ok(response);
     }
@@ -32,6 +32,9 @@ public class PaymentController {
             return ResponseEntity.ok(ApiResponse.success("Payment processed successfully", response));
         } else if (response.getRequiresAction() != null && response.getRequiresAction()) {
             return ResponseEntity.ok(ApiResponse.success("Payment requires additional authentication", response));
+        } else if ("processing".equals(response.getStatus())) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Payment is being processed", response));
         } else {
             return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED)
                     .body(ApiResponse.error(response.getErrorMessage()));
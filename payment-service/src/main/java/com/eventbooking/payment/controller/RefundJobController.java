@@ -0,0 +1,46 @@
+package com.eventbooking.payment.controller;
+
+import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.payment.dto.RefundJobDto;
+import com.eventbooking.payment.dto.StartRefundJobRequest;
+import com.eventbooking.payment.service.RefundJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/payments/refund-jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobController {
+    
+    private final RefundJobService refundJobService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<RefundJobDto>> startRefundJob(
+            @Valid @RequestBody StartRefundJobRequest request) {
+        log.info("Starting bulk refund for event: {}", request.getEventId());
+        
+        RefundJobDto job = refundJobService.startEventRefund(request.getEventId(), request.getReason());
+        ApiResponse<RefundJobDto> response = ApiResponse.success("Refund job accepted", job);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<RefundJobDto>> getRefundJob(@PathVariable UUID jobId) {
+        RefundJobDto job = refundJobService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success("Refund job retrieved successfully", job));
+    }
+    
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<ApiResponse<RefundJobDto>> getRefundJobForEvent(@PathVariable UUID eventId) {
+        RefundJobDto job = refundJobService.getJobForEvent(eventId);
+        return ResponseEntity.ok(ApiResponse.success("Refund job retrieved successfully", job));
+    }
+}
@@ -0,0 +1,69 @@
+package com.eventbooking.payment.controller;
+
+import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.payment.dto.SalesBucketDto;
+import com.eventbooking.payment.dto.SalesGranularity;
+import com.eventbooking.payment.dto.TicketTypeSalesDto;
+import com.eventbooking.payment.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/payments/reports/events")
+@RequiredArgsConstructor
+@Slf4j
+public class SalesReportController {
+    
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    
+    private final SalesReportService salesReportService;
+    
+    @GetMapping("/{eventId}/sales")
+    public ResponseEntity<ApiResponse<List<TicketTypeSalesDto>>> getTicketTypeSales(
+            @PathVariable UUID eventId,
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        List<TicketTypeSalesDto> sales = salesReportService.getTicketTypeSales(eventId, userId, from, to);
+        return ResponseEntity.ok(ApiResponse.success("Sales report retrieved successfully", sales));
+    }
+    
+    @GetMapping("/{eventId}/sales/timeseries")
+    public ResponseEntity<ApiResponse<List<SalesBucketDto>>> getSalesTimeSeries(
+            @PathVariable UUID eventId,
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "HOUR") SalesGranularity granularity) {
+        List<SalesBucketDto> series = salesReportService.getSalesTimeSeries(eventId, userId, from, to, granularity);
+        return ResponseEntity.ok(ApiResponse.success("Sales time series retrieved successfully", series));
+    }
+    
+    @GetMapping("/{eventId}/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @PathVariable UUID eventId,
+            @RequestHeader("X-User-Id") UUID userId) {
+        log.info("Exporting orders for event: {}", eventId);
+        
+        // Checked here, while a refusal can still be sent as an error response
+        salesReportService.checkOrganizer(eventId, userId);
+        StreamingResponseBody body = output -> salesReportService.exportOrders(eventId, output);
+        String filename = "orders-" + eventId + ".csv";
+        
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,9 +1,8 @@
 package com.eventbooking.payment.controller;
 
-import com.eventbooking.payment.service.PaymentService;
+import com.eventbooking.payment.service.StripeWebhookService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,7 +17,7 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class StripeWebhookController {
     
-    private final PaymentService paymentService;
+    private final StripeWebhookService webhookService;
     
     @Value("${stripe.webhook-secret}")
     private String webhookSecret;
@@ -42,82 +41,11 @@ public class StripeWebhookController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid signature");
         }
         
-        log.info("Received Stripe webhook event: {}", event.getType());
+        // Only stored here; StripeWebhookProcessor applies it, so Stripe gets its 200 straight away
+        boolean stored = webhookService.ingest(event, payload);
+        log.info("Received Stripe webhook event: {} ({}){}", event.getId(), event.getType(),
+                stored ? "" : " - duplicate");
         
-        // Handle the event
-        switch (event.getType()) {
-            case "payment_intent.succeeded":
-                handlePaymentIntentSucceeded(event);
-                break;
-            case "payment_intent.payment_failed":
-                handlePaymentIntentFailed(event);
-                break;
-            case "payment_intent.canceled":
-                handlePaymentIntentCanceled(event);
-                break;
-            case "charge.refunded":
-                handleChargeRefunded(event);
-                break;
-            default:
-                log.debug("Unhandled event type: {}", event.getType());
-        }
-        
-        return ResponseEntity.ok("Webhook processed");
-    }
-    
-    private void handlePaymentIntentSucceeded(Event event) {
-        try {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                    .getObject()
-                    .orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
-            
-            log.info("Payment intent succeeded: {}", paymentIntent.getId());
-            
-            // Confirm the payment in our system
-            paymentService.confirmPayment(paymentIntent.getId());
-            
-        } catch (Exception e) {
-            log.error("Error handling payment_intent.succeeded webhook: {}", e.getMessage(), e);
-        }
-    }
-    
-    private void handlePaymentIntentFailed(Event event) {
-        try {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                    .getObject()
-                    .orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
-            
-            log.warn("Payment intent failed: {}", paymentIntent.getId());
-            
-            // The payment failure is already handled in the processPayment method
-            // This webhook is mainly for logging and monitoring
-            
-        } catch (Exception e) {
-            log.error("Error handling payment_intent.payment_failed webhook: {}", e.getMessage(), e);
-        }
-    }
-    
-    private void handlePaymentIntentCanceled(Event event) {
-        try {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                    .getObject()
-                    .orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
-            
-            log.info("Payment intent canceled: {}", paymentIntent.getId());
-            
-        } catch (Exception e) {
-            log.error("Error handling payment_intent.canceled webhook: {}", e.getMessage(), e);
-        }
-    }
-    
-    private void handleChargeRefunded(Event event) {
-        try {
-            log.info("Charge refunded event received");
-            // Refund handling is done through the refundPayment method
-            // This webhook is mainly for logging and monitoring
-            
-        } catch (Exception e) {
-            log.error("Error handling charge.refunded webhook: {}", e.getMessage(), e);
-        }
+        return ResponseEntity.ok("Webhook received");
     }
-}
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.eventbooking.payment.dto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,4 +27,8 @@ public class CreateOrderRequest {
     @NotEmpty(message = "Order items are required")
     @Valid
     private List<OrderItemRequest> items;
+    
+    // Billing region (e.g. US-CA); selects the region's tax rule when there is one
+    @Size(max = 32, message = "Region must be at most 32 characters")
+    private String region;
 }
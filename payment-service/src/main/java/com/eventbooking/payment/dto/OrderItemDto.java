@@ -22,6 +22,7 @@ public class OrderItemDto {
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
     private BigDecimal fees;
+    private BigDecimal taxAmount;
     private BigDecimal totalPrice;
     private OrderItemStatus status;
     private Instant createdAt;
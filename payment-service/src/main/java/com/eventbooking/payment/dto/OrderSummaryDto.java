@@ -0,0 +1,29 @@
+package com.eventbooking.payment.dto;
+
+import com.eventbooking.payment.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An order as shown in a list of the user's orders: its own columns only, no items or
+ * transactions. Built directly by the repository query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    
+    private UUID id;
+    private UUID eventId;
+    private String orderNumber;
+    private BigDecimal totalAmount;
+    private String currency;
+    private PaymentStatus paymentStatus;
+    private Instant createdAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.eventbooking.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The little a bulk refund needs to know about an order: what is left to refund, and the
+ * ledger slot the refund takes if nothing else is recorded first.
+ */
+@Data
+@AllArgsConstructor
+public class RefundCandidate {
+    
+    private UUID orderId;
+    private String paymentIntentId;
+    private BigDecimal amount;
+    private String currency;
+    private Integer sequence;
+}
@@ -0,0 +1,29 @@
+package com.eventbooking.payment.dto;
+
+import com.eventbooking.payment.entity.RefundJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundJobDto {
+    
+    private UUID id;
+    private UUID eventId;
+    private RefundJobStatus status;
+    private Integer refundedCount;
+    private Integer failedCount;
+    private BigDecimal refundedAmount;
+    private String lastError;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+}
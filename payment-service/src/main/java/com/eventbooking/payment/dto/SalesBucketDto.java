@@ -0,0 +1,30 @@
+package com.eventbooking.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An event's sales, all ticket types together, in one hour or day starting at
+ * {@code bucketStart} (UTC).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBucketDto {
+    
+    private Instant bucketStart;
+    private Long ticketsSold;
+    private BigDecimal grossAmount;
+    private BigDecimal feeAmount;
+    private BigDecimal taxAmount;
+    private Long ticketsRefunded;
+    private BigDecimal refundedAmount;
+    
+    public BigDecimal getNetAmount() {
+        return grossAmount.add(feeAmount).add(taxAmount).subtract(refundedAmount);
+    }
+}
@@ -0,0 +1,22 @@
+package com.eventbooking.payment.dto;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket width of a sales time series. Rollups are kept per hour; days are folded from them.
+ */
+public enum SalesGranularity {
+    
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+    
+    private final ChronoUnit unit;
+    
+    SalesGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+    
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
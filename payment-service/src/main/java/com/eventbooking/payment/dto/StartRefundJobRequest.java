@@ -0,0 +1,21 @@
+package com.eventbooking.payment.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartRefundJobRequest {
+    
+    @NotNull(message = "Event ID is required")
+    private UUID eventId;
+    
+    private String reason;
+}
@@ -0,0 +1,31 @@
+package com.eventbooking.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * An event's sales of one ticket type over the report period. Gross is face value; net is
+ * what was taken (gross, fees and tax) less what was refunded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketTypeSalesDto {
+    
+    private UUID ticketTypeId;
+    private Long ticketsSold;
+    private Long orderCount;
+    private BigDecimal grossAmount;
+    private BigDecimal feeAmount;
+    private BigDecimal taxAmount;
+    private Long ticketsRefunded;
+    private BigDecimal refundedAmount;
+    
+    public BigDecimal getNetAmount() {
+        return grossAmount.add(feeAmount).add(taxAmount).subtract(refundedAmount);
+    }
+}
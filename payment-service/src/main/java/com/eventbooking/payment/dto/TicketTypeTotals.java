@@ -0,0 +1,25 @@
+package com.eventbooking.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * What a set of order items adds up to for one ticket type of an event; the unit in which
+ * sales and refunds are added to the hourly rollups.
+ */
+@Data
+@AllArgsConstructor
+public class TicketTypeTotals {
+    
+    private UUID eventId;
+    private UUID ticketTypeId;
+    private Long orderCount;
+    private Long tickets;
+    private BigDecimal subtotal;
+    private BigDecimal fees;
+    private BigDecimal tax;
+    private BigDecimal total;
+}
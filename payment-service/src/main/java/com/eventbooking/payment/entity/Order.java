@@ -16,9 +16,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "orders", indexes = {
-    @Index(name = "idx_orders_user_id", columnList = "user_id"),
-    @Index(name = "idx_orders_event_id", columnList = "event_id"),
+    @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at DESC"),
+    @Index(name = "idx_orders_event_created_at", columnList = "event_id, created_at"),
+    @Index(name = "idx_orders_event_status_id", columnList = "event_id, payment_status, id"),
     @Index(name = "idx_orders_status", columnList = "payment_status"),
+    @Index(name = "idx_orders_status_expires_at", columnList = "payment_status, expires_at"),
     @Index(name = "idx_orders_created_at", columnList = "created_at"),
     @Index(name = "idx_orders_order_number", columnList = "order_number")
 })
@@ -55,6 +57,19 @@ public class Order {
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount;
     
+    /**
+     * Running total of the order's refund ledger, kept in step with each entry so the
+     * refundable balance never has to be summed from history. The column defaults let
+     * ddl-auto add both to a table that already has orders.
+     */
+    @Column(name = "refunded_amount", nullable = false, columnDefinition = "numeric(10,2) default 0 not null")
+    @Builder.Default
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+    
+    @Column(name = "refund_count", nullable = false, columnDefinition = "integer default 0 not null")
+    @Builder.Default
+    private Integer refundCount = 0;
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "payment_status", length = 50)
     @Builder.Default
@@ -103,4 +118,8 @@ public class Order {
         orderItems.remove(item);
         item.setOrder(null);
     }
+    
+    public BigDecimal getRefundableAmount() {
+        return totalAmount.subtract(refundedAmount);
+    }
 }
@@ -47,6 +47,10 @@ public class OrderItem {
     @Builder.Default
     private BigDecimal fees = BigDecimal.ZERO;
     
+    @Column(name = "tax_amount", precision = 10, scale = 2)
+    @Builder.Default
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+    
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
     
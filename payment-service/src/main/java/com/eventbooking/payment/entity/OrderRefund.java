@@ -0,0 +1,69 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One refund issued against an order, as an entry in an append-only ledger. Entries are
+ * numbered per order; the unique sequence stops two racing requests from both recording a
+ * refund in the same slot. Lines say which items the money was for; a full refund made by a
+ * bulk job has none.
+ */
+@Entity
+@Immutable
+@Table(name = "order_refunds", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_order_refunds_order_sequence", columnNames = {"order_id", "sequence"})
+}, indexes = {
+    @Index(name = "idx_order_refunds_gateway_refund_id", columnList = "gateway_refund_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRefund {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+    
+    @Column(name = "sequence", nullable = false)
+    private Integer sequence;
+    
+    @Column(name = "gateway_refund_id", length = 255)
+    private String gatewayRefundId;
+    
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+    
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "currency", length = 3)
+    private String currency;
+    
+    @Column(name = "reason", length = 500)
+    private String reason;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+    
+    @OneToMany(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
+    @JoinColumn(name = "refund_id", nullable = false, updatable = false)
+    @Builder.Default
+    private List<OrderRefundLine> lines = new ArrayList<>();
+}
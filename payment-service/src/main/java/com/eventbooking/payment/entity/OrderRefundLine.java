@@ -0,0 +1,40 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The part of an {@link OrderRefund} paid back for one order item.
+ */
+@Entity
+@Immutable
+@Table(name = "order_refund_lines", indexes = {
+    @Index(name = "idx_order_refund_lines_refund_id", columnList = "refund_id"),
+    @Index(name = "idx_order_refund_lines_order_item_id", columnList = "order_item_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRefundLine {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "order_item_id", nullable = false)
+    private UUID orderItemId;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+}
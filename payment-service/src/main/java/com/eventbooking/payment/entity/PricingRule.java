@@ -0,0 +1,58 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Service fee and tax applied to an order. A rule applies to one event, one billing region,
+ * or both; the most specific active rule wins, and the built-in default applies when none
+ * matches. Rates are in basis points (1/100 of a percent) so they stay exact.
+ */
+@Entity
+@Table(name = "pricing_rules", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_pricing_rules_event_region", columnNames = {"event_id", "region"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "event_id")
+    private UUID eventId;
+    
+    @Column(name = "region", length = 32)
+    private String region;
+    
+    @Column(name = "service_fee_bps", nullable = false)
+    private int serviceFeeBasisPoints;
+    
+    // Charged per ticket on top of the percentage fee, in minor units
+    @Column(name = "service_fee_per_ticket_minor", nullable = false)
+    private long serviceFeePerTicketMinor;
+    
+    @Column(name = "tax_bps", nullable = false)
+    private int taxBasisPoints;
+    
+    @Column(name = "tax_includes_fees", nullable = false)
+    private boolean taxIncludesFees;
+    
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private boolean active = true;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,84 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Refunds every confirmed order of a cancelled event. Orders are walked in id order and
+ * {@code lastOrderId} is the checkpoint: everything up to it has been refunded or given up
+ * on. A runner holds the job while {@code lockedUntil} is in the future; if it dies, another
+ * instance resumes from the checkpoint once the lease runs out.
+ */
+@Entity
+@Table(name = "refund_jobs", indexes = {
+    @Index(name = "idx_refund_jobs_status", columnList = "status, locked_until")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "event_id", nullable = false, unique = true)
+    private UUID eventId;
+    
+    @Column(name = "reason", length = 500)
+    private String reason;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private RefundJobStatus status = RefundJobStatus.PENDING;
+    
+    @Column(name = "last_order_id")
+    private UUID lastOrderId;
+    
+    @Column(name = "refunded_count", nullable = false)
+    @Builder.Default
+    private Integer refundedCount = 0;
+    
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Integer failedCount = 0;
+    
+    @Column(name = "refunded_amount", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+    
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    
+    @Column(name = "started_at")
+    private Instant startedAt;
+    
+    @Column(name = "completed_at")
+    private Instant completedAt;
+    
+    @Version
+    @Column(name = "version")
+    private Long version;
+}
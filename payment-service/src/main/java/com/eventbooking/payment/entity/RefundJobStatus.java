@@ -0,0 +1,7 @@
+package com.eventbooking.payment.entity;
+
+public enum RefundJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,68 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Sales of one ticket type of an event within one hour, kept up to date as orders are paid
+ * and refunded so reports never have to aggregate orders. Rows are only ever changed by
+ * adding to their counters (see {@code SalesRollupRepository#addToBucket}); amounts are in
+ * the event's currency.
+ */
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sales_rollups_event_type_bucket", columnNames = {"event_id", "ticket_type_id", "bucket_start"})
+}, indexes = {
+    @Index(name = "idx_sales_rollups_event_bucket", columnList = "event_id, bucket_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    
+    @Id
+    private UUID id;
+    
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+    
+    @Column(name = "ticket_type_id", nullable = false)
+    private UUID ticketTypeId;
+    
+    // Start of the hour, UTC
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+    
+    @Column(name = "tickets_sold", nullable = false)
+    private Long ticketsSold;
+    
+    // Paid orders that included the ticket type; an order with several types counts once for each
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+    
+    @Column(name = "gross_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal grossAmount;
+    
+    @Column(name = "fee_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal feeAmount;
+    
+    @Column(name = "tax_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal taxAmount;
+    
+    @Column(name = "tickets_refunded", nullable = false)
+    private Long ticketsRefunded;
+    
+    @Column(name = "refunded_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal refundedAmount;
+    
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A Stripe webhook event that kept failing and was taken out of processing. Kept with its
+ * payload so it can be inspected and replayed.
+ */
+@Entity
+@Table(name = "stripe_webhook_dead_letters", indexes = {
+    @Index(name = "idx_stripe_webhook_dead_letters_intent", columnList = "payment_intent_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeWebhookDeadLetter {
+    
+    @Id
+    @Column(name = "id", length = 255)
+    private String id;
+    
+    @Column(name = "type", nullable = false, length = 100)
+    private String type;
+    
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+    
+    @Column(name = "failed_at", nullable = false)
+    private Instant failedAt;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
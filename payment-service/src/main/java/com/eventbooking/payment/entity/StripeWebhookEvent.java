@@ -0,0 +1,63 @@
+package com.eventbooking.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A Stripe webhook delivery as received. Keyed by Stripe's event id, so a redelivered event
+ * is not stored or processed twice; processed rows are kept for a while to keep deduplicating
+ * Stripe's retries.
+ */
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+    @Index(name = "idx_stripe_webhook_events_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_stripe_webhook_events_intent", columnList = "payment_intent_id, received_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeWebhookEvent {
+    
+    @Id
+    @Column(name = "id", length = 255)
+    private String id;
+    
+    @Column(name = "type", nullable = false, length = 100)
+    private String type;
+    
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private WebhookEventStatus status = WebhookEventStatus.PENDING;
+    
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+    
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+    
+    @Column(name = "processed_at")
+    private Instant processedAt;
+    
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
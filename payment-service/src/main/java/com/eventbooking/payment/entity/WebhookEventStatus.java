@@ -0,0 +1,7 @@
+package com.eventbooking.payment.entity;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED
+}
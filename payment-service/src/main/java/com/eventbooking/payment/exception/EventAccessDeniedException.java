@@ -0,0 +1,10 @@
+package com.eventbooking.payment.exception;
+
+import java.util.UUID;
+
+public class EventAccessDeniedException extends RuntimeException {
+    
+    public EventAccessDeniedException(UUID eventId) {
+        super("Not the organizer of event: " + eventId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.eventbooking.payment.exception;
+
+public class InvalidReportRequestException extends RuntimeException {
+    
+    public InvalidReportRequestException(String message) {
+        super(message);
+    }
+}
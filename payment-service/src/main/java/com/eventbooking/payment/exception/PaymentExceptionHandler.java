@@ -20,12 +20,30 @@ public class PaymentExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
     
+    @ExceptionHandler(RefundJobNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRefundJobNotFoundException(RefundJobNotFoundException ex) {
+        ApiResponse<Void> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+    
     @ExceptionHandler(InvalidOrderException.class)
     public ResponseEntity<ApiResponse<Void>> handleInvalidOrderException(InvalidOrderException ex) {
         ApiResponse<Void> response = ApiResponse.error(ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
     
+    @ExceptionHandler(InvalidReportRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidReportRequestException(InvalidReportRequestException ex) {
+        ApiResponse<Void> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+    
+    @ExceptionHandler(EventAccessDeniedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEventAccessDeniedException(EventAccessDeniedException ex) {
+        ApiResponse<Void> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+    }
+    
     @ExceptionHandler(PaymentProcessingException.class)
     public ResponseEntity<ApiResponse<Void>> handlePaymentProcessingException(PaymentProcessingException ex) {
         ApiResponse<Void> response = ApiResponse.error(ex.getMessage());
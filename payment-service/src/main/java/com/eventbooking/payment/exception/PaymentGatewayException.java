@@ -0,0 +1,33 @@
+package com.eventbooking.payment.exception;
+
+/**
+ * A payment gateway call failed. The kind tells callers how to react independently of which
+ * gateway is configured: a declined card is final for that payment method, a rate-limited
+ * call can be repeated later, and the rest are reported as errors.
+ */
+public class PaymentGatewayException extends PaymentProcessingException {
+    
+    public enum Kind {
+        DECLINED,
+        RATE_LIMITED,
+        INVALID_REQUEST,
+        AUTHENTICATION,
+        CONNECTION,
+        OTHER
+    }
+    
+    private final Kind kind;
+    
+    public PaymentGatewayException(Kind kind, String message) {
+        this(kind, message, null, null, null);
+    }
+    
+    public PaymentGatewayException(Kind kind, String message, String errorCode, String declineCode, Throwable cause) {
+        super(message, errorCode, declineCode, cause);
+        this.kind = kind;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+}
@@ -23,6 +23,12 @@ public class PaymentProcessingException extends RuntimeException {
         this.declineCode = declineCode;
     }
     
+    public PaymentProcessingException(String message, String errorCode, String declineCode, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+        this.declineCode = declineCode;
+    }
+    
     public String getErrorCode() {
         return errorCode;
     }
@@ -0,0 +1,14 @@
+package com.eventbooking.payment.exception;
+
+import java.util.UUID;
+
+public class RefundJobNotFoundException extends RuntimeException {
+    
+    public RefundJobNotFoundException(UUID jobId) {
+        super("Refund job not found with ID: " + jobId);
+    }
+    
+    public RefundJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.eventbooking.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A payment as reported by the payment gateway. Statuses use Stripe's PaymentIntent values
+ * ({@code succeeded}, {@code requires_action}, ...), whichever gateway is configured.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayPayment {
+    
+    private String id;
+    private String status;
+    private String clientSecret;
+    private String latestChargeId;
+    private String receiptEmail;
+}
@@ -0,0 +1,31 @@
+package com.eventbooking.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayPaymentRequest {
+    
+    private UUID orderId;
+    private String orderNumber;
+    private UUID userId;
+    private UUID eventId;
+    
+    // In the currency's smallest unit, as gateways expect
+    private long amountMinor;
+    private String currency;
+    
+    private String paymentMethodId;
+    private String customerEmail;
+    private String description;
+    
+    // Repeating a create with the same key returns the original payment instead of charging again
+    private String idempotencyKey;
+}
@@ -0,0 +1,15 @@
+package com.eventbooking.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A refund as reported by the payment gateway.
+ */
+@Data
+@AllArgsConstructor
+public class GatewayRefund {
+    
+    private String id;
+    private String status;
+}
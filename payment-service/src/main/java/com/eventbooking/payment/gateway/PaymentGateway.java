@@ -0,0 +1,66 @@
+package com.eventbooking.payment.gateway;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The payment provider as the rest of the service sees it. Failures are reported as
+ * {@link com.eventbooking.payment.exception.PaymentGatewayException}, whose kind says whether
+ * the card was declined, the call was throttled, and so on.
+ */
+public interface PaymentGateway {
+    
+    /**
+     * Idempotency key for refunding what is left of an order. Shared by the refund by hand and
+     * bulk refund jobs, which both send the remaining balance, so an order refunded by both is
+     * only refunded once.
+     */
+    static String orderRefundKey(UUID orderId) {
+        return "order-refund-" + orderId;
+    }
+    
+    /**
+     * Idempotency key for the {@code sequence}-th partial refund of an order. Two requests that
+     * race for the same slot share a key, so only one of them can refund.
+     */
+    static String orderRefundKey(UUID orderId, int sequence) {
+        return "order-refund-" + orderId + "-" + sequence;
+    }
+    
+    /**
+     * Idempotency key for paying an order. An order whose payment outcome was lost can be
+     * paid again without charging the customer twice.
+     */
+    static String orderPaymentKey(UUID orderId) {
+        return "order-payment-" + orderId;
+    }
+    
+    /**
+     * Create and confirm a payment. The result is {@code succeeded}, or {@code requires_action}
+     * when the customer has to authenticate (3D Secure) before it completes.
+     */
+    GatewayPayment createPayment(GatewayPaymentRequest request);
+    
+    /**
+     * Get a payment's current state
+     */
+    GatewayPayment retrievePayment(String paymentIntentId);
+    
+    /**
+     * Find the payment created for an order, for when its id was never recorded locally (the
+     * instance stopped while the create call was in flight). Empty if the order was never sent.
+     */
+    Optional<GatewayPayment> findOrderPayment(UUID orderId);
+    
+    /**
+     * Refund a captured payment in full. A repeated call with the same idempotency key returns
+     * the refund created by the first call instead of refunding twice.
+     */
+    GatewayRefund refund(String paymentIntentId, String idempotencyKey);
+    
+    /**
+     * Refund part of a captured payment, in the smallest currency unit. Partial refunds of one
+     * payment may not add up to more than was captured.
+     */
+    GatewayRefund refund(String paymentIntentId, long amountMinor, String idempotencyKey);
+}
@@ -0,0 +1,361 @@
+package com.eventbooking.payment.gateway;
+
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for Stripe, for running checkout load tests offline. Calls take a
+ * log-normal latency, a share of payments are declined or need 3D Secure, requests beyond the
+ * rate limit are rejected the way Stripe rejects them, and payment and refund outcomes are
+ * sent as signed webhooks to the service's own webhook endpoint. Stripe's test payment
+ * methods ({@code pm_card_chargeDeclined}, {@code pm_card_threeDSecure2Required}, ...) force
+ * the matching outcome.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulator")
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+    
+    private static final Map<String, String> DECLINING_PAYMENT_METHODS = Map.of(
+            "pm_card_chargeDeclined", "generic_decline",
+            "pm_card_chargeDeclinedInsufficientFunds", "insufficient_funds",
+            "pm_card_chargeDeclinedExpiredCard", "expired_card",
+            "pm_card_chargeDeclinedIncorrectCvc", "incorrect_cvc");
+    private static final Set<String> AUTHENTICATING_PAYMENT_METHODS = Set.of(
+            "pm_card_threeDSecure2Required", "pm_card_authenticationRequired");
+    private static final List<String> RANDOM_DECLINE_CODES = List.of(
+            "generic_decline", "insufficient_funds", "do_not_honor", "expired_card");
+    
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+    
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final TokenBucket rateLimiter;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, SimulatedPayment> payments = new ConcurrentHashMap<>();
+    private final Map<String, String> paymentsByKey = new ConcurrentHashMap<>();
+    private final Map<String, SimulatedRefund> refundsByKey = new ConcurrentHashMap<>();
+    
+    private final double latencyMu;
+    private final double latencySigma;
+    private final long maxLatencyMs;
+    private final double declineRate;
+    private final double requiresActionRate;
+    private final long authenticationDelayMs;
+    private final long webhookDelayMs;
+    private final String webhookUrl;
+    private final String webhookSecret;
+    private final Duration retention;
+    
+    public SimulatedPaymentGateway(RestTemplate restTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${payment.simulator.latency.median-ms:300}") double medianLatencyMs,
+                                   @Value("${payment.simulator.latency.p99-ms:1500}") double p99LatencyMs,
+                                   @Value("${payment.simulator.decline-rate:0.05}") double declineRate,
+                                   @Value("${payment.simulator.requires-action-rate:0.1}") double requiresActionRate,
+                                   @Value("${payment.simulator.authentication-delay-ms:3000}") long authenticationDelayMs,
+                                   @Value("${payment.simulator.rate-limit-per-second:100}") double rateLimitPerSecond,
+                                   @Value("${payment.simulator.webhook-delay-ms:200}") long webhookDelayMs,
+                                   @Value("${payment.simulator.webhook-url:http://localhost:${server.port:8080}/api/webhooks/stripe}") String webhookUrl,
+                                   @Value("${stripe.webhook-secret:}") String webhookSecret,
+                                   @Value("${payment.simulator.retention-minutes:120}") long retentionMinutes) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = new TokenBucket(rateLimitPerSecond, (int) Math.ceil(rateLimitPerSecond));
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "payment-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.latencyMu = Math.log(Math.max(medianLatencyMs, 1));
+        this.latencySigma = Math.max(0, Math.log(Math.max(p99LatencyMs, medianLatencyMs) / Math.max(medianLatencyMs, 1)) / Z_99);
+        this.maxLatencyMs = (long) (Math.max(p99LatencyMs, medianLatencyMs) * 4);
+        this.declineRate = declineRate;
+        this.requiresActionRate = requiresActionRate;
+        this.authenticationDelayMs = authenticationDelayMs;
+        this.webhookDelayMs = webhookDelayMs;
+        this.webhookUrl = webhookUrl;
+        this.webhookSecret = webhookSecret;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        
+        scheduler.scheduleAtFixedRate(this::evictExpired, 1, 1, TimeUnit.MINUTES);
+        log.warn("Payment gateway simulator is active; no real payments will be taken");
+    }
+    
+    @Override
+    public GatewayPayment createPayment(GatewayPaymentRequest request) {
+        call();
+        if (request.getIdempotencyKey() != null) {
+            SimulatedPayment existing = payments.get(paymentsByKey.getOrDefault(request.getIdempotencyKey(), ""));
+            if (existing != null) {
+                return existing.toGatewayPayment();
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String paymentMethod = request.getPaymentMethodId();
+        
+        String declineCode = DECLINING_PAYMENT_METHODS.get(paymentMethod);
+        if (declineCode == null && !AUTHENTICATING_PAYMENT_METHODS.contains(paymentMethod) && random.nextDouble() < declineRate) {
+            declineCode = RANDOM_DECLINE_CODES.get(random.nextInt(RANDOM_DECLINE_CODES.size()));
+        }
+        if (declineCode != null) {
+            throw new PaymentGatewayException(Kind.DECLINED, "Your card was declined.", "card_declined", declineCode, null);
+        }
+        
+        SimulatedPayment payment = new SimulatedPayment(request, "pi_sim_" + randomToken());
+        payments.put(payment.id, payment);
+        if (request.getIdempotencyKey() != null) {
+            paymentsByKey.put(request.getIdempotencyKey(), payment.id);
+        }
+        
+        if (AUTHENTICATING_PAYMENT_METHODS.contains(paymentMethod) || random.nextDouble() < requiresActionRate) {
+            payment.status = "requires_action";
+            // The customer completes the challenge a little later
+            scheduler.schedule(() -> succeed(payment), authenticationDelayMs, TimeUnit.MILLISECONDS);
+        } else {
+            succeed(payment);
+        }
+        return payment.toGatewayPayment();
+    }
+    
+    @Override
+    public GatewayPayment retrievePayment(String paymentIntentId) {
+        call();
+        return find(paymentIntentId).toGatewayPayment();
+    }
+    
+    @Override
+    public Optional<GatewayPayment> findOrderPayment(UUID orderId) {
+        call();
+        return Optional.ofNullable(paymentsByKey.get(PaymentGateway.orderPaymentKey(orderId)))
+                .map(payments::get)
+                .map(SimulatedPayment::toGatewayPayment);
+    }
+    
+    @Override
+    public GatewayRefund refund(String paymentIntentId, String idempotencyKey) {
+        return refund(paymentIntentId, null, idempotencyKey);
+    }
+    
+    @Override
+    public GatewayRefund refund(String paymentIntentId, long amountMinor, String idempotencyKey) {
+        return refund(paymentIntentId, Long.valueOf(amountMinor), idempotencyKey);
+    }
+    
+    private GatewayRefund refund(String paymentIntentId, Long amountMinor, String idempotencyKey) {
+        call();
+        SimulatedPayment payment = find(paymentIntentId);
+        
+        SimulatedRefund simulatedRefund = refundsByKey.computeIfAbsent(idempotencyKey, key -> {
+            if (!"succeeded".equals(payment.status)) {
+                throw new PaymentGatewayException(Kind.INVALID_REQUEST,
+                        "PaymentIntent " + paymentIntentId + " has no successful charge to refund");
+            }
+            long refunded;
+            synchronized (payment) {
+                // Like Stripe, a refund without an amount takes whatever is left
+                long remaining = payment.amountMinor - payment.amountRefundedMinor;
+                long amount = amountMinor == null ? remaining : amountMinor;
+                if (amount <= 0 || amount > remaining) {
+                    throw new PaymentGatewayException(Kind.INVALID_REQUEST,
+                            "Refund amount " + amount + " is greater than the unrefunded " + remaining);
+                }
+                payment.amountRefundedMinor += amount;
+                refunded = payment.amountRefundedMinor;
+            }
+            GatewayRefund refund = new GatewayRefund("re_sim_" + randomToken(), "succeeded");
+            Map<String, Object> charge = new LinkedHashMap<>();
+            charge.put("id", payment.chargeId);
+            charge.put("object", "charge");
+            charge.put("amount", payment.amountMinor);
+            charge.put("amount_refunded", refunded);
+            charge.put("currency", payment.currency);
+            charge.put("payment_intent", payment.id);
+            charge.put("refunded", refunded == payment.amountMinor);
+            emitWebhook("charge.refunded", charge);
+            return new SimulatedRefund(paymentIntentId, amountMinor, refund);
+        });
+        // Like Stripe, a key replays only the request it was first used with
+        if (!simulatedRefund.paymentIntentId.equals(paymentIntentId)
+                || !Objects.equals(simulatedRefund.amountMinor, amountMinor)) {
+            throw new PaymentGatewayException(Kind.INVALID_REQUEST,
+                    "Keys for idempotent requests can only be used with the same parameters they were first used with. "
+                            + "Try using a key other than '" + idempotencyKey + "' if you meant to execute a different request.",
+                    "idempotency_key_in_use", null, null);
+        }
+        return simulatedRefund.refund;
+    }
+    
+    /**
+     * Applies the rate limit and the simulated network and processing time.
+     */
+    private void call() {
+        if (!rateLimiter.tryAcquire()) {
+            throw new PaymentGatewayException(Kind.RATE_LIMITED,
+                    "Request rate limit exceeded.", "rate_limit", null, null);
+        }
+        
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        long latencyMs = Math.min(maxLatencyMs, Math.round(Math.exp(latencyMu + latencySigma * gaussian)));
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException(Kind.CONNECTION, "Interrupted while calling the gateway");
+        }
+    }
+    
+    private SimulatedPayment find(String paymentIntentId) {
+        SimulatedPayment payment = payments.get(paymentIntentId);
+        if (payment == null) {
+            throw new PaymentGatewayException(Kind.INVALID_REQUEST,
+                    "No such payment_intent: '" + paymentIntentId + "'", "resource_missing", null, null);
+        }
+        return payment;
+    }
+    
+    private void succeed(SimulatedPayment payment) {
+        payment.chargeId = "ch_sim_" + randomToken();
+        payment.status = "succeeded";
+        emitWebhook("payment_intent.succeeded", payment.toJson());
+    }
+    
+    private void emitWebhook(String type, Map<String, Object> object) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", "evt_sim_" + randomToken());
+        event.put("object", "event");
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", Instant.now().getEpochSecond());
+        event.put("data", Map.of("object", object));
+        event.put("livemode", false);
+        event.put("pending_webhooks", 1);
+        event.put("type", type);
+        
+        scheduler.schedule(() -> deliver(type, event), webhookDelayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private void deliver(String type, Map<String, Object> event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            long timestamp = Instant.now().getEpochSecond();
+            String signature = Webhook.Util.computeHmacSha256(webhookSecret, timestamp + "." + payload);
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("Stripe-Signature", "t=" + timestamp + ",v1=" + signature);
+            restTemplate.postForEntity(webhookUrl, new HttpEntity<>(payload, headers), String.class);
+        } catch (JsonProcessingException | GeneralSecurityException | RestClientException e) {
+            log.warn("Failed to deliver simulated {} webhook: {}", type, e.getMessage());
+        }
+    }
+    
+    void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        payments.values().removeIf(payment -> payment.createdAt.isBefore(cutoff));
+        paymentsByKey.values().removeIf(id -> !payments.containsKey(id));
+        refundsByKey.values().removeIf(refund -> !payments.containsKey(refund.paymentIntentId));
+    }
+    
+    private static String randomToken() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    private static class SimulatedRefund {
+        
+        private final String paymentIntentId;
+        // As requested; null when the refund took whatever was left
+        private final Long amountMinor;
+        private final GatewayRefund refund;
+        
+        private SimulatedRefund(String paymentIntentId, Long amountMinor, GatewayRefund refund) {
+            this.paymentIntentId = paymentIntentId;
+            this.amountMinor = amountMinor;
+            this.refund = refund;
+        }
+    }
+    
+    private static class SimulatedPayment {
+        
+        private final String id;
+        private final String clientSecret;
+        private final long amountMinor;
+        private final String currency;
+        private final String receiptEmail;
+        private final Map<String, String> metadata;
+        private final Instant createdAt = Instant.now();
+        private volatile String status;
+        private volatile String chargeId;
+        private long amountRefundedMinor;
+        
+        private SimulatedPayment(GatewayPaymentRequest request, String id) {
+            this.id = id;
+            this.clientSecret = id + "_secret_" + randomToken();
+            this.amountMinor = request.getAmountMinor();
+            this.currency = request.getCurrency().toLowerCase();
+            this.receiptEmail = request.getCustomerEmail();
+            this.metadata = Map.of(
+                    "order_id", String.valueOf(request.getOrderId()),
+                    "order_number", String.valueOf(request.getOrderNumber()));
+        }
+        
+        private GatewayPayment toGatewayPayment() {
+            return GatewayPayment.builder()
+                    .id(id)
+                    .status(status)
+                    .clientSecret(clientSecret)
+                    .latestChargeId(chargeId)
+                    .receiptEmail(receiptEmail)
+                    .build();
+        }
+        
+        private Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", id);
+            json.put("object", "payment_intent");
+            json.put("amount", amountMinor);
+            json.put("amount_received", "succeeded".equals(status) ? amountMinor : 0);
+            json.put("currency", currency);
+            json.put("latest_charge", chargeId);
+            json.put("metadata", metadata);
+            json.put("receipt_email", receiptEmail);
+            json.put("status", status);
+            return json;
+        }
+    }
+}
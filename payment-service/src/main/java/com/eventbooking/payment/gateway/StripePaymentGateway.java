@@ -0,0 +1,152 @@
+package com.eventbooking.payment.gateway;
+
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.AuthenticationException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentIntentSearchResult;
+import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentIntentSearchParams;
+import com.stripe.param.RefundCreateParams;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+public class StripePaymentGateway implements PaymentGateway {
+    
+    @Override
+    public GatewayPayment createPayment(GatewayPaymentRequest request) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("order_id", request.getOrderId().toString());
+        metadata.put("order_number", request.getOrderNumber());
+        metadata.put("user_id", request.getUserId().toString());
+        metadata.put("event_id", request.getEventId().toString());
+        
+        PaymentIntentCreateParams.Builder paramsBuilder = PaymentIntentCreateParams.builder()
+                .setAmount(request.getAmountMinor())
+                .setCurrency(request.getCurrency().toLowerCase())
+                .setPaymentMethod(request.getPaymentMethodId())
+                .setConfirm(true)
+                .setAutomaticPaymentMethods(
+                    PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                        .setEnabled(true)
+                        .setAllowRedirects(PaymentIntentCreateParams.AutomaticPaymentMethods.AllowRedirects.NEVER)
+                        .build()
+                )
+                .putAllMetadata(metadata)
+                .setDescription(request.getDescription());
+        
+        // Add customer email if provided
+        if (request.getCustomerEmail() != null && !request.getCustomerEmail().isEmpty()) {
+            paramsBuilder.setReceiptEmail(request.getCustomerEmail());
+        }
+        
+        RequestOptions.RequestOptionsBuilder options = RequestOptions.builder();
+        if (request.getIdempotencyKey() != null) {
+            options.setIdempotencyKey(request.getIdempotencyKey());
+        }
+        
+        try {
+            return toPayment(PaymentIntent.create(paramsBuilder.build(), options.build()));
+        } catch (StripeException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    public GatewayPayment retrievePayment(String paymentIntentId) {
+        try {
+            return toPayment(PaymentIntent.retrieve(paymentIntentId));
+        } catch (StripeException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    public Optional<GatewayPayment> findOrderPayment(UUID orderId) {
+        // Search lags creation by up to a minute, well inside the reconciler's stale period
+        PaymentIntentSearchParams params = PaymentIntentSearchParams.builder()
+                .setQuery("metadata['order_id']:'" + orderId + "'")
+                .setLimit(1L)
+                .build();
+        try {
+            PaymentIntentSearchResult result = PaymentIntent.search(params);
+            return result.getData().stream().findFirst().map(this::toPayment);
+        } catch (StripeException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    public GatewayRefund refund(String paymentIntentId, String idempotencyKey) {
+        return createRefund(paymentIntentId, null, idempotencyKey);
+    }
+    
+    @Override
+    public GatewayRefund refund(String paymentIntentId, long amountMinor, String idempotencyKey) {
+        return createRefund(paymentIntentId, amountMinor, idempotencyKey);
+    }
+    
+    private GatewayRefund createRefund(String paymentIntentId, Long amountMinor, String idempotencyKey) {
+        // Without an amount Stripe refunds whatever has not been refunded yet
+        RefundCreateParams params = RefundCreateParams.builder()
+                .setPaymentIntent(paymentIntentId)
+                .setAmount(amountMinor)
+                .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
+                .build();
+        RequestOptions options = RequestOptions.builder()
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+        
+        try {
+            Refund refund = Refund.create(params, options);
+            return new GatewayRefund(refund.getId(), refund.getStatus());
+        } catch (StripeException e) {
+            throw translate(e);
+        }
+    }
+    
+    private GatewayPayment toPayment(PaymentIntent paymentIntent) {
+        return GatewayPayment.builder()
+                .id(paymentIntent.getId())
+                .status(paymentIntent.getStatus())
+                .clientSecret(paymentIntent.getClientSecret())
+                .latestChargeId(paymentIntent.getLatestCharge())
+                .receiptEmail(paymentIntent.getReceiptEmail())
+                .build();
+    }
+    
+    private PaymentGatewayException translate(StripeException e) {
+        // RateLimitException extends InvalidRequestException, so it has to be checked first
+        Kind kind;
+        String declineCode = null;
+        if (e instanceof CardException cardException) {
+            kind = Kind.DECLINED;
+            declineCode = cardException.getDeclineCode();
+        } else if (e instanceof RateLimitException) {
+            kind = Kind.RATE_LIMITED;
+        } else if (e instanceof InvalidRequestException) {
+            kind = Kind.INVALID_REQUEST;
+        } else if (e instanceof AuthenticationException) {
+            kind = Kind.AUTHENTICATION;
+        } else if (e instanceof ApiConnectionException) {
+            kind = Kind.CONNECTION;
+        } else {
+            kind = Kind.OTHER;
+        }
+        return new PaymentGatewayException(kind, e.getMessage(), e.getCode(), declineCode, e);
+    }
+}
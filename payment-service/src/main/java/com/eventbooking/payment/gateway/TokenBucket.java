@@ -0,0 +1,63 @@
+package com.eventbooking.payment.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by the threads calling a rate-limited API. Tokens refill at a steady
+ * rate up to a burst. Callers either wait for a token or, with {@link #tryAcquire}, are
+ * turned away; {@link #pause} empties the bucket so every caller backs off together when the
+ * API pushes back.
+ */
+public class TokenBucket {
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+    
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Holds every caller back for at least the given time.
+     */
+    public synchronized void pause(long millis) {
+        refill();
+        double debt = TimeUnit.MILLISECONDS.toNanos(millis) * tokensPerNano;
+        tokens = Math.min(tokens, 0) - debt;
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -59,6 +59,7 @@ public class OrderMapper {
                 .unitPrice(orderItem.getUnitPrice())
                 .subtotal(orderItem.getSubtotal())
                 .fees(orderItem.getFees())
+                .taxAmount(orderItem.getTaxAmount())
                 .totalPrice(orderItem.getTotalPrice())
                 .status(orderItem.getStatus())
                 .createdAt(orderItem.getCreatedAt())
@@ -0,0 +1,52 @@
+package com.eventbooking.payment.messaging;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.payment.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Delivers outbox events straight to the consuming service's event endpoint. Any non-2xx
+ * response or connection failure propagates, which leaves the event in the outbox for retry.
+ * A broker-backed publisher (SQS, Redis Streams) can replace this one by setting
+ * {@code outbox.publisher} to another value and registering its own {@link OutboxPublisher}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "http", matchIfMissing = true)
+@Slf4j
+public class HttpOutboxPublisher implements OutboxPublisher {
+    
+    private final RestTemplate restTemplate;
+    private final Map<String, String> endpoints;
+    
+    public HttpOutboxPublisher(RestTemplate restTemplate,
+                               @Value("${services.ticket-service.url}") String ticketServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.endpoints = Map.of(
+                PaymentCompletedEvent.TYPE, ticketServiceUrl + "/api/tickets/events/payment-completed",
+                OrderExpiredEvent.TYPE, ticketServiceUrl + "/api/tickets/events/order-expired");
+    }
+    
+    @Override
+    public void publish(OutboxEvent event) {
+        String endpoint = endpoints.get(event.getEventType());
+        if (endpoint == null) {
+            throw new IllegalStateException("No endpoint configured for event type " + event.getEventType());
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.postForLocation(endpoint, new HttpEntity<>(event.getPayload(), headers));
+        
+        log.debug("Published {} event {} to {}", event.getEventType(), event.getId(), endpoint);
+    }
+}
@@ -0,0 +1,13 @@
+package com.eventbooking.payment.messaging;
+
+import com.eventbooking.payment.entity.OutboxEvent;
+
+/**
+ * Hands an outbox event to whatever carries it to the consumers. Returning normally means
+ * the event was accepted and will not be sent again; throwing leaves it in the outbox for a
+ * later attempt, so a publisher may deliver the same event more than once.
+ */
+public interface OutboxPublisher {
+    
+    void publish(OutboxEvent event);
+}
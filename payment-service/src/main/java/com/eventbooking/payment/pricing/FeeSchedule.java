@@ -0,0 +1,51 @@
+package com.eventbooking.payment.pricing;
+
+import com.eventbooking.payment.entity.PricingRule;
+
+/**
+ * The fee and tax rates used to price one order. Immutable, so cached schedules can be shared
+ * between requests.
+ */
+public final class FeeSchedule {
+    
+    /**
+     * Applies when no pricing rule matches: a 10% service fee and 8% tax on the ticket subtotal.
+     */
+    public static final FeeSchedule DEFAULT = new FeeSchedule(1000, 0, 800, false);
+    
+    private final int serviceFeeBasisPoints;
+    private final long serviceFeePerTicketMinor;
+    private final int taxBasisPoints;
+    private final boolean taxIncludesFees;
+    
+    public FeeSchedule(int serviceFeeBasisPoints, long serviceFeePerTicketMinor, int taxBasisPoints, boolean taxIncludesFees) {
+        if (serviceFeeBasisPoints < 0 || serviceFeePerTicketMinor < 0 || taxBasisPoints < 0) {
+            throw new IllegalArgumentException("Fee and tax rates must not be negative");
+        }
+        this.serviceFeeBasisPoints = serviceFeeBasisPoints;
+        this.serviceFeePerTicketMinor = serviceFeePerTicketMinor;
+        this.taxBasisPoints = taxBasisPoints;
+        this.taxIncludesFees = taxIncludesFees;
+    }
+    
+    public static FeeSchedule of(PricingRule rule) {
+        return new FeeSchedule(rule.getServiceFeeBasisPoints(), rule.getServiceFeePerTicketMinor(),
+                rule.getTaxBasisPoints(), rule.isTaxIncludesFees());
+    }
+    
+    public int getServiceFeeBasisPoints() {
+        return serviceFeeBasisPoints;
+    }
+    
+    public long getServiceFeePerTicketMinor() {
+        return serviceFeePerTicketMinor;
+    }
+    
+    public int getTaxBasisPoints() {
+        return taxBasisPoints;
+    }
+    
+    public boolean isTaxIncludesFees() {
+        return taxIncludesFees;
+    }
+}
@@ -0,0 +1,24 @@
+package com.eventbooking.payment.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between the {@link BigDecimal} amounts stored on orders and the minor units
+ * (cents) the pricing engine works in. Orders are priced in USD, which has two decimals.
+ */
+public final class Money {
+    
+    private static final int SCALE = 2;
+    
+    private Money() {
+    }
+    
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.eventbooking.payment.pricing;
+
+/**
+ * The priced order, in minor units. Written by {@link PricingEngine} and meant to be reused:
+ * its arrays only grow, so pricing into a warm breakdown allocates nothing. Item amounts
+ * always add up to the order amounts exactly.
+ */
+public final class PriceBreakdown {
+    
+    private int itemCount;
+    private long[] itemSubtotals;
+    private long[] itemFees;
+    private long[] itemTaxes;
+    private long[] itemTotals;
+    // Scratch space for the allocation step
+    long[] remainders;
+    
+    long subtotal;
+    long serviceFee;
+    long tax;
+    long total;
+    
+    public PriceBreakdown() {
+        this(4);
+    }
+    
+    public PriceBreakdown(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+    
+    void reset(int itemCount) {
+        if (itemCount > itemSubtotals.length) {
+            allocate(Math.max(itemCount, itemSubtotals.length * 2));
+        }
+        this.itemCount = itemCount;
+        subtotal = 0;
+        serviceFee = 0;
+        tax = 0;
+        total = 0;
+    }
+    
+    private void allocate(int capacity) {
+        itemSubtotals = new long[capacity];
+        itemFees = new long[capacity];
+        itemTaxes = new long[capacity];
+        itemTotals = new long[capacity];
+        remainders = new long[capacity];
+    }
+    
+    long[] itemSubtotals() {
+        return itemSubtotals;
+    }
+    
+    long[] itemFees() {
+        return itemFees;
+    }
+    
+    long[] itemTaxes() {
+        return itemTaxes;
+    }
+    
+    long[] itemTotals() {
+        return itemTotals;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public long getItemSubtotal(int item) {
+        return itemSubtotals[checkItem(item)];
+    }
+    
+    public long getItemFee(int item) {
+        return itemFees[checkItem(item)];
+    }
+    
+    public long getItemTax(int item) {
+        return itemTaxes[checkItem(item)];
+    }
+    
+    public long getItemTotal(int item) {
+        return itemTotals[checkItem(item)];
+    }
+    
+    public long getSubtotal() {
+        return subtotal;
+    }
+    
+    public long getServiceFee() {
+        return serviceFee;
+    }
+    
+    public long getTax() {
+        return tax;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    private int checkItem(int item) {
+        if (item < 0 || item >= itemCount) {
+            throw new IndexOutOfBoundsException("Item " + item + " of " + itemCount);
+        }
+        return item;
+    }
+}
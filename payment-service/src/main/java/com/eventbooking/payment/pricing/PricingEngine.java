@@ -0,0 +1,143 @@
+package com.eventbooking.payment.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+
+/**
+ * Prices orders in integer minor units. The service fee and tax are computed once on the
+ * order, rounded half up, and then allocated to the items in proportion to their amounts by
+ * the largest remainder method, ties going to the earlier item. Every item therefore carries
+ * its exact share: item amounts add up to the order amounts, and refunding any set of items
+ * by their totals is deterministic and never refunds more than was paid.
+ *
+ * <p>Stateless and thread-safe. Pricing into a reused {@link PriceBreakdown} allocates no
+ * objects unless an intermediate product overflows a {@code long}.
+ */
+@Component
+public class PricingEngine {
+    
+    private static final long BASIS_POINTS = 10_000L;
+    
+    // Quotient and remainder of the last division, per thread
+    private static final ThreadLocal<long[]> QUOTIENT_AND_REMAINDER = ThreadLocal.withInitial(() -> new long[2]);
+    
+    /**
+     * Prices {@code itemCount} items into {@code into}.
+     *
+     * @param unitPrices unit price of each item, in minor units
+     * @param quantities number of tickets of each item
+     */
+    public void price(long[] unitPrices, int[] quantities, int itemCount, FeeSchedule schedule, PriceBreakdown into) {
+        into.reset(itemCount);
+        long[] subtotals = into.itemSubtotals();
+        long[] fees = into.itemFees();
+        long[] taxes = into.itemTaxes();
+        long[] totals = into.itemTotals();
+        
+        long subtotal = 0;
+        long tickets = 0;
+        for (int i = 0; i < itemCount; i++) {
+            if (unitPrices[i] < 0 || quantities[i] <= 0) {
+                throw new IllegalArgumentException("Item " + i + " has a negative price or no tickets");
+            }
+            subtotals[i] = Math.multiplyExact(unitPrices[i], (long) quantities[i]);
+            subtotal = Math.addExact(subtotal, subtotals[i]);
+            tickets += quantities[i];
+        }
+        
+        // The percentage fee is spread by item subtotal; the per-ticket fee belongs to each item exactly
+        long percentageFee = applyRate(subtotal, schedule.getServiceFeeBasisPoints());
+        allocate(percentageFee, subtotals, subtotal, itemCount, fees, into.remainders);
+        long perTicketFee = schedule.getServiceFeePerTicketMinor();
+        for (int i = 0; i < itemCount; i++) {
+            fees[i] = Math.addExact(fees[i], Math.multiplyExact(perTicketFee, (long) quantities[i]));
+        }
+        long serviceFee = Math.addExact(percentageFee, Math.multiplyExact(perTicketFee, tickets));
+        
+        long taxBase = schedule.isTaxIncludesFees() ? Math.addExact(subtotal, serviceFee) : subtotal;
+        long tax = applyRate(taxBase, schedule.getTaxBasisPoints());
+        if (schedule.isTaxIncludesFees()) {
+            // Weights are the items' taxable amounts; totals is free until the end, so use it for them
+            for (int i = 0; i < itemCount; i++) {
+                totals[i] = subtotals[i] + fees[i];
+            }
+            allocate(tax, totals, taxBase, itemCount, taxes, into.remainders);
+        } else {
+            allocate(tax, subtotals, taxBase, itemCount, taxes, into.remainders);
+        }
+        
+        for (int i = 0; i < itemCount; i++) {
+            totals[i] = subtotals[i] + fees[i] + taxes[i];
+        }
+        into.subtotal = subtotal;
+        into.serviceFee = serviceFee;
+        into.tax = tax;
+        into.total = Math.addExact(Math.addExact(subtotal, serviceFee), tax);
+    }
+    
+    /**
+     * {@code amount * basisPoints / 10000}, rounded half up.
+     */
+    static long applyRate(long amount, int basisPoints) {
+        long[] quotientAndRemainder = QUOTIENT_AND_REMAINDER.get();
+        mulDiv(amount, basisPoints, BASIS_POINTS, quotientAndRemainder);
+        return quotientAndRemainder[1] * 2 >= BASIS_POINTS ? quotientAndRemainder[0] + 1 : quotientAndRemainder[0];
+    }
+    
+    /**
+     * Splits {@code amount} into {@code shares} in proportion to {@code weights}. Each item gets
+     * the floor of its exact share; the units left over go one each to the items with the
+     * largest remainders.
+     */
+    static void allocate(long amount, long[] weights, long totalWeight, int count, long[] shares, long[] remainders) {
+        if (count == 0) {
+            return;
+        }
+        if (totalWeight == 0) {
+            // Nothing to weigh by (all items free); split evenly, earlier items first
+            for (int i = 0; i < count; i++) {
+                shares[i] = amount / count + (i < amount % count ? 1 : 0);
+            }
+            return;
+        }
+        
+        long[] quotientAndRemainder = QUOTIENT_AND_REMAINDER.get();
+        long allocated = 0;
+        for (int i = 0; i < count; i++) {
+            mulDiv(amount, weights[i], totalWeight, quotientAndRemainder);
+            shares[i] = quotientAndRemainder[0];
+            remainders[i] = quotientAndRemainder[1];
+            allocated += shares[i];
+        }
+        
+        // Fewer units are left over than there are items, so this loop is short
+        for (long left = amount - allocated; left > 0; left--) {
+            int largest = -1;
+            for (int i = 0; i < count; i++) {
+                if (remainders[i] >= 0 && (largest < 0 || remainders[i] > remainders[largest])) {
+                    largest = i;
+                }
+            }
+            shares[largest]++;
+            remainders[largest] = -1;
+        }
+    }
+    
+    /**
+     * Writes the quotient and remainder of {@code a * b / c} to {@code out}, falling back to
+     * {@link BigInteger} when the product does not fit in a {@code long}.
+     */
+    private static void mulDiv(long a, long b, long c, long[] out) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            out[0] = low / c;
+            out[1] = low % c;
+            return;
+        }
+        BigInteger[] result = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divideAndRemainder(BigInteger.valueOf(c));
+        out[0] = result[0].longValueExact();
+        out[1] = result[1].longValue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.eventbooking.payment.pricing;
+
+import com.eventbooking.payment.entity.PricingRule;
+import com.eventbooking.payment.repository.PricingRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory copy of the active {@code pricing_rules}, so pricing an order never touches the
+ * database. The copy is swapped whole on each refresh; readers always see one consistent
+ * set of rules.
+ */
+@Component
+@Slf4j
+public class PricingRules {
+    
+    // Key for rules that apply to any region
+    private static final String ANY_REGION = "";
+    
+    private final PricingRuleRepository pricingRuleRepository;
+    
+    private volatile Snapshot snapshot;
+    
+    public PricingRules(PricingRuleRepository pricingRuleRepository) {
+        this.pricingRuleRepository = pricingRuleRepository;
+    }
+    
+    /**
+     * The schedule for an order: the event's rule for the region, the event's rule, the
+     * region's rule, the catch-all rule, then {@link FeeSchedule#DEFAULT}.
+     *
+     * @param region billing region, or {@code null} if unknown
+     */
+    public FeeSchedule forOrder(UUID eventId, String region) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        
+        Map<String, FeeSchedule> eventRules = current.byEvent.get(eventId);
+        if (eventRules != null) {
+            FeeSchedule schedule = region != null ? eventRules.get(region) : null;
+            if (schedule == null) {
+                schedule = eventRules.get(ANY_REGION);
+            }
+            if (schedule != null) {
+                return schedule;
+            }
+        }
+        FeeSchedule schedule = region != null ? current.byRegion.get(region) : null;
+        if (schedule == null) {
+            schedule = current.byRegion.getOrDefault(ANY_REGION, FeeSchedule.DEFAULT);
+        }
+        return schedule;
+    }
+    
+    /**
+     * Reloads the active rules from the database.
+     */
+    public synchronized void refresh() {
+        Map<UUID, Map<String, FeeSchedule>> byEvent = new HashMap<>();
+        Map<String, FeeSchedule> byRegion = new HashMap<>();
+        int count = 0;
+        for (PricingRule rule : pricingRuleRepository.findByActiveTrue()) {
+            String region = rule.getRegion() != null ? rule.getRegion() : ANY_REGION;
+            if (rule.getEventId() != null) {
+                byEvent.computeIfAbsent(rule.getEventId(), id -> new HashMap<>()).put(region, FeeSchedule.of(rule));
+            } else {
+                byRegion.put(region, FeeSchedule.of(rule));
+            }
+            count++;
+        }
+        
+        snapshot = new Snapshot(byEvent, byRegion);
+        log.debug("Loaded {} pricing rules", count);
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<UUID, Map<String, FeeSchedule>> byEvent;
+        private final Map<String, FeeSchedule> byRegion;
+        
+        private Snapshot(Map<UUID, Map<String, FeeSchedule>> byEvent, Map<String, FeeSchedule> byRegion) {
+            this.byEvent = byEvent;
+            this.byRegion = byRegion;
+        }
+    }
+}
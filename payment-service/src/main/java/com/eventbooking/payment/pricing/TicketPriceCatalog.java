@@ -0,0 +1,128 @@
+package com.eventbooking.payment.pricing;
+
+import com.eventbooking.common.dto.ApiResponse;
+import com.eventbooking.payment.exception.InvalidOrderException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket prices as the Ticket Service holds them; orders are priced from these rather than
+ * from prices sent by the client. Prices are cached for {@code pricing.ticket-prices.ttl-seconds}.
+ * If the Ticket Service cannot be reached, an expired price is used rather than failing the
+ * order.
+ */
+@Component
+@Slf4j
+public class TicketPriceCatalog {
+    
+    private static final ParameterizedTypeReference<ApiResponse<TicketType>> TICKET_TYPE_RESPONSE =
+            new ParameterizedTypeReference<>() { };
+    
+    private final RestTemplate restTemplate;
+    private final String ticketTypeUrl;
+    private final long ttlNanos;
+    private final Map<UUID, TicketPrice> prices = new ConcurrentHashMap<>();
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleHits;
+    
+    public TicketPriceCatalog(RestTemplate restTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${services.ticket-service.url}") String ticketServiceUrl,
+                              @Value("${pricing.ticket-prices.ttl-seconds:60}") long ttlSeconds) {
+        this.restTemplate = restTemplate;
+        this.ticketTypeUrl = ticketServiceUrl + "/api/ticket-types/{id}";
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.hits = meterRegistry.counter("pricing.ticket_prices.requests", "result", "hit");
+        this.misses = meterRegistry.counter("pricing.ticket_prices.requests", "result", "miss");
+        this.staleHits = meterRegistry.counter("pricing.ticket_prices.requests", "result", "stale");
+    }
+    
+    public TicketPrice get(UUID ticketTypeId) {
+        TicketPrice cached = prices.get(ticketTypeId);
+        if (cached != null && System.nanoTime() - cached.loadedAt < ttlNanos) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        try {
+            TicketPrice loaded = load(ticketTypeId);
+            prices.put(ticketTypeId, loaded);
+            return loaded;
+        } catch (HttpClientErrorException.NotFound e) {
+            prices.remove(ticketTypeId);
+            throw new InvalidOrderException("Ticket type not found: " + ticketTypeId);
+        } catch (RestClientException e) {
+            if (cached == null) {
+                throw e;
+            }
+            log.warn("Using an expired price for ticket type {}: {}", ticketTypeId, e.getMessage());
+            staleHits.increment();
+            return cached;
+        }
+    }
+    
+    private TicketPrice load(UUID ticketTypeId) {
+        ApiResponse<TicketType> response = restTemplate
+                .exchange(ticketTypeUrl, HttpMethod.GET, null, TICKET_TYPE_RESPONSE, ticketTypeId)
+                .getBody();
+        if (response == null || response.getData() == null || response.getData().getPrice() == null) {
+            throw new InvalidOrderException("Ticket type has no price: " + ticketTypeId);
+        }
+        TicketType ticketType = response.getData();
+        return new TicketPrice(ticketTypeId, ticketType.getEventId(), Money.toMinor(ticketType.getPrice()), System.nanoTime());
+    }
+    
+    public static final class TicketPrice {
+        
+        private final UUID ticketTypeId;
+        private final UUID eventId;
+        private final long priceMinor;
+        private final long loadedAt;
+        
+        public TicketPrice(UUID ticketTypeId, UUID eventId, long priceMinor, long loadedAt) {
+            this.ticketTypeId = ticketTypeId;
+            this.eventId = eventId;
+            this.priceMinor = priceMinor;
+            this.loadedAt = loadedAt;
+        }
+        
+        public UUID getTicketTypeId() {
+            return ticketTypeId;
+        }
+        
+        public UUID getEventId() {
+            return eventId;
+        }
+        
+        public long getPriceMinor() {
+            return priceMinor;
+        }
+    }
+    
+    // The fields of the Ticket Service's ticket type that pricing needs
+    @Data
+    static class TicketType {
+        
+        private UUID id;
+        private UUID eventId;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eventbooking.payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+
+/**
+ * Plain JDBC reads for order exports. Rows are handed to the caller as the driver fetches
+ * them, {@code fetchSize} at a time, so an export never holds more than one fetch of an
+ * event's orders in memory. PostgreSQL only fetches in batches inside a transaction; callers
+ * run the read in one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderExportRepository {
+    
+    // Served by idx_orders_event_created_at
+    private static final String SELECT_BY_EVENT = """
+        SELECT o.id, o.order_number, o.user_id, o.payment_status, o.currency, o.subtotal_amount, o.service_fee,
+            o.tax_amount, o.total_amount, o.refunded_amount, o.created_at
+        FROM orders o
+        WHERE o.event_id = ?
+        ORDER BY o.created_at ASC, o.id ASC
+        """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void streamByEvent(UUID eventId, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_EVENT);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, eventId);
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,22 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.OrderRefund;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderRefundRepository extends JpaRepository<OrderRefund, UUID> {
+    
+    List<OrderRefund> findByOrderIdOrderBySequence(UUID orderId);
+    
+    /**
+     * Those of the given gateway refund ids that are already in the ledger.
+     */
+    @Query("SELECT r.gatewayRefundId FROM OrderRefund r WHERE r.gatewayRefundId IN :refundIds")
+    List<String> findRecordedGatewayRefundIds(@Param("refundIds") List<String> refundIds);
+}
@@ -1,11 +1,18 @@
 package com.eventbooking.payment.repository;
 
+import com.eventbooking.payment.dto.OrderSummaryDto;
+import com.eventbooking.payment.dto.RefundCandidate;
 import com.eventbooking.payment.entity.Order;
 import com.eventbooking.payment.entity.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,20 +24,120 @@ import java.util.UUID;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
     
-    Optional<Order> findByOrderNumber(String orderNumber);
+    String SUMMARY = "new com.eventbooking.payment.dto.OrderSummaryDto(o.id, o.eventId, o.orderNumber, " +
+                     "o.totalAmount, o.currency, o.paymentStatus, o.createdAt, o.expiresAt)";
     
-    Page<Order> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+    /**
+     * Loads an order together with its items in one statement, for reads that map the whole
+     * order. Transactions are left lazy: fetching a second list in the same join would
+     * multiply the rows, and the order DTO does not carry them.
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") UUID id);
     
-    List<Order> findByUserIdAndEventId(UUID userId, UUID eventId);
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.orderNumber = :orderNumber")
+    Optional<Order> findWithItemsByOrderNumber(@Param("orderNumber") String orderNumber);
+    
+    /**
+     * A page of the user's orders, newest first, read as summaries. Only order columns are
+     * selected, so a page costs the page query and its count however many items the orders
+     * hold. Served by {@code idx_orders_user_created_at}.
+     */
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<OrderSummaryDto> findSummariesByUserId(@Param("userId") UUID userId, Pageable pageable);
     
-    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.paymentStatus = :status ORDER BY o.createdAt DESC")
-    Page<Order> findByUserIdAndStatus(@Param("userId") UUID userId, 
-                                       @Param("status") PaymentStatus status, 
-                                       Pageable pageable);
+    @Query(value = "SELECT " + SUMMARY + " FROM Order o WHERE o.userId = :userId AND o.paymentStatus = :status " +
+                   "ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId AND o.paymentStatus = :status")
+    Page<OrderSummaryDto> findSummariesByUserIdAndStatus(@Param("userId") UUID userId,
+                                                         @Param("status") PaymentStatus status,
+                                                         Pageable pageable);
     
-    @Query("SELECT o FROM Order o WHERE o.paymentStatus = :status AND o.expiresAt < :now")
+    List<Order> findByUserIdAndEventId(UUID userId, UUID eventId);
+    
+    /**
+     * Locks a page of orders in the given status whose expiry has passed, oldest first. Rows
+     * another instance has already locked are skipped (lock timeout -2 is Hibernate's
+     * SKIP LOCKED), so sweepers on every node can share the backlog.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM Order o WHERE o.paymentStatus = :status AND o.expiresAt < :now ORDER BY o.expiresAt")
     List<Order> findExpiredOrders(@Param("status") PaymentStatus status, 
-                                   @Param("now") Instant now);
+                                   @Param("now") Instant now,
+                                   Pageable pageable);
+    
+    /**
+     * Moves the given orders from one status to another in a single statement. Bypasses the
+     * persistence context, so the version and update timestamp are maintained here.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :to, o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.paymentStatus = :from")
+    int transitionStatus(@Param("ids") List<UUID> ids,
+                         @Param("from") PaymentStatus from,
+                         @Param("to") PaymentStatus to,
+                         @Param("now") Instant now);
+    
+    /**
+     * Records the refund of what was left on each of the given orders in a single statement:
+     * moves them from one of {@code from} to {@code to} and brings their running refund total up
+     * to the order total. Callers hold the orders' row locks and have checked that no other
+     * refund was recorded since the amounts were read. Bypasses the persistence context, like
+     * {@link #transitionStatus}.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :to, o.refundedAmount = o.totalAmount, " +
+           "o.refundCount = o.refundCount + 1, o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.paymentStatus IN :from")
+    int recordFullRefunds(@Param("ids") List<UUID> ids,
+                          @Param("from") List<PaymentStatus> from,
+                          @Param("to") PaymentStatus to,
+                          @Param("now") Instant now);
+    
+    /**
+     * Marks the items of the given orders that are still active as refunded, in one statement.
+     */
+    @Modifying
+    @Query("UPDATE OrderItem i SET i.status = com.eventbooking.payment.entity.OrderItemStatus.REFUNDED " +
+           "WHERE i.order.id IN :orderIds AND i.status = com.eventbooking.payment.entity.OrderItemStatus.ACTIVE")
+    int refundActiveItems(@Param("orderIds") List<UUID> orderIds);
+    
+    /**
+     * Loads and row-locks the given orders, in id order so that two callers locking
+     * overlapping sets cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> lockAllById(@Param("ids") List<UUID> ids);
+    
+    /**
+     * Next page of an event's orders in the given statuses that have a succeeded payment, in
+     * order id after {@code afterOrderId}, each with what is left to refund and the ledger slot
+     * its refund would take. Keyset paging keeps each page an index scan however far into the
+     * event a bulk refund has got.
+     */
+    @Query("SELECT new com.eventbooking.payment.dto.RefundCandidate(o.id, t.paymentIntentId, " +
+           "o.totalAmount - o.refundedAmount, o.currency, o.refundCount + 1) " +
+           "FROM PaymentTransaction t JOIN t.order o " +
+           "WHERE o.eventId = :eventId AND o.paymentStatus IN :statuses AND t.status = 'succeeded' " +
+           "AND o.id > :afterOrderId ORDER BY o.id")
+    List<RefundCandidate> findRefundCandidates(@Param("eventId") UUID eventId,
+                                               @Param("statuses") List<PaymentStatus> statuses,
+                                               @Param("afterOrderId") UUID afterOrderId,
+                                               Pageable pageable);
+    
+    /**
+     * Next page of ids of orders that have been in the given status since before
+     * {@code updatedBefore}, in id order after {@code afterOrderId}.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.paymentStatus = :status AND o.updatedAt < :updatedBefore " +
+           "AND o.id > :afterOrderId ORDER BY o.id")
+    List<UUID> findStaleOrderIds(@Param("status") PaymentStatus status,
+                                 @Param("updatedBefore") Instant updatedBefore,
+                                 @Param("afterOrderId") UUID afterOrderId,
+                                 Pageable pageable);
     
     boolean existsByOrderNumber(String orderNumber);
 }
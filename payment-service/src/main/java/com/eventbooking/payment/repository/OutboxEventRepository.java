@@ -0,0 +1,33 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    
+    /**
+     * Locks the oldest due events. Rows already locked by another relay are skipped rather
+     * than waited on, so several instances can drain the outbox side by side.
+     */
+    @Query(value = "SELECT * FROM outbox_events " +
+                   "WHERE published_at IS NULL AND next_attempt_at <= :now " +
+                   "ORDER BY created_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimDueEvents(@Param("now") Instant now, @Param("limit") int limit);
+    
+    long countByPublishedAtIsNull();
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
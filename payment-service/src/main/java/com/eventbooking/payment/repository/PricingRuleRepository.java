@@ -0,0 +1,14 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, UUID> {
+    
+    List<PricingRule> findByActiveTrue();
+}
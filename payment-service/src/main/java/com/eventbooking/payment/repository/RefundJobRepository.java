@@ -0,0 +1,27 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.RefundJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefundJobRepository extends JpaRepository<RefundJob, UUID> {
+    
+    Optional<RefundJob> findByEventId(UUID eventId);
+    
+    /**
+     * Locks the oldest job that is waiting or whose runner's lease has run out.
+     */
+    @Query(value = "SELECT * FROM refund_jobs " +
+                   "WHERE status = 'PENDING' OR (status = 'RUNNING' AND locked_until < :now) " +
+                   "ORDER BY created_at " +
+                   "LIMIT 1 " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<RefundJob> claimNextJob(@Param("now") Instant now);
+}
@@ -0,0 +1,90 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.dto.SalesBucketDto;
+import com.eventbooking.payment.dto.TicketTypeSalesDto;
+import com.eventbooking.payment.dto.TicketTypeTotals;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, UUID> {
+    
+    /**
+     * Adds to the counters of one (event, ticket type, hour) bucket, creating it if it does not
+     * exist yet. The increment happens in the database, so concurrent sales of the same ticket
+     * type in the same hour never overwrite each other; the id is only used for a new row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (id, event_id, ticket_type_id, bucket_start, tickets_sold, order_count, " +
+                   "gross_amount, fee_amount, tax_amount, tickets_refunded, refunded_amount, updated_at) " +
+                   "VALUES (:id, :eventId, :ticketTypeId, :bucketStart, :ticketsSold, :orderCount, " +
+                   ":grossAmount, :feeAmount, :taxAmount, :ticketsRefunded, :refundedAmount, :now) " +
+                   "ON CONFLICT (event_id, ticket_type_id, bucket_start) DO UPDATE SET " +
+                   "tickets_sold = sales_rollups.tickets_sold + EXCLUDED.tickets_sold, " +
+                   "order_count = sales_rollups.order_count + EXCLUDED.order_count, " +
+                   "gross_amount = sales_rollups.gross_amount + EXCLUDED.gross_amount, " +
+                   "fee_amount = sales_rollups.fee_amount + EXCLUDED.fee_amount, " +
+                   "tax_amount = sales_rollups.tax_amount + EXCLUDED.tax_amount, " +
+                   "tickets_refunded = sales_rollups.tickets_refunded + EXCLUDED.tickets_refunded, " +
+                   "refunded_amount = sales_rollups.refunded_amount + EXCLUDED.refunded_amount, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int addToBucket(@Param("id") UUID id,
+                    @Param("eventId") UUID eventId,
+                    @Param("ticketTypeId") UUID ticketTypeId,
+                    @Param("bucketStart") Instant bucketStart,
+                    @Param("ticketsSold") long ticketsSold,
+                    @Param("orderCount") long orderCount,
+                    @Param("grossAmount") BigDecimal grossAmount,
+                    @Param("feeAmount") BigDecimal feeAmount,
+                    @Param("taxAmount") BigDecimal taxAmount,
+                    @Param("ticketsRefunded") long ticketsRefunded,
+                    @Param("refundedAmount") BigDecimal refundedAmount,
+                    @Param("now") Instant now);
+    
+    /**
+     * Totals of the given orders' items in a status, per event and ticket type. Used by bulk
+     * refunds, which move orders with one update and never load their items.
+     */
+    @Query("SELECT new com.eventbooking.payment.dto.TicketTypeTotals(o.eventId, i.ticketTypeId, COUNT(DISTINCT o.id), " +
+           "SUM(i.quantity), SUM(i.subtotal), SUM(i.fees), SUM(i.taxAmount), SUM(i.totalPrice)) " +
+           "FROM OrderItem i JOIN i.order o WHERE o.id IN :orderIds AND i.status = :status " +
+           "GROUP BY o.eventId, i.ticketTypeId ORDER BY i.ticketTypeId")
+    List<TicketTypeTotals> sumItemsByTicketType(@Param("orderIds") List<UUID> orderIds,
+                                                @Param("status") OrderItemStatus status);
+    
+    /**
+     * An event's sales per ticket type between two instants. Reads one row per ticket type per
+     * hour through {@code idx_sales_rollups_event_bucket}, however many orders the event has.
+     */
+    @Query("SELECT new com.eventbooking.payment.dto.TicketTypeSalesDto(r.ticketTypeId, SUM(r.ticketsSold), " +
+           "SUM(r.orderCount), SUM(r.grossAmount), SUM(r.feeAmount), SUM(r.taxAmount), SUM(r.ticketsRefunded), " +
+           "SUM(r.refundedAmount)) " +
+           "FROM SalesRollup r WHERE r.eventId = :eventId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.ticketTypeId ORDER BY r.ticketTypeId")
+    List<TicketTypeSalesDto> sumByTicketType(@Param("eventId") UUID eventId,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to);
+    
+    /**
+     * An event's sales per hour between two instants, all ticket types together, in time order.
+     * Hours without sales are absent.
+     */
+    @Query("SELECT new com.eventbooking.payment.dto.SalesBucketDto(r.bucketStart, SUM(r.ticketsSold), " +
+           "SUM(r.grossAmount), SUM(r.feeAmount), SUM(r.taxAmount), SUM(r.ticketsRefunded), SUM(r.refundedAmount)) " +
+           "FROM SalesRollup r WHERE r.eventId = :eventId AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<SalesBucketDto> sumByHour(@Param("eventId") UUID eventId,
+                                   @Param("from") Instant from,
+                                   @Param("to") Instant to);
+}
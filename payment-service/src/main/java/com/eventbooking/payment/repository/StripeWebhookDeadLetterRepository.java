@@ -0,0 +1,9 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.StripeWebhookDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeWebhookDeadLetterRepository extends JpaRepository<StripeWebhookDeadLetter, String> {
+}
@@ -0,0 +1,52 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.entity.StripeWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+    
+    /**
+     * Stores a received event unless one with the same Stripe id exists, in a single statement.
+     *
+     * @return 1 if stored, 0 for a duplicate delivery
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events " +
+                   "(id, type, payment_intent_id, payload, status, received_at, next_attempt_at, attempts) " +
+                   "VALUES (:id, :type, :paymentIntentId, :payload, 'PENDING', :receivedAt, :receivedAt, 0) " +
+                   "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("type") String type,
+                       @Param("paymentIntentId") String paymentIntentId,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") Instant receivedAt);
+    
+    /**
+     * Locks due events, including ones whose processing lease ran out. An event is only due
+     * once every earlier event for the same payment intent is processed, which keeps each
+     * intent's events in order and puts at most one of them in a batch.
+     */
+    @Query(value = "SELECT * FROM stripe_webhook_events e " +
+                   "WHERE ((e.status = 'PENDING' AND e.next_attempt_at <= :now) " +
+                   "    OR (e.status = 'PROCESSING' AND e.locked_until < :now)) " +
+                   "AND NOT EXISTS (SELECT 1 FROM stripe_webhook_events p " +
+                   "    WHERE p.payment_intent_id = e.payment_intent_id " +
+                   "    AND p.status <> 'PROCESSED' " +
+                   "    AND p.received_at < e.received_at) " +
+                   "ORDER BY e.received_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StripeWebhookEvent> claimDueEvents(@Param("now") Instant now, @Param("limit") int limit);
+    
+    @Modifying
+    @Query("DELETE FROM StripeWebhookEvent e WHERE e.status = com.eventbooking.payment.entity.WebhookEventStatus.PROCESSED AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") Instant cutoff);
+}
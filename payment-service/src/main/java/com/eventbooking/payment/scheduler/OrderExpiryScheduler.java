@@ -0,0 +1,27 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.service.OrderExpirySweeper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExpiryScheduler {
+    
+    private final OrderExpirySweeper orderExpirySweeper;
+    
+    /**
+     * Cancel unpaid orders past their expiry so their reservations are released promptly
+     */
+    @Scheduled(fixedDelayString = "${orders.expiry.poll-interval-ms:30000}")
+    public void expireOrders() {
+        try {
+            orderExpirySweeper.expireDueOrders();
+        } catch (Exception e) {
+            log.error("Error expiring unpaid orders", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.service.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayScheduler {
+    
+    private final OutboxRelay outboxRelay;
+    
+    /**
+     * Publish due outbox events; the short delay bounds how long a paid order waits for its tickets
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            int relayed = outboxRelay.relayDueEvents();
+            if (relayed > 0) {
+                log.debug("Relayed {} outbox events", relayed);
+            }
+        } catch (Exception e) {
+            log.error("Error relaying outbox events", e);
+        }
+    }
+    
+    /**
+     * Drop published outbox events past their retention, hourly
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void purge() {
+        try {
+            int deleted = outboxRelay.purgePublished();
+            if (deleted > 0) {
+                log.info("Purged {} published outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error purging published outbox events", e);
+        }
+    }
+}
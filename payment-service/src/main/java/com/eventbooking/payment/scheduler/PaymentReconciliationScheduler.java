@@ -0,0 +1,42 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.service.PaymentReconciler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationScheduler {
+    
+    private final PaymentReconciler paymentReconciler;
+    
+    /**
+     * Settle payments left in flight by the previous run of this instance as soon as it starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+    
+    /**
+     * Catch payments whose outcome could not be recorded while the service was running
+     */
+    @Scheduled(fixedDelayString = "${payment.reconciliation.poll-interval-ms:300000}",
+               initialDelayString = "${payment.reconciliation.poll-interval-ms:300000}")
+    public void reconcilePeriodically() {
+        reconcile();
+    }
+    
+    private void reconcile() {
+        try {
+            paymentReconciler.reconcileStuckPayments();
+        } catch (Exception e) {
+            log.error("Error reconciling stuck payments", e);
+        }
+    }
+}
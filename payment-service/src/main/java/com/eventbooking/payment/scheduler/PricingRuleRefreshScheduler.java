@@ -0,0 +1,27 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.pricing.PricingRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRuleRefreshScheduler {
+    
+    private final PricingRules pricingRules;
+    
+    /**
+     * Pick up changed fee and tax rules; a failed reload keeps the rules already loaded
+     */
+    @Scheduled(fixedDelayString = "${pricing.rules.refresh-interval-ms:60000}")
+    public void refreshRules() {
+        try {
+            pricingRules.refresh();
+        } catch (Exception e) {
+            log.error("Error refreshing pricing rules", e);
+        }
+    }
+}
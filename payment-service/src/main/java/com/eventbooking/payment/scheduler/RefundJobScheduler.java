@@ -0,0 +1,30 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.service.RefundJobRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobScheduler {
+    
+    private final RefundJobRunner refundJobRunner;
+    
+    /**
+     * Pick up queued bulk refund jobs, and jobs whose runner stopped renewing its lease. A job
+     * can run for a long time, which is why the scheduler pool has more than one thread.
+     */
+    @Scheduled(fixedDelayString = "${refunds.bulk.poll-interval-ms:5000}")
+    public void runJobs() {
+        try {
+            while (refundJobRunner.runNextJob()) {
+                // keep going while jobs are queued
+            }
+        } catch (Exception e) {
+            log.error("Error running bulk refund jobs", e);
+        }
+    }
+}
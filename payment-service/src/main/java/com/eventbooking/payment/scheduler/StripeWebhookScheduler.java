@@ -0,0 +1,45 @@
+package com.eventbooking.payment.scheduler;
+
+import com.eventbooking.payment.service.StripeWebhookProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookScheduler {
+    
+    private final StripeWebhookProcessor webhookProcessor;
+    
+    /**
+     * Process received Stripe webhook events
+     */
+    @Scheduled(fixedDelayString = "${stripe.webhooks.poll-interval-ms:500}")
+    public void process() {
+        try {
+            int processed = webhookProcessor.processDueEvents();
+            if (processed > 0) {
+                log.debug("Processed {} Stripe webhook events", processed);
+            }
+        } catch (Exception e) {
+            log.error("Error processing Stripe webhook events", e);
+        }
+    }
+    
+    /**
+     * Drop processed webhook events past their retention, hourly
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void purge() {
+        try {
+            int deleted = webhookProcessor.purgeProcessed();
+            if (deleted > 0) {
+                log.info("Purged {} processed Stripe webhook events", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error purging processed Stripe webhook events", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cancels pending orders whose payment window has passed. Each chunk is claimed with
+ * {@code SKIP LOCKED}, cancelled with one bulk update and given an {@code OrderExpired} outbox
+ * event in a single short transaction, so sweepers on several instances never cancel the same
+ * order twice and the Ticket Service hears about every cancellation that commits.
+ */
+@Component
+@Slf4j
+public class OrderExpirySweeper {
+    
+    private final OrderRepository orderRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Counter expiredCounter;
+    private final Timer expiryLag;
+    
+    @Value("${orders.expiry.batch-size:200}")
+    private int batchSize;
+    
+    public OrderExpirySweeper(OrderRepository orderRepository,
+                              OutboxService outboxService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expiredCounter = Counter.builder("payment.orders.expired")
+                .description("Pending orders cancelled because their payment window passed")
+                .register(meterRegistry);
+        this.expiryLag = Timer.builder("payment.orders.expiry.lag")
+                .description("Time from an order's expiry to the sweeper cancelling it")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Expires due orders chunk by chunk until a chunk comes back short.
+     *
+     * @return the number of orders cancelled
+     */
+    public int expireDueOrders() {
+        int total = 0;
+        int expired;
+        do {
+            expired = expireBatch();
+            total += expired;
+        } while (expired == batchSize);
+        return total;
+    }
+    
+    int expireBatch() {
+        Instant now = Instant.now();
+        List<Order> expired = transactionTemplate.execute(status -> {
+            List<Order> batch = orderRepository.findExpiredOrders(
+                    PaymentStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            
+            List<UUID> ids = batch.stream().map(Order::getId).toList();
+            orderRepository.transitionStatus(ids, PaymentStatus.PENDING, PaymentStatus.CANCELLED, now);
+            for (Order order : batch) {
+                outboxService.recordOrderExpired(order);
+            }
+            return batch;
+        });
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        
+        expiredCounter.increment(expired.size());
+        for (Order order : expired) {
+            expiryLag.record(Duration.between(order.getExpiresAt(), now));
+        }
+        log.info("Expired {} unpaid orders", expired.size());
+        return expired.size();
+    }
+}
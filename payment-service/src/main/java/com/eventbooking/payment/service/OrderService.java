@@ -2,6 +2,7 @@ package com.eventbooking.payment.service;
 
 import com.eventbooking.payment.dto.CreateOrderRequest;
 import com.eventbooking.payment.dto.OrderDto;
+import com.eventbooking.payment.dto.OrderSummaryDto;
 import com.eventbooking.payment.dto.RefundResponse;
 import com.eventbooking.payment.dto.UpdateOrderStatusRequest;
 import com.eventbooking.payment.entity.PaymentStatus;
@@ -28,14 +29,14 @@ public interface OrderService {
     OrderDto getOrderByOrderNumber(String orderNumber);
     
     /**
-     * Get all orders for a user
+     * Get all orders for a user, as summaries without items
      */
-    Page<OrderDto> getUserOrders(UUID userId, Pageable pageable);
+    Page<OrderSummaryDto> getUserOrders(UUID userId, Pageable pageable);
     
     /**
-     * Get orders by user and status
+     * Get orders by user and status, as summaries without items
      */
-    Page<OrderDto> getUserOrdersByStatus(UUID userId, PaymentStatus status, Pageable pageable);
+    Page<OrderSummaryDto> getUserOrdersByStatus(UUID userId, PaymentStatus status, Pageable pageable);
     
     /**
      * Update order status
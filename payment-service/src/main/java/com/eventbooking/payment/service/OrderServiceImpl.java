@@ -3,6 +3,7 @@ package com.eventbooking.payment.service;
 import com.eventbooking.payment.dto.CreateOrderRequest;
 import com.eventbooking.payment.dto.OrderDto;
 import com.eventbooking.payment.dto.OrderItemRequest;
+import com.eventbooking.payment.dto.OrderSummaryDto;
 import com.eventbooking.payment.dto.UpdateOrderStatusRequest;
 import com.eventbooking.payment.entity.Order;
 import com.eventbooking.payment.entity.OrderItem;
@@ -10,34 +11,64 @@ import com.eventbooking.payment.entity.PaymentStatus;
 import com.eventbooking.payment.exception.InvalidOrderException;
 import com.eventbooking.payment.exception.OrderNotFoundException;
 import com.eventbooking.payment.mapper.OrderMapper;
+import com.eventbooking.payment.pricing.FeeSchedule;
+import com.eventbooking.payment.pricing.Money;
+import com.eventbooking.payment.pricing.PriceBreakdown;
+import com.eventbooking.payment.pricing.PricingEngine;
+import com.eventbooking.payment.pricing.PricingRules;
+import com.eventbooking.payment.pricing.TicketPriceCatalog;
 import com.eventbooking.payment.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl implements OrderService {
     
-    private static final BigDecimal SERVICE_FEE_PERCENTAGE = new BigDecimal("0.10"); // 10%
-    private static final BigDecimal TAX_PERCENTAGE = new BigDecimal("0.08"); // 8%
     private static final int ORDER_EXPIRY_MINUTES = 15;
     
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final PaymentService paymentService;
+    private final OutboxService outboxService;
+    private final SalesRollupService salesRollupService;
+    private final PricingEngine pricingEngine;
+    private final PricingRules pricingRules;
+    private final TicketPriceCatalog ticketPriceCatalog;
+    private final TransactionTemplate transactionTemplate;
+    
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            OrderMapper orderMapper,
+                            PaymentService paymentService,
+                            OutboxService outboxService,
+                            SalesRollupService salesRollupService,
+                            PricingEngine pricingEngine,
+                            PricingRules pricingRules,
+                            TicketPriceCatalog ticketPriceCatalog,
+                            PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.paymentService = paymentService;
+        this.outboxService = outboxService;
+        this.salesRollupService = salesRollupService;
+        this.pricingEngine = pricingEngine;
+        this.pricingRules = pricingRules;
+        this.ticketPriceCatalog = ticketPriceCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
     
     @Override
-    @Transactional
     public OrderDto createOrder(UUID userId, CreateOrderRequest request) {
         log.info("Creating order for user {} and event {}", userId, request.getEventId());
         
@@ -46,12 +77,14 @@ public class OrderServiceImpl implements OrderService {
             throw new InvalidOrderException("Order must contain at least one item");
         }
         
-        // Calculate order totals
-        BigDecimal subtotal = calculateSubtotal(request.getItems());
-        BigDecimal serviceFee = subtotal.multiply(SERVICE_FEE_PERCENTAGE);
-        BigDecimal taxAmount = subtotal.multiply(TAX_PERCENTAGE);
-        BigDecimal totalAmount = subtotal.add(serviceFee).add(taxAmount);
+        // Price the order from the Ticket Service's prices and the event's fee rules. A price
+        // cache miss calls the Ticket Service, so this runs before a connection is taken
+        PriceBreakdown price = priceOrder(request);
         
+        return transactionTemplate.execute(status -> saveOrder(userId, request, price));
+    }
+    
+    private OrderDto saveOrder(UUID userId, CreateOrderRequest request, PriceBreakdown price) {
         // Generate unique order number
         String orderNumber = generateOrderNumber();
         
@@ -60,10 +93,10 @@ public class OrderServiceImpl implements OrderService {
                 .userId(userId)
                 .eventId(request.getEventId())
                 .orderNumber(orderNumber)
-                .subtotalAmount(subtotal)
-                .serviceFee(serviceFee)
-                .taxAmount(taxAmount)
-                .totalAmount(totalAmount)
+                .subtotalAmount(Money.fromMinor(price.getSubtotal()))
+                .serviceFee(Money.fromMinor(price.getServiceFee()))
+                .taxAmount(Money.fromMinor(price.getTax()))
+                .totalAmount(Money.fromMinor(price.getTotal()))
                 .paymentStatus(PaymentStatus.PENDING)
                 .currency("USD")
                 .reservationId(request.getReservationId())
@@ -71,8 +104,8 @@ public class OrderServiceImpl implements OrderService {
                 .build();
         
         // Add order items
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            OrderItem orderItem = createOrderItem(itemRequest);
+        for (int i = 0; i < request.getItems().size(); i++) {
+            OrderItem orderItem = createOrderItem(request.getItems().get(i), price, i);
             order.addOrderItem(orderItem);
         }
         
@@ -88,7 +121,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public OrderDto getOrderById(UUID orderId) {
         log.debug("Fetching order by ID: {}", orderId);
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         return orderMapper.toDto(order);
     }
@@ -97,25 +130,23 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public OrderDto getOrderByOrderNumber(String orderNumber) {
         log.debug("Fetching order by order number: {}", orderNumber);
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = orderRepository.findWithItemsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new OrderNotFoundException(orderNumber));
         return orderMapper.toDto(order);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderDto> getUserOrders(UUID userId, Pageable pageable) {
+    public Page<OrderSummaryDto> getUserOrders(UUID userId, Pageable pageable) {
         log.debug("Fetching orders for user: {}", userId);
-        Page<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return orders.map(orderMapper::toDto);
+        return orderRepository.findSummariesByUserId(userId, pageable);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderDto> getUserOrdersByStatus(UUID userId, PaymentStatus status, Pageable pageable) {
+    public Page<OrderSummaryDto> getUserOrdersByStatus(UUID userId, PaymentStatus status, Pageable pageable) {
         log.debug("Fetching orders for user: {} with status: {}", userId, status);
-        Page<Order> orders = orderRepository.findByUserIdAndStatus(userId, status, pageable);
-        return orders.map(orderMapper::toDto);
+        return orderRepository.findSummariesByUserIdAndStatus(userId, status, pageable);
     }
     
     @Override
@@ -183,6 +214,8 @@ public class OrderServiceImpl implements OrderService {
         
         order.setPaymentStatus(PaymentStatus.CONFIRMED);
         Order confirmedOrder = orderRepository.save(order);
+        outboxService.recordPaymentCompleted(confirmedOrder, null);
+        salesRollupService.recordSale(confirmedOrder);
         
         log.info("Payment confirmed for order: {}", orderId);
         return orderMapper.toDto(confirmedOrder);
@@ -203,24 +236,42 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(failedOrder);
     }
     
-    private BigDecimal calculateSubtotal(java.util.List<OrderItemRequest> items) {
-        return items.stream()
-                .map(item -> item.getUnitPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private PriceBreakdown priceOrder(CreateOrderRequest request) {
+        int itemCount = request.getItems().size();
+        long[] unitPrices = new long[itemCount];
+        int[] quantities = new int[itemCount];
+        
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = request.getItems().get(i);
+            TicketPriceCatalog.TicketPrice ticketPrice = ticketPriceCatalog.get(item.getTicketTypeId());
+            if (!request.getEventId().equals(ticketPrice.getEventId())) {
+                throw new InvalidOrderException("Ticket type " + item.getTicketTypeId() + " does not belong to this event");
+            }
+            // The client sends the price it showed; refuse to charge anything else
+            if (item.getUnitPrice() != null && Money.toMinor(item.getUnitPrice()) != ticketPrice.getPriceMinor()) {
+                throw new InvalidOrderException("The price of ticket type " + item.getTicketTypeId() + " has changed");
+            }
+            unitPrices[i] = ticketPrice.getPriceMinor();
+            quantities[i] = item.getQuantity();
+        }
+        
+        FeeSchedule schedule = pricingRules.forOrder(request.getEventId(), request.getRegion());
+        PriceBreakdown price = new PriceBreakdown(itemCount);
+        pricingEngine.price(unitPrices, quantities, itemCount, schedule, price);
+        return price;
     }
     
-    private OrderItem createOrderItem(OrderItemRequest request) {
-        BigDecimal subtotal = request.getUnitPrice().multiply(new BigDecimal(request.getQuantity()));
-        BigDecimal fees = subtotal.multiply(new BigDecimal("0.05")); // 5% per-item fee
-        BigDecimal totalPrice = subtotal.add(fees);
-        
+    private OrderItem createOrderItem(OrderItemRequest request, PriceBreakdown price, int item) {
+        // Each item carries its allocated share of the order's fee and tax, so a partial
+        // refund by item total adds up to exactly what was charged
         return OrderItem.builder()
                 .ticketTypeId(request.getTicketTypeId())
                 .quantity(request.getQuantity())
-                .unitPrice(request.getUnitPrice())
-                .subtotal(subtotal)
-                .fees(fees)
-                .totalPrice(totalPrice)
+                .unitPrice(Money.fromMinor(price.getItemSubtotal(item) / request.getQuantity()))
+                .subtotal(Money.fromMinor(price.getItemSubtotal(item)))
+                .fees(Money.fromMinor(price.getItemFee(item)))
+                .taxAmount(Money.fromMinor(price.getItemTax(item)))
+                .totalPrice(Money.fromMinor(price.getItemTotal(item)))
                 .build();
     }
     
@@ -255,6 +306,8 @@ public class OrderServiceImpl implements OrderService {
         
         order.setPaymentStatus(PaymentStatus.CONFIRMED);
         Order confirmedOrder = orderRepository.save(order);
+        outboxService.recordPaymentCompleted(confirmedOrder, null);
+        salesRollupService.recordSale(confirmedOrder);
         
         log.info("Order confirmed successfully: {}", orderId);
         return orderMapper.toDto(confirmedOrder);
@@ -265,7 +318,7 @@ public class OrderServiceImpl implements OrderService {
     public com.eventbooking.payment.dto.RefundResponse cancelOrderWithRefund(UUID orderId, UUID userId, String cancellationReason) {
         log.info("Cancelling order with refund: {} for user: {}", orderId, userId);
         
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         
         // Verify order belongs to user
@@ -314,13 +367,14 @@ public class OrderServiceImpl implements OrderService {
     }
     
     @Override
-    @Transactional
     public com.eventbooking.payment.dto.RefundResponse partialCancelOrder(UUID orderId, UUID userId, 
                                                                            java.util.List<UUID> orderItemIds, 
                                                                            String cancellationReason) {
         log.info("Partially cancelling order: {} for user: {} - items: {}", orderId, userId, orderItemIds);
         
-        Order order = orderRepository.findById(orderId)
+        // No transaction here: the refund holds none while the gateway works, and rechecks
+        // the order in its own
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         
         // Verify order belongs to user
@@ -338,74 +392,54 @@ public class OrderServiceImpl implements OrderService {
         // Check cancellation timeframe
         validateCancellationTimeframe(order);
         
-        // Validate order items belong to this order and calculate refund amount
-        BigDecimal refundAmount = BigDecimal.ZERO;
-        int cancelledCount = 0;
+        // Validate order items belong to this order before going to the gateway
+        Map<UUID, OrderItem> itemsById = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            itemsById.put(item.getId(), item);
+        }
         
         for (UUID itemId : orderItemIds) {
-            OrderItem item = order.getOrderItems().stream()
-                    .filter(oi -> oi.getId().equals(itemId))
-                    .findFirst()
-                    .orElseThrow(() -> new InvalidOrderException("Order item not found: " + itemId));
+            OrderItem item = itemsById.get(itemId);
+            if (item == null) {
+                throw new InvalidOrderException("Order item not found: " + itemId);
+            }
             
             if (item.getStatus() != com.eventbooking.payment.entity.OrderItemStatus.ACTIVE) {
                 throw new InvalidOrderException("Order item is not active: " + itemId);
             }
-            
-            item.setStatus(com.eventbooking.payment.entity.OrderItemStatus.REFUNDED);
-            refundAmount = refundAmount.add(item.getTotalPrice());
-            cancelledCount++;
         }
         
-        // Update order status
-        boolean allItemsCancelled = order.getOrderItems().stream()
-                .allMatch(item -> item.getStatus() == com.eventbooking.payment.entity.OrderItemStatus.REFUNDED ||
-                                 item.getStatus() == com.eventbooking.payment.entity.OrderItemStatus.CANCELLED);
-        
-        if (allItemsCancelled) {
-            // Process full refund through payment gateway
-            try {
-                com.eventbooking.payment.dto.PaymentResponse refundResponse = 
-                        paymentService.refundPayment(orderId, cancellationReason);
-                
-                order.setPaymentStatus(PaymentStatus.REFUNDED);
-                Order updatedOrder = orderRepository.save(order);
-                
-                log.info("All items cancelled, full refund processed for order: {}", orderId);
-                
-                return com.eventbooking.payment.dto.RefundResponse.builder()
-                        .refundId(refundResponse.getTransactionId())
-                        .orderId(updatedOrder.getId())
-                        .orderNumber(updatedOrder.getOrderNumber())
-                        .refundAmount(updatedOrder.getTotalAmount())
-                        .refundStatus("COMPLETED")
-                        .gatewayRefundId(refundResponse.getPaymentIntentId())
-                        .refundedAt(Instant.now())
-                        .message("All items cancelled. Full refund processed.")
-                        .build();
-            } catch (Exception e) {
-                log.error("Failed to process full refund for order: {}", orderId, e);
-                throw new InvalidOrderException("Failed to process refund: " + e.getMessage(), e);
-            }
-        } else {
-            // For partial refunds, we'll mark as partially refunded
-            // In a real system, you would create a partial refund through Stripe
-            order.setPaymentStatus(PaymentStatus.PARTIALLY_REFUNDED);
-            Order updatedOrder = orderRepository.save(order);
-            
-            log.info("Order partially cancelled: {} - {} items cancelled, refund amount: {}", 
-                    orderId, cancelledCount, refundAmount);
-            
-            return com.eventbooking.payment.dto.RefundResponse.builder()
-                    .refundId(UUID.randomUUID())
-                    .orderId(updatedOrder.getId())
-                    .orderNumber(updatedOrder.getOrderNumber())
-                    .refundAmount(refundAmount)
-                    .refundStatus("COMPLETED")
-                    .refundedAt(Instant.now())
-                    .message(String.format("Partial cancellation successful. %d item(s) cancelled.", cancelledCount))
-                    .build();
+        // The selected items are refunded together, in one gateway call
+        com.eventbooking.payment.dto.PaymentResponse refundResponse;
+        try {
+            refundResponse = paymentService.refundOrderItems(orderId, orderItemIds, cancellationReason);
+        } catch (InvalidOrderException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to process partial refund for order: {}", orderId, e);
+            throw new InvalidOrderException("Failed to process refund: " + e.getMessage(), e);
         }
+        
+        long cancelledCount = orderItemIds.stream().distinct().count();
+        boolean allItemsCancelled = order.getOrderItems().stream()
+                .filter(item -> item.getStatus() == com.eventbooking.payment.entity.OrderItemStatus.ACTIVE)
+                .allMatch(item -> orderItemIds.contains(item.getId()));
+        
+        log.info("Order partially cancelled: {} - {} items cancelled, refund amount: {}", 
+                orderId, cancelledCount, refundResponse.getAmount());
+        
+        return com.eventbooking.payment.dto.RefundResponse.builder()
+                .refundId(refundResponse.getTransactionId())
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .refundAmount(refundResponse.getAmount())
+                .refundStatus("COMPLETED")
+                .gatewayRefundId(refundResponse.getPaymentIntentId())
+                .refundedAt(Instant.now())
+                .message(allItemsCancelled
+                        ? "All items cancelled. Full refund processed."
+                        : String.format("Partial cancellation successful. %d item(s) cancelled.", cancelledCount))
+                .build();
     }
     
     private void validateCancellationTimeframe(Order order) {
@@ -0,0 +1,168 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.OutboxEvent;
+import com.eventbooking.payment.messaging.OutboxPublisher;
+import com.eventbooking.payment.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves outbox events to the {@link OutboxPublisher}. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and leased, by moving its next attempt past the lease, in a
+ * short transaction; the events are then published with no transaction or row lock held, and
+ * each outcome is written back in its own transaction. Every instance can run the relay; an
+ * event is only sent again by another instance once its lease has run out. A failed event is
+ * retried with exponential backoff; delivery is at least once, and consumers de-duplicate on
+ * the event id.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer publishLag;
+    private final AtomicLong pending = new AtomicLong();
+    
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+    
+    // Long enough to publish a whole batch, or events still being sent are claimed again
+    @Value("${outbox.relay.lease-seconds:300}")
+    private long leaseSeconds;
+    
+    @Value("${outbox.relay.retry-initial-delay-ms:5000}")
+    private long retryInitialDelayMs;
+    
+    @Value("${outbox.relay.retry-max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+    
+    @Value("${outbox.relay.retention-days:7}")
+    private int retentionDays;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxPublisher outboxPublisher,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("payment.outbox.events")
+                .tag("result", "published")
+                .description("Outbox events handed to the publisher")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.outbox.events")
+                .tag("result", "failed")
+                .description("Outbox publish attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.publishLag = Timer.builder("payment.outbox.publish.lag")
+                .description("Time from an outbox event being recorded to it being published")
+                .register(meterRegistry);
+        Gauge.builder("payment.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published, as of the last relay run")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Publishes due events batch by batch until a batch comes back short.
+     *
+     * @return the number of events claimed, published or not
+     */
+    public int relayDueEvents() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = relayBatch();
+            total += claimed;
+        } while (claimed == batchSize);
+        
+        pending.set(outboxEventRepository.countByPublishedAtIsNull());
+        return total;
+    }
+    
+    int relayBatch() {
+        List<OutboxEvent> batch = claimBatch();
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        
+        // In creation order, so consumers see an order's events in the order they happened
+        for (OutboxEvent event : batch) {
+            publish(event);
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+        }
+        return batch.size();
+    }
+    
+    /**
+     * Deletes events published longer ago than the retention period.
+     */
+    public int purgePublished() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+    
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = outboxEventRepository.claimDueEvents(now, batchSize);
+            for (OutboxEvent event : batch) {
+                event.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+    
+    private void publish(OutboxEvent event) {
+        try {
+            outboxPublisher.publish(event);
+        } catch (RuntimeException e) {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setNextAttemptAt(Instant.now().plusMillis(retryDelayMs(attempts)));
+            event.setLastError(truncate(e.getMessage()));
+            failedCounter.increment();
+            log.warn("Failed to publish {} event {} (attempt {}): {}",
+                    event.getEventType(), event.getId(), attempts, e.getMessage());
+            return;
+        }
+        
+        Instant publishedAt = Instant.now();
+        event.setPublishedAt(publishedAt);
+        event.setLastError(null);
+        publishedCounter.increment();
+        publishLag.record(Duration.between(event.getCreatedAt(), publishedAt));
+    }
+    
+    private long retryDelayMs(int attempts) {
+        // Doubles per attempt; the shift is capped so it cannot overflow
+        long delay = retryInitialDelayMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, retryMaxDelayMs);
+    }
+    
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
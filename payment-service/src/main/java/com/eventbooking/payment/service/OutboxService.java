@@ -0,0 +1,18 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+
+public interface OutboxService {
+    
+    /**
+     * Record that an order has been paid. Must run inside the transaction that confirms the
+     * order so the event is stored if and only if the confirmation commits.
+     */
+    void recordPaymentCompleted(Order order, String customerEmail);
+    
+    /**
+     * Record that an unpaid order expired, so its ticket reservation is released. Must run
+     * inside the transaction that cancels the order.
+     */
+    void recordOrderExpired(Order order);
+}
@@ -0,0 +1,96 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OutboxEvent;
+import com.eventbooking.payment.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+    
+    static final String ORDER_AGGREGATE = "Order";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPaymentCompleted(Order order, String customerEmail) {
+        Instant now = Instant.now();
+        
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOccurredAt(now);
+        event.setOrderId(order.getId());
+        event.setOrderNumber(order.getOrderNumber());
+        event.setUserId(order.getUserId());
+        event.setEventId(order.getEventId());
+        event.setCustomerEmail(customerEmail);
+        event.setTotalAmount(order.getTotalAmount());
+        event.setCurrency(order.getCurrency());
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getStatus() == OrderItemStatus.ACTIVE) {
+                event.getItems().add(new PaymentCompletedEvent.Item(
+                        item.getTicketTypeId(), item.getQuantity(), item.getUnitPrice()));
+            }
+        }
+        
+        record(order, PaymentCompletedEvent.TYPE, event.getId(), event, now);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderExpired(Order order) {
+        Instant now = Instant.now();
+        
+        OrderExpiredEvent event = new OrderExpiredEvent();
+        event.setId(UUID.randomUUID());
+        event.setOccurredAt(now);
+        event.setOrderId(order.getId());
+        event.setOrderNumber(order.getOrderNumber());
+        event.setUserId(order.getUserId());
+        event.setEventId(order.getEventId());
+        event.setReservationId(order.getReservationId());
+        event.setExpiresAt(order.getExpiresAt());
+        
+        record(order, OrderExpiredEvent.TYPE, event.getId(), event, now);
+    }
+    
+    private void record(Order order, String eventType, UUID eventId, Object event, Instant now) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .id(eventId)
+                .aggregateType(ORDER_AGGREGATE)
+                .aggregateId(order.getId())
+                .eventType(eventType)
+                .payload(toJson(event))
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        
+        log.debug("Recorded {} event {} for order {}", eventType, eventId, order.getId());
+    }
+    
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Failing here rolls back the order change, which is what keeps the two consistent
+            throw new IllegalStateException("Failed to serialize outbox event", e);
+        }
+    }
+}
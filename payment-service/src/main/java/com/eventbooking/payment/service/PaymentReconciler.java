@@ -0,0 +1,198 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.entity.PaymentTransaction;
+import com.eventbooking.payment.gateway.GatewayPayment;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.repository.OrderRepository;
+import com.eventbooking.payment.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Settles orders left in {@code PROCESSING} because their payment outcome was never recorded,
+ * for example when the instance stopped while the gateway call was in flight. An order with a
+ * payment intent takes the intent's state from the gateway. For an order without one the
+ * gateway is asked whether a payment was created for it all the same; if so, the payment is
+ * recorded against the order (so its webhooks find it) and settled the same way. Only an
+ * order the gateway never saw is put back to {@code PENDING}, and the expiry sweeper cancels
+ * it if the customer does not come back.
+ */
+@Component
+@Slf4j
+public class PaymentReconciler {
+    
+    private static final UUID FIRST_ORDER_ID = new UUID(0L, 0L);
+    
+    private final OrderRepository orderRepository;
+    private final PaymentTransactionRepository transactionRepository;
+    private final PaymentService paymentService;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${payment.reconciliation.batch-size:100}")
+    private int batchSize;
+    
+    // Well past the gateway deadline, so payments still in flight are left alone
+    @Value("${payment.reconciliation.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+    
+    public PaymentReconciler(OrderRepository orderRepository,
+                             PaymentTransactionRepository transactionRepository,
+                             PaymentService paymentService,
+                             PaymentGateway paymentGateway,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.paymentService = paymentService;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Reconciles every order that has been {@code PROCESSING} for longer than the stale period.
+     *
+     * @return the number of orders looked at
+     */
+    public int reconcileStuckPayments() {
+        Instant updatedBefore = Instant.now().minusSeconds(staleAfterSeconds);
+        UUID afterOrderId = FIRST_ORDER_ID;
+        int total = 0;
+        List<UUID> orderIds;
+        do {
+            UUID after = afterOrderId;
+            orderIds = transactionTemplate.execute(status -> orderRepository.findStaleOrderIds(
+                    PaymentStatus.PROCESSING, updatedBefore, after, PageRequest.of(0, batchSize)));
+            for (UUID orderId : orderIds) {
+                try {
+                    record(reconcile(orderId, updatedBefore));
+                } catch (Exception e) {
+                    record("error");
+                    log.warn("Failed to reconcile payment for order {}: {}", orderId, e.getMessage());
+                }
+                afterOrderId = orderId;
+            }
+            total += orderIds.size();
+        } while (orderIds.size() == batchSize);
+        
+        if (total > 0) {
+            log.info("Reconciled {} orders stuck in PROCESSING", total);
+        }
+        return total;
+    }
+    
+    String reconcile(UUID orderId, Instant updatedBefore) {
+        Optional<String> paymentIntentId = transactionTemplate.execute(status -> transactionRepository.findByOrderId(orderId).stream()
+                .map(PaymentTransaction::getPaymentIntentId)
+                .filter(Objects::nonNull)
+                .findFirst());
+        
+        GatewayPayment payment;
+        if (paymentIntentId == null || paymentIntentId.isEmpty()) {
+            Optional<GatewayPayment> created = paymentGateway.findOrderPayment(orderId);
+            if (created.isEmpty()) {
+                return release(orderId, updatedBefore);
+            }
+            payment = created.get();
+            Boolean adopted = transactionTemplate.execute(status -> adopt(orderId, payment));
+            if (!Boolean.TRUE.equals(adopted)) {
+                return "unchanged";
+            }
+        } else {
+            payment = paymentGateway.retrievePayment(paymentIntentId.get());
+        }
+        
+        switch (payment.getStatus()) {
+            case "succeeded" -> {
+                paymentService.confirmPayment(payment.getId());
+                return "confirmed";
+            }
+            case "canceled", "requires_payment_method" -> {
+                transactionTemplate.executeWithoutResult(status -> markFailed(orderId, payment));
+                return "failed";
+            }
+            default -> {
+                // Still waiting on the customer (3D Secure) or on the gateway
+                log.debug("Payment {} for order {} is still {}", payment.getId(), orderId, payment.getStatus());
+                return "unchanged";
+            }
+        }
+    }
+    
+    private String release(UUID orderId, Instant updatedBefore) {
+        Boolean released = transactionTemplate.execute(status -> orderRepository.findById(orderId)
+                .filter(order -> order.getPaymentStatus() == PaymentStatus.PROCESSING)
+                .filter(order -> order.getUpdatedAt() == null || order.getUpdatedAt().isBefore(updatedBefore))
+                .map(order -> {
+                    order.setPaymentStatus(PaymentStatus.PENDING);
+                    orderRepository.save(order);
+                    return true;
+                })
+                .orElse(false));
+        if (Boolean.TRUE.equals(released)) {
+            log.info("Released order {} whose payment never reached the gateway", orderId);
+            return "released";
+        }
+        return "unchanged";
+    }
+    
+    // Records a payment the gateway made for the order but whose outcome was lost
+    private boolean adopt(UUID orderId, GatewayPayment payment) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        if (order.getPaymentStatus() != PaymentStatus.PROCESSING
+                || transactionRepository.findByPaymentIntentId(payment.getId()).isPresent()) {
+            return false;
+        }
+        transactionRepository.save(PaymentTransaction.builder()
+                .order(order)
+                .paymentIntentId(payment.getId())
+                .gatewayTransactionId(payment.getLatestChargeId())
+                .amount(order.getTotalAmount())
+                .currency(order.getCurrency())
+                .status("processing")
+                .paymentMethod("card")
+                .build());
+        log.info("Recorded payment {} found on the gateway for order {}", payment.getId(), orderId);
+        return true;
+    }
+    
+    private void markFailed(UUID orderId, GatewayPayment payment) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        if (order.getPaymentStatus() != PaymentStatus.PROCESSING) {
+            return;
+        }
+        order.setPaymentStatus(PaymentStatus.PAYMENT_FAILED);
+        orderRepository.save(order);
+        
+        transactionRepository.findByPaymentIntentId(payment.getId()).ifPresent(transaction -> {
+            transaction.setStatus("failed");
+            transaction.setErrorMessage("Payment " + payment.getStatus());
+            transactionRepository.save(transaction);
+        });
+        log.info("Marked order {} as failed; its payment is {}", orderId, payment.getStatus());
+    }
+    
+    private void record(String result) {
+        Counter.builder("payment.reconciliation.orders")
+                .tag("result", result)
+                .description("Orders stuck in PROCESSING looked at by the payment reconciler")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -3,6 +3,7 @@ package com.eventbooking.payment.service;
 import com.eventbooking.payment.dto.PaymentResponse;
 import com.eventbooking.payment.dto.ProcessPaymentRequest;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface PaymentService {
@@ -22,6 +23,12 @@ public interface PaymentService {
      */
     PaymentResponse refundPayment(UUID orderId, String reason);
     
+    /**
+     * Refund the given items of a paid order in one gateway call, recording it in the order's
+     * refund ledger
+     */
+    PaymentResponse refundOrderItems(UUID orderId, List<UUID> orderItemIds, String reason);
+    
     /**
      * Get payment status
      */
@@ -3,153 +3,193 @@ package com.eventbooking.payment.service;
 import com.eventbooking.payment.dto.PaymentResponse;
 import com.eventbooking.payment.dto.ProcessPaymentRequest;
 import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OrderRefund;
+import com.eventbooking.payment.entity.OrderRefundLine;
 import com.eventbooking.payment.entity.PaymentStatus;
 import com.eventbooking.payment.entity.PaymentTransaction;
 import com.eventbooking.payment.exception.InvalidOrderException;
 import com.eventbooking.payment.exception.OrderNotFoundException;
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
 import com.eventbooking.payment.exception.PaymentProcessingException;
+import com.eventbooking.payment.gateway.GatewayPayment;
+import com.eventbooking.payment.gateway.GatewayPaymentRequest;
+import com.eventbooking.payment.gateway.GatewayRefund;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.pricing.Money;
+import com.eventbooking.payment.repository.OrderRefundRepository;
 import com.eventbooking.payment.repository.OrderRepository;
 import com.eventbooking.payment.repository.PaymentTransactionRepository;
-import com.stripe.exception.*;
-import com.stripe.model.PaymentIntent;
-import com.stripe.model.Refund;
-import com.stripe.param.PaymentIntentCreateParams;
-import com.stripe.param.RefundCreateParams;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Takes payments through the {@link PaymentGateway} without holding a database connection
+ * while the gateway works. Each payment is claimed ({@code PROCESSING}) in a short
+ * transaction, the gateway is called on a bounded pool of gateway threads with a deadline, and
+ * the outcome is written in a second short transaction. A caller that hits the deadline gets
+ * a {@code processing} response; the outcome is still recorded when the gateway answers, and
+ * {@link PaymentReconciler} settles orders whose outcome was lost.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
     
     private final OrderRepository orderRepository;
     private final PaymentTransactionRepository transactionRepository;
+    private final OrderRefundRepository orderRefundRepository;
+    private final OutboxService outboxService;
+    private final SalesRollupService salesRollupService;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService gatewayExecutor;
+    private final long gatewayTimeoutMs;
+    
+    private final AtomicInteger activeGatewayCalls = new AtomicInteger();
+    private final Counter gatewayTimeoutCounter;
+    
+    public PaymentServiceImpl(OrderRepository orderRepository,
+                              PaymentTransactionRepository transactionRepository,
+                              OrderRefundRepository orderRefundRepository,
+                              OutboxService outboxService,
+                              SalesRollupService salesRollupService,
+                              PaymentGateway paymentGateway,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${payment.processing.gateway-timeout-ms:10000}") long gatewayTimeoutMs,
+                              @Value("${payment.processing.max-concurrent-gateway-calls:64}") int maxConcurrentGatewayCalls) {
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.orderRefundRepository = orderRefundRepository;
+        this.outboxService = outboxService;
+        this.salesRollupService = salesRollupService;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.gatewayTimeoutMs = gatewayTimeoutMs;
+        // The gateway clients block, so calls get their own threads; the pool size caps how
+        // many payments can be in flight at the gateway at once
+        this.gatewayExecutor = Executors.newFixedThreadPool(maxConcurrentGatewayCalls, runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.gatewayTimeoutCounter = Counter.builder("payment.gateway.timeouts")
+                .description("Payment gateway calls that did not answer within the deadline")
+                .register(meterRegistry);
+        Gauge.builder("payment.gateway.calls.active", activeGatewayCalls, AtomicInteger::get)
+                .description("Payment gateway calls in flight")
+                .register(meterRegistry);
+    }
     
     @Override
-    @Transactional
     public PaymentResponse processPayment(ProcessPaymentRequest request) {
         log.info("Processing payment for order: {}", request.getOrderId());
         
-        // Fetch order
-        Order order = orderRepository.findById(request.getOrderId())
-                .orElseThrow(() -> new OrderNotFoundException(request.getOrderId()));
-        
-        // Validate order status
-        if (order.getPaymentStatus() != PaymentStatus.PENDING) {
-            throw new InvalidOrderException("Order is not in a payable status: " + order.getPaymentStatus());
+        Order order;
+        try {
+            order = transactionTemplate.execute(status -> startPayment(request.getOrderId()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new InvalidOrderException("Order is already being paid");
         }
-        
-        // Check if order has expired
-        if (order.getExpiresAt() != null && order.getExpiresAt().isBefore(java.time.Instant.now())) {
-            order.setPaymentStatus(PaymentStatus.CANCELLED);
-            orderRepository.save(order);
+        if (order.getPaymentStatus() == PaymentStatus.CANCELLED) {
             throw new InvalidOrderException("Order has expired");
         }
         
-        // Update order status to processing
-        order.setPaymentStatus(PaymentStatus.PROCESSING);
-        order.setPaymentMethod("card");
-        orderRepository.save(order);
+        // The order is committed as PROCESSING; no connection is held while the gateway works
+        GatewayPaymentRequest gatewayRequest = buildGatewayRequest(order, request);
+        UUID orderId = order.getId();
+        CompletableFuture<PaymentResponse> outcome = CompletableFuture
+                .supplyAsync(() -> timed("create", () -> paymentGateway.createPayment(gatewayRequest)), gatewayExecutor)
+                .handle((payment, error) -> completePayment(orderId, request.getCustomerEmail(), payment, unwrap(error)));
         
         try {
-            // Create Stripe Payment Intent
-            PaymentIntent paymentIntent = createPaymentIntent(order, request);
-            
-            // Create payment transaction record
-            PaymentTransaction transaction = createTransaction(order, paymentIntent, "processing");
-            
-            // Check payment intent status
-            if ("succeeded".equals(paymentIntent.getStatus())) {
-                // Payment succeeded immediately
-                order.setPaymentStatus(PaymentStatus.CONFIRMED);
-                orderRepository.save(order);
-                
-                transaction.setStatus("succeeded");
-                // Get the charge ID from the latest charge if available
-                if (paymentIntent.getLatestCharge() != null) {
-                    transaction.setGatewayTransactionId(paymentIntent.getLatestCharge());
-                }
-                transactionRepository.save(transaction);
-                
-                log.info("Payment succeeded for order: {}", order.getId());
-                
-                return buildSuccessResponse(transaction, paymentIntent);
-            } else if ("requires_action".equals(paymentIntent.getStatus()) || 
-                       "requires_confirmation".equals(paymentIntent.getStatus())) {
-                // Payment requires additional action (3D Secure)
-                log.info("Payment requires action for order: {}", order.getId());
-                
-                return PaymentResponse.builder()
-                        .transactionId(transaction.getId())
-                        .orderId(order.getId())
-                        .status(paymentIntent.getStatus())
-                        .amount(order.getTotalAmount())
-                        .currency(order.getCurrency())
-                        .paymentIntentId(paymentIntent.getId())
-                        .clientSecret(paymentIntent.getClientSecret())
-                        .requiresAction(true)
-                        .build();
-            } else {
-                // Unexpected status
-                throw new PaymentProcessingException("Unexpected payment status: " + paymentIntent.getStatus());
+            return outcome.get(gatewayTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            gatewayTimeoutCounter.increment();
+            log.warn("Payment gateway did not answer within {} ms for order: {}; the outcome is recorded when it does",
+                    gatewayTimeoutMs, orderId);
+            return processingResponse(order);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return processingResponse(order);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-            
-        } catch (CardException e) {
-            // Card was declined
-            log.error("Card declined for order: {} - {}", order.getId(), e.getMessage());
-            return handleCardDeclined(order, e);
-            
-        } catch (RateLimitException e) {
-            log.error("Stripe rate limit exceeded: {}", e.getMessage());
-            throw new PaymentProcessingException("Payment service is temporarily unavailable. Please try again.", e);
-            
-        } catch (InvalidRequestException e) {
-            log.error("Invalid Stripe request for order: {} - {}", order.getId(), e.getMessage());
-            throw new PaymentProcessingException("Invalid payment request: " + e.getMessage(), e);
-            
-        } catch (AuthenticationException e) {
-            log.error("Stripe authentication failed: {}", e.getMessage());
-            throw new PaymentProcessingException("Payment service configuration error", e);
-            
-        } catch (ApiConnectionException e) {
-            log.error("Stripe API connection failed: {}", e.getMessage());
-            throw new PaymentProcessingException("Unable to connect to payment service. Please try again.", e);
-            
-        } catch (StripeException e) {
-            log.error("Stripe error for order: {} - {}", order.getId(), e.getMessage());
-            return handleStripeError(order, e);
+            throw new PaymentProcessingException("Payment processing failed", e.getCause());
         }
     }
     
     @Override
-    @Transactional
     public PaymentResponse confirmPayment(String paymentIntentId) {
         log.info("Confirming payment intent: {}", paymentIntentId);
         
+        GatewayPayment paymentIntent;
         try {
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
-            
+            paymentIntent = callGateway("retrieve", () -> paymentGateway.retrievePayment(paymentIntentId));
+        } catch (PaymentGatewayException e) {
+            log.error("Error confirming payment intent: {} - {}", paymentIntentId, e.getMessage());
+            throw new PaymentProcessingException("Failed to confirm payment: " + e.getMessage(), e);
+        }
+        
+        return transactionTemplate.execute(status -> {
             PaymentTransaction transaction = transactionRepository.findByPaymentIntentId(paymentIntentId)
                     .orElseThrow(() -> new PaymentProcessingException("Transaction not found for payment intent: " + paymentIntentId));
             
             Order order = transaction.getOrder();
             
             if ("succeeded".equals(paymentIntent.getStatus())) {
-                order.setPaymentStatus(PaymentStatus.CONFIRMED);
-                orderRepository.save(order);
+                // Webhooks are redelivered, possibly long after the order was confirmed, refunded
+                // or expired; only an order still waiting for its payment is confirmed and handed
+                // on for fulfilment
+                PaymentStatus current = order.getPaymentStatus();
+                if (current == PaymentStatus.PENDING || current == PaymentStatus.PROCESSING) {
+                    order.setPaymentStatus(PaymentStatus.CONFIRMED);
+                    orderRepository.save(order);
+                    outboxService.recordPaymentCompleted(order, paymentIntent.getReceiptEmail());
+                    salesRollupService.recordSale(order);
+                } else if (current == PaymentStatus.CANCELLED || current == PaymentStatus.PAYMENT_FAILED) {
+                    log.error("Payment {} succeeded for order {} in status {}; it has to be refunded",
+                            paymentIntentId, order.getId(), current);
+                }
                 
                 transaction.setStatus("succeeded");
                 // Get the charge ID from the latest charge if available
-                if (paymentIntent.getLatestCharge() != null) {
-                    transaction.setGatewayTransactionId(paymentIntent.getLatestCharge());
+                if (paymentIntent.getLatestChargeId() != null) {
+                    transaction.setGatewayTransactionId(paymentIntent.getLatestChargeId());
                 }
                 transactionRepository.save(transaction);
                 
@@ -159,45 +199,49 @@ public class PaymentServiceImpl implements PaymentService {
             } else {
                 throw new PaymentProcessingException("Payment intent not in succeeded status: " + paymentIntent.getStatus());
             }
-            
-        } catch (StripeException e) {
-            log.error("Error confirming payment intent: {} - {}", paymentIntentId, e.getMessage());
-            throw new PaymentProcessingException("Failed to confirm payment: " + e.getMessage(), e);
-        }
+        });
     }
     
     @Override
-    @Transactional
     public PaymentResponse refundPayment(UUID orderId, String reason) {
         log.info("Processing refund for order: {}", orderId);
         
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        PlannedRefund planned = transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            
+            if (order.getPaymentStatus() != PaymentStatus.CONFIRMED) {
+                throw new InvalidOrderException("Order cannot be refunded in current status: " + order.getPaymentStatus());
+            }
+            
+            return new PlannedRefund(findPaymentIntentId(orderId), order.getRefundCount() + 1, order.getRefundableAmount());
+        });
+        String paymentIntentId = planned.paymentIntentId;
         
-        if (order.getPaymentStatus() != PaymentStatus.CONFIRMED) {
-            throw new InvalidOrderException("Order cannot be refunded in current status: " + order.getPaymentStatus());
+        GatewayRefund refund;
+        try {
+            // Create refund with the gateway; the key makes a retried request, or a bulk refund
+            // job sending the same balance, a no-op
+            refund = callGateway("refund", () -> paymentGateway.refund(paymentIntentId,
+                    Money.toMinor(planned.amount), PaymentGateway.orderRefundKey(orderId)));
+        } catch (PaymentGatewayException e) {
+            log.error("Error processing refund for order: {} - {}", orderId, e.getMessage());
+            throw new PaymentProcessingException("Failed to process refund: " + e.getMessage(), e);
         }
         
-        // Find successful transaction
-        PaymentTransaction originalTransaction = transactionRepository.findByOrderId(orderId).stream()
-                .filter(t -> "succeeded".equals(t.getStatus()))
-                .findFirst()
-                .orElseThrow(() -> new PaymentProcessingException("No successful transaction found for order"));
-        
-        try {
-            // Create refund in Stripe
-            RefundCreateParams params = RefundCreateParams.builder()
-                    .setPaymentIntent(originalTransaction.getPaymentIntentId())
-                    .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
-                    .build();
-            
-            Refund refund = Refund.create(params);
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (order.getPaymentStatus() != PaymentStatus.CONFIRMED) {
+                // A concurrent request recorded the same refund first
+                throw new InvalidOrderException("Order cannot be refunded in current status: " + order.getPaymentStatus());
+            }
             
             // Create refund transaction record
             PaymentTransaction refundTransaction = PaymentTransaction.builder()
                     .order(order)
                     .gatewayTransactionId(refund.getId())
-                    .paymentIntentId(originalTransaction.getPaymentIntentId())
+                    .paymentIntentId(paymentIntentId)
                     .amount(order.getTotalAmount().negate())
                     .currency(order.getCurrency())
                     .status(refund.getStatus())
@@ -206,6 +250,11 @@ public class PaymentServiceImpl implements PaymentService {
             
             transactionRepository.save(refundTransaction);
             
+            List<OrderItem> activeItems = order.getOrderItems().stream()
+                    .filter(item -> item.getStatus() == OrderItemStatus.ACTIVE)
+                    .toList();
+            recordRefund(order, activeItems, order.getRefundableAmount(), paymentIntentId, refund, reason);
+            
             // Update order status
             order.setPaymentStatus(PaymentStatus.REFUNDED);
             orderRepository.save(order);
@@ -219,11 +268,79 @@ public class PaymentServiceImpl implements PaymentService {
                     .amount(order.getTotalAmount())
                     .currency(order.getCurrency())
                     .build();
+        });
+    }
+    
+    @Override
+    public PaymentResponse refundOrderItems(UUID orderId, List<UUID> orderItemIds, String reason) {
+        log.info("Refunding items {} of order: {}", orderItemIds, orderId);
+        
+        PlannedRefund planned = transactionTemplate.execute(status -> {
+            Order order = orderRepository.findWithItemsById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (order.getPaymentStatus() != PaymentStatus.CONFIRMED
+                    && order.getPaymentStatus() != PaymentStatus.PARTIALLY_REFUNDED) {
+                throw new InvalidOrderException("Order cannot be refunded in current status: " + order.getPaymentStatus());
+            }
             
-        } catch (StripeException e) {
-            log.error("Error processing refund for order: {} - {}", orderId, e.getMessage());
+            BigDecimal amount = sumRefundable(order, orderItemIds);
+            return new PlannedRefund(findPaymentIntentId(orderId), order.getRefundCount() + 1, amount);
+        });
+        
+        // All the items go back in one refund; the key is per ledger slot, so a request racing
+        // this one for the same slot gets this refund instead of a second one
+        GatewayRefund refund;
+        try {
+            refund = callGateway("refund", () -> paymentGateway.refund(planned.paymentIntentId,
+                    Money.toMinor(planned.amount), PaymentGateway.orderRefundKey(orderId, planned.sequence)));
+        } catch (PaymentGatewayException e) {
+            log.error("Error processing partial refund for order: {} - {}", orderId, e.getMessage());
             throw new PaymentProcessingException("Failed to process refund: " + e.getMessage(), e);
         }
+        
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findWithItemsById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (order.getRefundCount() != planned.sequence - 1) {
+                // A concurrent request recorded a refund in this slot first
+                throw new InvalidOrderException("Order was refunded concurrently; please try again");
+            }
+            
+            sumRefundable(order, orderItemIds);
+            List<OrderItem> items = new ArrayList<>(orderItemIds.size());
+            for (OrderItem item : order.getOrderItems()) {
+                if (orderItemIds.contains(item.getId())) {
+                    items.add(item);
+                }
+            }
+            
+            PaymentTransaction refundTransaction = transactionRepository.save(PaymentTransaction.builder()
+                    .order(order)
+                    .gatewayTransactionId(refund.getId())
+                    .paymentIntentId(planned.paymentIntentId)
+                    .amount(planned.amount.negate())
+                    .currency(order.getCurrency())
+                    .status(refund.getStatus())
+                    .paymentMethod("refund")
+                    .build());
+            recordRefund(order, items, planned.amount, planned.paymentIntentId, refund, reason);
+            
+            boolean allItemsInactive = order.getOrderItems().stream()
+                    .noneMatch(item -> item.getStatus() == OrderItemStatus.ACTIVE);
+            order.setPaymentStatus(allItemsInactive ? PaymentStatus.REFUNDED : PaymentStatus.PARTIALLY_REFUNDED);
+            orderRepository.save(order);
+            
+            log.info("Refunded {} for {} item(s) of order: {}", planned.amount, items.size(), orderId);
+            
+            return PaymentResponse.builder()
+                    .transactionId(refundTransaction.getId())
+                    .orderId(order.getId())
+                    .status(refund.getStatus())
+                    .amount(planned.amount)
+                    .currency(order.getCurrency())
+                    .paymentIntentId(planned.paymentIntentId)
+                    .build();
+        });
     }
     
     @Override
@@ -247,39 +364,292 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
     }
     
-    private PaymentIntent createPaymentIntent(Order order, ProcessPaymentRequest request) throws StripeException {
-        // Convert amount to cents (Stripe requires smallest currency unit)
-        long amountInCents = order.getTotalAmount().multiply(new BigDecimal("100")).longValue();
-        
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("order_id", order.getId().toString());
-        metadata.put("order_number", order.getOrderNumber());
-        metadata.put("user_id", order.getUserId().toString());
-        metadata.put("event_id", order.getEventId().toString());
-        
-        PaymentIntentCreateParams.Builder paramsBuilder = PaymentIntentCreateParams.builder()
-                .setAmount(amountInCents)
-                .setCurrency(order.getCurrency().toLowerCase())
-                .setPaymentMethod(request.getPaymentMethodId())
-                .setConfirm(true)
-                .setAutomaticPaymentMethods(
-                    PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                        .setEnabled(true)
-                        .setAllowRedirects(PaymentIntentCreateParams.AutomaticPaymentMethods.AllowRedirects.NEVER)
-                        .build()
-                )
-                .putAllMetadata(metadata)
-                .setDescription("Order " + order.getOrderNumber() + " - Event Ticket Purchase");
-        
-        // Add customer email if provided
-        if (request.getCustomerEmail() != null && !request.getCustomerEmail().isEmpty()) {
-            paramsBuilder.setReceiptEmail(request.getCustomerEmail());
+    /**
+     * Checks that every requested item is an active item of the order and returns what they
+     * cost, which may not exceed what is left to refund.
+     */
+    private BigDecimal sumRefundable(Order order, List<UUID> orderItemIds) {
+        Map<UUID, OrderItem> itemsById = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            itemsById.put(item.getId(), item);
+        }
+        
+        BigDecimal amount = BigDecimal.ZERO;
+        for (UUID itemId : new LinkedHashSet<>(orderItemIds)) {
+            OrderItem item = itemsById.get(itemId);
+            if (item == null) {
+                throw new InvalidOrderException("Order item not found: " + itemId);
+            }
+            if (item.getStatus() != OrderItemStatus.ACTIVE) {
+                throw new InvalidOrderException("Order item is not active: " + itemId);
+            }
+            amount = amount.add(item.getTotalPrice());
+        }
+        if (amount.compareTo(order.getRefundableAmount()) > 0) {
+            throw new InvalidOrderException("Refund of " + amount + " exceeds the refundable balance of "
+                    + order.getRefundableAmount());
+        }
+        return amount;
+    }
+    
+    private String findPaymentIntentId(UUID orderId) {
+        return transactionRepository.findByOrderId(orderId).stream()
+                .filter(t -> "succeeded".equals(t.getStatus()))
+                .findFirst()
+                .orElseThrow(() -> new PaymentProcessingException("No successful transaction found for order"))
+                .getPaymentIntentId();
+    }
+    
+    /**
+     * Appends a refund to the order's ledger, marks its items refunded, moves the order's
+     * running refund total on by the amount and counts the items in the sales rollups.
+     */
+    private void recordRefund(Order order, List<OrderItem> items, BigDecimal amount, String paymentIntentId,
+                              GatewayRefund refund, String reason) {
+        int sequence = order.getRefundCount() + 1;
+        OrderRefund entry = OrderRefund.builder()
+                .orderId(order.getId())
+                .sequence(sequence)
+                .gatewayRefundId(refund.getId())
+                .paymentIntentId(paymentIntentId)
+                .amount(amount)
+                .currency(order.getCurrency())
+                .reason(reason)
+                .build();
+        for (OrderItem item : items) {
+            entry.getLines().add(OrderRefundLine.builder()
+                    .orderItemId(item.getId())
+                    .quantity(item.getQuantity())
+                    .amount(item.getTotalPrice())
+                    .build());
+            item.setStatus(OrderItemStatus.REFUNDED);
+        }
+        orderRefundRepository.save(entry);
+        salesRollupService.recordRefund(order, items);
+        
+        order.setRefundCount(sequence);
+        order.setRefundedAmount(order.getRefundedAmount().add(amount));
+    }
+    
+    private Order startPayment(UUID orderId) {
+        // Fetch order
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        
+        // Validate order status
+        if (order.getPaymentStatus() != PaymentStatus.PENDING) {
+            throw new InvalidOrderException("Order is not in a payable status: " + order.getPaymentStatus());
         }
         
-        return PaymentIntent.create(paramsBuilder.build());
+        // Cancel an expired order here rather than wait for the sweeper, and release its tickets
+        if (order.getExpiresAt() != null && order.getExpiresAt().isBefore(Instant.now())) {
+            order.setPaymentStatus(PaymentStatus.CANCELLED);
+            orderRepository.save(order);
+            outboxService.recordOrderExpired(order);
+            return order;
+        }
+        
+        // Update order status to processing; the version check stops a second concurrent attempt
+        order.setPaymentStatus(PaymentStatus.PROCESSING);
+        order.setPaymentMethod("card");
+        orderRepository.save(order);
+        return order;
+    }
+    
+    private PaymentResponse completePayment(UUID orderId, String customerEmail, GatewayPayment payment, Throwable error) {
+        if (error instanceof PaymentGatewayException e && e.getKind() == Kind.CONNECTION) {
+            // The request may have reached the gateway and charged the card; the order stays
+            // PROCESSING for the reconciler, which looks the payment up by order
+            log.error("Payment gateway connection failed for order: {}; the outcome is unknown - {}",
+                    orderId, e.getMessage());
+            throw new PaymentProcessingException(
+                    "Payment is being confirmed with the payment service. Please check the order again shortly.", e);
+        }
+        if (error instanceof PaymentGatewayException e && isRejectedBeforeCharge(e.getKind())) {
+            // The gateway turned the request away, so nothing was charged; let the customer
+            // try again
+            transactionTemplate.executeWithoutResult(status -> releasePayment(orderId));
+            throw toProcessingException(orderId, e);
+        }
+        if (error != null && !(error instanceof PaymentGatewayException)) {
+            // The outcome is unknown; the order stays PROCESSING for the reconciler
+            log.error("Payment gateway call failed for order: {}", orderId, error);
+            throw error instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new PaymentProcessingException("Payment processing failed", error);
+        }
+        
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            
+            if (error instanceof PaymentGatewayException e) {
+                if (e.getKind() == Kind.DECLINED) {
+                    // Card was declined
+                    log.error("Card declined for order: {} - {}", orderId, e.getMessage());
+                    return handleCardDeclined(order, e);
+                }
+                log.error("Payment gateway error for order: {} - {}", orderId, e.getMessage());
+                return handleGatewayError(order, e);
+            }
+            return recordPayment(order, payment, customerEmail);
+        });
     }
     
-    private PaymentTransaction createTransaction(Order order, PaymentIntent paymentIntent, String status) {
+    private PaymentResponse recordPayment(Order order, GatewayPayment paymentIntent, String customerEmail) {
+        // Create payment transaction record
+        PaymentTransaction transaction = createTransaction(order, paymentIntent, "processing");
+        
+        // Check payment intent status
+        if ("succeeded".equals(paymentIntent.getStatus())) {
+            // Payment succeeded immediately
+            if (order.getPaymentStatus() == PaymentStatus.PROCESSING || order.getPaymentStatus() == PaymentStatus.PENDING) {
+                order.setPaymentStatus(PaymentStatus.CONFIRMED);
+                orderRepository.save(order);
+                outboxService.recordPaymentCompleted(order, customerEmail);
+                salesRollupService.recordSale(order);
+            } else {
+                log.error("Payment {} succeeded for order {} in status {}; it has to be refunded",
+                        paymentIntent.getId(), order.getId(), order.getPaymentStatus());
+            }
+            
+            transaction.setStatus("succeeded");
+            // Get the charge ID from the latest charge if available
+            if (paymentIntent.getLatestChargeId() != null) {
+                transaction.setGatewayTransactionId(paymentIntent.getLatestChargeId());
+            }
+            transactionRepository.save(transaction);
+            
+            log.info("Payment succeeded for order: {}", order.getId());
+            
+            return buildSuccessResponse(transaction, paymentIntent);
+        } else if ("requires_action".equals(paymentIntent.getStatus()) || 
+                   "requires_confirmation".equals(paymentIntent.getStatus())) {
+            // Payment requires additional action (3D Secure)
+            log.info("Payment requires action for order: {}", order.getId());
+            
+            return PaymentResponse.builder()
+                    .transactionId(transaction.getId())
+                    .orderId(order.getId())
+                    .status(paymentIntent.getStatus())
+                    .amount(order.getTotalAmount())
+                    .currency(order.getCurrency())
+                    .paymentIntentId(paymentIntent.getId())
+                    .clientSecret(paymentIntent.getClientSecret())
+                    .requiresAction(true)
+                    .build();
+        } else {
+            // Unexpected status
+            throw new PaymentProcessingException("Unexpected payment status: " + paymentIntent.getStatus());
+        }
+    }
+    
+    private void releasePayment(UUID orderId) {
+        orderRepository.findById(orderId)
+                .filter(order -> order.getPaymentStatus() == PaymentStatus.PROCESSING)
+                .ifPresent(order -> {
+                    order.setPaymentStatus(PaymentStatus.PENDING);
+                    orderRepository.save(order);
+                });
+    }
+    
+    private static boolean isRejectedBeforeCharge(Kind kind) {
+        return kind == Kind.RATE_LIMITED || kind == Kind.INVALID_REQUEST || kind == Kind.AUTHENTICATION;
+    }
+    
+    private PaymentProcessingException toProcessingException(UUID orderId, PaymentGatewayException e) {
+        return switch (e.getKind()) {
+            case RATE_LIMITED -> {
+                log.error("Payment gateway rate limit exceeded: {}", e.getMessage());
+                yield new PaymentProcessingException("Payment service is temporarily unavailable. Please try again.", e);
+            }
+            case INVALID_REQUEST -> {
+                log.error("Invalid payment gateway request for order: {} - {}", orderId, e.getMessage());
+                yield new PaymentProcessingException("Invalid payment request: " + e.getMessage(), e);
+            }
+            default -> {
+                log.error("Payment gateway authentication failed: {}", e.getMessage());
+                yield new PaymentProcessingException("Payment service configuration error", e);
+            }
+        };
+    }
+    
+    /**
+     * Runs a gateway call on the gateway pool and waits at most the deadline for it. Calls
+     * made here are idempotent, so a caller that gives up can safely try again.
+     */
+    private <T> T callGateway(String operation, Supplier<T> call) {
+        Future<T> future = gatewayExecutor.submit(() -> timed(operation, call));
+        try {
+            return future.get(gatewayTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            gatewayTimeoutCounter.increment();
+            throw new PaymentGatewayException(Kind.CONNECTION, "Payment gateway did not respond within " + gatewayTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PaymentGatewayException(Kind.CONNECTION, "Interrupted waiting for the payment gateway");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PaymentProcessingException("Payment gateway call failed", e.getCause());
+        }
+    }
+    
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        activeGatewayCalls.incrementAndGet();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (PaymentGatewayException e) {
+            outcome = e.getKind().name().toLowerCase();
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            activeGatewayCalls.decrementAndGet();
+            sample.stop(Timer.builder("payment.gateway.latency")
+                    .description("Payment gateway call latency")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    private GatewayPaymentRequest buildGatewayRequest(Order order, ProcessPaymentRequest request) {
+        return GatewayPaymentRequest.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .eventId(order.getEventId())
+                .amountMinor(Money.toMinor(order.getTotalAmount()))
+                .currency(order.getCurrency())
+                .paymentMethodId(request.getPaymentMethodId())
+                .customerEmail(request.getCustomerEmail())
+                .description("Order " + order.getOrderNumber() + " - Event Ticket Purchase")
+                .idempotencyKey(PaymentGateway.orderPaymentKey(order.getId()))
+                .build();
+    }
+    
+    private PaymentResponse processingResponse(Order order) {
+        return PaymentResponse.builder()
+                .orderId(order.getId())
+                .status("processing")
+                .amount(order.getTotalAmount())
+                .currency(order.getCurrency())
+                .requiresAction(false)
+                .build();
+    }
+    
+    private PaymentTransaction createTransaction(Order order, GatewayPayment paymentIntent, String status) {
         PaymentTransaction transaction = PaymentTransaction.builder()
                 .order(order)
                 .paymentIntentId(paymentIntent.getId())
@@ -290,14 +660,14 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
         
         // Get the charge ID from the latest charge if available
-        if (paymentIntent.getLatestCharge() != null) {
-            transaction.setGatewayTransactionId(paymentIntent.getLatestCharge());
+        if (paymentIntent.getLatestChargeId() != null) {
+            transaction.setGatewayTransactionId(paymentIntent.getLatestChargeId());
         }
         
         return transactionRepository.save(transaction);
     }
     
-    private PaymentResponse buildSuccessResponse(PaymentTransaction transaction, PaymentIntent paymentIntent) {
+    private PaymentResponse buildSuccessResponse(PaymentTransaction transaction, GatewayPayment paymentIntent) {
         return PaymentResponse.builder()
                 .transactionId(transaction.getId())
                 .orderId(transaction.getOrder().getId())
@@ -309,7 +679,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
     }
     
-    private PaymentResponse handleCardDeclined(Order order, CardException e) {
+    private PaymentResponse handleCardDeclined(Order order, PaymentGatewayException e) {
         order.setPaymentStatus(PaymentStatus.PAYMENT_FAILED);
         orderRepository.save(order);
         
@@ -319,7 +689,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .currency(order.getCurrency())
                 .status("failed")
                 .paymentMethod("card")
-                .errorCode(e.getCode())
+                .errorCode(e.getErrorCode())
                 .errorMessage(e.getMessage())
                 .declineCode(e.getDeclineCode())
                 .build();
@@ -335,13 +705,13 @@ public class PaymentServiceImpl implements PaymentService {
                 .amount(order.getTotalAmount())
                 .currency(order.getCurrency())
                 .errorMessage(userFriendlyMessage)
-                .errorCode(e.getCode())
+                .errorCode(e.getErrorCode())
                 .declineCode(e.getDeclineCode())
                 .requiresAction(false)
                 .build();
     }
     
-    private PaymentResponse handleStripeError(Order order, StripeException e) {
+    private PaymentResponse handleGatewayError(Order order, PaymentGatewayException e) {
         order.setPaymentStatus(PaymentStatus.PAYMENT_FAILED);
         orderRepository.save(order);
         
@@ -351,7 +721,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .currency(order.getCurrency())
                 .status("failed")
                 .paymentMethod("card")
-                .errorCode(e.getCode())
+                .errorCode(e.getErrorCode())
                 .errorMessage(e.getMessage())
                 .build();
         
@@ -364,7 +734,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .amount(order.getTotalAmount())
                 .currency(order.getCurrency())
                 .errorMessage("Payment processing failed. Please try again or use a different payment method.")
-                .errorCode(e.getCode())
+                .errorCode(e.getErrorCode())
                 .requiresAction(false)
                 .build();
     }
@@ -389,4 +759,22 @@ public class PaymentServiceImpl implements PaymentService {
             default -> "Your card was declined. Please try a different payment method or contact your bank.";
         };
     }
+    
+    @PreDestroy
+    public void shutdown() {
+        gatewayExecutor.shutdown();
+    }
+    
+    private static class PlannedRefund {
+        
+        private final String paymentIntentId;
+        private final int sequence;
+        private final BigDecimal amount;
+        
+        private PlannedRefund(String paymentIntentId, int sequence, BigDecimal amount) {
+            this.paymentIntentId = paymentIntentId;
+            this.sequence = sequence;
+            this.amount = amount;
+        }
+    }
 }
@@ -0,0 +1,388 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.RefundCandidate;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OrderRefund;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.entity.PaymentTransaction;
+import com.eventbooking.payment.entity.RefundJob;
+import com.eventbooking.payment.entity.RefundJobStatus;
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.gateway.GatewayRefund;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.gateway.TokenBucket;
+import com.eventbooking.payment.pricing.Money;
+import com.eventbooking.payment.repository.OrderRefundRepository;
+import com.eventbooking.payment.repository.OrderRepository;
+import com.eventbooking.payment.repository.PaymentTransactionRepository;
+import com.eventbooking.payment.repository.RefundJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs bulk refund jobs. A job's confirmed and partially refunded orders are read a chunk at
+ * a time by keyset on order id, and what is left on each is refunded on a bounded worker pool,
+ * throttled by a shared token bucket. Each chunk is then committed in one short transaction:
+ * refund transactions and ledger entries inserted, the sales rollups charged, orders and
+ * their active items moved to {@code REFUNDED} with one update each, and the job's checkpoint
+ * and counters advanced.
+ *
+ * <p>Gateway calls use an idempotency key per order, so after a crash the chunk in flight is
+ * refunded again from the checkpoint without refunding anyone twice. If the lease is lost to
+ * another instance, the version check on the job rejects this runner's next checkpoint.
+ */
+@Component
+@Slf4j
+public class RefundJobRunner {
+    
+    static final UUID FIRST_ORDER_ID = new UUID(0L, 0L);
+    static final List<PaymentStatus> REFUNDABLE_STATUSES = List.of(PaymentStatus.CONFIRMED, PaymentStatus.PARTIALLY_REFUNDED);
+    static final String REFUND_REASON = "Event cancelled";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final RefundJobRepository refundJobRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentTransactionRepository transactionRepository;
+    private final OrderRefundRepository orderRefundRepository;
+    private final SalesRollupService salesRollupService;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final TokenBucket rateLimiter;
+    
+    private final Counter refundedCounter;
+    private final Counter failedCounter;
+    private final Counter rateLimitedCounter;
+    private final Timer gatewayLatency;
+    
+    @Value("${refunds.bulk.chunk-size:200}")
+    private int chunkSize;
+    
+    @Value("${refunds.bulk.lease-seconds:120}")
+    private long leaseSeconds;
+    
+    @Value("${refunds.bulk.rate-limit-retries:5}")
+    private int rateLimitRetries;
+    
+    @Value("${refunds.bulk.rate-limit-backoff-ms:1000}")
+    private long rateLimitBackoffMs;
+    
+    public RefundJobRunner(RefundJobRepository refundJobRepository,
+                           OrderRepository orderRepository,
+                           PaymentTransactionRepository transactionRepository,
+                           OrderRefundRepository orderRefundRepository,
+                           SalesRollupService salesRollupService,
+                           PaymentGateway paymentGateway,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${refunds.bulk.concurrency:8}") int concurrency,
+                           @Value("${refunds.bulk.rate-per-second:20}") double ratePerSecond) {
+        this.refundJobRepository = refundJobRepository;
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.orderRefundRepository = orderRefundRepository;
+        this.salesRollupService = salesRollupService;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-refund-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rateLimiter = new TokenBucket(ratePerSecond, concurrency);
+        this.refundedCounter = Counter.builder("payment.refunds.bulk")
+                .tag("result", "refunded")
+                .description("Orders refunded by bulk refund jobs")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.refunds.bulk")
+                .tag("result", "failed")
+                .description("Orders a bulk refund job could not refund")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("payment.refunds.bulk.rate_limited")
+                .description("Refund calls the gateway rejected for rate limiting")
+                .register(meterRegistry);
+        this.gatewayLatency = Timer.builder("payment.refunds.gateway.latency")
+                .description("Latency of refund calls to the payment gateway")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Claims the next runnable job, if any, and works it to completion.
+     *
+     * @return whether a job was claimed
+     */
+    public boolean runNextJob() {
+        RefundJob job = transactionTemplate.execute(status -> refundJobRepository.claimNextJob(Instant.now())
+                .map(claimed -> {
+                    Instant now = Instant.now();
+                    claimed.setStatus(RefundJobStatus.RUNNING);
+                    claimed.setLockedUntil(now.plusSeconds(leaseSeconds));
+                    if (claimed.getStartedAt() == null) {
+                        claimed.setStartedAt(now);
+                    }
+                    return refundJobRepository.save(claimed);
+                })
+                .orElse(null));
+        if (job == null) {
+            return false;
+        }
+        
+        log.info("Running refund job {} for event {} from order {}", job.getId(), job.getEventId(), job.getLastOrderId());
+        try {
+            run(job);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Refund job {} was taken over by another instance; stopping", job.getId());
+        }
+        return true;
+    }
+    
+    void run(RefundJob job) {
+        while (true) {
+            UUID cursor = job.getLastOrderId() != null ? job.getLastOrderId() : FIRST_ORDER_ID;
+            List<RefundCandidate> chunk = orderRepository.findRefundCandidates(
+                    job.getEventId(), REFUNDABLE_STATUSES, cursor, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                complete(job);
+                return;
+            }
+            
+            List<Outcome> outcomes = refundAll(chunk);
+            job = checkpoint(job, chunk, outcomes);
+        }
+    }
+    
+    private List<Outcome> refundAll(List<RefundCandidate> chunk) {
+        List<CompletableFuture<Outcome>> running = new ArrayList<>(chunk.size());
+        for (RefundCandidate candidate : chunk) {
+            running.add(CompletableFuture.supplyAsync(() -> refund(candidate), workers));
+        }
+        return running.stream().map(CompletableFuture::join).toList();
+    }
+    
+    private Outcome refund(RefundCandidate candidate) {
+        String idempotencyKey = PaymentGateway.orderRefundKey(candidate.getOrderId());
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.failed(candidate, "Interrupted");
+            }
+            
+            long start = System.nanoTime();
+            try {
+                return Outcome.refunded(candidate, paymentGateway.refund(candidate.getPaymentIntentId(),
+                        Money.toMinor(candidate.getAmount()), idempotencyKey));
+            } catch (PaymentGatewayException e) {
+                if (e.getKind() != PaymentGatewayException.Kind.RATE_LIMITED) {
+                    return Outcome.failed(candidate, e.getMessage());
+                }
+                rateLimitedCounter.increment();
+                if (attempt >= rateLimitRetries) {
+                    return Outcome.failed(candidate, e.getMessage());
+                }
+                // Every worker waits, not just this one; the gateway limit is per account
+                rateLimiter.pause(rateLimitBackoffMs << attempt);
+            } catch (RuntimeException e) {
+                return Outcome.failed(candidate, e.getMessage());
+            } finally {
+                gatewayLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    private RefundJob checkpoint(RefundJob job, List<RefundCandidate> chunk, List<Outcome> outcomes) {
+        List<Outcome> refunded = new ArrayList<>();
+        BigDecimal refundedAmount = BigDecimal.ZERO;
+        String lastError = null;
+        for (Outcome outcome : outcomes) {
+            if (outcome.refund == null) {
+                log.warn("Bulk refund of order {} failed: {}", outcome.candidate.getOrderId(), outcome.error);
+                lastError = outcome.error;
+            } else {
+                refunded.add(outcome);
+                refundedAmount = refundedAmount.add(outcome.candidate.getAmount());
+            }
+        }
+        int failed = outcomes.size() - refunded.size();
+        BigDecimal chunkAmount = refundedAmount;
+        String chunkError = lastError;
+        
+        RefundJob saved = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            if (!refunded.isEmpty()) {
+                record(refunded, now);
+            }
+            job.setLastOrderId(chunk.get(chunk.size() - 1).getOrderId());
+            job.setRefundedCount(job.getRefundedCount() + refunded.size());
+            job.setFailedCount(job.getFailedCount() + failed);
+            job.setRefundedAmount(job.getRefundedAmount().add(chunkAmount));
+            if (chunkError != null) {
+                job.setLastError(truncate(chunkError));
+            }
+            job.setLockedUntil(now.plusSeconds(leaseSeconds));
+            return refundJobRepository.save(job);
+        });
+        
+        refundedCounter.increment(refunded.size());
+        failedCounter.increment(failed);
+        log.info("Refund job {}: {} refunded, {} failed so far", saved.getId(), saved.getRefundedCount(), saved.getFailedCount());
+        return saved;
+    }
+    
+    /**
+     * Writes the chunk's refunds to the ledger. The orders are locked first, so what they look
+     * like now is what the updates apply to. An order nobody else refunded since the chunk was
+     * read is recorded in the slot it was read with, in bulk. One that changed in the meantime
+     * is recorded on its own in the next free slot, unless the refund is already in its ledger
+     * (a refund by hand that shared the idempotency key). A refund the gateway made is never
+     * dropped.
+     */
+    private void record(List<Outcome> refunded, Instant now) {
+        List<UUID> orderIds = new ArrayList<>(refunded.size());
+        List<String> refundIds = new ArrayList<>(refunded.size());
+        for (Outcome outcome : refunded) {
+            orderIds.add(outcome.candidate.getOrderId());
+            refundIds.add(outcome.refund.getId());
+        }
+        Map<UUID, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.lockAllById(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+        Set<String> recorded = new HashSet<>(orderRefundRepository.findRecordedGatewayRefundIds(refundIds));
+        
+        List<UUID> unchanged = new ArrayList<>(refunded.size());
+        List<PaymentTransaction> refunds = new ArrayList<>(refunded.size());
+        List<OrderRefund> entries = new ArrayList<>(refunded.size());
+        for (Outcome outcome : refunded) {
+            RefundCandidate candidate = outcome.candidate;
+            Order order = orders.get(candidate.getOrderId());
+            if (recorded.contains(outcome.refund.getId())) {
+                continue;
+            }
+            
+            int sequence = order.getRefundCount() + 1;
+            if (sequence == candidate.getSequence() && REFUNDABLE_STATUSES.contains(order.getPaymentStatus())) {
+                unchanged.add(order.getId());
+            } else {
+                log.warn("Order {} was refunded concurrently with bulk refund {}; recording {} in slot {}",
+                        order.getId(), outcome.refund.getId(), candidate.getAmount(), sequence);
+                recordChanged(order, candidate.getAmount(), now);
+            }
+            entries.add(OrderRefund.builder()
+                    .orderId(candidate.getOrderId())
+                    .sequence(sequence)
+                    .gatewayRefundId(outcome.refund.getId())
+                    .paymentIntentId(candidate.getPaymentIntentId())
+                    .amount(candidate.getAmount())
+                    .currency(candidate.getCurrency())
+                    .reason(REFUND_REASON)
+                    .build());
+            refunds.add(PaymentTransaction.builder()
+                    .order(order)
+                    .gatewayTransactionId(outcome.refund.getId())
+                    .paymentIntentId(candidate.getPaymentIntentId())
+                    .amount(candidate.getAmount().negate())
+                    .currency(candidate.getCurrency())
+                    .status(outcome.refund.getStatus())
+                    .paymentMethod("refund")
+                    .build());
+        }
+        transactionRepository.saveAll(refunds);
+        orderRefundRepository.saveAll(entries);
+        if (!unchanged.isEmpty()) {
+            // Rollups first: they count the items that are still active
+            salesRollupService.recordFullRefunds(unchanged);
+            orderRepository.refundActiveItems(unchanged);
+            orderRepository.recordFullRefunds(unchanged, REFUNDABLE_STATUSES, PaymentStatus.REFUNDED, now);
+        }
+    }
+    
+    // Applies a refund to an order whose ledger moved on since the chunk was read
+    private void recordChanged(Order order, BigDecimal amount, Instant now) {
+        List<OrderItem> activeItems = order.getOrderItems().stream()
+                .filter(item -> item.getStatus() == OrderItemStatus.ACTIVE)
+                .toList();
+        salesRollupService.recordRefund(order, activeItems);
+        for (OrderItem item : activeItems) {
+            item.setStatus(OrderItemStatus.REFUNDED);
+        }
+        order.setRefundCount(order.getRefundCount() + 1);
+        order.setRefundedAmount(order.getRefundedAmount().add(amount));
+        if (order.getRefundedAmount().compareTo(order.getTotalAmount()) > 0) {
+            log.error("Order {} has been refunded {} of its {} total", order.getId(),
+                    order.getRefundedAmount(), order.getTotalAmount());
+        }
+        order.setPaymentStatus(PaymentStatus.REFUNDED);
+        order.setUpdatedAt(now);
+    }
+    
+    private void complete(RefundJob job) {
+        transactionTemplate.executeWithoutResult(status -> {
+            job.setStatus(RefundJobStatus.COMPLETED);
+            job.setCompletedAt(Instant.now());
+            job.setLockedUntil(null);
+            refundJobRepository.save(job);
+        });
+        log.info("Refund job {} for event {} completed: {} refunded ({}), {} failed",
+                job.getId(), job.getEventId(), job.getRefundedCount(), job.getRefundedAmount(), job.getFailedCount());
+    }
+    
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+    
+    private static class Outcome {
+        
+        private final RefundCandidate candidate;
+        private final GatewayRefund refund;
+        private final String error;
+        
+        private Outcome(RefundCandidate candidate, GatewayRefund refund, String error) {
+            this.candidate = candidate;
+            this.refund = refund;
+            this.error = error;
+        }
+        
+        static Outcome refunded(RefundCandidate candidate, GatewayRefund refund) {
+            return new Outcome(candidate, refund, null);
+        }
+        
+        static Outcome failed(RefundCandidate candidate, String error) {
+            return new Outcome(candidate, null, error);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.RefundJobDto;
+
+import java.util.UUID;
+
+public interface RefundJobService {
+    
+    /**
+     * Queue refunds for every confirmed order of an event. Starting the same event again
+     * returns the existing job; if that job has finished it is queued for another pass, which
+     * only picks up orders still left confirmed, such as ones whose refund failed.
+     */
+    RefundJobDto startEventRefund(UUID eventId, String reason);
+    
+    /**
+     * Get a refund job's progress
+     */
+    RefundJobDto getJob(UUID jobId);
+    
+    /**
+     * Get the refund job of an event
+     */
+    RefundJobDto getJobForEvent(UUID eventId);
+}
@@ -0,0 +1,77 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.RefundJobDto;
+import com.eventbooking.payment.entity.RefundJob;
+import com.eventbooking.payment.entity.RefundJobStatus;
+import com.eventbooking.payment.exception.RefundJobNotFoundException;
+import com.eventbooking.payment.repository.RefundJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobServiceImpl implements RefundJobService {
+    
+    private final RefundJobRepository refundJobRepository;
+    
+    @Override
+    @Transactional
+    public RefundJobDto startEventRefund(UUID eventId, String reason) {
+        RefundJob job = refundJobRepository.findByEventId(eventId).orElse(null);
+        
+        if (job == null) {
+            // event_id is unique, so a concurrent start for the same event fails instead of duplicating
+            job = refundJobRepository.save(RefundJob.builder()
+                    .eventId(eventId)
+                    .reason(reason)
+                    .build());
+            log.info("Queued refund job {} for event {}", job.getId(), eventId);
+        } else if (job.getStatus() == RefundJobStatus.COMPLETED) {
+            job.setStatus(RefundJobStatus.PENDING);
+            job.setLastOrderId(null);
+            job.setFailedCount(0);
+            job.setLastError(null);
+            job.setCompletedAt(null);
+            job = refundJobRepository.save(job);
+            log.info("Re-queued refund job {} for event {}", job.getId(), eventId);
+        }
+        
+        return toDto(job);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public RefundJobDto getJob(UUID jobId) {
+        return refundJobRepository.findById(jobId)
+                .map(this::toDto)
+                .orElseThrow(() -> new RefundJobNotFoundException(jobId));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public RefundJobDto getJobForEvent(UUID eventId) {
+        return refundJobRepository.findByEventId(eventId)
+                .map(this::toDto)
+                .orElseThrow(() -> new RefundJobNotFoundException("No refund job for event: " + eventId));
+    }
+    
+    private RefundJobDto toDto(RefundJob job) {
+        return RefundJobDto.builder()
+                .id(job.getId())
+                .eventId(job.getEventId())
+                .status(job.getStatus())
+                .refundedCount(job.getRefundedCount())
+                .failedCount(job.getFailedCount())
+                .refundedAmount(job.getRefundedAmount())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
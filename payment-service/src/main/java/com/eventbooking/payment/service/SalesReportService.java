@@ -0,0 +1,39 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.SalesBucketDto;
+import com.eventbooking.payment.dto.SalesGranularity;
+import com.eventbooking.payment.dto.TicketTypeSalesDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SalesReportService {
+    
+    /**
+     * Fail with {@link com.eventbooking.payment.exception.EventAccessDeniedException} unless the
+     * user organizes the event. Reports are only for the event's organizer.
+     */
+    void checkOrganizer(UUID eventId, UUID userId);
+    
+    /**
+     * An event's sales per ticket type, from the hourly rollups, for its organizer. Either bound
+     * may be null for an open range.
+     */
+    List<TicketTypeSalesDto> getTicketTypeSales(UUID eventId, UUID userId, Instant from, Instant to);
+    
+    /**
+     * An event's sales per hour or day between two instants, from the hourly rollups, for its
+     * organizer. Buckets without sales are omitted. Without bounds the series covers the last
+     * seven days.
+     */
+    List<SalesBucketDto> getSalesTimeSeries(UUID eventId, UUID userId, Instant from, Instant to, SalesGranularity granularity);
+    
+    /**
+     * Write every order of an event to the stream as CSV, oldest first, reading them through a
+     * database cursor. Callers check the organizer first, before the response is committed.
+     */
+    void exportOrders(UUID eventId, OutputStream output) throws IOException;
+}
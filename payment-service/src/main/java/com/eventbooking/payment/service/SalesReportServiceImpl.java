@@ -0,0 +1,189 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.client.EventServiceClient;
+import com.eventbooking.payment.dto.SalesBucketDto;
+import com.eventbooking.payment.dto.SalesGranularity;
+import com.eventbooking.payment.dto.TicketTypeSalesDto;
+import com.eventbooking.payment.exception.EventAccessDeniedException;
+import com.eventbooking.payment.exception.InvalidReportRequestException;
+import com.eventbooking.payment.repository.OrderExportRepository;
+import com.eventbooking.payment.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves event sales reports from {@code sales_rollups}, so a report reads a few rows per
+ * ticket type per hour rather than the event's orders. Order-level exports are the exception:
+ * they stream the orders themselves, row by row, straight into the response. Only an event's
+ * organizer, as the Event Service knows it, may read its reports; the check is made before
+ * any transaction is opened.
+ */
+@Service
+@Slf4j
+public class SalesReportServiceImpl implements SalesReportService {
+    
+    static final String CSV_HEADER = "orderId,orderNumber,userId,paymentStatus,currency,subtotalAmount,"
+            + "serviceFee,taxAmount,totalAmount,refundedAmount,createdAt";
+    static final Duration DEFAULT_SERIES_LENGTH = Duration.ofDays(7);
+    
+    private final SalesRollupRepository salesRollupRepository;
+    private final OrderExportRepository orderExportRepository;
+    private final EventServiceClient eventServiceClient;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    @Value("${reports.sales.max-hourly-buckets:2232}")
+    private long maxHourlyBuckets;
+    
+    @Value("${reports.export.fetch-size:500}")
+    private int exportFetchSize;
+    
+    public SalesReportServiceImpl(SalesRollupRepository salesRollupRepository,
+                                  OrderExportRepository orderExportRepository,
+                                  EventServiceClient eventServiceClient,
+                                  PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.orderExportRepository = orderExportRepository;
+        this.eventServiceClient = eventServiceClient;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Override
+    public void checkOrganizer(UUID eventId, UUID userId) {
+        UUID organizerId = eventServiceClient.getOrganizerId(eventId).orElse(null);
+        if (!userId.equals(organizerId)) {
+            throw new EventAccessDeniedException(eventId);
+        }
+    }
+    
+    @Override
+    public List<TicketTypeSalesDto> getTicketTypeSales(UUID eventId, UUID userId, Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidReportRequestException("Report range must end after it starts");
+        }
+        checkOrganizer(eventId, userId);
+        return readOnlyTransaction.execute(status -> salesRollupRepository.sumByTicketType(eventId,
+                from == null ? Instant.EPOCH : from,
+                to == null ? Instant.now().plus(Duration.ofHours(1)) : to));
+    }
+    
+    @Override
+    public List<SalesBucketDto> getSalesTimeSeries(UUID eventId, UUID userId, Instant from, Instant to,
+                                                   SalesGranularity granularity) {
+        if (to == null) {
+            to = Instant.now();
+        }
+        if (from == null) {
+            from = to.minus(DEFAULT_SERIES_LENGTH);
+        }
+        if (!from.isBefore(to)) {
+            throw new InvalidReportRequestException("Report range must end after it starts");
+        }
+        // Widen the range to whole buckets so the first and last are not partly counted
+        Instant start = from.truncatedTo(granularity.getUnit());
+        Instant end = to.truncatedTo(granularity.getUnit());
+        if (end.isBefore(to)) {
+            end = end.plus(1, granularity.getUnit());
+        }
+        if (Duration.between(start, end).toHours() > maxHourlyBuckets) {
+            throw new InvalidReportRequestException("Report range may not exceed " + maxHourlyBuckets + " hours");
+        }
+        
+        checkOrganizer(eventId, userId);
+        Instant first = start;
+        Instant last = end;
+        List<SalesBucketDto> hours = readOnlyTransaction.execute(status -> salesRollupRepository.sumByHour(eventId, first, last));
+        return granularity == SalesGranularity.HOUR ? hours : fold(hours, granularity);
+    }
+    
+    @Override
+    public void exportOrders(UUID eventId, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    orderExportRepository.streamByEvent(eventId, exportFetchSize, rs -> writeRow(writer, rs)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+    
+    // Merges consecutive hourly buckets that fall in the same, wider bucket; input is in time order
+    static List<SalesBucketDto> fold(List<SalesBucketDto> hours, SalesGranularity granularity) {
+        List<SalesBucketDto> folded = new ArrayList<>();
+        SalesBucketDto current = null;
+        for (SalesBucketDto hour : hours) {
+            Instant bucketStart = hour.getBucketStart().truncatedTo(granularity.getUnit());
+            if (current == null || !current.getBucketStart().equals(bucketStart)) {
+                current = new SalesBucketDto(bucketStart, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                        0L, BigDecimal.ZERO);
+                folded.add(current);
+            }
+            current.setTicketsSold(current.getTicketsSold() + hour.getTicketsSold());
+            current.setGrossAmount(current.getGrossAmount().add(hour.getGrossAmount()));
+            current.setFeeAmount(current.getFeeAmount().add(hour.getFeeAmount()));
+            current.setTaxAmount(current.getTaxAmount().add(hour.getTaxAmount()));
+            current.setTicketsRefunded(current.getTicketsRefunded() + hour.getTicketsRefunded());
+            current.setRefundedAmount(current.getRefundedAmount().add(hour.getRefundedAmount()));
+        }
+        return folded;
+    }
+    
+    private void writeRow(Writer writer, ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        try {
+            writer.write(String.join(",",
+                    rs.getString("id"),
+                    escape(rs.getString("order_number")),
+                    rs.getString("user_id"),
+                    escape(rs.getString("payment_status")),
+                    escape(rs.getString("currency")),
+                    amount(rs.getBigDecimal("subtotal_amount")),
+                    amount(rs.getBigDecimal("service_fee")),
+                    amount(rs.getBigDecimal("tax_amount")),
+                    amount(rs.getBigDecimal("total_amount")),
+                    amount(rs.getBigDecimal("refunded_amount")),
+                    createdAt == null ? "" : createdAt.toInstant().toString()));
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String amount(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+    
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,30 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface SalesRollupService {
+    
+    /**
+     * Add a paid order's active items to the current hour's sales rollups. Must run inside the
+     * transaction that confirms the order, so the rollups count the sale if and only if the
+     * confirmation commits.
+     */
+    void recordSale(Order order);
+    
+    /**
+     * Add refunded items of an order to the current hour's rollups. Must run inside the
+     * transaction that records the refund.
+     */
+    void recordRefund(Order order, List<OrderItem> items);
+    
+    /**
+     * Add the active items of orders refunded in full by a bulk job to the current hour's
+     * rollups. Must run inside the transaction that records the refunds, before the orders'
+     * items change status.
+     */
+    void recordFullRefunds(List<UUID> orderIds);
+}
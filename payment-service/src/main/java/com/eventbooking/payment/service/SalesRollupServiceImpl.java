@@ -0,0 +1,102 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.TicketTypeTotals;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps {@code sales_rollups} in step with payments and refunds. Each call adds one row's
+ * worth of deltas per ticket type to the bucket for the current hour, in the caller's
+ * transaction, so the rollups and the orders they summarise commit or roll back together.
+ * Sales are counted in the hour they were paid and refunds in the hour they were made.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupServiceImpl implements SalesRollupService {
+    
+    private final SalesRollupRepository salesRollupRepository;
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Order order) {
+        List<OrderItem> activeItems = order.getOrderItems().stream()
+                .filter(item -> item.getStatus() == OrderItemStatus.ACTIVE)
+                .toList();
+        Instant now = Instant.now();
+        for (TicketTypeTotals totals : totalsByTicketType(order, activeItems)) {
+            salesRollupRepository.addToBucket(UUID.randomUUID(), totals.getEventId(), totals.getTicketTypeId(),
+                    bucketOf(now), totals.getTickets(), totals.getOrderCount(),
+                    totals.getSubtotal(), totals.getFees(), totals.getTax(),
+                    0L, BigDecimal.ZERO, now);
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRefund(Order order, List<OrderItem> items) {
+        addRefunds(totalsByTicketType(order, items));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFullRefunds(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        addRefunds(salesRollupRepository.sumItemsByTicketType(orderIds, OrderItemStatus.ACTIVE));
+    }
+    
+    private void addRefunds(Collection<TicketTypeTotals> refunded) {
+        Instant now = Instant.now();
+        for (TicketTypeTotals totals : refunded) {
+            salesRollupRepository.addToBucket(UUID.randomUUID(), totals.getEventId(), totals.getTicketTypeId(),
+                    bucketOf(now), 0L, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                    totals.getTickets(), totals.getTotal(), now);
+        }
+    }
+    
+    static Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+    
+    // Rows are upserted in ticket type order, so two transactions touching the same buckets
+    // take their row locks in the same order
+    static Collection<TicketTypeTotals> totalsByTicketType(Order order, List<OrderItem> items) {
+        Map<UUID, TicketTypeTotals> byType = new LinkedHashMap<>();
+        items.stream()
+                .sorted(Comparator.comparing(OrderItem::getTicketTypeId))
+                .forEach(item -> {
+                    TicketTypeTotals totals = byType.computeIfAbsent(item.getTicketTypeId(), ticketTypeId ->
+                            new TicketTypeTotals(order.getEventId(), ticketTypeId, 1L, 0L,
+                                    BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+                    totals.setTickets(totals.getTickets() + item.getQuantity());
+                    totals.setSubtotal(totals.getSubtotal().add(item.getSubtotal()));
+                    totals.setFees(totals.getFees().add(orZero(item.getFees())));
+                    totals.setTax(totals.getTax().add(orZero(item.getTaxAmount())));
+                    totals.setTotal(totals.getTotal().add(item.getTotalPrice()));
+                });
+        return byType.values();
+    }
+    
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+}
@@ -0,0 +1,42 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.StripeWebhookEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies a stored Stripe webhook event. Exceptions propagate so the event is retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeEventHandler {
+    
+    private final PaymentService paymentService;
+    
+    public void handle(StripeWebhookEvent event) {
+        switch (event.getType()) {
+            case "payment_intent.succeeded":
+                log.info("Payment intent succeeded: {}", event.getPaymentIntentId());
+                // Confirm the payment in our system
+                paymentService.confirmPayment(event.getPaymentIntentId());
+                break;
+            case "payment_intent.payment_failed":
+                // The payment failure is already handled in the processPayment method
+                // This webhook is mainly for logging and monitoring
+                log.warn("Payment intent failed: {}", event.getPaymentIntentId());
+                break;
+            case "payment_intent.canceled":
+                log.info("Payment intent canceled: {}", event.getPaymentIntentId());
+                break;
+            case "charge.refunded":
+                // Refund handling is done through the refundPayment method
+                // This webhook is mainly for logging and monitoring
+                log.info("Charge refunded for payment intent: {}", event.getPaymentIntentId());
+                break;
+            default:
+                log.debug("Unhandled event type: {}", event.getType());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.StripeWebhookDeadLetter;
+import com.eventbooking.payment.entity.StripeWebhookEvent;
+import com.eventbooking.payment.entity.WebhookEventStatus;
+import com.eventbooking.payment.repository.StripeWebhookDeadLetterRepository;
+import com.eventbooking.payment.repository.StripeWebhookEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Works through stored Stripe webhook events. A batch is claimed and leased in a short
+ * transaction, then processed on a worker pool outside it; each outcome is written back in
+ * its own transaction. The claim query holds back later events of a payment intent until the
+ * earlier ones are processed, so one intent's events are applied in the order received.
+ * Failures are retried with exponential backoff and moved to the dead-letter table after
+ * {@code max-attempts}.
+ */
+@Component
+@Slf4j
+public class StripeWebhookProcessor {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final StripeWebhookDeadLetterRepository deadLetterRepository;
+    private final StripeEventHandler eventHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer processingLag;
+    
+    @Value("${stripe.webhooks.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${stripe.webhooks.lease-seconds:300}")
+    private long leaseSeconds;
+    
+    @Value("${stripe.webhooks.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${stripe.webhooks.retry-initial-delay-ms:2000}")
+    private long retryInitialDelayMs;
+    
+    @Value("${stripe.webhooks.retry-max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+    
+    // Stripe retries undelivered events for up to three days; keep ids longer than that
+    @Value("${stripe.webhooks.retention-days:7}")
+    private int retentionDays;
+    
+    public StripeWebhookProcessor(StripeWebhookEventRepository webhookEventRepository,
+                                  StripeWebhookDeadLetterRepository deadLetterRepository,
+                                  StripeEventHandler eventHandler,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${stripe.webhooks.worker-threads:4}") int workerThreads) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.eventHandler = eventHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stripe-webhook-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.processedCounter = Counter.builder("payment.webhook.events")
+                .tag("result", "processed")
+                .description("Stripe webhook events processed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payment.webhook.events")
+                .tag("result", "failed")
+                .description("Stripe webhook processing attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("payment.webhook.events")
+                .tag("result", "dead_lettered")
+                .description("Stripe webhook events moved to the dead-letter table")
+                .register(meterRegistry);
+        this.processingLag = Timer.builder("payment.webhook.processing.lag")
+                .description("Time from a Stripe webhook being received to it being processed")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Processes due events batch by batch until a batch comes back short.
+     *
+     * @return the number of events claimed
+     */
+    public int processDueEvents() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = processBatch();
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+    
+    int processBatch() {
+        List<StripeWebhookEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        // Each payment intent has at most one event in a batch, so they can run side by side
+        List<CompletableFuture<Void>> running = new ArrayList<>(batch.size());
+        for (StripeWebhookEvent event : batch) {
+            running.add(CompletableFuture.runAsync(() -> process(event), workers));
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+        return batch.size();
+    }
+    
+    /**
+     * Deletes processed events older than the retention period.
+     */
+    public int purgeProcessed() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        Integer deleted = transactionTemplate.execute(status -> webhookEventRepository.deleteProcessedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+    
+    private List<StripeWebhookEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<StripeWebhookEvent> batch = webhookEventRepository.claimDueEvents(now, batchSize);
+            for (StripeWebhookEvent event : batch) {
+                event.setStatus(WebhookEventStatus.PROCESSING);
+                event.setLockedUntil(now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+    
+    private void process(StripeWebhookEvent event) {
+        try {
+            eventHandler.handle(event);
+        } catch (Exception e) {
+            recordFailure(event, e);
+            return;
+        }
+        
+        Instant processedAt = Instant.now();
+        event.setStatus(WebhookEventStatus.PROCESSED);
+        event.setProcessedAt(processedAt);
+        event.setLockedUntil(null);
+        event.setLastError(null);
+        transactionTemplate.executeWithoutResult(status -> webhookEventRepository.save(event));
+        processedCounter.increment();
+        processingLag.record(Duration.between(event.getReceivedAt(), processedAt));
+    }
+    
+    private void recordFailure(StripeWebhookEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+        
+        if (attempts >= maxAttempts) {
+            log.error("Moving Stripe webhook event {} ({}) to dead letters after {} attempts: {}",
+                    event.getId(), event.getType(), attempts, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> {
+                deadLetterRepository.save(StripeWebhookDeadLetter.builder()
+                        .id(event.getId())
+                        .type(event.getType())
+                        .paymentIntentId(event.getPaymentIntentId())
+                        .payload(event.getPayload())
+                        .receivedAt(event.getReceivedAt())
+                        .failedAt(Instant.now())
+                        .attempts(attempts)
+                        .lastError(error)
+                        .build());
+                // Removing it also releases the intent's later events
+                webhookEventRepository.deleteById(event.getId());
+            });
+            deadLetteredCounter.increment();
+            return;
+        }
+        
+        log.warn("Failed to process Stripe webhook event {} ({}, attempt {}): {}",
+                event.getId(), event.getType(), attempts, e.getMessage());
+        event.setStatus(WebhookEventStatus.PENDING);
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(Instant.now().plusMillis(retryDelayMs(attempts)));
+        event.setLockedUntil(null);
+        event.setLastError(error);
+        transactionTemplate.executeWithoutResult(status -> webhookEventRepository.save(event));
+        failedCounter.increment();
+    }
+    
+    private long retryDelayMs(int attempts) {
+        long delay = retryInitialDelayMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, retryMaxDelayMs);
+    }
+    
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
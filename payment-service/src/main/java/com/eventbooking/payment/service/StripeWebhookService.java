@@ -0,0 +1,12 @@
+package com.eventbooking.payment.service;
+
+import com.stripe.model.Event;
+
+public interface StripeWebhookService {
+    
+    /**
+     * Store a verified webhook event for asynchronous processing
+     * @return false if the event had already been received
+     */
+    boolean ingest(Event event, String payload);
+}
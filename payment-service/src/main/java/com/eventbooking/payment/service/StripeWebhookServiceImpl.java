@@ -0,0 +1,77 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.repository.StripeWebhookEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Service
+@Slf4j
+public class StripeWebhookServiceImpl implements StripeWebhookService {
+    
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Counter ingestedCounter;
+    private final Counter duplicateCounter;
+    
+    public StripeWebhookServiceImpl(StripeWebhookEventRepository webhookEventRepository,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.objectMapper = objectMapper;
+        this.ingestedCounter = Counter.builder("payment.webhook.events")
+                .tag("result", "ingested")
+                .description("Stripe webhook events stored for processing")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("payment.webhook.events")
+                .tag("result", "duplicate")
+                .description("Stripe webhook deliveries ignored as already received")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    @Transactional
+    public boolean ingest(Event event, String payload) {
+        int inserted = webhookEventRepository.insertIfAbsent(
+                event.getId(), event.getType(), paymentIntentIdOf(event), payload, Instant.now());
+        
+        if (inserted == 0) {
+            duplicateCounter.increment();
+            log.info("Ignoring duplicate Stripe webhook event: {}", event.getId());
+            return false;
+        }
+        
+        ingestedCounter.increment();
+        return true;
+    }
+    
+    /**
+     * The payment intent an event belongs to, read from the raw data object so it does not
+     * depend on the event's API version matching the library's.
+     */
+    String paymentIntentIdOf(Event event) {
+        JsonNode object;
+        try {
+            object = objectMapper.readTree(event.getDataObjectDeserializer().getRawJson());
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable data object in Stripe webhook event {}: {}", event.getId(), e.getMessage());
+            return null;
+        }
+        
+        if ("payment_intent".equals(object.path("object").asText())) {
+            return object.path("id").asText(null);
+        }
+        
+        // Charges and refunds reference their payment intent
+        JsonNode paymentIntent = object.path("payment_intent");
+        return paymentIntent.isTextual() ? paymentIntent.asText() : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventbooking.payment.controller;
+
+import com.eventbooking.payment.repository.StripeWebhookEventRepository;
+import com.eventbooking.payment.service.StripeWebhookServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Replays recorded Stripe webhook payloads, signed with a local secret, through ingestion.
+ */
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookControllerTest {
+    
+    private static final String SECRET = "whsec_test_secret";
+    
+    @Mock
+    private StripeWebhookEventRepository webhookEventRepository;
+    
+    private StripeWebhookController controller;
+    
+    @BeforeEach
+    void setUp() {
+        controller = new StripeWebhookController(
+                new StripeWebhookServiceImpl(webhookEventRepository, new ObjectMapper(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(controller, "webhookSecret", SECRET);
+    }
+    
+    @Test
+    void testHandleWebhook_StoresEventWithPaymentIntent() throws Exception {
+        String payload = recorded("payment_intent.succeeded.json");
+        when(webhookEventRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString(), any(Instant.class)))
+                .thenReturn(1);
+        
+        ResponseEntity<String> response = controller.handleStripeWebhook(payload, sign(payload));
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(webhookEventRepository).insertIfAbsent(eq("evt_3OqRecordedSucceeded"), eq("payment_intent.succeeded"),
+                eq("pi_3OqRecorded0001"), eq(payload), any(Instant.class));
+    }
+    
+    @Test
+    void testHandleWebhook_ChargeEventResolvesPaymentIntent() throws Exception {
+        String payload = recorded("charge.refunded.json");
+        when(webhookEventRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString(), any(Instant.class)))
+                .thenReturn(1);
+        
+        controller.handleStripeWebhook(payload, sign(payload));
+        
+        verify(webhookEventRepository).insertIfAbsent(eq("evt_3OqRecordedRefunded"), eq("charge.refunded"),
+                eq("pi_3OqRecorded0001"), eq(payload), any(Instant.class));
+    }
+    
+    @Test
+    void testHandleWebhook_DuplicateDeliveryIsAcknowledged() throws Exception {
+        String payload = recorded("payment_intent.succeeded.json");
+        when(webhookEventRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString(), any(Instant.class)))
+                .thenReturn(1)
+                .thenReturn(0);
+        
+        assertEquals(HttpStatus.OK, controller.handleStripeWebhook(payload, sign(payload)).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.handleStripeWebhook(payload, sign(payload)).getStatusCode());
+    }
+    
+    @Test
+    void testHandleWebhook_InvalidSignatureIsRejected() throws Exception {
+        String payload = recorded("payment_intent.succeeded.json");
+        
+        ResponseEntity<String> response = controller.handleStripeWebhook(payload, "t=1,v1=invalid");
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(webhookEventRepository);
+    }
+    
+    private String recorded(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/stripe/webhooks/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private String sign(String payload) throws Exception {
+        long timestamp = Webhook.Util.getTimeNow();
+        String signature = Webhook.Util.computeHmacSha256(SECRET, timestamp + "." + payload);
+        return "t=" + timestamp + ",v1=" + signature;
+    }
+}
@@ -0,0 +1,161 @@
+package com.eventbooking.payment.gateway;
+
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.net.Webhook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimulatedPaymentGatewayTest {
+    
+    private static final String WEBHOOK_URL = "http://localhost:8080/api/webhooks/stripe";
+    private static final String WEBHOOK_SECRET = "whsec_test";
+    
+    @Mock
+    private RestTemplate restTemplate;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private SimulatedPaymentGateway gateway;
+    
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+    }
+    
+    @Test
+    void createPayment_WithDecliningTestCard_ShouldThrowDeclined() {
+        gateway = gateway(100);
+        
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.createPayment(request("pm_card_chargeDeclinedInsufficientFunds")));
+        
+        assertEquals(Kind.DECLINED, e.getKind());
+        assertEquals("card_declined", e.getErrorCode());
+        assertEquals("insufficient_funds", e.getDeclineCode());
+        verifyNoInteractions(restTemplate);
+    }
+    
+    @Test
+    void createPayment_WithThreeDSecureCard_ShouldSucceedLaterAndSendSignedWebhook() throws Exception {
+        gateway = gateway(100);
+        
+        GatewayPayment payment = gateway.createPayment(request("pm_card_threeDSecure2Required"));
+        assertEquals("requires_action", payment.getStatus());
+        assertNotNull(payment.getClientSecret());
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<HttpEntity<String>> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, timeout(2000)).postForEntity(eq(WEBHOOK_URL), captor.capture(), eq(String.class));
+        
+        HttpEntity<String> webhook = captor.getValue();
+        String signature = webhook.getHeaders().getFirst("Stripe-Signature");
+        assertTrue(Webhook.Signature.verifyHeader(webhook.getBody(), signature, WEBHOOK_SECRET, 300));
+        JsonNode event = objectMapper.readTree(webhook.getBody());
+        assertEquals("payment_intent.succeeded", event.get("type").asText());
+        assertEquals(payment.getId(), event.get("data").get("object").get("id").asText());
+        assertEquals(11800, event.get("data").get("object").get("amount").asLong());
+        assertEquals("succeeded", gateway.retrievePayment(payment.getId()).getStatus());
+    }
+    
+    @Test
+    void refund_ShouldBeIdempotentPerKey() {
+        gateway = gateway(100);
+        GatewayPayment payment = gateway.createPayment(request("pm_card_visa"));
+        
+        GatewayRefund first = gateway.refund(payment.getId(), "order-refund-1");
+        GatewayRefund second = gateway.refund(payment.getId(), "order-refund-1");
+        
+        assertEquals("succeeded", first.getStatus());
+        assertEquals(first.getId(), second.getId());
+    }
+    
+    @Test
+    void refund_PartialAmounts_ShouldNotExceedCapturedAmount() {
+        gateway = gateway(100);
+        GatewayPayment payment = gateway.createPayment(request("pm_card_visa"));
+        
+        gateway.refund(payment.getId(), 5900, "order-refund-1-1");
+        gateway.refund(payment.getId(), 5000, "order-refund-1-2");
+        
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.refund(payment.getId(), 1000, "order-refund-1-3"));
+        assertEquals(Kind.INVALID_REQUEST, e.getKind());
+        assertEquals("succeeded", gateway.refund(payment.getId(), 900, "order-refund-1-4").getStatus());
+    }
+    
+    @Test
+    void refund_ReusedKeyWithDifferentAmount_ShouldBeRejected() {
+        gateway = gateway(100);
+        GatewayPayment payment = gateway.createPayment(request("pm_card_visa"));
+        
+        GatewayRefund first = gateway.refund(payment.getId(), 5000, "order-refund-1-1");
+        
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.refund(payment.getId(), 2000, "order-refund-1-1"));
+        assertEquals(Kind.INVALID_REQUEST, e.getKind());
+        assertEquals("idempotency_key_in_use", e.getErrorCode());
+        assertEquals(first.getId(), gateway.refund(payment.getId(), 5000, "order-refund-1-1").getId());
+    }
+    
+    @Test
+    void evictExpired_ShouldDropRefundsOfEvictedPayments() {
+        gateway = new SimulatedPaymentGateway(restTemplate, objectMapper, 1, 2, 0, 0, 50,
+                100, 0, WEBHOOK_URL, WEBHOOK_SECRET, 0);
+        GatewayPayment payment = gateway.createPayment(request("pm_card_visa"));
+        gateway.refund(payment.getId(), "order-refund-1");
+        
+        gateway.evictExpired();
+        
+        Map<?, ?> refundsByKey = (Map<?, ?>) ReflectionTestUtils.getField(gateway, "refundsByKey");
+        assertTrue(refundsByKey.isEmpty());
+    }
+    
+    @Test
+    void calls_AboveRateLimit_ShouldBeRejected() {
+        gateway = gateway(1);
+        gateway.createPayment(request("pm_card_visa"));
+        
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.createPayment(request("pm_card_visa")));
+        
+        assertEquals(Kind.RATE_LIMITED, e.getKind());
+    }
+    
+    private SimulatedPaymentGateway gateway(double rateLimitPerSecond) {
+        // No random declines or challenges, so only the test cards decide the outcome
+        return new SimulatedPaymentGateway(restTemplate, objectMapper, 1, 2, 0, 0, 50,
+                rateLimitPerSecond, 0, WEBHOOK_URL, WEBHOOK_SECRET, 120);
+    }
+    
+    private GatewayPaymentRequest request(String paymentMethodId) {
+        return GatewayPaymentRequest.builder()
+                .orderId(UUID.randomUUID())
+                .orderNumber("ORD-123456")
+                .userId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .amountMinor(11800)
+                .currency("USD")
+                .paymentMethodId(paymentMethodId)
+                .customerEmail("buyer@example.com")
+                .build();
+    }
+}
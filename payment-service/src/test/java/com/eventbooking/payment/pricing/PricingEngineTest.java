@@ -0,0 +1,74 @@
+package com.eventbooking.payment.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+    
+    private final PricingEngine pricingEngine = new PricingEngine();
+    
+    @Test
+    void price_WithDefaultSchedule_ShouldChargeFeeAndTaxOnSubtotal() {
+        PriceBreakdown price = new PriceBreakdown();
+        
+        pricingEngine.price(new long[] {5000}, new int[] {2}, 1, FeeSchedule.DEFAULT, price);
+        
+        assertEquals(10000, price.getSubtotal());
+        assertEquals(1000, price.getServiceFee());
+        assertEquals(800, price.getTax());
+        assertEquals(11800, price.getTotal());
+        assertEquals(11800, price.getItemTotal(0));
+    }
+    
+    @Test
+    void price_ShouldAllocateRoundedFeesSoItemsAddUpToOrder() {
+        PriceBreakdown price = new PriceBreakdown(1);
+        
+        // Three equal items cannot share a 1.00 fee evenly; ties go to the earlier item
+        pricingEngine.price(new long[] {500, 500, 500}, new int[] {1, 1, 1}, 3, new FeeSchedule(667, 0, 0, false), price);
+        
+        assertEquals(100, price.getServiceFee());
+        assertEquals(34, price.getItemFee(0));
+        assertEquals(33, price.getItemFee(1));
+        assertEquals(33, price.getItemFee(2));
+        assertEquals(price.getTotal(), price.getItemTotal(0) + price.getItemTotal(1) + price.getItemTotal(2));
+    }
+    
+    @Test
+    void price_WithPerTicketFeeAndTaxOnFees_ShouldStayExact() {
+        PriceBreakdown price = new PriceBreakdown();
+        FeeSchedule schedule = new FeeSchedule(725, 150, 875, true);
+        
+        pricingEngine.price(new long[] {1999, 4550, 0}, new int[] {3, 1, 2}, 3, schedule, price);
+        
+        // 10547 subtotal; 7.25% is 764.66 -> 765, plus 6 tickets at 1.50
+        assertEquals(10547, price.getSubtotal());
+        assertEquals(765 + 900, price.getServiceFee());
+        // 8.75% of 12212 is 1068.55 -> 1069
+        assertEquals(1069, price.getTax());
+        assertEquals(300, price.getItemFee(2));
+        long items = 0;
+        long fees = 0;
+        long taxes = 0;
+        for (int i = 0; i < price.getItemCount(); i++) {
+            items += price.getItemTotal(i);
+            fees += price.getItemFee(i);
+            taxes += price.getItemTax(i);
+        }
+        assertEquals(price.getTotal(), items);
+        assertEquals(price.getServiceFee(), fees);
+        assertEquals(price.getTax(), taxes);
+    }
+    
+    @Test
+    void allocate_WhenProductOverflowsLong_ShouldStillBeExact() {
+        long[] weights = {Long.MAX_VALUE / 4, Long.MAX_VALUE / 4};
+        long[] shares = new long[2];
+        
+        PricingEngine.allocate(1_000_001, weights, Long.MAX_VALUE / 4 * 2, 2, shares, new long[2]);
+        
+        assertEquals(500_001, shares[0]);
+        assertEquals(500_000, shares[1]);
+    }
+}
@@ -0,0 +1,146 @@
+package com.eventbooking.payment.repository;
+
+import com.eventbooking.payment.dto.OrderDto;
+import com.eventbooking.payment.dto.OrderSummaryDto;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.mapper.OrderMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the order read paths against N+1 lazy loading: a page of a user's orders costs the
+ * page query and its count, and an order's detail, items included, costs one statement.
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ContextConfiguration(classes = OrderRepositoryTest.TestConfig.class)
+class OrderRepositoryTest {
+    
+    private static final int ORDER_COUNT = 15;
+    private static final int ITEMS_PER_ORDER = 3;
+    
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @Import(OrderMapper.class)
+    static class TestConfig {
+    }
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderMapper orderMapper;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final UUID userId = UUID.randomUUID();
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            entityManager.persist(order(userId, i, i % 3 == 0 ? PaymentStatus.CONFIRMED : PaymentStatus.PENDING));
+        }
+        entityManager.persist(order(UUID.randomUUID(), ORDER_COUNT, PaymentStatus.CONFIRMED));
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void findSummariesByUserId_ShouldIssuePageAndCountStatementsOnly() {
+        Page<OrderSummaryDto> page = orderRepository.findSummariesByUserId(userId, PageRequest.of(0, 10));
+        
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(ORDER_COUNT, page.getTotalElements());
+        for (int i = 1; i < page.getNumberOfElements(); i++) {
+            assertFalse(page.getContent().get(i).getCreatedAt().isAfter(page.getContent().get(i - 1).getCreatedAt()));
+        }
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    void findSummariesByUserIdAndStatus_WithShortPage_ShouldSkipCountStatement() {
+        Page<OrderSummaryDto> page = orderRepository.findSummariesByUserIdAndStatus(
+                userId, PaymentStatus.CONFIRMED, PageRequest.of(0, 10));
+        
+        assertEquals(5, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(order -> order.getPaymentStatus() == PaymentStatus.CONFIRMED));
+        // A first page shorter than the page size already gives the total
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void findWithItemsById_MappingDetail_ShouldIssueOneStatement() {
+        UUID orderId = orderRepository.findSummariesByUserId(userId, PageRequest.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+        
+        OrderDto dto = orderMapper.toDto(orderRepository.findWithItemsById(orderId).orElseThrow());
+        
+        assertEquals(orderId, dto.getId());
+        assertEquals(ITEMS_PER_ORDER, dto.getOrderItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void findWithItemsByOrderNumber_ShouldReturnOrderOnce() {
+        Order order = orderRepository.findWithItemsByOrderNumber("ORD-" + userId + "-0").orElseThrow();
+        
+        assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+    
+    private Order order(UUID owner, int index, PaymentStatus status) {
+        Order order = Order.builder()
+                .userId(owner)
+                .eventId(UUID.randomUUID())
+                .orderNumber("ORD-" + owner + "-" + index)
+                .subtotalAmount(new BigDecimal("150.00"))
+                .totalAmount(new BigDecimal("177.00"))
+                .paymentStatus(status)
+                .build();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            order.addOrderItem(OrderItem.builder()
+                    .ticketTypeId(UUID.randomUUID())
+                    .quantity(1)
+                    .unitPrice(new BigDecimal("50.00"))
+                    .subtotal(new BigDecimal("50.00"))
+                    .totalPrice(new BigDecimal("59.00"))
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,91 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpirySweeperTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OrderExpirySweeper sweeper;
+    
+    @BeforeEach
+    void setUp() {
+        sweeper = new OrderExpirySweeper(orderRepository, outboxService, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+    }
+    
+    @Test
+    void expireDueOrders_ShouldCancelInChunksAndRecordReleaseEvents() {
+        Order first = expiredOrder();
+        Order second = expiredOrder();
+        Order third = expiredOrder();
+        when(orderRepository.findExpiredOrders(eq(PaymentStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        
+        assertEquals(3, sweeper.expireDueOrders());
+        
+        verify(orderRepository).transitionStatus(eq(List.of(first.getId(), second.getId())),
+                eq(PaymentStatus.PENDING), eq(PaymentStatus.CANCELLED), any(Instant.class));
+        verify(orderRepository).transitionStatus(eq(List.of(third.getId())),
+                eq(PaymentStatus.PENDING), eq(PaymentStatus.CANCELLED), any(Instant.class));
+        verify(outboxService).recordOrderExpired(first);
+        verify(outboxService).recordOrderExpired(second);
+        verify(outboxService).recordOrderExpired(third);
+        assertEquals(3.0, meterRegistry.get("payment.orders.expired").counter().count());
+        assertEquals(3, meterRegistry.get("payment.orders.expiry.lag").timer().count());
+    }
+    
+    @Test
+    void expireBatch_WhenNothingIsDue_ShouldNotUpdate() {
+        when(orderRepository.findExpiredOrders(eq(PaymentStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        
+        assertEquals(0, sweeper.expireBatch());
+        
+        verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
+        verifyNoInteractions(outboxService);
+    }
+    
+    private Order expiredOrder() {
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .orderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 6))
+                .reservationId(UUID.randomUUID())
+                .expiresAt(Instant.now().minusSeconds(120))
+                .build();
+    }
+}
@@ -8,17 +8,24 @@ import com.eventbooking.payment.entity.PaymentStatus;
 import com.eventbooking.payment.exception.InvalidOrderException;
 import com.eventbooking.payment.exception.OrderNotFoundException;
 import com.eventbooking.payment.mapper.OrderMapper;
+import com.eventbooking.payment.pricing.FeeSchedule;
+import com.eventbooking.payment.pricing.PricingEngine;
+import com.eventbooking.payment.pricing.PricingRules;
+import com.eventbooking.payment.pricing.TicketPriceCatalog;
 import com.eventbooking.payment.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -44,6 +51,24 @@ class OrderServiceImplTest {
     @Mock
     private PaymentService paymentService;
     
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private SalesRollupService salesRollupService;
+    
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine();
+    
+    @Mock
+    private PricingRules pricingRules;
+    
+    @Mock
+    private TicketPriceCatalog ticketPriceCatalog;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private OrderServiceImpl orderService;
     
@@ -109,6 +134,7 @@ class OrderServiceImplTest {
     
     @Test
     void testCreateOrder_Success() {
+        stubPricing();
         when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(orderMapper.toDto(any(Order.class))).thenReturn(testOrderDto);
@@ -156,6 +182,7 @@ class OrderServiceImplTest {
     
     @Test
     void testCreateOrder_CalculatesCorrectTotals() {
+        stubPricing();
         when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
@@ -174,75 +201,128 @@ class OrderServiceImplTest {
         verify(orderRepository).save(any(Order.class));
     }
     
+    @Test
+    void testCreateOrder_PricesBeforeOpeningTransaction() {
+        stubPricing();
+        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toDto(any(Order.class))).thenReturn(testOrderDto);
+        
+        orderService.createOrder(userId, createOrderRequest);
+        
+        // A price cache miss calls the Ticket Service; no connection may be held across it
+        InOrder inOrder = inOrder(ticketPriceCatalog, transactionManager, orderRepository);
+        inOrder.verify(ticketPriceCatalog).get(ticketTypeId);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(orderRepository).save(any(Order.class));
+    }
+    
+    @Test
+    void testCreateOrder_ItemTotalsAddUpToOrderTotal() {
+        UUID secondTicketTypeId = UUID.randomUUID();
+        createOrderRequest.setItems(List.of(
+                OrderItemRequest.builder().ticketTypeId(ticketTypeId).quantity(1).unitPrice(new BigDecimal("33.33")).build(),
+                OrderItemRequest.builder().ticketTypeId(secondTicketTypeId).quantity(2).unitPrice(new BigDecimal("10.01")).build()));
+        when(ticketPriceCatalog.get(ticketTypeId)).thenReturn(new TicketPriceCatalog.TicketPrice(ticketTypeId, eventId, 3333, 0));
+        when(ticketPriceCatalog.get(secondTicketTypeId)).thenReturn(new TicketPriceCatalog.TicketPrice(secondTicketTypeId, eventId, 1001, 0));
+        when(pricingRules.forOrder(eventId, null)).thenReturn(FeeSchedule.DEFAULT);
+        when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            // 53.35 subtotal, 5.34 fee and 4.27 tax, each split exactly across the two items
+            assertEquals(0, new BigDecimal("62.96").compareTo(savedOrder.getTotalAmount()));
+            BigDecimal itemTotals = savedOrder.getOrderItems().stream()
+                    .map(OrderItem::getTotalPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, savedOrder.getTotalAmount().compareTo(itemTotals));
+            return savedOrder;
+        });
+        when(orderMapper.toDto(any(Order.class))).thenReturn(testOrderDto);
+        
+        orderService.createOrder(userId, createOrderRequest);
+        
+        verify(orderRepository).save(any(Order.class));
+    }
+    
+    @Test
+    void testCreateOrder_RejectsStaleClientPrice() {
+        when(ticketPriceCatalog.get(ticketTypeId)).thenReturn(new TicketPriceCatalog.TicketPrice(ticketTypeId, eventId, 5500, 0));
+        
+        InvalidOrderException exception = assertThrows(InvalidOrderException.class,
+                () -> orderService.createOrder(userId, createOrderRequest));
+        
+        assertTrue(exception.getMessage().contains("has changed"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
     // ========== Order Retrieval Tests ==========
     
     @Test
     void testGetOrderById_Success() {
         UUID orderId = testOrder.getId();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toDto(testOrder)).thenReturn(testOrderDto);
         
         OrderDto result = orderService.getOrderById(orderId);
         
         assertNotNull(result);
         assertEquals(orderId, result.getId());
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findWithItemsById(orderId);
     }
     
     @Test
     void testGetOrderById_NotFound() {
         UUID orderId = UUID.randomUUID();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.empty());
         
         assertThrows(OrderNotFoundException.class, () -> {
             orderService.getOrderById(orderId);
         });
         
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findWithItemsById(orderId);
     }
     
     @Test
     void testGetOrderByOrderNumber_Success() {
         String orderNumber = "ORD-123456";
-        when(orderRepository.findByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsByOrderNumber(orderNumber)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toDto(testOrder)).thenReturn(testOrderDto);
         
         OrderDto result = orderService.getOrderByOrderNumber(orderNumber);
         
         assertNotNull(result);
         assertEquals(orderNumber, result.getOrderNumber());
-        verify(orderRepository).findByOrderNumber(orderNumber);
+        verify(orderRepository).findWithItemsByOrderNumber(orderNumber);
     }
     
     @Test
     void testGetUserOrders_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> orderPage = new PageImpl<>(List.of(testOrder));
+        Page<OrderSummaryDto> summaryPage = new PageImpl<>(List.of(summary(testOrder)));
         
-        when(orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)).thenReturn(orderPage);
-        when(orderMapper.toDto(testOrder)).thenReturn(testOrderDto);
+        when(orderRepository.findSummariesByUserId(userId, pageable)).thenReturn(summaryPage);
         
-        Page<OrderDto> result = orderService.getUserOrders(userId, pageable);
+        Page<OrderSummaryDto> result = orderService.getUserOrders(userId, pageable);
         
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(orderRepository).findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        verify(orderRepository).findSummariesByUserId(userId, pageable);
+        verifyNoInteractions(orderMapper);
     }
     
     @Test
     void testGetUserOrdersByStatus_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> orderPage = new PageImpl<>(List.of(testOrder));
+        Page<OrderSummaryDto> summaryPage = new PageImpl<>(List.of(summary(testOrder)));
         
-        when(orderRepository.findByUserIdAndStatus(userId, PaymentStatus.PENDING, pageable))
-                .thenReturn(orderPage);
-        when(orderMapper.toDto(testOrder)).thenReturn(testOrderDto);
+        when(orderRepository.findSummariesByUserIdAndStatus(userId, PaymentStatus.PENDING, pageable))
+                .thenReturn(summaryPage);
         
-        Page<OrderDto> result = orderService.getUserOrdersByStatus(userId, PaymentStatus.PENDING, pageable);
+        Page<OrderSummaryDto> result = orderService.getUserOrdersByStatus(userId, PaymentStatus.PENDING, pageable);
         
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(orderRepository).findByUserIdAndStatus(userId, PaymentStatus.PENDING, pageable);
+        verify(orderRepository).findSummariesByUserIdAndStatus(userId, PaymentStatus.PENDING, pageable);
     }
     
     // ========== Order Cancellation Tests ==========
@@ -312,6 +392,8 @@ class OrderServiceImplTest {
         assertNotNull(result);
         assertEquals(PaymentStatus.CONFIRMED, testOrder.getPaymentStatus());
         verify(orderRepository).save(testOrder);
+        verify(outboxService).recordPaymentCompleted(testOrder, null);
+        verify(salesRollupService).recordSale(testOrder);
     }
     
     @Test
@@ -325,6 +407,7 @@ class OrderServiceImplTest {
         });
         
         verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(outboxService);
     }
     
     @Test
@@ -342,6 +425,7 @@ class OrderServiceImplTest {
         assertNotNull(result);
         assertEquals(PaymentStatus.CONFIRMED, testOrder.getPaymentStatus());
         verify(orderRepository).save(testOrder);
+        verify(outboxService).recordPaymentCompleted(testOrder, null);
     }
     
     @Test
@@ -457,7 +541,7 @@ class OrderServiceImplTest {
                 .currency("USD")
                 .build();
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         when(paymentService.refundPayment(orderId, "Customer request")).thenReturn(paymentResponse);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         
@@ -480,7 +564,7 @@ class OrderServiceImplTest {
         UUID differentUserId = UUID.randomUUID();
         testOrder.setPaymentStatus(PaymentStatus.CONFIRMED);
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         
         assertThrows(InvalidOrderException.class, () -> {
             orderService.cancelOrderWithRefund(orderId, differentUserId, "Customer request");
@@ -495,7 +579,7 @@ class OrderServiceImplTest {
         UUID orderId = testOrder.getId();
         testOrder.setPaymentStatus(PaymentStatus.PENDING);
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         
         assertThrows(InvalidOrderException.class, () -> {
             orderService.cancelOrderWithRefund(orderId, userId, "Customer request");
@@ -535,21 +619,31 @@ class OrderServiceImplTest {
         testOrder.addOrderItem(orderItem1);
         testOrder.addOrderItem(orderItem2);
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        PaymentResponse refundResponse = PaymentResponse.builder()
+                .transactionId(UUID.randomUUID())
+                .orderId(orderId)
+                .paymentIntentId("pi_123")
+                .status("succeeded")
+                .amount(new BigDecimal("105.00"))
+                .currency("USD")
+                .build();
+        
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
+        when(paymentService.refundOrderItems(orderId, List.of(orderItem1.getId()), "Partial cancellation"))
+                .thenReturn(refundResponse);
         
         RefundResponse result = orderService.partialCancelOrder(
                 orderId, userId, List.of(orderItem1.getId()), "Partial cancellation");
         
         assertNotNull(result);
         assertEquals(orderId, result.getOrderId());
+        assertEquals(refundResponse.getTransactionId(), result.getRefundId());
         assertEquals(new BigDecimal("105.00"), result.getRefundAmount());
         assertEquals("COMPLETED", result.getRefundStatus());
-        assertEquals(PaymentStatus.PARTIALLY_REFUNDED, testOrder.getPaymentStatus());
-        assertEquals(OrderItemStatus.REFUNDED, orderItem1.getStatus());
-        assertEquals(OrderItemStatus.ACTIVE, orderItem2.getStatus());
+        assertTrue(result.getMessage().contains("1 item(s) cancelled"));
         
-        verify(orderRepository).save(testOrder);
+        verify(paymentService, never()).refundPayment(any(), any());
+        verify(orderRepository, never()).save(any(Order.class));
     }
     
     @Test
@@ -573,24 +667,24 @@ class OrderServiceImplTest {
                 .transactionId(UUID.randomUUID())
                 .orderId(orderId)
                 .paymentIntentId("pi_refund_123")
-                .status("refunded")
-                .amount(testOrder.getTotalAmount())
+                .status("succeeded")
+                .amount(new BigDecimal("105.00"))
                 .currency("USD")
                 .build();
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
-        when(paymentService.refundPayment(orderId, "All items cancelled")).thenReturn(paymentResponse);
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
+        when(paymentService.refundOrderItems(orderId, List.of(orderItem.getId()), "All items cancelled"))
+                .thenReturn(paymentResponse);
         
         RefundResponse result = orderService.partialCancelOrder(
                 orderId, userId, List.of(orderItem.getId()), "All items cancelled");
         
         assertNotNull(result);
-        assertEquals(PaymentStatus.REFUNDED, testOrder.getPaymentStatus());
-        assertEquals(OrderItemStatus.REFUNDED, orderItem.getStatus());
+        assertEquals(new BigDecimal("105.00"), result.getRefundAmount());
+        assertEquals("All items cancelled. Full refund processed.", result.getMessage());
         
-        verify(paymentService).refundPayment(orderId, "All items cancelled");
-        verify(orderRepository).save(testOrder);
+        // Only the remaining items' value is refunded, never the order total again
+        verify(paymentService, never()).refundPayment(any(), any());
     }
     
     @Test
@@ -610,14 +704,14 @@ class OrderServiceImplTest {
                 .build();
         testOrder.addOrderItem(orderItem);
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         
         UUID invalidItemId = UUID.randomUUID();
         assertThrows(InvalidOrderException.class, () -> {
             orderService.partialCancelOrder(orderId, userId, List.of(invalidItemId), "Cancellation");
         });
         
-        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(paymentService);
     }
     
     @Test
@@ -637,12 +731,22 @@ class OrderServiceImplTest {
                 .build();
         testOrder.addOrderItem(orderItem);
         
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(testOrder));
         
         assertThrows(InvalidOrderException.class, () -> {
             orderService.partialCancelOrder(orderId, userId, List.of(orderItem.getId()), "Cancellation");
         });
         
-        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(paymentService);
+    }
+    
+    private void stubPricing() {
+        when(ticketPriceCatalog.get(ticketTypeId)).thenReturn(new TicketPriceCatalog.TicketPrice(ticketTypeId, eventId, 5000, 0));
+        when(pricingRules.forOrder(eventId, null)).thenReturn(FeeSchedule.DEFAULT);
+    }
+    
+    private OrderSummaryDto summary(Order order) {
+        return new OrderSummaryDto(order.getId(), order.getEventId(), order.getOrderNumber(), order.getTotalAmount(),
+                order.getCurrency(), order.getPaymentStatus(), order.getCreatedAt(), order.getExpiresAt());
     }
 }
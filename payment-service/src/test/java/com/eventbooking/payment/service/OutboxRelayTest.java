@@ -0,0 +1,127 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.OutboxEvent;
+import com.eventbooking.payment.messaging.OutboxPublisher;
+import com.eventbooking.payment.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Mock
+    private OutboxPublisher outboxPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OutboxRelay outboxRelay;
+    
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxPublisher, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(outboxRelay, "retryInitialDelayMs", 5000L);
+        ReflectionTestUtils.setField(outboxRelay, "retryMaxDelayMs", 600000L);
+    }
+    
+    @Test
+    void relayDueEvents_ShouldDrainFullBatchesAndMarkPublished() {
+        OutboxEvent first = event();
+        OutboxEvent second = event();
+        OutboxEvent third = event();
+        when(outboxEventRepository.claimDueEvents(any(Instant.class), eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(outboxEventRepository.countByPublishedAtIsNull()).thenReturn(0L);
+        
+        assertEquals(3, outboxRelay.relayDueEvents());
+        
+        verify(outboxEventRepository, times(2)).claimDueEvents(any(Instant.class), eq(2));
+        assertNotNull(first.getPublishedAt());
+        assertNotNull(third.getPublishedAt());
+        assertEquals(3.0, meterRegistry.get("payment.outbox.events").tag("result", "published").counter().count());
+    }
+    
+    @Test
+    void relayBatch_WhenPublishFails_ShouldBackOffAndKeepOtherEvents() {
+        OutboxEvent failing = event();
+        failing.setAttempts(2);
+        OutboxEvent succeeding = event();
+        when(outboxEventRepository.claimDueEvents(any(Instant.class), eq(2))).thenReturn(new ArrayList<>(List.of(failing, succeeding)));
+        doThrow(new ResourceAccessException("Connection refused")).when(outboxPublisher).publish(failing);
+        
+        Instant before = Instant.now();
+        outboxRelay.relayBatch();
+        
+        assertNull(failing.getPublishedAt());
+        assertEquals(3, failing.getAttempts());
+        assertEquals("Connection refused", failing.getLastError());
+        // Third attempt waits 5s * 2^2
+        assertFalse(failing.getNextAttemptAt().isBefore(before.plusMillis(20000)));
+        assertNotNull(succeeding.getPublishedAt());
+        assertEquals(1.0, meterRegistry.get("payment.outbox.events").tag("result", "failed").counter().count());
+    }
+    
+    @Test
+    void relayBatch_ShouldLeaseBatchAndPublishAfterClaimCommits() {
+        OutboxEvent event = event();
+        when(outboxEventRepository.claimDueEvents(any(Instant.class), eq(2))).thenAnswer(invocation -> {
+            assertTrue(mockingDetails(transactionManager).getInvocations().stream()
+                    .noneMatch(call -> call.getMethod().getName().equals("commit")));
+            return List.of(event);
+        });
+        doAnswer(invocation -> {
+            // The claim has committed with the lease; nothing is held while the consumer is called
+            verify(transactionManager, times(1)).commit(any());
+            assertTrue(event.getNextAttemptAt().isAfter(Instant.now().plusSeconds(290)));
+            return null;
+        }).when(outboxPublisher).publish(event);
+        
+        assertEquals(1, outboxRelay.relayBatch());
+        
+        InOrder inOrder = inOrder(outboxPublisher, outboxEventRepository);
+        inOrder.verify(outboxPublisher).publish(event);
+        inOrder.verify(outboxEventRepository).save(event);
+        assertNotNull(event.getPublishedAt());
+        verify(transactionManager, times(2)).commit(any());
+    }
+    
+    private OutboxEvent event() {
+        Instant now = Instant.now();
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("Order")
+                .aggregateId(UUID.randomUUID())
+                .eventType("PaymentCompleted")
+                .payload("{}")
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
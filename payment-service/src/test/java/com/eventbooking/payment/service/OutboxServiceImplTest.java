@@ -0,0 +1,107 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OutboxEvent;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceImplTest {
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    private OutboxServiceImpl outboxService;
+    
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxServiceImpl(outboxEventRepository, objectMapper);
+    }
+    
+    @Test
+    void recordPaymentCompleted_ShouldStoreDueEventWithActiveItems() throws Exception {
+        UUID activeTicketType = UUID.randomUUID();
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .orderNumber("ORD-123456")
+                .totalAmount(new BigDecimal("118.00"))
+                .paymentStatus(PaymentStatus.CONFIRMED)
+                .build();
+        order.addOrderItem(OrderItem.builder()
+                .ticketTypeId(activeTicketType)
+                .quantity(2)
+                .unitPrice(new BigDecimal("50.00"))
+                .build());
+        order.addOrderItem(OrderItem.builder()
+                .ticketTypeId(UUID.randomUUID())
+                .quantity(1)
+                .unitPrice(new BigDecimal("20.00"))
+                .status(OrderItemStatus.CANCELLED)
+                .build());
+        
+        outboxService.recordPaymentCompleted(order, "buyer@example.com");
+        
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent saved = captor.getValue();
+        assertEquals(PaymentCompletedEvent.TYPE, saved.getEventType());
+        assertEquals(order.getId(), saved.getAggregateId());
+        assertNull(saved.getPublishedAt());
+        assertEquals(saved.getCreatedAt(), saved.getNextAttemptAt());
+        
+        PaymentCompletedEvent event = objectMapper.readValue(saved.getPayload(), PaymentCompletedEvent.class);
+        assertEquals(saved.getId(), event.getId());
+        assertEquals(order.getId(), event.getOrderId());
+        assertEquals("buyer@example.com", event.getCustomerEmail());
+        assertEquals(1, event.getItems().size());
+        assertEquals(activeTicketType, event.getItems().get(0).getTicketTypeId());
+        assertEquals(2, event.getItems().get(0).getQuantity());
+    }
+    
+    @Test
+    void recordOrderExpired_ShouldStoreEventCarryingReservation() throws Exception {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .eventId(UUID.randomUUID())
+                .orderNumber("ORD-654321")
+                .reservationId(UUID.randomUUID())
+                .expiresAt(Instant.now().minusSeconds(60))
+                .build();
+        
+        outboxService.recordOrderExpired(order);
+        
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent saved = captor.getValue();
+        assertEquals(OrderExpiredEvent.TYPE, saved.getEventType());
+        assertEquals(order.getId(), saved.getAggregateId());
+        
+        OrderExpiredEvent event = objectMapper.readValue(saved.getPayload(), OrderExpiredEvent.class);
+        assertEquals(saved.getId(), event.getId());
+        assertEquals(order.getReservationId(), event.getReservationId());
+        assertEquals(order.getExpiresAt(), event.getExpiresAt());
+    }
+}
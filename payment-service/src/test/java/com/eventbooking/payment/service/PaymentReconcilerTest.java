@@ -0,0 +1,136 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.entity.PaymentTransaction;
+import com.eventbooking.payment.gateway.GatewayPayment;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.repository.OrderRepository;
+import com.eventbooking.payment.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconcilerTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @Mock
+    private PaymentGateway paymentGateway;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private PaymentReconciler reconciler;
+    
+    @BeforeEach
+    void setUp() {
+        reconciler = new PaymentReconciler(orderRepository, transactionRepository, paymentService,
+                paymentGateway, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(reconciler, "batchSize", 100);
+        ReflectionTestUtils.setField(reconciler, "staleAfterSeconds", 300L);
+    }
+    
+    @Test
+    void reconcileStuckPayments_ShouldReleaseOrderWithoutPaymentIntentAndConfirmSucceededOne() {
+        Order lost = stuckOrder();
+        Order paid = stuckOrder();
+        PaymentTransaction transaction = PaymentTransaction.builder()
+                .order(paid)
+                .paymentIntentId("pi_paid")
+                .status("processing")
+                .build();
+        when(orderRepository.findStaleOrderIds(eq(PaymentStatus.PROCESSING), any(Instant.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(lost.getId(), paid.getId()));
+        when(transactionRepository.findByOrderId(lost.getId())).thenReturn(List.of());
+        when(transactionRepository.findByOrderId(paid.getId())).thenReturn(List.of(transaction));
+        when(orderRepository.findById(lost.getId())).thenReturn(Optional.of(lost));
+        when(paymentGateway.retrievePayment("pi_paid"))
+                .thenReturn(GatewayPayment.builder().id("pi_paid").status("succeeded").build());
+        
+        assertEquals(2, reconciler.reconcileStuckPayments());
+        
+        assertEquals(PaymentStatus.PENDING, lost.getPaymentStatus());
+        verify(paymentService).confirmPayment("pi_paid");
+        assertEquals(1.0, meterRegistry.get("payment.reconciliation.orders").tag("result", "released").counter().count());
+        assertEquals(1.0, meterRegistry.get("payment.reconciliation.orders").tag("result", "confirmed").counter().count());
+    }
+    
+    @Test
+    void reconcile_WhenPaymentWasCanceled_ShouldFailOrder() {
+        Order order = stuckOrder();
+        PaymentTransaction transaction = PaymentTransaction.builder()
+                .order(order)
+                .paymentIntentId("pi_canceled")
+                .status("processing")
+                .build();
+        when(transactionRepository.findByOrderId(order.getId())).thenReturn(List.of(transaction));
+        when(transactionRepository.findByPaymentIntentId("pi_canceled")).thenReturn(Optional.of(transaction));
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentGateway.retrievePayment("pi_canceled"))
+                .thenReturn(GatewayPayment.builder().id("pi_canceled").status("canceled").build());
+        
+        assertEquals("failed", reconciler.reconcile(order.getId(), Instant.now()));
+        
+        assertEquals(PaymentStatus.PAYMENT_FAILED, order.getPaymentStatus());
+        assertEquals("failed", transaction.getStatus());
+        verifyNoInteractions(paymentService);
+    }
+    
+    @Test
+    void reconcile_WhenGatewayHasPaymentNeverRecorded_ShouldRecordAndConfirmItInsteadOfReleasing() {
+        Order order = stuckOrder();
+        when(transactionRepository.findByOrderId(order.getId())).thenReturn(List.of());
+        when(paymentGateway.findOrderPayment(order.getId())).thenReturn(Optional.of(
+                GatewayPayment.builder().id("pi_lost").status("succeeded").latestChargeId("ch_lost").build()));
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(transactionRepository.findByPaymentIntentId("pi_lost")).thenReturn(Optional.empty());
+        
+        assertEquals("confirmed", reconciler.reconcile(order.getId(), Instant.now()));
+        
+        ArgumentCaptor<PaymentTransaction> recorded = ArgumentCaptor.forClass(PaymentTransaction.class);
+        verify(transactionRepository).save(recorded.capture());
+        assertEquals(order, recorded.getValue().getOrder());
+        assertEquals("pi_lost", recorded.getValue().getPaymentIntentId());
+        assertEquals("ch_lost", recorded.getValue().getGatewayTransactionId());
+        verify(paymentService).confirmPayment("pi_lost");
+        assertEquals(PaymentStatus.PROCESSING, order.getPaymentStatus());
+        verify(paymentGateway, never()).retrievePayment(any());
+    }
+    
+    private Order stuckOrder() {
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .paymentStatus(PaymentStatus.PROCESSING)
+                .updatedAt(Instant.now().minusSeconds(3600))
+                .build();
+    }
+}
@@ -3,27 +3,45 @@ package com.eventbooking.payment.service;
 import com.eventbooking.payment.dto.PaymentResponse;
 import com.eventbooking.payment.dto.ProcessPaymentRequest;
 import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OrderRefund;
 import com.eventbooking.payment.entity.PaymentStatus;
 import com.eventbooking.payment.entity.PaymentTransaction;
 import com.eventbooking.payment.exception.InvalidOrderException;
 import com.eventbooking.payment.exception.OrderNotFoundException;
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentProcessingException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
+import com.eventbooking.payment.gateway.GatewayPayment;
+import com.eventbooking.payment.gateway.GatewayPaymentRequest;
+import com.eventbooking.payment.gateway.GatewayRefund;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.repository.OrderRefundRepository;
 import com.eventbooking.payment.repository.OrderRepository;
 import com.eventbooking.payment.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +53,23 @@ class PaymentServiceImplTest {
     @Mock
     private PaymentTransactionRepository transactionRepository;
     
-    @InjectMocks
+    @Mock
+    private OrderRefundRepository orderRefundRepository;
+    
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private SalesRollupService salesRollupService;
+    
+    @Mock
+    private PaymentGateway paymentGateway;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
     private PaymentServiceImpl paymentService;
     
     private Order testOrder;
@@ -43,6 +77,8 @@ class PaymentServiceImplTest {
     
     @BeforeEach
     void setUp() {
+        paymentService = paymentService(2000);
+        
         UUID orderId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
         UUID eventId = UUID.randomUUID();
@@ -69,6 +105,11 @@ class PaymentServiceImplTest {
                 .build();
     }
     
+    @AfterEach
+    void tearDown() {
+        paymentService.shutdown();
+    }
+    
     @Test
     void testProcessPayment_OrderNotFound() {
         when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
@@ -106,6 +147,145 @@ class PaymentServiceImplTest {
         verify(orderRepository).findById(paymentRequest.getOrderId());
         verify(orderRepository).save(testOrder);
         assertEquals(PaymentStatus.CANCELLED, testOrder.getPaymentStatus());
+        verify(outboxService).recordOrderExpired(testOrder);
+        verifyNoInteractions(paymentGateway);
+    }
+    
+    @Test
+    void testProcessPayment_Succeeded() {
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(transactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenReturn(GatewayPayment.builder()
+                .id("pi_test123")
+                .status("succeeded")
+                .latestChargeId("ch_test123")
+                .build());
+        
+        PaymentResponse response = paymentService.processPayment(paymentRequest);
+        
+        assertEquals("succeeded", response.getStatus());
+        assertEquals("pi_test123", response.getPaymentIntentId());
+        assertEquals(PaymentStatus.CONFIRMED, testOrder.getPaymentStatus());
+        verify(outboxService).recordPaymentCompleted(testOrder, "test@example.com");
+        verify(salesRollupService).recordSale(testOrder);
+        
+        ArgumentCaptor<GatewayPaymentRequest> captor = ArgumentCaptor.forClass(GatewayPaymentRequest.class);
+        verify(paymentGateway).createPayment(captor.capture());
+        assertEquals(11800L, captor.getValue().getAmountMinor());
+        assertEquals("pm_card_visa", captor.getValue().getPaymentMethodId());
+    }
+    
+    @Test
+    void testProcessPayment_RequiresAction() {
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(transactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenReturn(GatewayPayment.builder()
+                .id("pi_test123")
+                .status("requires_action")
+                .clientSecret("pi_test123_secret")
+                .build());
+        
+        PaymentResponse response = paymentService.processPayment(paymentRequest);
+        
+        assertTrue(response.getRequiresAction());
+        assertEquals("pi_test123_secret", response.getClientSecret());
+        assertEquals(PaymentStatus.PROCESSING, testOrder.getPaymentStatus());
+        verifyNoInteractions(outboxService);
+    }
+    
+    @Test
+    void testProcessPayment_CardDeclined() {
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenThrow(new PaymentGatewayException(
+                Kind.DECLINED, "Your card was declined.", "card_declined", "insufficient_funds", null));
+        
+        PaymentResponse response = paymentService.processPayment(paymentRequest);
+        
+        assertEquals("failed", response.getStatus());
+        assertEquals("insufficient_funds", response.getDeclineCode());
+        assertEquals(PaymentStatus.PAYMENT_FAILED, testOrder.getPaymentStatus());
+        verifyNoInteractions(outboxService);
+    }
+    
+    @Test
+    void testProcessPayment_RateLimited_ReleasesOrderForRetry() {
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenThrow(
+                new PaymentGatewayException(Kind.RATE_LIMITED, "Request rate limit exceeded."));
+        
+        assertThrows(PaymentProcessingException.class, () -> paymentService.processPayment(paymentRequest));
+        
+        assertEquals(PaymentStatus.PENDING, testOrder.getPaymentStatus());
+        verifyNoInteractions(transactionRepository);
+    }
+    
+    @Test
+    void testProcessPayment_ConnectionError_LeavesOrderProcessingForReconciler() {
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenThrow(
+                new PaymentGatewayException(Kind.CONNECTION, "Read timed out"));
+        
+        assertThrows(PaymentProcessingException.class, () -> paymentService.processPayment(paymentRequest));
+        
+        // The card may have been charged; the reconciler settles the order
+        assertEquals(PaymentStatus.PROCESSING, testOrder.getPaymentStatus());
+        verify(orderRepository, times(1)).save(testOrder);
+        verifyNoInteractions(transactionRepository, outboxService);
+    }
+    
+    @Test
+    void testProcessPayment_GatewayTimeout_RecordsOutcomeWhenItArrives() {
+        paymentService.shutdown();
+        paymentService = paymentService(50);
+        when(orderRepository.findById(any(UUID.class))).thenReturn(Optional.of(testOrder));
+        when(transactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentGateway.createPayment(any(GatewayPaymentRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return GatewayPayment.builder().id("pi_test123").status("succeeded").build();
+        });
+        
+        PaymentResponse response = paymentService.processPayment(paymentRequest);
+        
+        assertEquals("processing", response.getStatus());
+        verify(outboxService, timeout(2000)).recordPaymentCompleted(testOrder, "test@example.com");
+        assertEquals(PaymentStatus.CONFIRMED, testOrder.getPaymentStatus());
+        assertEquals(1.0, meterRegistry.get("payment.gateway.timeouts").counter().count());
+        assertEquals(1, meterRegistry.get("payment.gateway.latency").tag("outcome", "success").timer().count());
+    }
+    
+    @Test
+    void testConfirmPayment_ProcessingOrder_ConfirmsAndHandsOn() {
+        testOrder.setPaymentStatus(PaymentStatus.PROCESSING);
+        stubSucceededIntent();
+        
+        paymentService.confirmPayment("pi_test123");
+        
+        assertEquals(PaymentStatus.CONFIRMED, testOrder.getPaymentStatus());
+        verify(outboxService).recordPaymentCompleted(testOrder, "test@example.com");
+        verify(salesRollupService).recordSale(testOrder);
+    }
+    
+    @Test
+    void testConfirmPayment_RedeliveredWebhookAfterRefund_LeavesOrderAlone() {
+        testOrder.setPaymentStatus(PaymentStatus.REFUNDED);
+        stubSucceededIntent();
+        
+        paymentService.confirmPayment("pi_test123");
+        
+        assertEquals(PaymentStatus.REFUNDED, testOrder.getPaymentStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verifyNoInteractions(outboxService, salesRollupService);
+    }
+    
+    @Test
+    void testConfirmPayment_LateWebhookForExpiredOrder_DoesNotReviveIt() {
+        testOrder.setPaymentStatus(PaymentStatus.CANCELLED);
+        stubSucceededIntent();
+        
+        paymentService.confirmPayment("pi_test123");
+        
+        assertEquals(PaymentStatus.CANCELLED, testOrder.getPaymentStatus());
+        verifyNoInteractions(outboxService, salesRollupService);
     }
     
     @Test
@@ -134,4 +314,116 @@ class PaymentServiceImplTest {
         
         verify(transactionRepository).findById(transactionId);
     }
+    
+    @Test
+    void testRefundOrderItems_RefundsSelectedItemsInOneGatewayCall() {
+        OrderItem first = item("59.00");
+        OrderItem second = item("35.40");
+        OrderItem kept = item("23.60");
+        paidOrder(first, second, kept);
+        when(paymentGateway.refund("pi_paid", 9440L, "order-refund-" + testOrder.getId() + "-1"))
+                .thenReturn(new GatewayRefund("re_1", "succeeded"));
+        
+        PaymentResponse response = paymentService.refundOrderItems(testOrder.getId(),
+                List.of(first.getId(), second.getId()), "Two guests cannot come");
+        
+        assertEquals(new BigDecimal("94.40"), response.getAmount());
+        assertEquals(PaymentStatus.PARTIALLY_REFUNDED, testOrder.getPaymentStatus());
+        assertEquals(new BigDecimal("94.40"), testOrder.getRefundedAmount());
+        assertEquals(new BigDecimal("23.60"), testOrder.getRefundableAmount());
+        assertEquals(OrderItemStatus.REFUNDED, second.getStatus());
+        assertEquals(OrderItemStatus.ACTIVE, kept.getStatus());
+        
+        ArgumentCaptor<OrderRefund> entry = ArgumentCaptor.forClass(OrderRefund.class);
+        verify(orderRefundRepository).save(entry.capture());
+        assertEquals(1, entry.getValue().getSequence());
+        assertEquals("re_1", entry.getValue().getGatewayRefundId());
+        assertEquals(2, entry.getValue().getLines().size());
+        assertEquals(first.getId(), entry.getValue().getLines().get(0).getOrderItemId());
+        verify(salesRollupService).recordRefund(testOrder, List.of(first, second));
+        verify(paymentGateway, times(1)).refund(anyString(), anyLong(), anyString());
+    }
+    
+    @Test
+    void testRefundOrderItems_LastItems_RefundsBalanceAndClosesOrder() {
+        OrderItem refunded = item("59.00");
+        refunded.setStatus(OrderItemStatus.REFUNDED);
+        OrderItem last = item("59.00");
+        paidOrder(refunded, last);
+        testOrder.setPaymentStatus(PaymentStatus.PARTIALLY_REFUNDED);
+        testOrder.setRefundedAmount(new BigDecimal("59.00"));
+        testOrder.setRefundCount(1);
+        when(paymentGateway.refund("pi_paid", 5900L, "order-refund-" + testOrder.getId() + "-2"))
+                .thenReturn(new GatewayRefund("re_2", "succeeded"));
+        
+        paymentService.refundOrderItems(testOrder.getId(), List.of(last.getId()), "Event no longer suits");
+        
+        assertEquals(PaymentStatus.REFUNDED, testOrder.getPaymentStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(testOrder.getRefundableAmount()));
+        assertEquals(2, testOrder.getRefundCount());
+    }
+    
+    @Test
+    void testRefundOrderItems_InactiveItem_DoesNotCallGateway() {
+        OrderItem refunded = item("59.00");
+        refunded.setStatus(OrderItemStatus.REFUNDED);
+        testOrder.setPaymentStatus(PaymentStatus.PARTIALLY_REFUNDED);
+        testOrder.addOrderItem(refunded);
+        when(orderRepository.findWithItemsById(testOrder.getId())).thenReturn(Optional.of(testOrder));
+        
+        assertThrows(InvalidOrderException.class,
+                () -> paymentService.refundOrderItems(testOrder.getId(), List.of(refunded.getId()), "Again"));
+        
+        verifyNoInteractions(paymentGateway);
+    }
+    
+    private void paidOrder(OrderItem... items) {
+        testOrder.setPaymentStatus(PaymentStatus.CONFIRMED);
+        for (OrderItem item : items) {
+            testOrder.addOrderItem(item);
+        }
+        PaymentTransaction payment = PaymentTransaction.builder()
+                .order(testOrder)
+                .paymentIntentId("pi_paid")
+                .amount(testOrder.getTotalAmount())
+                .status("succeeded")
+                .build();
+        when(orderRepository.findWithItemsById(testOrder.getId())).thenReturn(Optional.of(testOrder));
+        when(transactionRepository.findByOrderId(testOrder.getId())).thenReturn(List.of(payment));
+        when(transactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+    
+    private OrderItem item(String totalPrice) {
+        return OrderItem.builder()
+                .id(UUID.randomUUID())
+                .ticketTypeId(UUID.randomUUID())
+                .quantity(1)
+                .unitPrice(new BigDecimal(totalPrice))
+                .subtotal(new BigDecimal(totalPrice))
+                .totalPrice(new BigDecimal(totalPrice))
+                .build();
+    }
+    
+    private void stubSucceededIntent() {
+        when(paymentGateway.retrievePayment("pi_test123")).thenReturn(GatewayPayment.builder()
+                .id("pi_test123")
+                .status("succeeded")
+                .latestChargeId("ch_test123")
+                .receiptEmail("test@example.com")
+                .build());
+        when(transactionRepository.findByPaymentIntentId("pi_test123")).thenReturn(Optional.of(PaymentTransaction.builder()
+                .id(UUID.randomUUID())
+                .order(testOrder)
+                .paymentIntentId("pi_test123")
+                .amount(new BigDecimal("118.00"))
+                .currency("USD")
+                .status("processing")
+                .paymentMethod("card")
+                .build()));
+    }
+    
+    private PaymentServiceImpl paymentService(long gatewayTimeoutMs) {
+        return new PaymentServiceImpl(orderRepository, transactionRepository, orderRefundRepository, outboxService,
+                salesRollupService, paymentGateway, transactionManager, meterRegistry, gatewayTimeoutMs, 4);
+    }
 }
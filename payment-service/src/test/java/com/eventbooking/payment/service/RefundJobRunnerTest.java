@@ -0,0 +1,312 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.RefundCandidate;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.entity.OrderRefund;
+import com.eventbooking.payment.entity.PaymentStatus;
+import com.eventbooking.payment.entity.RefundJob;
+import com.eventbooking.payment.entity.RefundJobStatus;
+import com.eventbooking.payment.exception.PaymentGatewayException;
+import com.eventbooking.payment.exception.PaymentGatewayException.Kind;
+import com.eventbooking.payment.gateway.GatewayRefund;
+import com.eventbooking.payment.gateway.PaymentGateway;
+import com.eventbooking.payment.repository.OrderRefundRepository;
+import com.eventbooking.payment.repository.OrderRepository;
+import com.eventbooking.payment.repository.PaymentTransactionRepository;
+import com.eventbooking.payment.repository.RefundJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundJobRunnerTest {
+    
+    @Mock
+    private RefundJobRepository refundJobRepository;
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+    
+    @Mock
+    private OrderRefundRepository orderRefundRepository;
+    
+    @Mock
+    private SalesRollupService salesRollupService;
+    
+    @Mock
+    private PaymentGateway paymentGateway;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private RefundJobRunner runner;
+    
+    private UUID eventId;
+    
+    // Orders as they are when the checkpoint locks them, by id
+    private final Map<UUID, Order> orders = new HashMap<>();
+    
+    @BeforeEach
+    void setUp() {
+        runner = new RefundJobRunner(refundJobRepository, orderRepository, transactionRepository, orderRefundRepository,
+                salesRollupService, paymentGateway, transactionManager, meterRegistry, 2, 1000);
+        ReflectionTestUtils.setField(runner, "chunkSize", 2);
+        ReflectionTestUtils.setField(runner, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(runner, "rateLimitRetries", 2);
+        ReflectionTestUtils.setField(runner, "rateLimitBackoffMs", 1L);
+        eventId = UUID.randomUUID();
+        when(refundJobRepository.save(any(RefundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+    
+    @Test
+    void runNextJob_ShouldRefundChunkByChunkAndComplete() {
+        RefundJob job = RefundJob.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        when(refundJobRepository.claimNextJob(any(Instant.class))).thenReturn(Optional.of(job));
+        RefundCandidate first = candidate("50.00");
+        RefundCandidate second = candidate("25.00");
+        RefundCandidate third = candidate("10.00");
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third))
+                .thenReturn(List.of());
+        stubGatewayRefunds();
+        stubLockedOrders();
+        
+        assertTrue(runner.runNextJob());
+        
+        verify(orderRepository).findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES),
+                eq(RefundJobRunner.FIRST_ORDER_ID), any(Pageable.class));
+        verify(orderRepository).findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES),
+                eq(second.getOrderId()), any(Pageable.class));
+        verify(orderRepository).recordFullRefunds(eq(List.of(first.getOrderId(), second.getOrderId())),
+                eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(PaymentStatus.REFUNDED), any(Instant.class));
+        verify(orderRepository).recordFullRefunds(eq(List.of(third.getOrderId())),
+                eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(PaymentStatus.REFUNDED), any(Instant.class));
+        verify(orderRepository).refundActiveItems(List.of(third.getOrderId()));
+        verify(orderRefundRepository, times(2)).saveAll(anyList());
+        verify(paymentGateway).refund(first.getPaymentIntentId(), 5000L, "order-refund-" + first.getOrderId());
+        assertEquals(RefundJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRefundedCount());
+        assertEquals(new BigDecimal("85.00"), job.getRefundedAmount());
+        assertEquals(third.getOrderId(), job.getLastOrderId());
+        assertEquals(3.0, meterRegistry.get("payment.refunds.bulk").tag("result", "refunded").counter().count());
+    }
+    
+    @Test
+    void runNextJob_ShouldResumeFromCheckpoint() {
+        UUID checkpoint = UUID.randomUUID();
+        RefundJob job = RefundJob.builder()
+                .id(UUID.randomUUID())
+                .eventId(eventId)
+                .status(RefundJobStatus.RUNNING)
+                .lastOrderId(checkpoint)
+                .refundedCount(400)
+                .startedAt(Instant.now().minusSeconds(600))
+                .build();
+        when(refundJobRepository.claimNextJob(any(Instant.class))).thenReturn(Optional.of(job));
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(checkpoint), any(Pageable.class)))
+                .thenReturn(List.of());
+        
+        assertTrue(runner.runNextJob());
+        
+        verifyNoInteractions(paymentGateway);
+        assertEquals(RefundJobStatus.COMPLETED, job.getStatus());
+        assertEquals(400, job.getRefundedCount());
+    }
+    
+    @Test
+    void run_ShouldRetryRateLimitedCallsAndCountOtherFailures() {
+        RefundJob job = RefundJob.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        RefundCandidate throttled = candidate("30.00");
+        RefundCandidate declined = candidate("20.00");
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(throttled, declined))
+                .thenReturn(List.of());
+        when(paymentGateway.refund(eq(throttled.getPaymentIntentId()), anyLong(), anyString()))
+                .thenThrow(new PaymentGatewayException(Kind.RATE_LIMITED, "Request rate limit exceeded."))
+                .thenReturn(new GatewayRefund("re_2", "succeeded"));
+        when(paymentGateway.refund(eq(declined.getPaymentIntentId()), anyLong(), anyString()))
+                .thenThrow(new PaymentGatewayException(Kind.INVALID_REQUEST, "charge_already_refunded"));
+        stubLockedOrders();
+        
+        runner.run(job);
+        
+        verify(orderRepository).recordFullRefunds(eq(List.of(throttled.getOrderId())),
+                eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(PaymentStatus.REFUNDED), any(Instant.class));
+        assertEquals(1, job.getRefundedCount());
+        assertEquals(1, job.getFailedCount());
+        assertEquals("charge_already_refunded", job.getLastError());
+        assertEquals(1.0, meterRegistry.get("payment.refunds.bulk.rate_limited").counter().count());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_WhenOrderWasRefundedByHand_ShouldNotRecordItsRefundAgain() {
+        RefundJob job = RefundJob.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        RefundCandidate refundedByHand = candidate("40.00");
+        RefundCandidate confirmed = candidate("15.00");
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(refundedByHand, confirmed))
+                .thenReturn(List.of());
+        stubGatewayRefunds();
+        stubLockedOrders();
+        // The refund by hand used the same key, so the gateway returned its refund to the job
+        Order byHand = orders.get(refundedByHand.getOrderId());
+        byHand.setPaymentStatus(PaymentStatus.REFUNDED);
+        byHand.setRefundCount(1);
+        when(orderRefundRepository.findRecordedGatewayRefundIds(anyList()))
+                .thenReturn(List.of("re_" + refundedByHand.getPaymentIntentId()));
+        
+        runner.run(job);
+        
+        ArgumentCaptor<List<OrderRefund>> entries = ArgumentCaptor.forClass(List.class);
+        verify(orderRefundRepository).saveAll(entries.capture());
+        assertEquals(1, entries.getValue().size());
+        assertEquals(confirmed.getOrderId(), entries.getValue().get(0).getOrderId());
+        assertEquals(1, entries.getValue().get(0).getSequence());
+        assertEquals(new BigDecimal("15.00"), entries.getValue().get(0).getAmount());
+        verify(salesRollupService).recordFullRefunds(List.of(confirmed.getOrderId()));
+        verify(orderRepository).recordFullRefunds(eq(List.of(confirmed.getOrderId())),
+                eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(PaymentStatus.REFUNDED), any(Instant.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_WithPartiallyRefundedOrder_ShouldRefundWhatIsLeftInNextSlot() {
+        RefundJob job = RefundJob.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        RefundCandidate partial = new RefundCandidate(UUID.randomUUID(), "pi_partial", new BigDecimal("60.00"), "USD", 2);
+        Order order = order(partial, PaymentStatus.PARTIALLY_REFUNDED, "100.00", "40.00", 1);
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(partial))
+                .thenReturn(List.of());
+        stubGatewayRefunds();
+        stubLockedOrders();
+        
+        runner.run(job);
+        
+        verify(paymentGateway).refund("pi_partial", 6000L, "order-refund-" + order.getId());
+        ArgumentCaptor<List<OrderRefund>> entries = ArgumentCaptor.forClass(List.class);
+        verify(orderRefundRepository).saveAll(entries.capture());
+        assertEquals(2, entries.getValue().get(0).getSequence());
+        assertEquals(new BigDecimal("60.00"), entries.getValue().get(0).getAmount());
+        verify(salesRollupService).recordFullRefunds(List.of(order.getId()));
+        verify(orderRepository).refundActiveItems(List.of(order.getId()));
+        verify(orderRepository).recordFullRefunds(eq(List.of(order.getId())),
+                eq(RefundJobRunner.REFUNDABLE_STATUSES), eq(PaymentStatus.REFUNDED), any(Instant.class));
+        assertEquals(new BigDecimal("60.00"), job.getRefundedAmount());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_WhenPartialRefundLandsMeanwhile_ShouldStillRecordTheRefund() {
+        RefundJob job = RefundJob.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        RefundCandidate candidate = candidate("100.00");
+        when(orderRepository.findRefundCandidates(eq(eventId), eq(RefundJobRunner.REFUNDABLE_STATUSES), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(candidate))
+                .thenReturn(List.of());
+        stubGatewayRefunds();
+        stubLockedOrders();
+        // A partial refund of one item was recorded between reading the chunk and the checkpoint
+        Order order = order(candidate, PaymentStatus.PARTIALLY_REFUNDED, "100.00", "40.00", 1);
+        OrderItem kept = order.getOrderItems().get(1);
+        
+        runner.run(job);
+        
+        ArgumentCaptor<List<OrderRefund>> entries = ArgumentCaptor.forClass(List.class);
+        verify(orderRefundRepository).saveAll(entries.capture());
+        assertEquals(2, entries.getValue().get(0).getSequence());
+        assertEquals(new BigDecimal("100.00"), entries.getValue().get(0).getAmount());
+        assertEquals(PaymentStatus.REFUNDED, order.getPaymentStatus());
+        assertEquals(2, order.getRefundCount());
+        assertEquals(new BigDecimal("140.00"), order.getRefundedAmount());
+        assertEquals(OrderItemStatus.REFUNDED, kept.getStatus());
+        verify(salesRollupService).recordRefund(order, List.of(kept));
+        verify(orderRepository, never()).recordFullRefunds(anyList(), anyList(), any(), any());
+    }
+    
+    private void stubGatewayRefunds() {
+        when(paymentGateway.refund(anyString(), anyLong(), anyString()))
+                .thenAnswer(invocation -> new GatewayRefund("re_" + invocation.getArgument(0), "succeeded"));
+    }
+    
+    private void stubLockedOrders() {
+        when(orderRepository.lockAllById(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(orders::get).toList();
+        });
+    }
+    
+    private RefundCandidate candidate(String amount) {
+        RefundCandidate candidate = new RefundCandidate(UUID.randomUUID(), "pi_" + UUID.randomUUID(),
+                new BigDecimal(amount), "USD", 1);
+        order(candidate, PaymentStatus.CONFIRMED, amount, "0.00", 0);
+        return candidate;
+    }
+    
+    // An order with a refunded item of refundedAmount (if any) and an active item for the rest
+    private Order order(RefundCandidate candidate, PaymentStatus status, String total, String refunded, int refundCount) {
+        Order order = Order.builder()
+                .id(candidate.getOrderId())
+                .eventId(eventId)
+                .paymentStatus(status)
+                .totalAmount(new BigDecimal(total))
+                .refundedAmount(new BigDecimal(refunded))
+                .refundCount(refundCount)
+                .build();
+        BigDecimal refundedAmount = new BigDecimal(refunded);
+        if (refundedAmount.signum() > 0) {
+            order.addOrderItem(item(refundedAmount, OrderItemStatus.REFUNDED));
+        }
+        order.addOrderItem(item(new BigDecimal(total).subtract(refundedAmount), OrderItemStatus.ACTIVE));
+        orders.put(order.getId(), order);
+        return order;
+    }
+    
+    private OrderItem item(BigDecimal totalPrice, OrderItemStatus status) {
+        return OrderItem.builder()
+                .id(UUID.randomUUID())
+                .ticketTypeId(UUID.randomUUID())
+                .quantity(1)
+                .unitPrice(totalPrice)
+                .subtotal(totalPrice)
+                .totalPrice(totalPrice)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.client.EventServiceClient;
+import com.eventbooking.payment.dto.SalesBucketDto;
+import com.eventbooking.payment.dto.SalesGranularity;
+import com.eventbooking.payment.exception.EventAccessDeniedException;
+import com.eventbooking.payment.exception.InvalidReportRequestException;
+import com.eventbooking.payment.repository.OrderExportRepository;
+import com.eventbooking.payment.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesReportServiceImplTest {
+    
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+    
+    @Mock
+    private OrderExportRepository orderExportRepository;
+    
+    @Mock
+    private EventServiceClient eventServiceClient;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SalesReportServiceImpl salesReportService;
+    
+    private UUID eventId;
+    private UUID organizerId;
+    
+    @BeforeEach
+    void setUp() {
+        salesReportService = new SalesReportServiceImpl(salesRollupRepository, orderExportRepository,
+                eventServiceClient, transactionManager);
+        ReflectionTestUtils.setField(salesReportService, "maxHourlyBuckets", 744L);
+        ReflectionTestUtils.setField(salesReportService, "exportFetchSize", 100);
+        eventId = UUID.randomUUID();
+        organizerId = UUID.randomUUID();
+    }
+    
+    @Test
+    void getSalesTimeSeries_ByDay_ShouldFoldHoursOfEachDay() {
+        when(eventServiceClient.getOrganizerId(eventId)).thenReturn(Optional.of(organizerId));
+        Instant from = Instant.parse("2026-03-01T10:30:00Z");
+        Instant to = Instant.parse("2026-03-02T12:00:00Z");
+        when(salesRollupRepository.sumByHour(eventId, Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-03-03T00:00:00Z")))
+                .thenReturn(List.of(
+                        bucket("2026-03-01T10:00:00Z", 2, "100.00", 0, "0.00"),
+                        bucket("2026-03-01T18:00:00Z", 1, "50.00", 1, "56.00"),
+                        bucket("2026-03-02T09:00:00Z", 4, "200.00", 0, "0.00")));
+        
+        List<SalesBucketDto> days = salesReportService.getSalesTimeSeries(eventId, organizerId, from, to, SalesGranularity.DAY);
+        
+        assertEquals(2, days.size());
+        assertEquals(Instant.parse("2026-03-01T00:00:00Z"), days.get(0).getBucketStart());
+        assertEquals(3L, days.get(0).getTicketsSold());
+        assertEquals(new BigDecimal("150.00"), days.get(0).getGrossAmount());
+        assertEquals(1L, days.get(0).getTicketsRefunded());
+        assertEquals(new BigDecimal("94.00"), days.get(0).getNetAmount());
+        assertEquals(4L, days.get(1).getTicketsSold());
+    }
+    
+    @Test
+    void getSalesTimeSeries_ByHour_ShouldReturnRollupRowsForWholeHours() {
+        when(eventServiceClient.getOrganizerId(eventId)).thenReturn(Optional.of(organizerId));
+        List<SalesBucketDto> hours = List.of(bucket("2026-03-01T10:00:00Z", 2, "100.00", 0, "0.00"));
+        when(salesRollupRepository.sumByHour(eventId, Instant.parse("2026-03-01T10:00:00Z"), Instant.parse("2026-03-01T12:00:00Z")))
+                .thenReturn(hours);
+        
+        assertSame(hours, salesReportService.getSalesTimeSeries(eventId, organizerId,
+                Instant.parse("2026-03-01T10:15:00Z"), Instant.parse("2026-03-01T11:45:00Z"), SalesGranularity.HOUR));
+    }
+    
+    @Test
+    void getSalesTimeSeries_WithRangeTooLong_ShouldReject() {
+        assertThrows(InvalidReportRequestException.class, () -> salesReportService.getSalesTimeSeries(eventId, organizerId,
+                Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z"), SalesGranularity.HOUR));
+        assertThrows(InvalidReportRequestException.class, () -> salesReportService.getSalesTimeSeries(eventId, organizerId,
+                Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z"), SalesGranularity.DAY));
+        verifyNoInteractions(salesRollupRepository);
+    }
+    
+    @Test
+    void getTicketTypeSales_WithRangeEndingBeforeItStarts_ShouldReject() {
+        assertThrows(InvalidReportRequestException.class, () -> salesReportService.getTicketTypeSales(eventId, organizerId,
+                Instant.parse("2026-03-02T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z")));
+        verifyNoInteractions(salesRollupRepository);
+    }
+    
+    @Test
+    void getTicketTypeSales_ForSomeoneElsesEvent_ShouldDenyAccess() {
+        when(eventServiceClient.getOrganizerId(eventId)).thenReturn(Optional.of(organizerId));
+        
+        assertThrows(EventAccessDeniedException.class, () -> salesReportService.getTicketTypeSales(eventId,
+                UUID.randomUUID(), null, null));
+        verifyNoInteractions(salesRollupRepository);
+    }
+    
+    @Test
+    void checkOrganizer_ForUnknownEvent_ShouldDenyAccess() {
+        when(eventServiceClient.getOrganizerId(eventId)).thenReturn(Optional.empty());
+        
+        assertThrows(EventAccessDeniedException.class, () -> salesReportService.checkOrganizer(eventId, organizerId));
+    }
+    
+    @Test
+    void exportOrders_ShouldWriteHeaderAndOneLinePerOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("id")).thenReturn(orderId.toString());
+        when(rs.getString("order_number")).thenReturn("ORD-1,2");
+        when(rs.getString("user_id")).thenReturn(userId.toString());
+        when(rs.getString("payment_status")).thenReturn("CONFIRMED");
+        when(rs.getString("currency")).thenReturn("USD");
+        when(rs.getBigDecimal("subtotal_amount")).thenReturn(new BigDecimal("100.00"));
+        when(rs.getBigDecimal("service_fee")).thenReturn(new BigDecimal("6.00"));
+        when(rs.getBigDecimal("tax_amount")).thenReturn(new BigDecimal("8.48"));
+        when(rs.getBigDecimal("total_amount")).thenReturn(new BigDecimal("114.48"));
+        when(rs.getBigDecimal("refunded_amount")).thenReturn(BigDecimal.ZERO);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.from(Instant.parse("2026-03-01T10:15:00Z")));
+        doAnswer(invocation -> {
+            invocation.getArgument(2, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(orderExportRepository).streamByEvent(eq(eventId), eq(100), any(RowCallbackHandler.class));
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        salesReportService.exportOrders(eventId, output);
+        
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals(SalesReportServiceImpl.CSV_HEADER, lines[0]);
+        assertEquals(orderId + ",\"ORD-1,2\"," + userId + ",CONFIRMED,USD,100.00,6.00,8.48,114.48,0,2026-03-01T10:15:00Z",
+                lines[1]);
+    }
+    
+    private SalesBucketDto bucket(String start, long sold, String gross, long refunded, String refundedAmount) {
+        return new SalesBucketDto(Instant.parse(start), sold, new BigDecimal(gross), BigDecimal.ZERO, BigDecimal.ZERO,
+                refunded, new BigDecimal(refundedAmount));
+    }
+}
@@ -0,0 +1,115 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.dto.TicketTypeTotals;
+import com.eventbooking.payment.entity.Order;
+import com.eventbooking.payment.entity.OrderItem;
+import com.eventbooking.payment.entity.OrderItemStatus;
+import com.eventbooking.payment.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplTest {
+    
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+    
+    private SalesRollupServiceImpl salesRollupService;
+    
+    private UUID eventId;
+    private UUID generalAdmission;
+    private UUID vip;
+    
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupServiceImpl(salesRollupRepository);
+        eventId = UUID.randomUUID();
+        generalAdmission = new UUID(0L, 1L);
+        vip = new UUID(0L, 2L);
+    }
+    
+    @Test
+    void recordSale_ShouldAddActiveItemsPerTicketTypeToCurrentHour() {
+        Order order = Order.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        order.addOrderItem(item(generalAdmission, 2, "100.00", "6.00", "8.48"));
+        order.addOrderItem(item(generalAdmission, 1, "50.00", "3.00", "4.24"));
+        order.addOrderItem(item(vip, 1, "200.00", "12.00", "16.96"));
+        OrderItem cancelled = item(vip, 3, "600.00", "36.00", "50.88");
+        cancelled.setStatus(OrderItemStatus.CANCELLED);
+        order.addOrderItem(cancelled);
+        
+        Instant before = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        salesRollupService.recordSale(order);
+        
+        verify(salesRollupRepository).addToBucket(any(UUID.class), eq(eventId), eq(generalAdmission),
+                argThat(bucket -> !bucket.isBefore(before) && bucket.equals(bucket.truncatedTo(ChronoUnit.HOURS))),
+                eq(3L), eq(1L), eq(new BigDecimal("150.00")), eq(new BigDecimal("9.00")), eq(new BigDecimal("12.72")),
+                eq(0L), eq(BigDecimal.ZERO), any(Instant.class));
+        verify(salesRollupRepository).addToBucket(any(UUID.class), eq(eventId), eq(vip), any(Instant.class),
+                eq(1L), eq(1L), eq(new BigDecimal("200.00")), eq(new BigDecimal("12.00")), eq(new BigDecimal("16.96")),
+                eq(0L), eq(BigDecimal.ZERO), any(Instant.class));
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+    
+    @Test
+    void recordRefund_ShouldAddItemTotalsAsRefunds() {
+        Order order = Order.builder().id(UUID.randomUUID()).eventId(eventId).build();
+        OrderItem refunded = item(vip, 2, "400.00", "24.00", "33.92");
+        order.addOrderItem(refunded);
+        
+        salesRollupService.recordRefund(order, List.of(refunded));
+        
+        verify(salesRollupRepository).addToBucket(any(UUID.class), eq(eventId), eq(vip), any(Instant.class),
+                eq(0L), eq(0L), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO),
+                eq(2L), eq(new BigDecimal("457.92")), any(Instant.class));
+    }
+    
+    @Test
+    void recordFullRefunds_ShouldRefundActiveItemsOfTheOrders() {
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(salesRollupRepository.sumItemsByTicketType(orderIds, OrderItemStatus.ACTIVE)).thenReturn(List.of(
+                new TicketTypeTotals(eventId, generalAdmission, 2L, 5L, new BigDecimal("250.00"),
+                        new BigDecimal("15.00"), new BigDecimal("21.20"), new BigDecimal("286.20"))));
+        
+        salesRollupService.recordFullRefunds(orderIds);
+        
+        verify(salesRollupRepository).addToBucket(any(UUID.class), eq(eventId), eq(generalAdmission), any(Instant.class),
+                eq(0L), eq(0L), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO),
+                eq(5L), eq(new BigDecimal("286.20")), any(Instant.class));
+    }
+    
+    @Test
+    void recordFullRefunds_WithNoOrders_ShouldNotQuery() {
+        salesRollupService.recordFullRefunds(List.of());
+        
+        verifyNoInteractions(salesRollupRepository);
+    }
+    
+    private OrderItem item(UUID ticketTypeId, int quantity, String subtotal, String fees, String tax) {
+        BigDecimal total = new BigDecimal(subtotal).add(new BigDecimal(fees)).add(new BigDecimal(tax));
+        return OrderItem.builder()
+                .id(UUID.randomUUID())
+                .ticketTypeId(ticketTypeId)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(subtotal).divide(BigDecimal.valueOf(quantity)))
+                .subtotal(new BigDecimal(subtotal))
+                .fees(new BigDecimal(fees))
+                .taxAmount(new BigDecimal(tax))
+                .totalPrice(total)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.eventbooking.payment.service;
+
+import com.eventbooking.payment.entity.StripeWebhookDeadLetter;
+import com.eventbooking.payment.entity.StripeWebhookEvent;
+import com.eventbooking.payment.entity.WebhookEventStatus;
+import com.eventbooking.payment.exception.PaymentProcessingException;
+import com.eventbooking.payment.repository.StripeWebhookDeadLetterRepository;
+import com.eventbooking.payment.repository.StripeWebhookEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookProcessorTest {
+    
+    @Mock
+    private StripeWebhookEventRepository webhookEventRepository;
+    
+    @Mock
+    private StripeWebhookDeadLetterRepository deadLetterRepository;
+    
+    @Mock
+    private StripeEventHandler eventHandler;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private StripeWebhookProcessor processor;
+    
+    @BeforeEach
+    void setUp() {
+        processor = new StripeWebhookProcessor(webhookEventRepository, deadLetterRepository, eventHandler,
+                transactionManager, meterRegistry, 2);
+        ReflectionTestUtils.setField(processor, "batchSize", 10);
+        ReflectionTestUtils.setField(processor, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(processor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(processor, "retryInitialDelayMs", 2000L);
+        ReflectionTestUtils.setField(processor, "retryMaxDelayMs", 600000L);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+    
+    @Test
+    void testProcessDueEvents_MarksHandledEventsProcessed() {
+        StripeWebhookEvent first = event("evt_1", "pi_1", 0);
+        StripeWebhookEvent second = event("evt_2", "pi_2", 0);
+        when(webhookEventRepository.claimDueEvents(any(Instant.class), eq(10))).thenReturn(List.of(first, second));
+        
+        assertEquals(2, processor.processDueEvents());
+        
+        verify(eventHandler).handle(first);
+        verify(eventHandler).handle(second);
+        assertEquals(WebhookEventStatus.PROCESSED, first.getStatus());
+        assertNotNull(second.getProcessedAt());
+        verify(webhookEventRepository, times(2)).save(any(StripeWebhookEvent.class));
+        assertEquals(2, meterRegistry.get("payment.webhook.processing.lag").timer().count());
+    }
+    
+    @Test
+    void testProcessDueEvents_FailureIsRescheduled() {
+        StripeWebhookEvent event = event("evt_1", "pi_1", 0);
+        when(webhookEventRepository.claimDueEvents(any(Instant.class), eq(10))).thenReturn(List.of(event));
+        doThrow(new PaymentProcessingException("Transaction not found")).when(eventHandler).handle(event);
+        
+        processor.processDueEvents();
+        
+        assertEquals(WebhookEventStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals("Transaction not found", event.getLastError());
+        verifyNoInteractions(deadLetterRepository);
+    }
+    
+    @Test
+    void testProcessDueEvents_LastAttemptMovesToDeadLetters() {
+        StripeWebhookEvent event = event("evt_1", "pi_1", 2);
+        when(webhookEventRepository.claimDueEvents(any(Instant.class), eq(10))).thenReturn(List.of(event));
+        doThrow(new PaymentProcessingException("Transaction not found")).when(eventHandler).handle(event);
+        
+        processor.processDueEvents();
+        
+        ArgumentCaptor<StripeWebhookDeadLetter> captor = ArgumentCaptor.forClass(StripeWebhookDeadLetter.class);
+        verify(deadLetterRepository).save(captor.capture());
+        assertEquals("evt_1", captor.getValue().getId());
+        assertEquals(3, captor.getValue().getAttempts());
+        verify(webhookEventRepository).deleteById("evt_1");
+    }
+    
+    private StripeWebhookEvent event(String id, String paymentIntentId, int attempts) {
+        Instant receivedAt = Instant.now().minusSeconds(1);
+        return StripeWebhookEvent.builder()
+                .id(id)
+                .type("payment_intent.succeeded")
+                .paymentIntentId(paymentIntentId)
+                .payload("{}")
+                .receivedAt(receivedAt)
+                .nextAttemptAt(receivedAt)
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -39,15 +39,113 @@ CREATE INDEX IF NOT EXISTS idx_events_status ON events(status);
 CREATE INDEX IF NOT EXISTS idx_events_category_id ON events(category_id);
 CREATE INDEX IF NOT EXISTS idx_events_price_range ON events(min_price, max_price);
 
+-- Composite indexes backing keyset (seek) pagination on (event_date, id)
+CREATE INDEX IF NOT EXISTS idx_events_status_date_id ON events(status, event_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_organizer_date_id ON events(organizer_id, event_date, id);
+
+-- Event tags (entity collection Event.tags), normalized to trimmed lower case; replaces the JSON array in events.tags
+CREATE TABLE IF NOT EXISTS event_tags (
+    event_id UUID NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    position INTEGER NOT NULL,
+    tag VARCHAR(50) NOT NULL,
+    PRIMARY KEY (event_id, position)
+);
+
+-- Tag search looks up matching event ids by tag
+CREATE INDEX IF NOT EXISTS idx_event_tags_tag_event ON event_tags(tag, event_id);
+
+-- Move tags out of the legacy JSON column, de-duplicated after normalization
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = 'events' AND column_name = 'tags') THEN
+        INSERT INTO event_tags (event_id, position, tag)
+        SELECT id, ROW_NUMBER() OVER (PARTITION BY id ORDER BY first_position) - 1, tag
+        FROM (
+            SELECT e.id, LEFT(LOWER(TRIM(t.value)), 50) AS tag, MIN(t.ordinality) AS first_position
+            FROM events e
+            CROSS JOIN LATERAL jsonb_array_elements_text(e.tags::jsonb) WITH ORDINALITY AS t(value, ordinality)
+            WHERE e.tags IS NOT NULL AND TRIM(e.tags) <> '' AND TRIM(t.value) <> ''
+            GROUP BY e.id, LEFT(LOWER(TRIM(t.value)), 50)
+        ) normalized
+        ON CONFLICT DO NOTHING;
+
+        ALTER TABLE events DROP COLUMN tags;
+    END IF;
+END $$;
+
+-- Denormalized search read model (entity EventSearchView), maintained by the event service on every write
+CREATE TABLE IF NOT EXISTS event_search_view (
+    event_id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    venue_id UUID,
+    venue_name VARCHAR(255),
+    venue_name_normalized VARCHAR(255),
+    city VARCHAR(100),
+    city_normalized VARCHAR(100),
+    category_id UUID,
+    category_name VARCHAR(100),
+    event_date TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    min_price NUMERIC(10, 2),
+    max_price NUMERIC(10, 2),
+    latitude NUMERIC(10, 8),
+    longitude NUMERIC(11, 8),
+    geohash VARCHAR(12)
+);
+
+-- Full-text document, computed by PostgreSQL and not mapped by JPA
+ALTER TABLE event_search_view ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', COALESCE(name, '')), 'A') ||
+    setweight(to_tsvector('english', COALESCE(venue_name, '') || ' ' || COALESCE(category_name, '') || ' ' || COALESCE(city, '')), 'B') ||
+    setweight(to_tsvector('english', COALESCE(description, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_event_search_vector ON event_search_view USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_event_search_status_date_id ON event_search_view(status, event_date, event_id);
+CREATE INDEX IF NOT EXISTS idx_event_search_city_date ON event_search_view(status, city_normalized, event_date);
+CREATE INDEX IF NOT EXISTS idx_event_search_category_date ON event_search_view(status, category_id, event_date);
+CREATE INDEX IF NOT EXISTS idx_event_search_price ON event_search_view(status, min_price, max_price);
+-- Proximity search prunes to geohash cell prefixes with range scans on this index
+CREATE INDEX IF NOT EXISTS idx_event_search_geohash ON event_search_view(status, geohash);
+
+-- Backfill the read model from existing events
+INSERT INTO event_search_view (event_id, name, description, venue_id, venue_name, venue_name_normalized, city, city_normalized,
+                               category_id, category_name, event_date, status, min_price, max_price, latitude, longitude)
+SELECT e.id, e.name, e.description, v.id, v.name, LOWER(TRIM(v.name)), v.city, LOWER(TRIM(v.city)),
+       c.id, c.name, e.event_date, e.status, e.min_price, e.max_price, v.latitude, v.longitude
+FROM events e
+LEFT JOIN venues v ON v.id = e.venue_id
+LEFT JOIN event_categories c ON c.id = e.category_id
+ON CONFLICT (event_id) DO NOTHING;
+
+-- Refund job requests for cancelled events (entity RefundRequest), written in the cancel transaction
+-- and deleted once the Payment Service accepts them
+CREATE TABLE IF NOT EXISTS refund_requests (
+    event_id UUID PRIMARY KEY,
+    reason VARCHAR(255) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_refund_requests_next_attempt ON refund_requests(next_attempt_at);
+
 -- Create full-text search index
 CREATE INDEX IF NOT EXISTS idx_events_search_text ON events USING GIN (to_tsvector('english', name || ' ' || COALESCE(description, '')));
 
 -- Create geospatial index for venues
 CREATE INDEX IF NOT EXISTS idx_venues_location ON venues USING GIST (point(longitude, latitude));
 CREATE INDEX IF NOT EXISTS idx_venues_city ON venues(city);
+CREATE INDEX IF NOT EXISTS idx_venues_geohash ON venues(geohash);
 
--- Create index for venue name and city combination
-CREATE INDEX IF NOT EXISTS idx_venues_name_city ON venues(name, city);
+-- Canonical venue identity (VenueKeys: lower-cased, trimmed, accent-stripped "name|city").
+-- Venue lookups go through the unique index and concurrent creates of the same venue insert one row.
+-- Keys for existing venues are filled in by the service at startup, in Java so they match exactly,
+-- merging venues that turn out to be duplicates; the name/city index is superseded.
+ALTER TABLE venues ADD COLUMN IF NOT EXISTS normalized_key VARCHAR(400);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_venues_normalized_key ON venues(normalized_key);
+DROP INDEX IF EXISTS idx_venues_name_city;
 
 -- Create index for category active status
 CREATE INDEX IF NOT EXISTS idx_categories_active_order ON event_categories(is_active, display_order);
\ No newline at end of file
@@ -4,13 +4,37 @@
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
 -- Create indexes for better performance
-CREATE INDEX IF NOT EXISTS idx_orders_user_id ON orders(user_id);
-CREATE INDEX IF NOT EXISTS idx_orders_event_id ON orders(event_id);
+-- A user's orders, newest first; also serves lookups by user alone
+DROP INDEX IF EXISTS idx_orders_user_id;
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at ON orders(user_id, created_at DESC);
+-- An event's orders by time (sales exports); also serves lookups by event alone
+DROP INDEX IF EXISTS idx_orders_event_id;
+CREATE INDEX IF NOT EXISTS idx_orders_event_created_at ON orders(event_id, created_at);
 CREATE INDEX IF NOT EXISTS idx_orders_order_number ON orders(order_number);
 CREATE INDEX IF NOT EXISTS idx_orders_payment_status ON orders(payment_status);
+-- Unpaid orders past their expiry, for the expiry sweeper
+CREATE INDEX IF NOT EXISTS idx_orders_status_expires_at ON orders(payment_status, expires_at);
 CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
 CREATE INDEX IF NOT EXISTS idx_order_items_ticket_type_id ON order_items(ticket_type_id);
 CREATE INDEX IF NOT EXISTS idx_payment_transactions_order_id ON payment_transactions(order_id);
 CREATE INDEX IF NOT EXISTS idx_payment_transactions_gateway_transaction_id ON payment_transactions(gateway_transaction_id);
-CREATE INDEX IF NOT EXISTS idx_payment_transactions_status ON payment_transactions(status);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_payment_transactions_status ON payment_transactions(status);
+
+-- Hourly sales per event and ticket type, added to as orders are paid and refunded
+CREATE TABLE IF NOT EXISTS sales_rollups (
+    id UUID PRIMARY KEY,
+    event_id UUID NOT NULL,
+    ticket_type_id UUID NOT NULL,
+    bucket_start TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    tickets_sold BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    gross_amount NUMERIC(14, 2) NOT NULL,
+    fee_amount NUMERIC(14, 2) NOT NULL,
+    tax_amount NUMERIC(14, 2) NOT NULL,
+    tickets_refunded BIGINT NOT NULL,
+    refunded_amount NUMERIC(14, 2) NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_sales_rollups_event_type_bucket UNIQUE (event_id, ticket_type_id, bucket_start)
+);
+CREATE INDEX IF NOT EXISTS idx_sales_rollups_event_bucket ON sales_rollups(event_id, bucket_start);
@@ -0,0 +1,87 @@
+package com.eventbooking.common.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Sent by the Payment Service when an unpaid order passes its expiry and is cancelled, so the
+ * Ticket Service can release the reservation the order was holding.
+ */
+public class OrderExpiredEvent {
+    public static final String TYPE = "OrderExpired";
+
+    private UUID id;
+    private Instant occurredAt;
+    private UUID orderId;
+    private String orderNumber;
+    private UUID userId;
+    private UUID eventId;
+    private UUID reservationId;
+    private Instant expiresAt;
+
+    public OrderExpiredEvent() {}
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(UUID reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,146 @@
+package com.eventbooking.common.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the Payment Service through its outbox once an order is paid. Delivery is
+ * at least once, so consumers use {@code id} to recognise redeliveries.
+ */
+public class PaymentCompletedEvent {
+    public static final String TYPE = "PaymentCompleted";
+
+    private UUID id;
+    private Instant occurredAt;
+    private UUID orderId;
+    private String orderNumber;
+    private UUID userId;
+    private UUID eventId;
+    private String customerEmail;
+    private BigDecimal totalAmount;
+    private String currency;
+    private List<Item> items = new ArrayList<>();
+
+    public PaymentCompletedEvent() {}
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+        private UUID ticketTypeId;
+        private int quantity;
+        private BigDecimal unitPrice;
+
+        public Item() {}
+
+        public Item(UUID ticketTypeId, int quantity, BigDecimal unitPrice) {
+            this.ticketTypeId = ticketTypeId;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+        }
+
+        public UUID getTicketTypeId() {
+            return ticketTypeId;
+        }
+
+        public void setTicketTypeId(UUID ticketTypeId) {
+            this.ticketTypeId = ticketTypeId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.eventbooking.common.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sent by the Ticket Service once an order's tickets exist. The id is derived from the
+ * {@link PaymentCompletedEvent} it answers, so a redelivered payment event produces the
+ * same tickets-generated id and the Notification Service delivers the tickets once.
+ */
+public class TicketsGeneratedEvent {
+    public static final String TYPE = "TicketsGenerated";
+
+    private UUID id;
+    private Instant occurredAt;
+    private UUID orderId;
+    private UUID userId;
+    private UUID eventId;
+    private String customerEmail;
+    private List<UUID> ticketIds = new ArrayList<>();
+
+    public TicketsGeneratedEvent() {}
+
+    public static UUID idFor(UUID paymentCompletedId) {
+        return UUID.nameUUIDFromBytes((TYPE + ":" + paymentCompletedId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public List<UUID> getTicketIds() {
+        return ticketIds;
+    }
+
+    public void setTicketIds(List<UUID> ticketIds) {
+        this.ticketIds = ticketIds;
+    }
+}
\ No newline at end of file
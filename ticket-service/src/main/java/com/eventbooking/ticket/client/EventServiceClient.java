@@ -0,0 +1,93 @@
+package com.eventbooking.ticket.client;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls the Event Service internal API.
+ */
+@Component
+public class EventServiceClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventServiceClient.class);
+    
+    private final RestTemplate restTemplate;
+    
+    // Discovery signals are best effort: one sender thread, and signals are dropped when it falls behind
+    private final ThreadPoolExecutor signalExecutor = new ThreadPoolExecutor(
+        1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+        runnable -> {
+            Thread thread = new Thread(runnable, "event-signal-sender");
+            thread.setDaemon(true);
+            return thread;
+        },
+        new ThreadPoolExecutor.DiscardPolicy());
+    
+    @Value("${services.event-service.url:http://localhost:8082}")
+    private String eventServiceUrl;
+    
+    @Autowired
+    public EventServiceClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+    
+    /**
+     * Pushes an event's ticket price range so the event's search read model can filter on it.
+     * Failures are thrown as {@link RestClientException}; see EventPriceRangeSync for retries.
+     */
+    public void updatePriceRange(UUID eventId, BigDecimal minPrice, BigDecimal maxPrice) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("minPrice", minPrice);
+        body.put("maxPrice", maxPrice);
+        
+        restTemplate.put(eventServiceUrl + "/api/events/internal/" + eventId + "/price-range", body);
+    }
+    
+    /**
+     * Counts a reservation towards the event's trending and popular rankings. Sent in the
+     * background once the caller's transaction commits, so reserving never waits on the
+     * Event Service and rolled-back reservations are not counted.
+     */
+    public void recordReservation(UUID eventId, int quantity) {
+        Runnable send = () -> {
+            try {
+                restTemplate.postForLocation(
+                    eventServiceUrl + "/api/events/internal/" + eventId + "/reservations?quantity=" + quantity, null);
+            } catch (RestClientException e) {
+                logger.debug("Failed to record reservation for event {}: {}", eventId, e.getMessage());
+            }
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signalExecutor.execute(send);
+                }
+            });
+        } else {
+            signalExecutor.execute(send);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        signalExecutor.shutdown();
+    }
+}
@@ -0,0 +1,37 @@
+package com.eventbooking.ticket.client;
+
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Calls the Notification Service event API.
+ */
+@Component
+public class NotificationServiceClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationServiceClient.class);
+    
+    private final RestTemplate restTemplate;
+    
+    @Value("${services.notification-service.url:http://localhost:8085}")
+    private String notificationServiceUrl;
+    
+    @Autowired
+    public NotificationServiceClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+    
+    /**
+     * Hands generated tickets over for delivery. Failures propagate so the payment event that
+     * triggered the tickets is redelivered; the Notification Service ignores repeated ids.
+     */
+    public void ticketsGenerated(TicketsGeneratedEvent event) {
+        restTemplate.postForLocation(notificationServiceUrl + "/api/notifications/events/tickets-generated", event);
+        logger.debug("Sent tickets generated event {} for order {}", event.getId(), event.getOrderId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.eventbooking.ticket.controller;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.ticket.service.PaymentEventConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives integration events from other services. A 2xx response acknowledges the event;
+ * anything else makes the sender retry it.
+ */
+@RestController
+@RequestMapping("/api/tickets/events")
+public class TicketEventController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TicketEventController.class);
+    
+    private final PaymentEventConsumer paymentEventConsumer;
+    
+    public TicketEventController(PaymentEventConsumer paymentEventConsumer) {
+        this.paymentEventConsumer = paymentEventConsumer;
+    }
+    
+    @PostMapping("/payment-completed")
+    public ResponseEntity<Void> paymentCompleted(@RequestBody PaymentCompletedEvent event) {
+        logger.info("Received payment completed event {} for order: {}", event.getId(), event.getOrderId());
+        
+        paymentEventConsumer.onPaymentCompleted(event);
+        
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/order-expired")
+    public ResponseEntity<Void> orderExpired(@RequestBody OrderExpiredEvent event) {
+        logger.info("Received order expired event {} for order: {}", event.getId(), event.getOrderId());
+        
+        paymentEventConsumer.onOrderExpired(event);
+        
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,4 +26,13 @@ public interface TicketTypeRepository extends JpaRepository<TicketType, UUID> {
            "(t.saleStartDate IS NULL OR t.saleStartDate <= CURRENT_TIMESTAMP) AND " +
            "(t.saleEndDate IS NULL OR t.saleEndDate > CURRENT_TIMESTAMP)")
     List<TicketType> findAvailableTicketTypesByEventId(@Param("eventId") UUID eventId);
+    
+    @Query("SELECT MIN(t.price) AS minPrice, MAX(t.price) AS maxPrice FROM TicketType t WHERE t.eventId = :eventId")
+    PriceRange findPriceRangeByEventId(@Param("eventId") UUID eventId);
+    
+    interface PriceRange {
+        BigDecimal getMinPrice();
+        
+        BigDecimal getMaxPrice();
+    }
 }
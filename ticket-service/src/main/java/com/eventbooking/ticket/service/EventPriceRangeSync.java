@@ -0,0 +1,128 @@
+package com.eventbooking.ticket.service;
+
+import com.eventbooking.ticket.client.EventServiceClient;
+import com.eventbooking.ticket.repository.TicketTypeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the Event Service's copy of each event's ticket price range, which event search
+ * filters on, up to date. A sync runs once the ticket type change has committed, on a single
+ * background thread, and reads the range afresh; the Event Service only ever sees committed
+ * prices and the last sync sent carries the latest range. Events whose sync failed stay
+ * pending and are retried every {@code ticket.price-range-sync.retry-interval-ms}.
+ */
+@Component
+public class EventPriceRangeSync {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventPriceRangeSync.class);
+    
+    private final TicketTypeRepository ticketTypeRepository;
+    private final EventServiceClient eventServiceClient;
+    private final Executor executor;
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Counter failures;
+    
+    @Autowired
+    public EventPriceRangeSync(TicketTypeRepository ticketTypeRepository,
+                               EventServiceClient eventServiceClient,
+                               MeterRegistry meterRegistry) {
+        // A full queue drops the task, not the event: it stays pending for the next retry
+        this(ticketTypeRepository, eventServiceClient, meterRegistry, new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+            runnable -> {
+                Thread thread = new Thread(runnable, "event-price-range-sync");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()));
+    }
+    
+    EventPriceRangeSync(TicketTypeRepository ticketTypeRepository,
+                        EventServiceClient eventServiceClient,
+                        MeterRegistry meterRegistry,
+                        Executor executor) {
+        this.ticketTypeRepository = ticketTypeRepository;
+        this.eventServiceClient = eventServiceClient;
+        this.executor = executor;
+        this.failures = meterRegistry.counter("ticket.price_range_sync.failures");
+        Gauge.builder("ticket.price_range_sync.pending", pending, Set::size)
+            .description("Events whose price range has not reached the Event Service yet")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Sends the event's price range once the caller's transaction commits; nothing is sent if
+     * it rolls back.
+     */
+    public void requestSync(UUID eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(eventId);
+                }
+            });
+        } else {
+            submit(eventId);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ticket.price-range-sync.retry-interval-ms:30000}")
+    public void retryPending() {
+        List<UUID> eventIds = List.copyOf(pending);
+        if (!eventIds.isEmpty()) {
+            logger.info("Retrying price range sync for {} events", eventIds.size());
+            eventIds.forEach(eventId -> executor.execute(() -> sync(eventId)));
+        }
+    }
+    
+    private void submit(UUID eventId) {
+        pending.add(eventId);
+        executor.execute(() -> sync(eventId));
+    }
+    
+    private void sync(UUID eventId) {
+        // Already sent by an earlier task that read the same or a newer range
+        if (!pending.remove(eventId)) {
+            return;
+        }
+        try {
+            TicketTypeRepository.PriceRange priceRange = ticketTypeRepository.findPriceRangeByEventId(eventId);
+            eventServiceClient.updatePriceRange(
+                eventId,
+                priceRange != null ? priceRange.getMinPrice() : null,
+                priceRange != null ? priceRange.getMaxPrice() : null);
+        } catch (RuntimeException e) {
+            pending.add(eventId);
+            failures.increment();
+            logger.error("Failed to sync price range for event {}, will retry: {}", eventId, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
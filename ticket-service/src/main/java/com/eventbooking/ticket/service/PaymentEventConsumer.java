@@ -0,0 +1,74 @@
+package com.eventbooking.ticket.service;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import com.eventbooking.ticket.client.NotificationServiceClient;
+import com.eventbooking.ticket.dto.TicketDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Handles payment events relayed from the Payment Service outbox. Delivery is at least once,
+ * so handling the same event again must be harmless: tickets are only generated for what the
+ * order is still missing, counted under a lock so concurrent deliveries cannot both issue them,
+ * and the follow-up event carries an id derived from the payment event so the Notification
+ * Service delivers the tickets once. An expired order releases its reservation only while the
+ * reservation is still active.
+ */
+@Component
+public class PaymentEventConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentEventConsumer.class);
+    
+    private final TicketService ticketService;
+    private final TicketTypeService ticketTypeService;
+    private final NotificationServiceClient notificationServiceClient;
+    
+    public PaymentEventConsumer(TicketService ticketService,
+                                TicketTypeService ticketTypeService,
+                                NotificationServiceClient notificationServiceClient) {
+        this.ticketService = ticketService;
+        this.ticketTypeService = ticketTypeService;
+        this.notificationServiceClient = notificationServiceClient;
+    }
+    
+    public void onPaymentCompleted(PaymentCompletedEvent event) {
+        List<TicketDto> tickets = ticketService.fulfillOrder(event);
+        
+        if (tickets.isEmpty()) {
+            logger.warn("Payment event {} for order {} produced no tickets", event.getId(), event.getOrderId());
+            return;
+        }
+        
+        // Sent after the tickets are committed; if it fails the payment event is retried
+        TicketsGeneratedEvent ticketsGenerated = new TicketsGeneratedEvent();
+        ticketsGenerated.setId(TicketsGeneratedEvent.idFor(event.getId()));
+        ticketsGenerated.setOccurredAt(Instant.now());
+        ticketsGenerated.setOrderId(event.getOrderId());
+        ticketsGenerated.setUserId(event.getUserId());
+        ticketsGenerated.setEventId(event.getEventId());
+        ticketsGenerated.setCustomerEmail(event.getCustomerEmail());
+        ticketsGenerated.setTicketIds(tickets.stream()
+                .map(TicketDto::getId)
+                .collect(Collectors.toList()));
+        
+        notificationServiceClient.ticketsGenerated(ticketsGenerated);
+    }
+    
+    public void onOrderExpired(OrderExpiredEvent event) {
+        if (event.getReservationId() == null) {
+            logger.warn("Expired order {} has no reservation to release", event.getOrderId());
+            return;
+        }
+        
+        boolean released = ticketTypeService.releaseReservation(event.getReservationId());
+        logger.info("Order {} expired; reservation {} {}", event.getOrderId(), event.getReservationId(),
+                released ? "released" : "was already released");
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventbooking.ticket.service;
 
+import com.eventbooking.common.dto.PaymentCompletedEvent;
 import com.eventbooking.ticket.dto.GenerateTicketsRequest;
 import com.eventbooking.ticket.dto.TicketDto;
 
@@ -15,6 +16,14 @@ public interface TicketService {
      */
     List<TicketDto> generateTickets(GenerateTicketsRequest request);
     
+    /**
+     * Issue the tickets for a paid order. Safe to call again for the same order: only
+     * tickets the order does not have yet are generated
+     * @param event The payment completed event
+     * @return All tickets of the order
+     */
+    List<TicketDto> fulfillOrder(PaymentCompletedEvent event);
+    
     /**
      * Get a ticket by its ID
      * @param ticketId The ticket ID
@@ -1,5 +1,6 @@
 package com.eventbooking.ticket.service;
 
+import com.eventbooking.common.dto.PaymentCompletedEvent;
 import com.eventbooking.ticket.dto.GenerateTicketsRequest;
 import com.eventbooking.ticket.dto.TicketDto;
 import com.eventbooking.ticket.entity.Ticket;
@@ -17,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -41,7 +44,7 @@ public class TicketServiceImpl implements TicketService {
         this.ticketMapper = ticketMapper;
         this.qrCodeService = qrCodeService;
     }
-
+    
     @Override
     @Transactional
     public List<TicketDto> generateTickets(GenerateTicketsRequest request) {
@@ -55,30 +58,8 @@ public class TicketServiceImpl implements TicketService {
         List<TicketDto> generatedTickets = new ArrayList<>();
         
         for (int i = 0; i < request.getQuantity(); i++) {
-            Ticket ticket = new Ticket();
-            ticket.setTicketTypeId(request.getTicketTypeId());
-            ticket.setOrderId(request.getOrderId());
-            ticket.setHolderName(request.getHolderName());
-            ticket.setStatus(Ticket.TicketStatus.ACTIVE);
-            
-            // Generate unique ticket number
-            String ticketNumber = generateUniqueTicketNumber(ticketType.getEventId());
-            ticket.setTicketNumber(ticketNumber);
-            
-            // Save ticket first to get the ID
-            ticket = ticketRepository.save(ticket);
-            
-            // Generate QR code with ticket ID and number
-            String qrCode = qrCodeService.generateQRCode(
-                    ticket.getId().toString(), 
-                    ticket.getTicketNumber());
-            ticket.setQrCode(qrCode);
-            
-            // Update ticket with QR code
-            ticket = ticketRepository.save(ticket);
-            
+            Ticket ticket = createTicket(ticketType, request.getOrderId(), request.getHolderName());
             generatedTickets.add(ticketMapper.toDto(ticket));
-            logger.debug("Generated ticket: {}", ticket.getTicketNumber());
         }
         
         logger.info("Successfully generated {} tickets for order: {}", 
@@ -86,7 +67,46 @@ public class TicketServiceImpl implements TicketService {
         
         return generatedTickets;
     }
-
+    
+    @Override
+    @Transactional
+    public List<TicketDto> fulfillOrder(PaymentCompletedEvent event) {
+        logger.info("Fulfilling order: {} from payment event: {}", event.getOrderId(), event.getId());
+        
+        // Two deliveries of the same event running at once would both see the order's tickets
+        // as missing. Locking the order's ticket types first, in id order so deliveries cannot
+        // deadlock, makes the second wait and then count the tickets the first committed.
+        Map<UUID, TicketType> ticketTypes = new HashMap<>();
+        event.getItems().stream()
+                .map(PaymentCompletedEvent.Item::getTicketTypeId)
+                .sorted()
+                .distinct()
+                .forEach(ticketTypeId -> ticketTypes.put(ticketTypeId,
+                        ticketTypeRepository.findByIdWithLock(ticketTypeId)
+                                .orElseThrow(() -> new TicketTypeNotFoundException(
+                                        "Ticket type not found: " + ticketTypeId))));
+        
+        List<Ticket> tickets = new ArrayList<>(ticketRepository.findByOrderId(event.getOrderId()));
+        Map<UUID, Long> issued = tickets.stream()
+                .collect(Collectors.groupingBy(Ticket::getTicketTypeId, Collectors.counting()));
+        
+        for (PaymentCompletedEvent.Item item : event.getItems()) {
+            long missing = item.getQuantity() - issued.getOrDefault(item.getTicketTypeId(), 0L);
+            if (missing <= 0) {
+                continue;
+            }
+            
+            TicketType ticketType = ticketTypes.get(item.getTicketTypeId());
+            for (int i = 0; i < missing; i++) {
+                tickets.add(createTicket(ticketType, event.getOrderId(), null));
+            }
+        }
+        
+        return tickets.stream()
+                .map(ticketMapper::toDto)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public TicketDto getTicketById(UUID ticketId) {
         logger.debug("Retrieving ticket by ID: {}", ticketId);
@@ -128,7 +148,7 @@ public class TicketServiceImpl implements TicketService {
         logger.warn("getTicketsByUserId requires Payment Service integration - returning empty list");
         return new ArrayList<>();
     }
-
+    
     @Override
     @Transactional
     public void cancelTicket(UUID ticketId) {
@@ -165,7 +185,34 @@ public class TicketServiceImpl implements TicketService {
         
         return ticketMapper.toDto(ticket);
     }
-
+    
+    private Ticket createTicket(TicketType ticketType, UUID orderId, String holderName) {
+        Ticket ticket = new Ticket();
+        ticket.setTicketTypeId(ticketType.getId());
+        ticket.setOrderId(orderId);
+        ticket.setHolderName(holderName);
+        ticket.setStatus(Ticket.TicketStatus.ACTIVE);
+        
+        // Generate unique ticket number
+        String ticketNumber = generateUniqueTicketNumber(ticketType.getEventId());
+        ticket.setTicketNumber(ticketNumber);
+        
+        // Save ticket first to get the ID
+        ticket = ticketRepository.save(ticket);
+        
+        // Generate QR code with ticket ID and number
+        String qrCode = qrCodeService.generateQRCode(
+                ticket.getId().toString(), 
+                ticket.getTicketNumber());
+        ticket.setQrCode(qrCode);
+        
+        // Update ticket with QR code
+        ticket = ticketRepository.save(ticket);
+        
+        logger.debug("Generated ticket: {}", ticket.getTicketNumber());
+        return ticket;
+    }
+    
     /**
      * Generate a unique ticket number
      * Format: EVT-{eventId-first8}-{timestamp}-{random4}
@@ -51,6 +51,14 @@ public interface TicketTypeService {
      */
     void cancelReservation(UUID reservationId, UUID userId);
     
+    /**
+     * Release a reservation whose order expired unpaid. Does nothing if the reservation is
+     * missing or no longer active, so a redelivered release is harmless.
+     *
+     * @return true if the reservation was released by this call
+     */
+    boolean releaseReservation(UUID reservationId);
+    
     /**
      * Get user's active reservations
      */
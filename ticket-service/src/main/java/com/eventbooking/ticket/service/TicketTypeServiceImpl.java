@@ -1,5 +1,6 @@
 package com.eventbooking.ticket.service;
 
+import com.eventbooking.ticket.client.EventServiceClient;
 import com.eventbooking.ticket.dto.*;
 import com.eventbooking.ticket.entity.TicketReservation;
 import com.eventbooking.ticket.entity.TicketReservation.ReservationStatus;
@@ -32,6 +33,8 @@ public class TicketTypeServiceImpl implements TicketTypeService {
     private final TicketReservationRepository reservationRepository;
     private final TicketTypeMapper ticketTypeMapper;
     private final InventoryService inventoryService;
+    private final EventServiceClient eventServiceClient;
+    private final EventPriceRangeSync priceRangeSync;
     
     @Value("${ticket.reservation.timeout-minutes:15}")
     private int reservationTimeoutMinutes;
@@ -41,11 +44,15 @@ public class TicketTypeServiceImpl implements TicketTypeService {
             TicketTypeRepository ticketTypeRepository,
             TicketReservationRepository reservationRepository,
             TicketTypeMapper ticketTypeMapper,
-            InventoryService inventoryService) {
+            InventoryService inventoryService,
+            EventServiceClient eventServiceClient,
+            EventPriceRangeSync priceRangeSync) {
         this.ticketTypeRepository = ticketTypeRepository;
         this.reservationRepository = reservationRepository;
         this.ticketTypeMapper = ticketTypeMapper;
         this.inventoryService = inventoryService;
+        this.eventServiceClient = eventServiceClient;
+        this.priceRangeSync = priceRangeSync;
     }
     
     @Override
@@ -75,6 +82,7 @@ public class TicketTypeServiceImpl implements TicketTypeService {
         
         // Initialize inventory in Redis
         inventoryService.syncInventoryFromDatabase(savedTicketType.getId());
+        priceRangeSync.requestSync(savedTicketType.getEventId());
         
         logger.info("Created ticket type: {} for event: {}", savedTicketType.getId(), request.getEventId());
         
@@ -151,6 +159,9 @@ public class TicketTypeServiceImpl implements TicketTypeService {
         
         // Sync inventory to Redis
         inventoryService.syncInventoryFromDatabase(savedTicketType.getId());
+        if (request.getPrice() != null) {
+            priceRangeSync.requestSync(savedTicketType.getEventId());
+        }
         
         logger.info("Updated ticket type: {}", ticketTypeId);
         
@@ -171,6 +182,7 @@ public class TicketTypeServiceImpl implements TicketTypeService {
         
         ticketTypeRepository.delete(ticketType);
         inventoryService.clearInventoryCache(ticketTypeId);
+        priceRangeSync.requestSync(ticketType.getEventId());
         
         logger.info("Deleted ticket type: {}", ticketTypeId);
     }
@@ -220,6 +232,7 @@ public class TicketTypeServiceImpl implements TicketTypeService {
             
             logger.info("Reserved {} tickets for user: {} on ticket type: {}", 
                        quantity, userId, ticketTypeId);
+            eventServiceClient.recordReservation(ticketType.getEventId(), quantity);
             
             return toReservationDto(savedReservation);
             
@@ -261,6 +274,28 @@ public class TicketTypeServiceImpl implements TicketTypeService {
         logger.info("Cancelled reservation: {} for user: {}", reservationId, userId);
     }
     
+    @Override
+    public boolean releaseReservation(UUID reservationId) {
+        TicketReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null || reservation.getStatus() != ReservationStatus.ACTIVE) {
+            logger.debug("Reservation {} is not active, nothing to release", reservationId);
+            return false;
+        }
+        
+        inventoryService.releaseReservation(reservation.getTicketTypeId(), reservation.getQuantity());
+        
+        reservation.setStatus(ReservationStatus.EXPIRED);
+        reservationRepository.save(reservation);
+        
+        ticketTypeRepository.findById(reservation.getTicketTypeId()).ifPresent(ticketType -> {
+            ticketType.setQuantityReserved(ticketType.getQuantityReserved() - reservation.getQuantity());
+            ticketTypeRepository.save(ticketType);
+        });
+        
+        logger.info("Released reservation {} of expired order", reservationId);
+        return true;
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<ReservationDto> getUserActiveReservations(UUID userId) {
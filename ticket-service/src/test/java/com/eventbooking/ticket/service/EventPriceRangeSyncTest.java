@@ -0,0 +1,97 @@
+package com.eventbooking.ticket.service;
+
+import com.eventbooking.ticket.client.EventServiceClient;
+import com.eventbooking.ticket.repository.TicketTypeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPriceRangeSyncTest {
+
+    @Mock
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Mock
+    private EventServiceClient eventServiceClient;
+
+    @Mock
+    private TicketTypeRepository.PriceRange priceRange;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventPriceRangeSync priceRangeSync;
+    private UUID eventId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Runs tasks on the calling thread
+        priceRangeSync = new EventPriceRangeSync(ticketTypeRepository, eventServiceClient, meterRegistry, Runnable::run);
+        eventId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void requestSync_InTransaction_ShouldSendOnlyAfterCommit() {
+        stubPriceRange();
+        TransactionSynchronizationManager.initSynchronization();
+
+        priceRangeSync.requestSync(eventId);
+        verifyNoInteractions(ticketTypeRepository, eventServiceClient);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(eventServiceClient).updatePriceRange(eventId, new BigDecimal("50.00"), new BigDecimal("150.00"));
+    }
+
+    @Test
+    void requestSync_WhenEventServiceFails_ShouldKeepEventPendingAndRetry() {
+        stubPriceRange();
+        doThrow(new ResourceAccessException("Connection refused"))
+            .doNothing()
+            .when(eventServiceClient).updatePriceRange(any(), any(), any());
+
+        priceRangeSync.requestSync(eventId);
+
+        assertEquals(1.0, meterRegistry.get("ticket.price_range_sync.failures").counter().count());
+        assertEquals(1.0, meterRegistry.get("ticket.price_range_sync.pending").gauge().value());
+
+        priceRangeSync.retryPending();
+
+        verify(eventServiceClient, times(2)).updatePriceRange(eventId, new BigDecimal("50.00"), new BigDecimal("150.00"));
+        assertEquals(0.0, meterRegistry.get("ticket.price_range_sync.pending").gauge().value());
+    }
+
+    @Test
+    void requestSync_WhenEventHasNoTicketTypesLeft_ShouldClearRange() {
+        priceRangeSync.requestSync(eventId);
+
+        verify(eventServiceClient).updatePriceRange(eq(eventId), isNull(), isNull());
+    }
+
+    private void stubPriceRange() {
+        when(priceRange.getMinPrice()).thenReturn(new BigDecimal("50.00"));
+        when(priceRange.getMaxPrice()).thenReturn(new BigDecimal("150.00"));
+        when(ticketTypeRepository.findPriceRangeByEventId(eventId)).thenReturn(priceRange);
+    }
+}
@@ -0,0 +1,81 @@
+package com.eventbooking.ticket.service;
+
+import com.eventbooking.common.dto.OrderExpiredEvent;
+import com.eventbooking.common.dto.PaymentCompletedEvent;
+import com.eventbooking.common.dto.TicketsGeneratedEvent;
+import com.eventbooking.ticket.client.NotificationServiceClient;
+import com.eventbooking.ticket.dto.TicketDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventConsumerTest {
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private TicketTypeService ticketTypeService;
+
+    @Mock
+    private NotificationServiceClient notificationServiceClient;
+
+    @InjectMocks
+    private PaymentEventConsumer paymentEventConsumer;
+
+    @Test
+    void onPaymentCompleted_ShouldForwardTicketsUnderStableId() {
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(UUID.randomUUID());
+        event.setCustomerEmail("buyer@example.com");
+
+        TicketDto ticket = new TicketDto();
+        ticket.setId(UUID.randomUUID());
+        when(ticketService.fulfillOrder(event)).thenReturn(List.of(ticket));
+
+        paymentEventConsumer.onPaymentCompleted(event);
+        paymentEventConsumer.onPaymentCompleted(event);
+
+        ArgumentCaptor<TicketsGeneratedEvent> captor = ArgumentCaptor.forClass(TicketsGeneratedEvent.class);
+        verify(notificationServiceClient, times(2)).ticketsGenerated(captor.capture());
+        TicketsGeneratedEvent first = captor.getAllValues().get(0);
+        assertEquals(first.getId(), captor.getAllValues().get(1).getId());
+        assertEquals(List.of(ticket.getId()), first.getTicketIds());
+        assertEquals("buyer@example.com", first.getCustomerEmail());
+    }
+
+    @Test
+    void onPaymentCompleted_WithoutTickets_ShouldNotNotify() {
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        when(ticketService.fulfillOrder(event)).thenReturn(List.of());
+
+        paymentEventConsumer.onPaymentCompleted(event);
+
+        verifyNoInteractions(notificationServiceClient);
+    }
+
+    @Test
+    void onOrderExpired_ShouldReleaseReservation() {
+        OrderExpiredEvent event = new OrderExpiredEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(UUID.randomUUID());
+        event.setReservationId(UUID.randomUUID());
+
+        paymentEventConsumer.onOrderExpired(event);
+
+        verify(ticketTypeService).releaseReservation(event.getReservationId());
+        verifyNoInteractions(ticketService, notificationServiceClient);
+    }
+}
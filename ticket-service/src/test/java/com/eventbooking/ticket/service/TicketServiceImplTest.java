@@ -1,5 +1,6 @@
 package com.eventbooking.ticket.service;
 
+import com.eventbooking.common.dto.PaymentCompletedEvent;
 import com.eventbooking.ticket.dto.GenerateTicketsRequest;
 import com.eventbooking.ticket.dto.TicketDto;
 import com.eventbooking.ticket.entity.Ticket;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -126,6 +128,77 @@ class TicketServiceImplTest {
         );
     }
 
+    @Test
+    void fulfillOrder_ShouldOnlyGenerateTicketsTheOrderIsMissing() {
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(orderId);
+        event.getItems().add(new PaymentCompletedEvent.Item(ticketTypeId, 3, new BigDecimal("50.00")));
+
+        when(ticketTypeRepository.findByIdWithLock(ticketTypeId)).thenReturn(Optional.of(testTicketType));
+        when(ticketRepository.findByOrderId(orderId)).thenReturn(List.of(testTicket));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> {
+            Ticket ticket = invocation.getArgument(0);
+            if (ticket.getId() == null) {
+                ticket.setId(UUID.randomUUID());
+            }
+            return ticket;
+        });
+        when(qrCodeService.generateQRCode(anyString(), anyString())).thenReturn("base64qrcode");
+        when(ticketMapper.toDto(any(Ticket.class))).thenReturn(testTicketDto);
+
+        List<TicketDto> result = ticketService.fulfillOrder(event);
+
+        assertEquals(3, result.size());
+        verify(qrCodeService, times(2)).generateQRCode(anyString(), anyString());
+    }
+
+    @Test
+    void fulfillOrder_WhenAlreadyFulfilled_ShouldReturnExistingTickets() {
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(orderId);
+        event.getItems().add(new PaymentCompletedEvent.Item(ticketTypeId, 1, new BigDecimal("50.00")));
+
+        when(ticketTypeRepository.findByIdWithLock(ticketTypeId)).thenReturn(Optional.of(testTicketType));
+        when(ticketRepository.findByOrderId(orderId)).thenReturn(List.of(testTicket));
+        when(ticketMapper.toDto(testTicket)).thenReturn(testTicketDto);
+
+        List<TicketDto> result = ticketService.fulfillOrder(event);
+
+        assertEquals(List.of(testTicketDto), result);
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
+    @Test
+    void fulfillOrder_ShouldLockTicketTypesInIdOrderBeforeCountingIssuedTickets() {
+        UUID otherTicketTypeId = UUID.randomUUID();
+        TicketType otherTicketType = new TicketType();
+        otherTicketType.setId(otherTicketTypeId);
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(orderId);
+        event.getItems().add(new PaymentCompletedEvent.Item(ticketTypeId, 1, new BigDecimal("50.00")));
+        event.getItems().add(new PaymentCompletedEvent.Item(otherTicketTypeId, 1, new BigDecimal("80.00")));
+        Ticket otherTicket = new Ticket();
+        otherTicket.setTicketTypeId(otherTicketTypeId);
+
+        when(ticketTypeRepository.findByIdWithLock(ticketTypeId)).thenReturn(Optional.of(testTicketType));
+        when(ticketTypeRepository.findByIdWithLock(otherTicketTypeId)).thenReturn(Optional.of(otherTicketType));
+        when(ticketRepository.findByOrderId(orderId)).thenReturn(List.of(testTicket, otherTicket));
+        when(ticketMapper.toDto(any(Ticket.class))).thenReturn(testTicketDto);
+
+        ticketService.fulfillOrder(event);
+
+        UUID first = ticketTypeId.compareTo(otherTicketTypeId) < 0 ? ticketTypeId : otherTicketTypeId;
+        UUID second = first.equals(ticketTypeId) ? otherTicketTypeId : ticketTypeId;
+        InOrder inOrder = inOrder(ticketTypeRepository, ticketRepository);
+        inOrder.verify(ticketTypeRepository).findByIdWithLock(first);
+        inOrder.verify(ticketTypeRepository).findByIdWithLock(second);
+        inOrder.verify(ticketRepository).findByOrderId(orderId);
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
     @Test
     void generateTickets_ShouldGenerateUniqueTicketNumbers() {
         GenerateTicketsRequest request = new GenerateTicketsRequest();
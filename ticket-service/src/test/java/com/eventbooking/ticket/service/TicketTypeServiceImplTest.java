@@ -1,5 +1,6 @@
 package com.eventbooking.ticket.service;
 
+import com.eventbooking.ticket.client.EventServiceClient;
 import com.eventbooking.ticket.dto.*;
 import com.eventbooking.ticket.entity.TicketReservation;
 import com.eventbooking.ticket.entity.TicketType;
@@ -42,6 +43,12 @@ class TicketTypeServiceImplTest {
     @Mock
     private InventoryService inventoryService;
 
+    @Mock
+    private EventServiceClient eventServiceClient;
+
+    @Mock
+    private EventPriceRangeSync priceRangeSync;
+
     @InjectMocks
     private TicketTypeServiceImpl ticketTypeService;
 
@@ -101,6 +108,7 @@ class TicketTypeServiceImplTest {
         assertEquals(ticketTypeId, result.getId());
         verify(ticketTypeRepository).save(any(TicketType.class));
         verify(inventoryService).syncInventoryFromDatabase(ticketTypeId);
+        verify(priceRangeSync).requestSync(eventId);
     }
 
     @Test
@@ -197,6 +205,7 @@ class TicketTypeServiceImplTest {
 
         verify(ticketTypeRepository).delete(testTicketType);
         verify(inventoryService).clearInventoryCache(ticketTypeId);
+        verify(priceRangeSync).requestSync(eventId);
     }
 
     @Test
@@ -235,6 +244,7 @@ class TicketTypeServiceImplTest {
         assertEquals(5, result.getQuantity());
         verify(inventoryService).reserveTickets(ticketTypeId, 5);
         verify(reservationRepository).save(any(TicketReservation.class));
+        verify(eventServiceClient).recordReservation(eventId, 5);
     }
 
     @Test
@@ -321,6 +331,41 @@ class TicketTypeServiceImplTest {
         );
     }
 
+    @Test
+    void releaseReservation_WithActiveReservation_ShouldReleaseInventory() {
+        UUID reservationId = UUID.randomUUID();
+        TicketReservation reservation = new TicketReservation();
+        reservation.setId(reservationId);
+        reservation.setTicketTypeId(ticketTypeId);
+        reservation.setQuantity(3);
+        reservation.setStatus(TicketReservation.ReservationStatus.ACTIVE);
+        testTicketType.setQuantityReserved(3);
+
+        when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+        when(ticketTypeRepository.findById(ticketTypeId)).thenReturn(Optional.of(testTicketType));
+
+        assertTrue(ticketTypeService.releaseReservation(reservationId));
+
+        verify(inventoryService).releaseReservation(ticketTypeId, 3);
+        assertEquals(TicketReservation.ReservationStatus.EXPIRED, reservation.getStatus());
+        assertEquals(0, testTicketType.getQuantityReserved());
+    }
+
+    @Test
+    void releaseReservation_WhenAlreadyReleased_ShouldDoNothing() {
+        UUID reservationId = UUID.randomUUID();
+        TicketReservation reservation = new TicketReservation();
+        reservation.setId(reservationId);
+        reservation.setStatus(TicketReservation.ReservationStatus.EXPIRED);
+
+        when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+
+        assertFalse(ticketTypeService.releaseReservation(reservationId));
+
+        verifyNoInteractions(inventoryService);
+        verify(reservationRepository, never()).save(any());
+    }
+
     // ========== Expired Reservation Cleanup Tests ==========
 
     @Test